@@ -0,0 +1,50 @@
+package io.github.blyznytsiaorg.bibernate.benchmarks;
+
+import io.github.blyznytsiaorg.bibernate.actionqueue.impl.DefaultActionQueue;
+import io.github.blyznytsiaorg.bibernate.benchmarks.entity.Employee;
+import io.github.blyznytsiaorg.bibernate.entity.metadata.EntityMetadataCollector;
+import io.github.blyznytsiaorg.bibernate.session.BibernateFirstLevelCacheSession;
+import io.github.blyznytsiaorg.bibernate.session.BibernateSession;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Creates first-level cache sessions on top of an in-memory session, so the session benchmarks measure the
+ * persistence context rather than a database.
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+final class BenchmarkSessions {
+
+    private BenchmarkSessions() {
+    }
+
+    /**
+     * Creates a session managing the given employees, loaded with one {@code findAll}. The underlying session
+     * finds nothing by id and ignores updates and flushes.
+     *
+     * @param employees                      the employees to manage
+     * @param parallelDirtyCheckingThreshold the parallel dirty checking threshold of the session
+     * @return the session
+     */
+    static BibernateFirstLevelCacheSession sessionManaging(List<Employee> employees,
+                                                           int parallelDirtyCheckingThreshold) {
+        var delegate = (BibernateSession) Proxy.newProxyInstance(BibernateSession.class.getClassLoader(),
+                new Class<?>[]{BibernateSession.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> new ArrayList<>(employees);
+                    case "findById" -> Optional.empty();
+                    case "isDefaultReadOnly" -> false;
+                    default -> null;
+                });
+        var entityMetadata = new EntityMetadataCollector(Employee.class.getPackageName()).collectMetadata();
+        var session = new BibernateFirstLevelCacheSession(delegate, new DefaultActionQueue(), 0,
+                parallelDirtyCheckingThreshold, 0, entityMetadata);
+        session.findAll(Employee.class);
+        return session;
+    }
+}
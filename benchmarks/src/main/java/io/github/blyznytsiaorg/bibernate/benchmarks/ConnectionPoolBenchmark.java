@@ -0,0 +1,158 @@
+package io.github.blyznytsiaorg.bibernate.benchmarks;
+
+import io.github.blyznytsiaorg.bibernate.connectionpool.BibernateDataSource;
+import io.github.blyznytsiaorg.bibernate.connectionpool.BibernateDatasSourceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acquire/release throughput of the connection pool at 1, 16 and 64 threads, compared with the
+ * {@link ConcurrentLinkedQueue} pool Bibernate had before the connection bag. Both pools hold 10 connections to an
+ * in-memory H2 database, so the numbers measure the pool itself rather than the network.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ConnectionPoolBenchmark
+ * </pre>
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class ConnectionPoolBenchmark {
+    private static final String JDBC_URL = "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1";
+    private static final int POOL_SIZE = 10;
+
+    @State(Scope.Benchmark)
+    public static class BagPool {
+        BibernateDataSource dataSource;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            dataSource = new BibernateDataSource(BibernateDatasSourceConfig.builder()
+                    .jdbcUrl(JDBC_URL)
+                    .username("sa")
+                    .password("")
+                    .maximumPoolSize(POOL_SIZE)
+                    .minIdle(POOL_SIZE)
+                    .build());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * The pool as it was before the connection bag: {@code getConnection()} polled a {@link ConcurrentLinkedQueue}
+     * and {@code close()} closed the statements of the connection and added it back to the queue. The old pool
+     * returned {@code null} when the queue was empty, so a caller here retries until a connection is returned.
+     */
+    @State(Scope.Benchmark)
+    public static class BaselinePool {
+        final Queue<Connection> connections = new ConcurrentLinkedQueue<>();
+        final List<Statement> statements = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            for (int i = 0; i < POOL_SIZE; i++) {
+                connections.add(DriverManager.getConnection(JDBC_URL, "sa", ""));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+
+        Connection getConnection() {
+            var connection = connections.poll();
+            while (connection == null) {
+                Thread.yield();
+                connection = connections.poll();
+            }
+            return connection;
+        }
+
+        void close(Connection connection) throws SQLException {
+            for (Statement statement : statements) {
+                statement.close();
+            }
+            connections.add(connection);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Connection bag1Thread(BagPool pool) throws SQLException {
+        return acquireAndRelease(pool);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Connection bag16Threads(BagPool pool) throws SQLException {
+        return acquireAndRelease(pool);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Connection bag64Threads(BagPool pool) throws SQLException {
+        return acquireAndRelease(pool);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Connection baseline1Thread(BaselinePool pool) throws SQLException {
+        return acquireAndRelease(pool);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Connection baseline16Threads(BaselinePool pool) throws SQLException {
+        return acquireAndRelease(pool);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Connection baseline64Threads(BaselinePool pool) throws SQLException {
+        return acquireAndRelease(pool);
+    }
+
+    private static Connection acquireAndRelease(BagPool pool) throws SQLException {
+        var connection = pool.dataSource.getConnection();
+        connection.close();
+        return connection;
+    }
+
+    private static Connection acquireAndRelease(BaselinePool pool) throws SQLException {
+        var connection = pool.getConnection();
+        pool.close(connection);
+        return connection;
+    }
+}
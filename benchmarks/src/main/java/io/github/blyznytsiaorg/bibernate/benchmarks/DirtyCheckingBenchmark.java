@@ -0,0 +1,67 @@
+package io.github.blyznytsiaorg.bibernate.benchmarks;
+
+import io.github.blyznytsiaorg.bibernate.benchmarks.entity.Employee;
+import io.github.blyznytsiaorg.bibernate.session.BibernateFirstLevelCacheSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Flush latency of a session managing many entities, one in a hundred of them changed, with sequential dirty
+ * checking ({@code parallelDirtyCheckingThreshold = 0}) and parallel dirty checking on the common ForkJoin pool.
+ * The gain of the parallel check depends on the number of cores, so compare both on the target machine.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar DirtyCheckingBenchmark
+ * </pre>
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DirtyCheckingBenchmark {
+    private static final int CHANGED_EVERY = 100;
+
+    @Param({"10000", "50000"})
+    int managedEntities;
+
+    @Param({"0", "1000"})
+    int parallelDirtyCheckingThreshold;
+
+    private List<Employee> employees;
+    private BibernateFirstLevelCacheSession session;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employees = LongStream.rangeClosed(1, managedEntities).mapToObj(Employee::new).toList();
+        session = BenchmarkSessions.sessionManaging(employees, parallelDirtyCheckingThreshold);
+    }
+
+    @Benchmark
+    public void flush() {
+        round++;
+        for (int i = round % CHANGED_EVERY; i < employees.size(); i += CHANGED_EVERY) {
+            var employee = employees.get(i);
+            employee.setSalary(employee.getSalary() + 1);
+        }
+        session.flush();
+    }
+}
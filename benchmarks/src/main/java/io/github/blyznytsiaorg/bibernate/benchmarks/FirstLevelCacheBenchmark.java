@@ -0,0 +1,99 @@
+package io.github.blyznytsiaorg.bibernate.benchmarks;
+
+import io.github.blyznytsiaorg.bibernate.benchmarks.entity.Employee;
+import io.github.blyznytsiaorg.bibernate.entity.EntityKey;
+import io.github.blyznytsiaorg.bibernate.entity.FirstLevelCache;
+import io.github.blyznytsiaorg.bibernate.session.BibernateFirstLevelCacheSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.castIdToEntityId;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.columnIdType;
+
+/**
+ * Repeated {@code findById} cache hits on a persistence context of 10 000 entities: through the session, through
+ * the per-class primitive-keyed {@link FirstLevelCache}, and through the {@code HashMap<EntityKey<?>, Object>} it
+ * replaced, which resolved the id type and allocated a key on every lookup. Run with {@code -prof gc} to see the
+ * allocations per lookup.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar FirstLevelCacheBenchmark -prof gc
+ * </pre>
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FirstLevelCacheBenchmark {
+    private static final int MANAGED_ENTITIES = 10_000;
+
+    private BibernateFirstLevelCacheSession session;
+    private FirstLevelCache firstLevelCache;
+    private Map<EntityKey<?>, Object> hashMapCache;
+    private Long[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Employee> employees = LongStream.rangeClosed(1, MANAGED_ENTITIES).mapToObj(Employee::new).toList();
+        session = BenchmarkSessions.sessionManaging(employees, 0);
+        firstLevelCache = new FirstLevelCache();
+        hashMapCache = new HashMap<>();
+        ids = new Long[MANAGED_ENTITIES];
+        for (int i = 0; i < MANAGED_ENTITIES; i++) {
+            var employee = employees.get(i);
+            var entityKey = new EntityKey<>(Employee.class, employee.getId(), Long.class);
+            firstLevelCache.put(entityKey, employee, null);
+            hashMapCache.put(entityKey, employee);
+            ids[i] = employee.getId();
+        }
+    }
+
+    @Benchmark
+    public Optional<Employee> sessionFindById() {
+        return session.findById(Employee.class, nextId());
+    }
+
+    @Benchmark
+    public Object firstLevelCacheGet() {
+        return firstLevelCache.get(Employee.class, nextId());
+    }
+
+    /**
+     * The lookup as it was before the per-class maps: resolve the id type, convert the id, allocate a key and
+     * look it up in a single hash map.
+     */
+    @Benchmark
+    public Object hashMapGet() {
+        Class<?> entityClass = Employee.class;
+        var fieldIdType = columnIdType(entityClass);
+        var primaryKey = castIdToEntityId(entityClass, nextId());
+        return hashMapCache.get(new EntityKey<>(entityClass, primaryKey, fieldIdType));
+    }
+
+    private Long nextId() {
+        var id = ids[next];
+        next = next + 1 == ids.length ? 0 : next + 1;
+        return id;
+    }
+}
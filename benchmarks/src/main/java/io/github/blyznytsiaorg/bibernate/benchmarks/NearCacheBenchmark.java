@@ -0,0 +1,121 @@
+package io.github.blyznytsiaorg.bibernate.benchmarks;
+
+import io.github.blyznytsiaorg.bibernate.benchmarks.entity.Country;
+import io.github.blyznytsiaorg.bibernate.cache.DistributedSet;
+import io.github.blyznytsiaorg.bibernate.cache.InvalidationChannel;
+import io.github.blyznytsiaorg.bibernate.cache.NearCache;
+import io.github.blyznytsiaorg.bibernate.cache.impl.NearCacheDistributedSet;
+import io.github.blyznytsiaorg.bibernate.cache.utils.SerializationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cost of reading an immutable entity from the second-level cache, as a near-cache hit compared with a hit in the
+ * distributed cache. Both deserialize the stored bytes on every read. The distributed cache is an in-memory
+ * stand-in storing the Kryo-serialized entities, so the Redis round trip it saves comes on top of the measured time.
+ * {@code nearCacheRefill} measures a read right after an invalidation, which fetches and stamps the entity again.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar NearCacheBenchmark -prof gc
+ * </pre>
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NearCacheBenchmark {
+    private static final int CACHED_ENTITIES = 10_000;
+
+    private String[] cacheKeys;
+    private NearCache nearCache;
+    private SerializingDistributedSet distributedSet;
+    private NearCacheDistributedSet nearCacheDistributedSet;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cacheKeys = new String[CACHED_ENTITIES];
+        nearCache = new NearCache(CACHED_ENTITIES * 2, 0);
+        distributedSet = new SerializingDistributedSet();
+        nearCacheDistributedSet = new NearCacheDistributedSet(distributedSet, nearCache, new NoOpInvalidationChannel());
+        for (int i = 0; i < CACHED_ENTITIES; i++) {
+            cacheKeys[i] = Country.class.getName() + "_" + i;
+            nearCacheDistributedSet.add(Country.class, cacheKeys[i], new Country((long) i));
+        }
+    }
+
+    @Benchmark
+    public Optional<Country> nearCacheHit() {
+        return nearCacheDistributedSet.get(Country.class, nextCacheKey());
+    }
+
+    @Benchmark
+    public Optional<Country> distributedCacheHit() {
+        return distributedSet.get(Country.class, nextCacheKey());
+    }
+
+    @Benchmark
+    public Optional<Country> nearCacheRefill() {
+        var cacheKey = nextCacheKey();
+        nearCache.invalidate(cacheKey);
+        return nearCacheDistributedSet.get(Country.class, cacheKey);
+    }
+
+    private String nextCacheKey() {
+        next = next + 1 == CACHED_ENTITIES ? 0 : next + 1;
+        return cacheKeys[next];
+    }
+
+    /**
+     * Distributed cache stand-in keeping the serialized entities in memory, like the values stored in Redis.
+     */
+    private static class SerializingDistributedSet implements DistributedSet {
+        private final Map<String, byte[]> values = new HashMap<>();
+
+        @Override
+        public <T> void add(Class<T> entityClass, String cacheKey, T entity) {
+            values.put(cacheKey, SerializationUtils.serialize(entityClass, entity));
+        }
+
+        @Override
+        public <T> Optional<T> get(Class<T> entityClass, String cacheKey) {
+            var value = values.get(cacheKey);
+            return value == null ? Optional.empty() : SerializationUtils.deserialize(entityClass, value);
+        }
+
+        @Override
+        public <T> void remove(Class<T> entityClass, String cacheKey) {
+            values.remove(cacheKey);
+        }
+    }
+
+    private static class NoOpInvalidationChannel implements InvalidationChannel {
+
+        @Override
+        public void publish(String cacheKey) {
+        }
+
+        @Override
+        public void subscribe(Consumer<String> listener) {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.blyznytsiaorg.bibernate.benchmarks;
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import io.github.blyznytsiaorg.bibernate.benchmarks.entity.Country;
+import io.github.blyznytsiaorg.bibernate.benchmarks.entity.Employee;
+import io.github.blyznytsiaorg.bibernate.cache.utils.SerializationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of serializing an entity for the second-level cache and reading it back, with the pooled, pre-registered
+ * Kryo instances of {@link SerializationUtils} compared with a new Kryo instance and output buffer per call, as
+ * before the pool. Run with {@code -prof gc} to compare the bytes allocated per call.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar SerializationBenchmark -prof gc
+ * </pre>
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private static final int BUFFER_SIZE = 4096;
+
+    private Employee employee;
+    private byte[] serializedEmployee;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SerializationUtils.registerEntityClasses(List.of(Employee.class, Country.class));
+        employee = new Employee(42L);
+        serializedEmployee = SerializationUtils.serialize(Employee.class, employee);
+    }
+
+    @Benchmark
+    public byte[] serializePooled() {
+        return SerializationUtils.serialize(Employee.class, employee);
+    }
+
+    @Benchmark
+    public Optional<Employee> deserializePooled() {
+        return SerializationUtils.deserialize(Employee.class, serializedEmployee);
+    }
+
+    @Benchmark
+    public byte[] serializeNewKryo() {
+        var kryo = newKryo();
+        try (var output = new Output(BUFFER_SIZE, -1)) {
+            kryo.writeObject(output, employee);
+            return output.toBytes();
+        }
+    }
+
+    @Benchmark
+    public Employee deserializeNewKryo() {
+        var kryo = newKryo();
+        try (var input = new Input(serializedEmployee)) {
+            return kryo.readObject(input, Employee.class);
+        }
+    }
+
+    private static Kryo newKryo() {
+        var kryo = new Kryo();
+        kryo.register(Employee.class, SerializationUtils.registrationId(Employee.class));
+        return kryo;
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.blyznytsiaorg.bibernate.benchmarks;
+
+import io.github.blyznytsiaorg.bibernate.entity.ColumnSnapshot;
+import io.github.blyznytsiaorg.bibernate.entity.EntitySnapshot;
+import io.github.blyznytsiaorg.bibernate.entity.SnapshotLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.columnName;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.getDifference;
+
+/**
+ * Cost of taking a snapshot of a managed entity and of dirty checking it, with the array-based
+ * {@link SnapshotLayout} compared with the {@code List<ColumnSnapshot>} snapshots it replaced. The dirty checks
+ * run over a persistence context of 10 000 entities, one in ten of them changed. Run with {@code -prof gc} to
+ * compare the bytes allocated per snapshot.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar SnapshotBenchmark -prof gc
+ * </pre>
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+    private static final int MANAGED_ENTITIES = 10_000;
+    private static final int CHANGED_EVERY = 10;
+
+    private SnapshotLayout layout;
+    private Field[] fields;
+    private Employee[] employees;
+    private EntitySnapshot[] snapshots;
+    private List<List<ColumnSnapshot>> listSnapshots;
+
+    public static class Employee {
+        long id;
+        String firstName;
+        String lastName;
+        String email;
+        int age;
+        double salary;
+        boolean active;
+        Long departmentId;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fields = Employee.class.getDeclaredFields();
+        layout = new SnapshotLayout(Arrays.asList(fields));
+        employees = new Employee[MANAGED_ENTITIES];
+        snapshots = new EntitySnapshot[MANAGED_ENTITIES];
+        listSnapshots = new ArrayList<>(MANAGED_ENTITIES);
+        for (int i = 0; i < MANAGED_ENTITIES; i++) {
+            var employee = new Employee();
+            employee.id = i;
+            employee.firstName = "First" + i;
+            employee.lastName = "Last" + i;
+            employee.email = "employee" + i + "@example.com";
+            employee.age = 20 + i % 40;
+            employee.salary = 1000.0 + i;
+            employee.active = i % 2 == 0;
+            employee.departmentId = (long) (i % 16);
+            employees[i] = employee;
+            snapshots[i] = layout.snapshot(employee);
+            listSnapshots.add(listSnapshot(employee));
+        }
+        for (int i = 0; i < MANAGED_ENTITIES; i += CHANGED_EVERY) {
+            employees[i].lastName = "Changed" + i;
+            employees[i].salary += 1;
+        }
+    }
+
+    @Benchmark
+    public EntitySnapshot snapshotArrayLayout() {
+        return layout.snapshot(employees[1]);
+    }
+
+    @Benchmark
+    public List<ColumnSnapshot> snapshotColumnList() {
+        return listSnapshot(employees[1]);
+    }
+
+    @Benchmark
+    public int dirtyCheckArrayLayout() {
+        var changed = 0;
+        for (int i = 0; i < MANAGED_ENTITIES; i++) {
+            changed += layout.diff(employees[i], snapshots[i]).size();
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public int dirtyCheckColumnList() {
+        var changed = 0;
+        for (int i = 0; i < MANAGED_ENTITIES; i++) {
+            changed += getDifference(listSnapshot(employees[i]), listSnapshots.get(i)).size();
+        }
+        return changed;
+    }
+
+    /**
+     * The snapshot as it was before {@link SnapshotLayout}: a record holding the column name, value and type of
+     * every field, and a second full snapshot of the entity to diff against it.
+     */
+    private List<ColumnSnapshot> listSnapshot(Employee employee) {
+        var snapshot = new ArrayList<ColumnSnapshot>(fields.length);
+        for (var field : fields) {
+            try {
+                snapshot.add(new ColumnSnapshot(columnName(field), field.get(employee), field.getType()));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return snapshot;
+    }
+}
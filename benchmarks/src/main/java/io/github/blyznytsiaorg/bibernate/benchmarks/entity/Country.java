@@ -0,0 +1,49 @@
+package io.github.blyznytsiaorg.bibernate.benchmarks.entity;
+
+import io.github.blyznytsiaorg.bibernate.annotation.Column;
+import io.github.blyznytsiaorg.bibernate.annotation.Entity;
+import io.github.blyznytsiaorg.bibernate.annotation.Id;
+import io.github.blyznytsiaorg.bibernate.annotation.Immutable;
+import io.github.blyznytsiaorg.bibernate.annotation.Table;
+
+/**
+ * Immutable entity read by the near-cache benchmark.
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@Entity
+@Immutable
+@Table(name = "countries")
+public class Country {
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "code")
+    private String code;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "currency")
+    private String currency;
+
+    @Column(name = "population")
+    private long population;
+
+    public Country() {
+    }
+
+    public Country(Long id) {
+        this.id = id;
+        this.code = "C" + id;
+        this.name = "Country " + id;
+        this.currency = "CUR" + id % 100;
+        this.population = 1_000_000L + id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
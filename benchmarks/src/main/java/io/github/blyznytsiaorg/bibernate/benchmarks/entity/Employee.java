@@ -0,0 +1,67 @@
+package io.github.blyznytsiaorg.bibernate.benchmarks.entity;
+
+import io.github.blyznytsiaorg.bibernate.annotation.Column;
+import io.github.blyznytsiaorg.bibernate.annotation.Entity;
+import io.github.blyznytsiaorg.bibernate.annotation.Id;
+import io.github.blyznytsiaorg.bibernate.annotation.Table;
+
+/**
+ * Entity managed by the session benchmarks.
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@Entity
+@Table(name = "employees")
+public class Employee {
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "last_name")
+    private String lastName;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "age")
+    private int age;
+
+    @Column(name = "salary")
+    private double salary;
+
+    @Column(name = "active")
+    private boolean active;
+
+    public Employee() {
+    }
+
+    public Employee(Long id) {
+        this.id = id;
+        this.firstName = "First" + id;
+        this.lastName = "Last" + id;
+        this.email = "employee" + id + "@example.com";
+        this.age = (int) (20 + id % 40);
+        this.salary = 1000.0 + id;
+        this.active = id % 2 == 0;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public void setSalary(double salary) {
+        this.salary = salary;
+    }
+
+    public double getSalary() {
+        return salary;
+    }
+}
@@ -30,15 +30,11 @@ public class BibernateEntityManagerFactory implements EntityManagerFactory {
     private final SimpleRepositoryInvocationHandler simpleRepositoryInvocationHandler;
 
     /**
-     * Closes the underlying resources associated with the EntityManagerFactory, such as the data source.
+     * Closes the underlying resources associated with the EntityManagerFactory, such as the data sources.
      */
     @Override
     public void close() {
-        var dataSource = bibernateSettings.getDataSource();
-        if (dataSource != null) {
-            log.trace("Close dataSource...");
-            dataSource.close();
-        }
+        bibernateSettings.closeDataSources();
     }
 
     /**
@@ -49,6 +45,7 @@ public class BibernateEntityManagerFactory implements EntityManagerFactory {
     public BibernateSessionFactory getBibernateSessionFactory() {
         var bibernateSessionFactory = new BibernateSessionFactory(bibernateSettings, simpleRepositoryInvocationHandler);
         BibernateContextHolder.setBibernateSessionFactory(bibernateSessionFactory);
+        simpleRepositoryInvocationHandler.bindSessionFactory(bibernateSessionFactory);
         return bibernateSessionFactory;
     }
 }
@@ -5,6 +5,7 @@ import static io.github.blyznytsiaorg.bibernate.session.BibernateContextHolder.s
 import static java.util.Objects.requireNonNull;
 
 import io.github.blyznytsiaorg.bibernate.cache.RedisConfiguration;
+import io.github.blyznytsiaorg.bibernate.cache.utils.SerializationUtils;
 import io.github.blyznytsiaorg.bibernate.config.BibernateConfiguration;
 import io.github.blyznytsiaorg.bibernate.config.BibernateDatabaseSettings;
 import io.github.blyznytsiaorg.bibernate.config.DDLConfiguration;
@@ -93,6 +94,8 @@ public class Persistent {
         var entityMetadataCollector = new EntityMetadataCollector(entitiesPackageName);
         var classEntityMetadataMap = entityMetadataCollector.collectMetadata();
         setBibernateEntityMetadata(classEntityMetadataMap);
+        bibernateDatabaseSettings.setBibernateEntityMetadata(classEntityMetadataMap);
+        SerializationUtils.registerEntityClasses(classEntityMetadataMap.keySet());
 
         enableFlyway();
         processDDLConfiguration();
@@ -124,6 +127,8 @@ public class Persistent {
         var entityMetadataCollector = new EntityMetadataCollector(entitiesPackageName);
         var classEntityMetadataMap = entityMetadataCollector.collectMetadata();
         setBibernateEntityMetadata(classEntityMetadataMap);
+        bibernateDatabaseSettings.setBibernateEntityMetadata(classEntityMetadataMap);
+        SerializationUtils.registerEntityClasses(classEntityMetadataMap.keySet());
 
         enableFlyway();
         processDDLConfiguration();
@@ -1,5 +1,7 @@
 package io.github.blyznytsiaorg.bibernate.actionqueue;
 
+import java.util.function.Predicate;
+
 /**
  * Represents an action queue for executing entity-related actions. Implementations of this interface
  * handle the execution and addition of entity actions, allowing for organized and sequential processing
@@ -30,4 +32,37 @@ public interface ActionQueue {
      * @return true if the action queue is set to not execute actions, false otherwise.
      */
     boolean isNotExecuted();
+
+    /**
+     * Checks if the action queue holds no pending entity actions.
+     *
+     * @return true if there is nothing to execute, false otherwise.
+     */
+    boolean isEmpty();
+
+    /**
+     * Checks if the action queue holds a pending entity action for an entity class matching the predicate.
+     *
+     * @param entityClassPredicate The predicate tested against the entity class of every pending action.
+     * @return true if at least one pending action matches, false otherwise.
+     */
+    boolean containsAny(Predicate<Class<?>> entityClassPredicate);
+
+    /**
+     * Discards all pending entity actions without executing them.
+     */
+    void clear();
+
+    /**
+     * Checks if the pending INSERT actions reached the configured limit of entities or estimated bytes,
+     * so they should be executed before more entities are queued.
+     *
+     * @return true if a limit is configured and reached, false otherwise.
+     */
+    boolean isInsertLimitReached();
+
+    /**
+     * Executes only the pending INSERT actions, leaving UPDATE and DELETE actions queued.
+     */
+    void executeInsertEntityActions();
 }
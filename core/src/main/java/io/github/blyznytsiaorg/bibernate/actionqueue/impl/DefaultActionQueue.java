@@ -3,12 +3,18 @@ package io.github.blyznytsiaorg.bibernate.actionqueue.impl;
 import io.github.blyznytsiaorg.bibernate.actionqueue.ActionQueue;
 import io.github.blyznytsiaorg.bibernate.actionqueue.ActionType;
 import io.github.blyznytsiaorg.bibernate.actionqueue.EntityAction;
+import io.github.blyznytsiaorg.bibernate.annotation.JoinColumn;
+import io.github.blyznytsiaorg.bibernate.annotation.ManyToOne;
+import io.github.blyznytsiaorg.bibernate.annotation.OneToOne;
 import io.github.blyznytsiaorg.bibernate.exception.BibernateGeneralException;
 import io.github.blyznytsiaorg.bibernate.exception.UnsupportedActionTypeException;
 import io.github.blyznytsiaorg.bibernate.utils.CollectionUtils;
+import io.github.blyznytsiaorg.bibernate.utils.EntitySizeUtils;
 
+import java.lang.reflect.Field;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static io.github.blyznytsiaorg.bibernate.actionqueue.ActionType.*;
 import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.ExceptionMessage.UNSUPPORTED_ACTION_TYPE;
@@ -17,6 +23,12 @@ import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.ExceptionMess
  * Default implementation of the {@link io.github.blyznytsiaorg.bibernate.actionqueue.ActionQueue} interface.
  * Manages and executes entity actions categorized by their types, including insert, update, and delete operations.
  * This class ensures proper handling of interdependencies between different types of actions during execution.
+ * INSERT actions are executed in dependency order: entities referenced through an owning {@code @ManyToOne} or
+ * {@code @OneToOne} association are inserted before the entities referencing them.
+ * <p>
+ * The queue can be bounded by the number of pending inserted entities and by an estimate of the bytes they occupy.
+ * Once a limit is reached, {@link #isInsertLimitReached()} tells the session to execute the pending inserts early,
+ * so a session saving a large number of entities keeps a bounded number of them in memory.
  *
  * @author Blyzhnytsia Team
  * @since 1.0
@@ -28,6 +40,31 @@ public class DefaultActionQueue implements ActionQueue {
      */
     private final Map<ActionType, Set<EntityAction>> entityActions = new HashMap<>();
 
+    /**
+     * The entity classes referenced by each entity class through an owning to-one association.
+     */
+    private static final ClassValue<List<Class<?>>> REFERENCED_ENTITY_CLASSES = new ClassValue<>() {
+        @Override
+        protected List<Class<?>> computeValue(Class<?> entityClass) {
+            return Arrays.stream(entityClass.getDeclaredFields())
+                    .filter(DefaultActionQueue::isOwningToOneAssociation)
+                    .<Class<?>>map(Field::getType)
+                    .toList();
+        }
+    };
+
+    /**
+     * Maximum number of pending inserted entities, 0 or less for no limit.
+     */
+    private final int maxPendingEntities;
+
+    /**
+     * Maximum estimated bytes of pending inserted entities, 0 or less for no limit.
+     */
+    private final long maxPendingBytes;
+    private long pendingInsertEntities;
+    private long pendingInsertBytes;
+
     /**
      * Flag indicating whether the action queue has been executed.
      * When 'true', it signifies that the action queue should not perform any
@@ -35,6 +72,24 @@ public class DefaultActionQueue implements ActionQueue {
      */
     private boolean isExecuted;
 
+    /**
+     * Constructs an unbounded action queue.
+     */
+    public DefaultActionQueue() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs an action queue bounded by the number and the estimated size of pending inserted entities.
+     *
+     * @param maxPendingEntities maximum number of pending inserted entities, 0 or less for no limit
+     * @param maxPendingBytes    maximum estimated bytes of pending inserted entities, 0 or less for no limit
+     */
+    public DefaultActionQueue(int maxPendingEntities, long maxPendingBytes) {
+        this.maxPendingEntities = maxPendingEntities;
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
     /**
      * Executes entity actions in the order of INSERT, UPDATE, and DELETE types.
      * Clears the entity actions map after execution.
@@ -48,10 +103,39 @@ public class DefaultActionQueue implements ActionQueue {
             executeIfNotEmpty(this::executeDeleteEntityAction, entityActions.get(DELETE));
 
             entityActions.clear();
+            resetPendingInserts();
             isExecuted = false;
         }
     }
 
+    /**
+     * Executes only the pending INSERT actions, in dependency order, leaving UPDATE and DELETE actions queued.
+     */
+    @Override
+    public void executeInsertEntityActions() {
+        if (isNotExecuted()) {
+            isExecuted = true;
+            try {
+                executeIfNotEmpty(this::executeInsertEntityAction, entityActions.get(INSERT));
+            } finally {
+                Optional.ofNullable(entityActions.get(INSERT)).ifPresent(Set::clear);
+                resetPendingInserts();
+                isExecuted = false;
+            }
+        }
+    }
+
+    /**
+     * Checks if the pending INSERT actions reached the configured limit of entities or estimated bytes.
+     *
+     * @return true if a limit is configured and reached, false otherwise.
+     */
+    @Override
+    public boolean isInsertLimitReached() {
+        return (maxPendingEntities > 0 && pendingInsertEntities >= maxPendingEntities)
+                || (maxPendingBytes > 0 && pendingInsertBytes >= maxPendingBytes);
+    }
+
     /**
      * Adds an entity action to the corresponding type category in the entity actions map.
      *
@@ -81,6 +165,43 @@ public class DefaultActionQueue implements ActionQueue {
         return !isExecuted;
     }
 
+    /**
+     * Checks if the action queue holds no pending entity actions.
+     *
+     * @return true if there is nothing to execute, false otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        return entityActions.values().stream().allMatch(Set::isEmpty);
+    }
+
+    /**
+     * Checks if the action queue holds a pending entity action for an entity class matching the predicate.
+     *
+     * @param entityClassPredicate The predicate tested against the entity class of every pending action.
+     * @return true if at least one pending action matches, false otherwise.
+     */
+    @Override
+    public boolean containsAny(Predicate<Class<?>> entityClassPredicate) {
+        for (var actions : entityActions.values()) {
+            for (var entityAction : actions) {
+                if (entityClassPredicate.test(entityAction.getEntityClass())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Discards all pending entity actions without executing them.
+     */
+    @Override
+    public void clear() {
+        entityActions.values().forEach(Set::clear);
+        resetPendingInserts();
+    }
+
     /**
      * Initializes the entity actions map to ensure each type category has an associated set.
      */
@@ -109,6 +230,7 @@ public class DefaultActionQueue implements ActionQueue {
                         .removeIf(insertEntity -> insertEntity.equals(deleteEntity)));
 
         entityActions.get(INSERT).add(insertEntityAction);
+        insertEntityAction.getEntities().forEach(entity -> countPendingInsert(entity, 1));
     }
 
     /**
@@ -143,7 +265,13 @@ public class DefaultActionQueue implements ActionQueue {
         entityActions.get(INSERT).stream()
                 .filter(insertAction -> insertAction.getEntityClass().equals(deleteEntityAction.getEntityClass()))
                 .forEach(insertAction -> insertAction.getEntities()
-                        .removeIf(insertEntity -> deleteEntityAction.getEntities().contains(insertEntity)));
+                        .removeIf(insertEntity -> {
+                            if (deleteEntityAction.getEntities().contains(insertEntity)) {
+                                countPendingInsert(insertEntity, -1);
+                                return true;
+                            }
+                            return false;
+                        }));
 
         entityActions.get(UPDATE).stream()
                 .filter(updateAction -> updateAction.getEntityClass().equals(deleteEntityAction.getEntityClass()))
@@ -159,7 +287,65 @@ public class DefaultActionQueue implements ActionQueue {
      * @param insertEntityActions The set of INSERT type entity actions to be executed.
      */
     private void executeInsertEntityAction(Set<EntityAction> insertEntityActions) {
-        insertEntityActions.forEach(EntityAction::execute);
+        inDependencyOrder(insertEntityActions).forEach(EntityAction::execute);
+    }
+
+    /**
+     * Orders INSERT type entity actions so the entity classes referenced by other pending entity classes come first.
+     * Actions of unrelated classes keep the order they were queued in.
+     *
+     * @param insertEntityActions The set of INSERT type entity actions.
+     * @return The actions in dependency order.
+     */
+    private Collection<EntityAction> inDependencyOrder(Set<EntityAction> insertEntityActions) {
+        var entityClasses = new LinkedHashSet<Class<?>>();
+        insertEntityActions.forEach(insertAction -> entityClasses.add(insertAction.getEntityClass()));
+        if (entityClasses.size() < 2) {
+            return insertEntityActions;
+        }
+
+        var ranks = new HashMap<Class<?>, Integer>();
+        entityClasses.forEach(entityClass -> rank(entityClass, entityClasses, ranks, new HashSet<>()));
+
+        var orderedActions = new ArrayList<>(insertEntityActions);
+        orderedActions.sort(Comparator.comparing(insertAction -> ranks.get(insertAction.getEntityClass())));
+        return orderedActions;
+    }
+
+    private void rank(Class<?> entityClass, Set<Class<?>> entityClasses, Map<Class<?>, Integer> ranks,
+                      Set<Class<?>> visiting) {
+        if (ranks.containsKey(entityClass) || !visiting.add(entityClass)) {
+            return;
+        }
+        for (var referencedClass : REFERENCED_ENTITY_CLASSES.get(entityClass)) {
+            if (entityClasses.contains(referencedClass)) {
+                rank(referencedClass, entityClasses, ranks, visiting);
+            }
+        }
+        ranks.put(entityClass, ranks.size());
+    }
+
+    private static boolean isOwningToOneAssociation(Field field) {
+        return field.isAnnotationPresent(ManyToOne.class)
+                || (field.isAnnotationPresent(OneToOne.class) && field.isAnnotationPresent(JoinColumn.class));
+    }
+
+    /**
+     * Adds an entity to, or removes it from, the pending insert counters.
+     *
+     * @param entity The inserted entity.
+     * @param sign   1 when the entity is queued, -1 when it is removed from the queue.
+     */
+    private void countPendingInsert(Object entity, int sign) {
+        pendingInsertEntities += sign;
+        if (maxPendingBytes > 0) {
+            pendingInsertBytes += sign * EntitySizeUtils.estimateSize(entity);
+        }
+    }
+
+    private void resetPendingInserts() {
+        pendingInsertEntities = 0;
+        pendingInsertBytes = 0;
     }
 
     /**
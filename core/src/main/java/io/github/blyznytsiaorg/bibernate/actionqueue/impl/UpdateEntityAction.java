@@ -51,7 +51,7 @@ public class UpdateEntityAction implements EntityAction {
      */
     @Override
     public void execute() {
-        entities.forEach(entity -> bibernateSession.getDao().update(entityClass, entity, diff));
+        entities.forEach(entity -> bibernateSession.update(entityClass, entity, diff));
     }
 
     /**
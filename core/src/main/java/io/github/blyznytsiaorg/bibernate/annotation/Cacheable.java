@@ -0,0 +1,42 @@
+package io.github.blyznytsiaorg.bibernate.annotation;
+
+import io.github.blyznytsiaorg.bibernate.annotation.enumeration.CacheConcurrencyStrategy;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that the annotated entity is stored in the second-level cache even though its state can change.
+ * Changes made through a session are applied to the cache only after the transaction commits, so other sessions
+ * never read uncommitted state. If the entity has a {@link Version} field, an entity is never replaced in the cache
+ * by an older version of it.
+ *
+ * Example usage:
+ *
+ * {@code
+ * @Entity
+ * @Cacheable(strategy = CacheConcurrencyStrategy.NONSTRICT)
+ * public class Product {
+ *     @Id
+ *     private Long id;
+ *     private String name;
+ *     @Version
+ *     private Integer version;
+ * }
+ * }
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cacheable {
+    /**
+     * Specifies how the cached entity is kept in sync with the database.
+     *
+     * @return the cache concurrency strategy
+     */
+    CacheConcurrencyStrategy strategy() default CacheConcurrencyStrategy.READ_WRITE;
+}
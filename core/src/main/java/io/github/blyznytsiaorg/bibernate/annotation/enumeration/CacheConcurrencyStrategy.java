@@ -0,0 +1,23 @@
+package io.github.blyznytsiaorg.bibernate.annotation.enumeration;
+
+/**
+ * Enumeration representing how the second-level cache keeps a {@code @Cacheable} entity in sync with the database.
+ * <p>
+ * This enumeration specifies two strategies:
+ * <ul>
+ *     <li>{@link CacheConcurrencyStrategy#READ_WRITE}: The cached entity is removed as soon as it is changed
+ *     and the committed state is written to the cache after the transaction commits.</li>
+ *     <li>{@link CacheConcurrencyStrategy#NONSTRICT}: The cached entity is only removed after the transaction
+ *     commits, so other sessions may read the previous state until then.</li>
+ * </ul>
+ */
+public enum CacheConcurrencyStrategy {
+    /**
+     * Removes the cached entity when it is changed and writes the committed state to the cache after commit.
+     */
+    READ_WRITE,
+    /**
+     * Removes the cached entity after commit, the next read loads it from the database again.
+     */
+    NONSTRICT
+}
@@ -1,10 +1,18 @@
 package io.github.blyznytsiaorg.bibernate.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.ToLongFunction;
 
 /**
  * Interface representing a distributed set for caching entities.
  * Provides methods for adding entities to the set and retrieving them.
+ * <p>
+ * The default conditional adds {@link #addIfNewer(Class, String, Object, ToLongFunction)} and
+ * {@link #addAllIfAbsent(Class, Map)} are separate reads and writes, and the default {@link #lock(Class, String)}
+ * only removes the entity. Implementations shared by several nodes override them with atomic operations.
  *
  *  @author Blyzhnytsia Team
  *  @since 1.0
@@ -29,4 +37,106 @@ public interface DistributedSet {
      * @return an Optional containing the retrieved entity, or empty if not found
      */
     <T> Optional<T> get(Class<T> entityClass, String cacheKey);
+
+    /**
+     * Adds several entities of the same class to the distributed set.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param entities    the entities to add by their cache keys
+     */
+    default <T> void addAll(Class<T> entityClass, Map<String, T> entities) {
+        entities.forEach((cacheKey, entity) -> add(entityClass, cacheKey, entity));
+    }
+
+    /**
+     * Retrieves several entities of the same class from the distributed set.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param cacheKeys   the cache keys associated with the entities
+     * @return the found entities by their cache keys, in the order of the cache keys
+     */
+    default <T> Map<String, T> getAll(Class<T> entityClass, Collection<String> cacheKeys) {
+        var entities = new LinkedHashMap<String, T>();
+        cacheKeys.forEach(cacheKey -> get(entityClass, cacheKey).ifPresent(entity -> entities.put(cacheKey, entity)));
+        return entities;
+    }
+
+    /**
+     * Removes an entity from the distributed set.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     */
+    <T> void remove(Class<T> entityClass, String cacheKey);
+
+    /**
+     * Removes several entities of the same class from the distributed set.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param cacheKeys   the cache keys associated with the entities
+     */
+    default <T> void removeAll(Class<T> entityClass, Collection<String> cacheKeys) {
+        cacheKeys.forEach(cacheKey -> remove(entityClass, cacheKey));
+    }
+
+    /**
+     * Adds an entity to the distributed set unless it already holds the same or a newer version of it.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     * @param entity      the entity to add
+     * @param version     reads the version of an entity
+     */
+    default <T> void addIfNewer(Class<T> entityClass, String cacheKey, T entity, ToLongFunction<? super T> version) {
+        var isCachedVersionNewer = get(entityClass, cacheKey)
+                .map(cached -> version.applyAsLong(cached) >= version.applyAsLong(entity))
+                .orElse(false);
+        if (!isCachedVersionNewer) {
+            add(entityClass, cacheKey, entity);
+        }
+    }
+
+    /**
+     * Adds entities loaded from the database to the distributed set, skipping the ones that are already cached
+     * or soft-locked by a transaction changing them.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param entities    the entities to add by their cache keys
+     */
+    default <T> void addAllIfAbsent(Class<T> entityClass, Map<String, T> entities) {
+        entities.forEach((cacheKey, entity) -> {
+            if (get(entityClass, cacheKey).isEmpty()) {
+                add(entityClass, cacheKey, entity);
+            }
+        });
+    }
+
+    /**
+     * Removes an entity from the distributed set and soft-locks its cache key until {@link #unlock(Class, String)}
+     * is called, so entities loaded from the database in the meantime are not added by
+     * {@link #addAllIfAbsent(Class, Map)}. Locks taken by several transactions are counted.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     */
+    default <T> void lock(Class<T> entityClass, String cacheKey) {
+        remove(entityClass, cacheKey);
+    }
+
+    /**
+     * Releases a soft-lock taken by {@link #lock(Class, String)}.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     */
+    default <T> void unlock(Class<T> entityClass, String cacheKey) {
+    }
 }
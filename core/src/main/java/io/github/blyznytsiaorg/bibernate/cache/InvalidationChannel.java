@@ -0,0 +1,51 @@
+package io.github.blyznytsiaorg.bibernate.cache;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Interface representing a channel that propagates cache invalidations between application nodes,
+ * so every node drops its local copy of an entity that was changed or deleted on another node.
+ *
+ *  @author Blyzhnytsia Team
+ *  @since 1.0
+ */
+public interface InvalidationChannel {
+    /**
+     * Publishes the invalidation of a cache key to all subscribed nodes.
+     *
+     * @param cacheKey the invalidated cache key
+     */
+    void publish(String cacheKey);
+
+    /**
+     * Publishes the invalidation of several cache keys to all subscribed nodes.
+     *
+     * @param cacheKeys the invalidated cache keys
+     */
+    default void publishAll(Collection<String> cacheKeys) {
+        cacheKeys.forEach(this::publish);
+    }
+
+    /**
+     * Subscribes a listener receiving every invalidated cache key, including the ones published by this node.
+     *
+     * @param listener the listener of invalidated cache keys
+     */
+    void subscribe(Consumer<String> listener);
+
+    /**
+     * Subscribes a listener notified whenever the subscription to the channel was (re-)established. Invalidations
+     * published while it was not subscribed are lost, so the listener should drop all local copies.
+     *
+     * @param listener the listener of (re-)established subscriptions
+     */
+    default void subscribeToReconnects(Runnable listener) {
+    }
+
+    /**
+     * Stops the subscription and releases its resources. Nothing is received after the channel is closed.
+     */
+    default void close() {
+    }
+}
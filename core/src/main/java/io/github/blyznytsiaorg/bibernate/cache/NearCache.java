@@ -0,0 +1,179 @@
+package io.github.blyznytsiaorg.bibernate.cache;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Bounded in-process cache tier checked before the distributed cache. It is a segmented LRU:
+ * new entries enter a probation segment and are promoted to a protected segment on their second hit.
+ * Entries are evicted from the probation segment first, so a burst of entries read only once
+ * does not push out the entries read over and over again.
+ * <p>
+ * The cache holds entities in their serialized form, so every reader deserializes its own copy. It can be bounded by
+ * the number of entries, by the bytes of the serialized entities, or both. The protected segment holds up to 80% of
+ * either bound. All methods are thread-safe.
+ * <p>
+ * Every invalidation advances a generation counter. A reader that fetched an entity from the distributed cache
+ * caches it with {@link #putIfNotInvalidated(String, byte[], long)}, passing the generation read before the fetch,
+ * so an invalidation that arrived in the meantime is not overwritten by the stale copy.
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public class NearCache {
+    private static final double PROTECTED_SHARE = 0.8;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final int maxProtectedEntries;
+    private final long maxProtectedBytes;
+    private final LinkedHashMap<String, Node> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Node> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long protectedBytes;
+    private long generation;
+
+    /**
+     * Constructs a near cache with the given bounds.
+     *
+     * @param maxEntries maximum number of cached entities, 0 or less for no limit
+     * @param maxBytes   maximum bytes of serialized entities, 0 or less for no limit
+     */
+    public NearCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.maxProtectedEntries = maxEntries > 0 ? Math.max(1, (int) (maxEntries * PROTECTED_SHARE)) : Integer.MAX_VALUE;
+        this.maxProtectedBytes = maxBytes > 0 ? (long) (maxBytes * PROTECTED_SHARE) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the serialized entity, promoting it to the protected segment on its second hit.
+     *
+     * @param cacheKey the cache key
+     * @return the serialized entity, or {@code null} if it is not cached
+     */
+    public synchronized byte[] get(String cacheKey) {
+        var node = protectedSegment.get(cacheKey);
+        if (node != null) {
+            return node.value();
+        }
+        node = probation.remove(cacheKey);
+        if (node == null) {
+            return null;
+        }
+        protectedSegment.put(cacheKey, node);
+        protectedBytes += node.size();
+        demoteProtectedOverflow();
+        return node.value();
+    }
+
+    /**
+     * Caches a serialized entity in the probation segment, evicting the least valuable entries above the bounds.
+     * An entity larger than the byte bound is not cached.
+     *
+     * @param cacheKey the cache key
+     * @param entity   the serialized entity
+     */
+    public synchronized void put(String cacheKey, byte[] entity) {
+        removeNode(cacheKey);
+        var node = new Node(entity, entity.length);
+        if (maxBytes > 0 && node.size() > maxBytes) {
+            return;
+        }
+        probation.put(cacheKey, node);
+        bytes += node.size();
+        evictOverflow();
+    }
+
+    /**
+     * Caches a serialized entity fetched from the distributed cache, unless an entity was invalidated or the cache
+     * was cleared since the given generation was read.
+     *
+     * @param cacheKey   the cache key
+     * @param entity     the serialized entity
+     * @param generation the generation returned by {@link #generation()} before the entity was fetched
+     * @return true if the entity was cached, false if it may be stale
+     */
+    public synchronized boolean putIfNotInvalidated(String cacheKey, byte[] entity, long generation) {
+        if (this.generation != generation) {
+            return false;
+        }
+        put(cacheKey, entity);
+        return true;
+    }
+
+    /**
+     * Returns the generation of the cache, advanced by every invalidation and clear.
+     *
+     * @return the current generation
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Removes an entity from the cache.
+     *
+     * @param cacheKey the cache key
+     */
+    public synchronized void invalidate(String cacheKey) {
+        generation++;
+        removeNode(cacheKey);
+    }
+
+    private void removeNode(String cacheKey) {
+        var node = probation.remove(cacheKey);
+        if (node == null) {
+            node = protectedSegment.remove(cacheKey);
+            if (node == null) {
+                return;
+            }
+            protectedBytes -= node.size();
+        }
+        bytes -= node.size();
+    }
+
+    /**
+     * Removes all entities from the cache.
+     */
+    public synchronized void clear() {
+        generation++;
+        probation.clear();
+        protectedSegment.clear();
+        bytes = 0;
+        protectedBytes = 0;
+    }
+
+    /**
+     * Returns the number of cached entities.
+     *
+     * @return the number of cached entities
+     */
+    public synchronized int size() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    private void demoteProtectedOverflow() {
+        while (protectedSegment.size() > maxProtectedEntries || protectedBytes > maxProtectedBytes) {
+            var eldest = protectedSegment.entrySet().iterator().next();
+            protectedSegment.remove(eldest.getKey());
+            protectedBytes -= eldest.getValue().size();
+            probation.put(eldest.getKey(), eldest.getValue());
+        }
+        evictOverflow();
+    }
+
+    private void evictOverflow() {
+        while ((maxEntries > 0 && size() > maxEntries) || (maxBytes > 0 && bytes > maxBytes)) {
+            var segment = probation.isEmpty() ? protectedSegment : probation;
+            var eldest = segment.entrySet().iterator().next();
+            segment.remove(eldest.getKey());
+            bytes -= eldest.getValue().size();
+            if (segment == protectedSegment) {
+                protectedBytes -= eldest.getValue().size();
+            }
+        }
+    }
+
+    private record Node(byte[] value, long size) {
+    }
+}
@@ -1,15 +1,26 @@
 package io.github.blyznytsiaorg.bibernate.cache;
 
 import io.github.blyznytsiaorg.bibernate.cache.impl.DistributedRedisSet;
+import io.github.blyznytsiaorg.bibernate.cache.impl.NearCacheDistributedSet;
+import io.github.blyznytsiaorg.bibernate.cache.impl.RedisInvalidationChannel;
 import io.github.blyznytsiaorg.bibernate.config.BibernateDatabaseSettings;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.time.Duration;
 
 
 /**
  * Configuration class for setting up Redis connections and distributed caching.
- * It initializes a Jedis instance based on provided database settings and creates a DistributedRedisSet instance.
+ * It initializes a pool of Jedis connections based on provided database settings, shared by the DistributedRedisSet
+ * instances of all sessions. Connecting to Redis, waiting for a response and waiting for a free connection are bounded
+ * by the configured timeout.
+ * When the near cache is enabled, the DistributedRedisSet is fronted by a {@link NearCache} shared by all sessions,
+ * kept consistent between nodes through a {@link RedisInvalidationChannel}.
  *
  *  @author Blyzhnytsia Team
  *  @since 1.0
@@ -18,7 +29,9 @@ import redis.clients.jedis.Jedis;
 @Slf4j
 public class RedisConfiguration {
 
-    private Jedis jedis;
+    private JedisPool jedisPool;
+    @Getter(AccessLevel.NONE)
+    private NearCacheDistributedSet nearCacheDistributedSet;
 
     /**
      * Constructs a new RedisConfiguration instance and sets up the Redis connection.
@@ -31,26 +44,75 @@ public class RedisConfiguration {
 
     /**
      * Sets up the Redis connection based on the provided database settings.
-     * If second-level cache is enabled, it initializes a Jedis instance with the specified host and port.
+     * If second-level cache is enabled, it initializes a Jedis connection pool with the specified host, port,
+     * pool size and timeout.
      *
      * @param bibernateDatabaseSettings the database settings containing Redis configuration
      */
     private void setup(BibernateDatabaseSettings bibernateDatabaseSettings) {
         if (bibernateDatabaseSettings.isSecondLevelCacheEnabled()) {
-            this.jedis = new Jedis(
+            var poolSize = bibernateDatabaseSettings.getSecondLevelCachePoolSize();
+            var timeoutMs = bibernateDatabaseSettings.getSecondLevelCacheTimeoutMs();
+            var poolConfig = new JedisPoolConfig();
+            poolConfig.setMaxTotal(poolSize);
+            poolConfig.setMaxIdle(poolSize);
+            poolConfig.setMaxWait(Duration.ofMillis(timeoutMs));
+            this.jedisPool = new JedisPool(
+                    poolConfig,
                     bibernateDatabaseSettings.getSecondLevelCacheHost(),
-                    bibernateDatabaseSettings.getSecondLevelCachePost()
+                    bibernateDatabaseSettings.getSecondLevelCachePost(),
+                    timeoutMs
             );
+            if (bibernateDatabaseSettings.isNearCacheEnabled()) {
+                setupNearCache(bibernateDatabaseSettings);
+            }
         }
     }
 
+    /**
+     * Sets up the near cache shared by all sessions and subscribes it to the invalidation channel.
+     *
+     * @param bibernateDatabaseSettings the database settings containing Redis and near cache configuration
+     */
+    private void setupNearCache(BibernateDatabaseSettings bibernateDatabaseSettings) {
+        var nearCache = new NearCache(
+                bibernateDatabaseSettings.getNearCacheMaxEntries(),
+                bibernateDatabaseSettings.getNearCacheMaxBytes()
+        );
+        var invalidationChannel = new RedisInvalidationChannel(
+                jedisPool,
+                () -> new Jedis(bibernateDatabaseSettings.getSecondLevelCacheHost(),
+                        bibernateDatabaseSettings.getSecondLevelCachePost(),
+                        bibernateDatabaseSettings.getSecondLevelCacheTimeoutMs()),
+                bibernateDatabaseSettings.getSecondLevelCacheInvalidationChannel()
+        );
+        this.nearCacheDistributedSet = new NearCacheDistributedSet(
+                new DistributedRedisSet(jedisPool), nearCache, invalidationChannel);
+    }
+
     /**
      * Retrieves a DistributedSet instance for interacting with the distributed cache.
-     * Creates a new DistributedRedisSet instance with the configured Jedis client.
+     * Creates a new DistributedRedisSet instance with the configured connection pool, or returns the shared
+     * near-cache tier in front of it when the near cache is enabled.
      *
      * @return a DistributedSet instance for interacting with the distributed cache
      */
     public DistributedSet getDistributedMap() {
-        return new DistributedRedisSet(jedis);
+        if (nearCacheDistributedSet != null) {
+            return nearCacheDistributedSet;
+        }
+        return new DistributedRedisSet(jedisPool);
+    }
+
+    /**
+     * Stops the near cache invalidation subscription, if any, and closes the Redis connection pool.
+     */
+    public void close() {
+        if (nearCacheDistributedSet != null) {
+            nearCacheDistributedSet.close();
+        }
+        if (jedisPool != null) {
+            jedisPool.close();
+        }
     }
 }
@@ -3,19 +3,40 @@ package io.github.blyznytsiaorg.bibernate.cache.impl;
 import io.github.blyznytsiaorg.bibernate.cache.DistributedSet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.ToLongFunction;
 
 import static io.github.blyznytsiaorg.bibernate.cache.utils.SerializationUtils.deserialize;
 import static io.github.blyznytsiaorg.bibernate.cache.utils.SerializationUtils.serialize;
+import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.LogMessage.CANNOT_DESERIALIZE_CACHED_ENTITY;
+import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.LogMessage.CANNOT_SERIALIZE_ENTITY;
+import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.LogMessage.REDIS_UNAVAILABLE;
 
 
 /**
  * Implementation of the DistributedSet interface using Redis as the distributed cache.
  * Provides methods for adding entities to Redis and retrieving them.
+ * Every operation borrows a connection from a pool shared by all sessions, so the set is thread-safe.
+ * A Redis failure or timeout is logged and treated as a cache miss, so the entity is read from the database instead.
+ * So is a cached value that can't be deserialized, e.g. one written by a node with different entity classes: it is
+ * removed, so the entity is cached again from the database. An entity that can't be serialized is logged and not
+ * cached.
+ * <p>
+ * {@link #addIfNewer(Class, String, Object, ToLongFunction)} compares the versions and writes the entity in one
+ * optimistic WATCH/MULTI transaction, retried if the cached entity changed in between. A soft-lock is a counter
+ * stored under the cache key with the {@code :lock} suffix, expiring after a minute so a lock of a node that died
+ * before its transaction completed is released. Adding loaded entities checks the locks and the cached entities
+ * in one Lua script.
  *
  *  @author Blyzhnytsia Team
  *  @since 1.0
@@ -24,7 +45,46 @@ import static io.github.blyznytsiaorg.bibernate.cache.utils.SerializationUtils.s
 @Slf4j
 public class DistributedRedisSet implements DistributedSet {
 
-    private final Jedis jedis;
+    private static final String LOCK_SUFFIX = ":lock";
+    private static final long LOCK_TIMEOUT_MS = 60_000;
+    private static final int MAX_ADD_IF_NEWER_ATTEMPTS = 3;
+
+    /**
+     * Sets every key not cached yet and not locked. KEYS holds pairs of cache key and lock key, ARGV the values.
+     */
+    private static final byte[] ADD_ALL_IF_ABSENT_SCRIPT = """
+            local added = 0
+            for i = 1, #KEYS, 2 do
+                if redis.call('EXISTS', KEYS[i + 1]) == 0 and redis.call('SET', KEYS[i], ARGV[(i + 1) / 2], 'NX') then
+                    added = added + 1
+                end
+            end
+            return added
+            """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Removes the cached entity and increments the lock counter. KEYS[1] is the cache key, KEYS[2] the lock key,
+     * ARGV[1] the lock timeout in milliseconds.
+     */
+    private static final byte[] LOCK_SCRIPT = """
+            redis.call('DEL', KEYS[1])
+            local locks = redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return locks
+            """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Decrements the lock counter, removing it when no lock is left. KEYS[1] is the lock key.
+     */
+    private static final byte[] UNLOCK_SCRIPT = """
+            local locks = redis.call('DECR', KEYS[1])
+            if locks <= 0 then
+                redis.call('DEL', KEYS[1])
+            end
+            return locks
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final JedisPool jedisPool;
 
     /**
      * Adds an entity to the Redis cache.
@@ -40,9 +100,17 @@ public class DistributedRedisSet implements DistributedSet {
         Objects.requireNonNull(cacheKey);
         Objects.requireNonNull(entity);
 
+        byte[] entityData = serializeOrSkip(entityClass, cacheKey, entity);
+        if (entityData == null) {
+            return;
+        }
         byte[] keyData = cacheKey.getBytes(StandardCharsets.UTF_8);
-        byte[] entityData = serialize(entityClass, entity);
-        jedis.set(keyData, entityData);
+        try (var jedis = jedisPool.getResource()) {
+            jedis.set(keyData, entityData);
+        } catch (JedisException exe) {
+            log.warn(REDIS_UNAVAILABLE, "add", cacheKey, exe.getMessage());
+            return;
+        }
 
         log.trace("Add to cache for entityClass {} by cacheKey {}", entityClass.getSimpleName(), cacheKey);
     }
@@ -53,7 +121,7 @@ public class DistributedRedisSet implements DistributedSet {
      * @param <T>         the type of the entity
      * @param entityClass the class of the entity
      * @param cacheKey    the cache key associated with the entity
-     * @return an Optional containing the retrieved entity, or empty if not found
+     * @return an Optional containing the retrieved entity, or empty if not found or Redis is unavailable
      * @throws NullPointerException if entityClass or cacheKey is null
      */
     @Override
@@ -62,7 +130,13 @@ public class DistributedRedisSet implements DistributedSet {
         Objects.requireNonNull(cacheKey);
 
         byte[] keyData = cacheKey.getBytes(StandardCharsets.UTF_8);
-        byte[] data = jedis.get(keyData);
+        byte[] data;
+        try (var jedis = jedisPool.getResource()) {
+            data = jedis.get(keyData);
+        } catch (JedisException exe) {
+            log.warn(REDIS_UNAVAILABLE, "get", cacheKey, exe.getMessage());
+            return Optional.empty();
+        }
 
         if (Objects.isNull(data)) {
             log.trace("Cache missed for entityClass {} by cacheKey {}", entityClass.getSimpleName(), cacheKey);
@@ -70,7 +144,307 @@ public class DistributedRedisSet implements DistributedSet {
         }
 
         log.trace("Cache hit for entityClass {} by cacheKey {}", entityClass.getSimpleName(), cacheKey);
-        return deserialize(entityClass, data)
-                .map(entityClass::cast);
+        return deserializeOrRemove(entityClass, cacheKey, data);
+    }
+
+    /**
+     * Adds several entities to the Redis cache in one pipeline.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param entities    the entities to add by their cache keys
+     */
+    @Override
+    public <T> void addAll(Class<T> entityClass, Map<String, T> entities) {
+        var entitiesData = new LinkedHashMap<byte[], byte[]>();
+        entities.forEach((cacheKey, entity) -> {
+            var entityData = serializeOrSkip(entityClass, cacheKey, entity);
+            if (entityData != null) {
+                entitiesData.put(cacheKey.getBytes(StandardCharsets.UTF_8), entityData);
+            }
+        });
+        if (entitiesData.isEmpty()) {
+            return;
+        }
+
+        try (var jedis = jedisPool.getResource(); var pipeline = jedis.pipelined()) {
+            entitiesData.forEach(pipeline::set);
+            pipeline.sync();
+        } catch (JedisException exe) {
+            log.warn(REDIS_UNAVAILABLE, "add", entities.keySet(), exe.getMessage());
+            return;
+        }
+
+        log.trace("Add to cache for entityClass {} by cacheKeys {}", entityClass.getSimpleName(), entities.keySet());
+    }
+
+    /**
+     * Retrieves several entities from the Redis cache with a single MGET command.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param cacheKeys   the cache keys associated with the entities
+     * @return the found entities by their cache keys, empty if Redis is unavailable
+     */
+    @Override
+    public <T> Map<String, T> getAll(Class<T> entityClass, Collection<String> cacheKeys) {
+        var entities = new LinkedHashMap<String, T>();
+        if (cacheKeys.isEmpty()) {
+            return entities;
+        }
+
+        var keys = List.copyOf(cacheKeys);
+        var keysData = keys.stream()
+                .map(cacheKey -> cacheKey.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        List<byte[]> data;
+        try (var jedis = jedisPool.getResource()) {
+            data = jedis.mget(keysData);
+        } catch (JedisException exe) {
+            log.warn(REDIS_UNAVAILABLE, "get", cacheKeys, exe.getMessage());
+            return entities;
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            if (data.get(i) != null) {
+                var cacheKey = keys.get(i);
+                deserializeOrRemove(entityClass, cacheKey, data.get(i))
+                        .ifPresent(entity -> entities.put(cacheKey, entity));
+            }
+        }
+        log.trace("Cache hit for entityClass {} by {} of {} cacheKeys",
+                entityClass.getSimpleName(), entities.size(), keys.size());
+        return entities;
+    }
+
+    /**
+     * Removes an entity from the Redis cache.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     * @throws NullPointerException if cacheKey is null
+     */
+    @Override
+    public <T> void remove(Class<T> entityClass, String cacheKey) {
+        Objects.requireNonNull(cacheKey);
+
+        try (var jedis = jedisPool.getResource()) {
+            jedis.del(cacheKey.getBytes(StandardCharsets.UTF_8));
+        } catch (JedisException exe) {
+            log.error(REDIS_UNAVAILABLE, "remove", cacheKey, exe.getMessage());
+            return;
+        }
+
+        log.trace("Remove from cache for entityClass {} by cacheKey {}", entityClass.getSimpleName(), cacheKey);
+    }
+
+    /**
+     * Removes several entities from the Redis cache with a single command.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param cacheKeys   the cache keys associated with the entities
+     */
+    @Override
+    public <T> void removeAll(Class<T> entityClass, Collection<String> cacheKeys) {
+        if (cacheKeys.isEmpty()) {
+            return;
+        }
+
+        var keysData = cacheKeys.stream()
+                .map(cacheKey -> cacheKey.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        try (var jedis = jedisPool.getResource()) {
+            jedis.del(keysData);
+        } catch (JedisException exe) {
+            log.error(REDIS_UNAVAILABLE, "remove", cacheKeys, exe.getMessage());
+            return;
+        }
+
+        log.trace("Remove from cache for entityClass {} by cacheKeys {}", entityClass.getSimpleName(), cacheKeys);
+    }
+
+    /**
+     * Adds an entity to the Redis cache unless it already holds the same or a newer version of it. The cached
+     * entity is watched while the versions are compared, so the entity is not written if another node changed it
+     * in between. The comparison is then repeated, up to three times.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     * @param entity      the entity to add
+     * @param version     reads the version of an entity
+     */
+    @Override
+    public <T> void addIfNewer(Class<T> entityClass, String cacheKey, T entity, ToLongFunction<? super T> version) {
+        Objects.requireNonNull(cacheKey);
+        Objects.requireNonNull(entity);
+
+        byte[] entityData = serializeOrSkip(entityClass, cacheKey, entity);
+        if (entityData == null) {
+            return;
+        }
+        byte[] keyData = cacheKey.getBytes(StandardCharsets.UTF_8);
+        var entityVersion = version.applyAsLong(entity);
+        try (var jedis = jedisPool.getResource()) {
+            for (int attempt = 0; attempt < MAX_ADD_IF_NEWER_ATTEMPTS; attempt++) {
+                jedis.watch(keyData);
+                var cached = jedis.get(keyData);
+                if (cached != null && isCachedVersionNewer(entityClass, cached, entityVersion, version)) {
+                    jedis.unwatch();
+                    log.trace("Cache holds a newer version for entityClass {} by cacheKey {}",
+                            entityClass.getSimpleName(), cacheKey);
+                    return;
+                }
+                var transaction = jedis.multi();
+                transaction.set(keyData, entityData);
+                if (transaction.exec() != null) {
+                    log.trace("Add to cache for entityClass {} by cacheKey {}", entityClass.getSimpleName(), cacheKey);
+                    return;
+                }
+            }
+        } catch (JedisException exe) {
+            log.warn(REDIS_UNAVAILABLE, "add", cacheKey, exe.getMessage());
+            return;
+        }
+
+        log.trace("Cached entity changed concurrently for entityClass {} by cacheKey {}, not added",
+                entityClass.getSimpleName(), cacheKey);
+    }
+
+    /**
+     * Adds entities loaded from the database to the Redis cache with one Lua script, skipping the ones that are
+     * already cached or soft-locked.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param entities    the entities to add by their cache keys
+     */
+    @Override
+    public <T> void addAllIfAbsent(Class<T> entityClass, Map<String, T> entities) {
+        var keys = new ArrayList<byte[]>(entities.size() * 2);
+        var values = new ArrayList<byte[]>(entities.size());
+        entities.forEach((cacheKey, entity) -> {
+            var entityData = serializeOrSkip(entityClass, cacheKey, entity);
+            if (entityData != null) {
+                keys.add(cacheKey.getBytes(StandardCharsets.UTF_8));
+                keys.add(lockKey(cacheKey));
+                values.add(entityData);
+            }
+        });
+        if (values.isEmpty()) {
+            return;
+        }
+
+        try (var jedis = jedisPool.getResource()) {
+            jedis.eval(ADD_ALL_IF_ABSENT_SCRIPT, keys, values);
+        } catch (JedisException exe) {
+            log.warn(REDIS_UNAVAILABLE, "add", entities.keySet(), exe.getMessage());
+            return;
+        }
+
+        log.trace("Add absent to cache for entityClass {} by cacheKeys {}",
+                entityClass.getSimpleName(), entities.keySet());
+    }
+
+    /**
+     * Removes an entity from the Redis cache and soft-locks its cache key with one Lua script.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     */
+    @Override
+    public <T> void lock(Class<T> entityClass, String cacheKey) {
+        Objects.requireNonNull(cacheKey);
+
+        try (var jedis = jedisPool.getResource()) {
+            jedis.eval(LOCK_SCRIPT, List.of(cacheKey.getBytes(StandardCharsets.UTF_8), lockKey(cacheKey)),
+                    List.of(String.valueOf(LOCK_TIMEOUT_MS).getBytes(StandardCharsets.UTF_8)));
+        } catch (JedisException exe) {
+            log.error(REDIS_UNAVAILABLE, "lock", cacheKey, exe.getMessage());
+            return;
+        }
+
+        log.trace("Lock in cache for entityClass {} by cacheKey {}", entityClass.getSimpleName(), cacheKey);
+    }
+
+    /**
+     * Releases a soft-lock of a cache key.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     */
+    @Override
+    public <T> void unlock(Class<T> entityClass, String cacheKey) {
+        Objects.requireNonNull(cacheKey);
+
+        try (var jedis = jedisPool.getResource()) {
+            jedis.eval(UNLOCK_SCRIPT, List.of(lockKey(cacheKey)), List.of());
+        } catch (JedisException exe) {
+            log.error(REDIS_UNAVAILABLE, "unlock", cacheKey, exe.getMessage());
+            return;
+        }
+
+        log.trace("Unlock in cache for entityClass {} by cacheKey {}", entityClass.getSimpleName(), cacheKey);
+    }
+
+    /**
+     * Checks whether the cached entity has the same or a newer version. A cached value that can't be deserialized
+     * counts as older, so it is overwritten.
+     */
+    private <T> boolean isCachedVersionNewer(Class<T> entityClass, byte[] cached, long entityVersion,
+                                             ToLongFunction<? super T> version) {
+        try {
+            return deserialize(entityClass, cached)
+                    .map(cachedEntity -> version.applyAsLong(entityClass.cast(cachedEntity)) >= entityVersion)
+                    .orElse(false);
+        } catch (RuntimeException exe) {
+            return false;
+        }
+    }
+
+    private static byte[] lockKey(String cacheKey) {
+        return (cacheKey + LOCK_SUFFIX).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Serializes an entity to be cached. An entity that can't be serialized is logged and not cached.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     * @param entity      the entity
+     * @return the serialized entity, or {@code null} if it can't be serialized
+     */
+    private <T> byte[] serializeOrSkip(Class<T> entityClass, String cacheKey, T entity) {
+        try {
+            return serialize(entityClass, entity);
+        } catch (RuntimeException exe) {
+            log.warn(CANNOT_SERIALIZE_ENTITY, entityClass.getSimpleName(), cacheKey, exe.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Deserializes a cached entity. A value that can't be read is logged and removed from Redis, and treated as
+     * a cache miss.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     * @param data        the cached value
+     * @return an Optional containing the entity, or empty if the value can't be deserialized
+     */
+    private <T> Optional<T> deserializeOrRemove(Class<T> entityClass, String cacheKey, byte[] data) {
+        try {
+            return deserialize(entityClass, data).map(entityClass::cast);
+        } catch (RuntimeException exe) {
+            log.warn(CANNOT_DESERIALIZE_CACHED_ENTITY, entityClass.getSimpleName(), cacheKey, exe.getMessage());
+            remove(entityClass, cacheKey);
+            return Optional.empty();
+        }
     }
 }
@@ -0,0 +1,279 @@
+package io.github.blyznytsiaorg.bibernate.cache.impl;
+
+import io.github.blyznytsiaorg.bibernate.cache.DistributedSet;
+import io.github.blyznytsiaorg.bibernate.cache.InvalidationChannel;
+import io.github.blyznytsiaorg.bibernate.cache.NearCache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+import static io.github.blyznytsiaorg.bibernate.cache.utils.SerializationUtils.deserialize;
+import static io.github.blyznytsiaorg.bibernate.cache.utils.SerializationUtils.serialize;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.isImmutable;
+import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.LogMessage.CANNOT_SERIALIZE_ENTITY;
+
+/**
+ * Implementation of the DistributedSet interface that checks an in-process {@link NearCache} before
+ * the distributed cache it decorates. Removals are published through an {@link InvalidationChannel},
+ * and invalidations received from the channel evict the local copies, so the near caches of all nodes
+ * stay consistent with the distributed cache.
+ * <p>
+ * Only immutable entities are kept in the near cache. Other entities are read from and written to the distributed
+ * cache directly. The near cache holds the serialized entities and every hit deserializes a new instance, so a
+ * session changing an entity it read, e.g. through reflection, does not change what the other sessions read.
+ * <p>
+ * An entity fetched from the distributed cache is kept locally only if no invalidation arrived while it was being
+ * fetched, see {@link NearCache#putIfNotInvalidated(String, byte[], long)}. When the channel reconnects, invalidations
+ * may have been missed, so the whole near cache is cleared.
+ *
+ *  @author Blyzhnytsia Team
+ *  @since 1.0
+ */
+@Slf4j
+public class NearCacheDistributedSet implements DistributedSet {
+
+    private final DistributedSet distributedSet;
+    private final NearCache nearCache;
+    private final InvalidationChannel invalidationChannel;
+
+    /**
+     * Constructs a near-cache tier in front of a distributed set and subscribes it to the invalidation channel.
+     *
+     * @param distributedSet      the distributed set holding the shared copies
+     * @param nearCache           the in-process cache tier
+     * @param invalidationChannel the channel propagating invalidations between nodes
+     */
+    public NearCacheDistributedSet(DistributedSet distributedSet, NearCache nearCache,
+                                   InvalidationChannel invalidationChannel) {
+        this.distributedSet = distributedSet;
+        this.nearCache = nearCache;
+        this.invalidationChannel = invalidationChannel;
+        invalidationChannel.subscribe(nearCache::invalidate);
+        invalidationChannel.subscribeToReconnects(nearCache::clear);
+    }
+
+    /**
+     * Adds an entity to the distributed set and, if it is immutable, to the near cache.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     * @param entity      the entity to add to the cache
+     */
+    @Override
+    public <T> void add(Class<T> entityClass, String cacheKey, T entity) {
+        distributedSet.add(entityClass, cacheKey, entity);
+        if (isImmutable(entityClass)) {
+            putLocally(entityClass, cacheKey, entity);
+        }
+    }
+
+    /**
+     * Retrieves an immutable entity from the near cache, falling back to the distributed set on a local miss.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     * @return an Optional containing the retrieved entity, or empty if not found
+     */
+    @Override
+    public <T> Optional<T> get(Class<T> entityClass, String cacheKey) {
+        Objects.requireNonNull(entityClass);
+        Objects.requireNonNull(cacheKey);
+        if (!isImmutable(entityClass)) {
+            return distributedSet.get(entityClass, cacheKey);
+        }
+
+        var cachedEntity = nearCache.get(cacheKey);
+        if (cachedEntity != null) {
+            log.trace("Near cache hit for entityClass {} by cacheKey {}", entityClass.getSimpleName(), cacheKey);
+            return deserialize(entityClass, cachedEntity);
+        }
+
+        var generation = nearCache.generation();
+        var entity = distributedSet.get(entityClass, cacheKey);
+        entity.ifPresent(value -> putLocallyIfNotInvalidated(entityClass, cacheKey, value, generation));
+        return entity;
+    }
+
+    /**
+     * Adds several entities to the distributed set and, if they are immutable, to the near cache.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param entities    the entities to add by their cache keys
+     */
+    @Override
+    public <T> void addAll(Class<T> entityClass, Map<String, T> entities) {
+        distributedSet.addAll(entityClass, entities);
+        if (isImmutable(entityClass)) {
+            entities.forEach((cacheKey, entity) -> putLocally(entityClass, cacheKey, entity));
+        }
+    }
+
+    /**
+     * Retrieves several immutable entities from the near cache, fetching the local misses from the distributed set
+     * with one call.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param cacheKeys   the cache keys associated with the entities
+     * @return the found entities by their cache keys, in the order of the cache keys
+     */
+    @Override
+    public <T> Map<String, T> getAll(Class<T> entityClass, Collection<String> cacheKeys) {
+        if (!isImmutable(entityClass)) {
+            return distributedSet.getAll(entityClass, cacheKeys);
+        }
+
+        var nearEntities = new LinkedHashMap<String, T>();
+        var missedCacheKeys = new ArrayList<String>();
+        for (var cacheKey : cacheKeys) {
+            var cachedEntity = nearCache.get(cacheKey);
+            if (cachedEntity != null) {
+                deserialize(entityClass, cachedEntity).ifPresent(entity -> nearEntities.put(cacheKey, entity));
+            } else {
+                missedCacheKeys.add(cacheKey);
+            }
+        }
+        if (missedCacheKeys.isEmpty()) {
+            return nearEntities;
+        }
+
+        var generation = nearCache.generation();
+        var distributedEntities = distributedSet.getAll(entityClass, missedCacheKeys);
+        distributedEntities.forEach((cacheKey, entity) ->
+                putLocallyIfNotInvalidated(entityClass, cacheKey, entity, generation));
+        var entities = new LinkedHashMap<String, T>();
+        for (var cacheKey : cacheKeys) {
+            var entity = nearEntities.getOrDefault(cacheKey, distributedEntities.get(cacheKey));
+            if (entity != null) {
+                entities.put(cacheKey, entity);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Adds an entity to the distributed set unless it holds the same or a newer version of it. An immutable entity
+     * is dropped from the near cache, so it is read again from the distributed set.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     * @param entity      the entity to add
+     * @param version     reads the version of an entity
+     */
+    @Override
+    public <T> void addIfNewer(Class<T> entityClass, String cacheKey, T entity, ToLongFunction<? super T> version) {
+        distributedSet.addIfNewer(entityClass, cacheKey, entity, version);
+        if (isImmutable(entityClass)) {
+            nearCache.invalidate(cacheKey);
+        }
+    }
+
+    /**
+     * Adds loaded entities to the distributed set unless they are cached or soft-locked there.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param entities    the entities to add by their cache keys
+     */
+    @Override
+    public <T> void addAllIfAbsent(Class<T> entityClass, Map<String, T> entities) {
+        distributedSet.addAllIfAbsent(entityClass, entities);
+    }
+
+    /**
+     * Removes an entity from the near cache and soft-locks it in the distributed set.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     */
+    @Override
+    public <T> void lock(Class<T> entityClass, String cacheKey) {
+        nearCache.invalidate(cacheKey);
+        distributedSet.lock(entityClass, cacheKey);
+    }
+
+    /**
+     * Releases a soft-lock in the distributed set.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     */
+    @Override
+    public <T> void unlock(Class<T> entityClass, String cacheKey) {
+        distributedSet.unlock(entityClass, cacheKey);
+    }
+
+    /**
+     * Removes an entity from the distributed set and publishes the invalidation to all near caches.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param cacheKey    the cache key associated with the entity
+     */
+    @Override
+    public <T> void remove(Class<T> entityClass, String cacheKey) {
+        nearCache.invalidate(cacheKey);
+        distributedSet.remove(entityClass, cacheKey);
+        invalidationChannel.publish(cacheKey);
+    }
+
+    /**
+     * Removes several entities from the distributed set and publishes their invalidations to all near caches.
+     *
+     * @param <T>         the type of the entities
+     * @param entityClass the class of the entities
+     * @param cacheKeys   the cache keys associated with the entities
+     */
+    @Override
+    public <T> void removeAll(Class<T> entityClass, Collection<String> cacheKeys) {
+        cacheKeys.forEach(nearCache::invalidate);
+        distributedSet.removeAll(entityClass, cacheKeys);
+        invalidationChannel.publishAll(cacheKeys);
+    }
+
+    /**
+     * Stops receiving invalidations from the channel.
+     */
+    public void close() {
+        invalidationChannel.close();
+    }
+
+    private <T> void putLocally(Class<T> entityClass, String cacheKey, T entity) {
+        var entityData = serializeOrSkip(entityClass, cacheKey, entity);
+        if (entityData != null) {
+            nearCache.put(cacheKey, entityData);
+        }
+    }
+
+    private <T> void putLocallyIfNotInvalidated(Class<T> entityClass, String cacheKey, T entity, long generation) {
+        var entityData = serializeOrSkip(entityClass, cacheKey, entity);
+        if (entityData != null) {
+            nearCache.putIfNotInvalidated(cacheKey, entityData, generation);
+        }
+    }
+
+    /**
+     * Serializes an entity to be kept in the near cache. An entity that can't be serialized is logged and not
+     * cached.
+     */
+    private <T> byte[] serializeOrSkip(Class<T> entityClass, String cacheKey, T entity) {
+        try {
+            return serialize(entityClass, entity);
+        } catch (RuntimeException exe) {
+            log.warn(CANNOT_SERIALIZE_ENTITY, entityClass.getSimpleName(), cacheKey, exe.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.blyznytsiaorg.bibernate.cache.impl;
+
+import io.github.blyznytsiaorg.bibernate.cache.InvalidationChannel;
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.LogMessage.REDIS_UNAVAILABLE;
+
+/**
+ * Implementation of the InvalidationChannel interface using Redis pub/sub.
+ * Invalidated cache keys are published to a Redis channel. The subscription runs on a daemon thread
+ * with its own connection, because a subscribed Redis connection cannot send other commands.
+ * <p>
+ * When the subscription connection fails, the thread reconnects with an exponential backoff, from
+ * 100 ms up to 30 s. Every time the subscription is (re-)established the reconnect listeners are notified,
+ * because invalidations published in the meantime were lost. {@link #close()} unsubscribes and stops the thread.
+ *
+ *  @author Blyzhnytsia Team
+ *  @since 1.0
+ */
+@Slf4j
+public class RedisInvalidationChannel implements InvalidationChannel {
+    private static final long INITIAL_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final long CLOSE_TIMEOUT_MS = 5_000;
+
+    private final JedisPool jedisPool;
+    private final Supplier<Jedis> subscriberConnection;
+    private final String channel;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> reconnectListeners = new CopyOnWriteArrayList<>();
+    private Thread subscriber;
+    private volatile Jedis connection;
+    private volatile JedisPubSub pubSub;
+    private volatile boolean closed;
+    private volatile long backoffMs = INITIAL_BACKOFF_MS;
+
+    /**
+     * Constructs a Redis invalidation channel.
+     *
+     * @param jedisPool            the connection pool used to publish invalidations
+     * @param subscriberConnection creates the dedicated connection used by the subscription
+     * @param channel              the name of the Redis channel
+     */
+    public RedisInvalidationChannel(JedisPool jedisPool, Supplier<Jedis> subscriberConnection, String channel) {
+        this.jedisPool = jedisPool;
+        this.subscriberConnection = subscriberConnection;
+        this.channel = channel;
+    }
+
+    /**
+     * Publishes the invalidation of a cache key to the Redis channel.
+     *
+     * @param cacheKey the invalidated cache key
+     */
+    @Override
+    public void publish(String cacheKey) {
+        try (var jedis = jedisPool.getResource()) {
+            jedis.publish(channel, cacheKey);
+        } catch (JedisException exe) {
+            log.error(REDIS_UNAVAILABLE, "publish", cacheKey, exe.getMessage());
+            return;
+        }
+        log.trace("Published invalidation of cacheKey {} to channel {}", cacheKey, channel);
+    }
+
+    /**
+     * Publishes the invalidation of several cache keys to the Redis channel in one pipeline.
+     *
+     * @param cacheKeys the invalidated cache keys
+     */
+    @Override
+    public void publishAll(Collection<String> cacheKeys) {
+        try (var jedis = jedisPool.getResource(); var pipeline = jedis.pipelined()) {
+            cacheKeys.forEach(cacheKey -> pipeline.publish(channel, cacheKey));
+            pipeline.sync();
+        } catch (JedisException exe) {
+            log.error(REDIS_UNAVAILABLE, "publish", cacheKeys, exe.getMessage());
+            return;
+        }
+        log.trace("Published invalidation of cacheKeys {} to channel {}", cacheKeys, channel);
+    }
+
+    /**
+     * Subscribes a listener to the Redis channel, starting the subscription thread on the first call.
+     *
+     * @param listener the listener of invalidated cache keys
+     */
+    @Override
+    public synchronized void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+        if (subscriber == null && !closed) {
+            subscriber = new Thread(this::listen, "bibernate-cache-invalidation");
+            subscriber.setDaemon(true);
+            subscriber.start();
+        }
+    }
+
+    /**
+     * Subscribes a listener notified every time the subscription to the Redis channel is (re-)established.
+     *
+     * @param listener the listener of (re-)established subscriptions
+     */
+    @Override
+    public void subscribeToReconnects(Runnable listener) {
+        reconnectListeners.add(listener);
+    }
+
+    /**
+     * Unsubscribes from the Redis channel and stops the subscription thread.
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            thread = subscriber;
+        }
+        if (thread == null) {
+            return;
+        }
+        unsubscribe();
+        closeConnection();
+        thread.interrupt();
+        try {
+            thread.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException exe) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void listen() {
+        while (!closed) {
+            try (var jedis = subscriberConnection.get()) {
+                connection = jedis;
+                pubSub = newPubSub();
+                if (!closed) {
+                    jedis.subscribe(pubSub, channel);
+                }
+            } catch (Exception exe) {
+                if (!closed) {
+                    log.error("Cache invalidation subscription to channel {} failed, reconnecting in {} ms: {}",
+                            channel, backoffMs, exe.getMessage());
+                }
+            } finally {
+                connection = null;
+                pubSub = null;
+            }
+            if (!closed) {
+                backOff();
+            }
+        }
+        log.debug("Cache invalidation subscription to channel {} stopped", channel);
+    }
+
+    private JedisPubSub newPubSub() {
+        return new JedisPubSub() {
+            @Override
+            public void onSubscribe(String subscribedChannel, int subscribedChannels) {
+                log.debug("Subscribed to cache invalidation channel {}", subscribedChannel);
+                backoffMs = INITIAL_BACKOFF_MS;
+                reconnectListeners.forEach(Runnable::run);
+            }
+
+            @Override
+            public void onMessage(String messageChannel, String cacheKey) {
+                log.trace("Received invalidation of cacheKey {} from channel {}", cacheKey, messageChannel);
+                listeners.forEach(listener -> listener.accept(cacheKey));
+            }
+        };
+    }
+
+    private void backOff() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(backoffMs);
+        } catch (InterruptedException exe) {
+            Thread.currentThread().interrupt();
+            closed = true;
+            return;
+        }
+        backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+    }
+
+    private void unsubscribe() {
+        var subscription = pubSub;
+        if (subscription != null && subscription.isSubscribed()) {
+            try {
+                subscription.unsubscribe();
+            } catch (JedisException exe) {
+                log.debug("Cannot unsubscribe from cache invalidation channel {}: {}", channel, exe.getMessage());
+            }
+        }
+    }
+
+    private void closeConnection() {
+        var jedis = connection;
+        if (jedis != null) {
+            try {
+                jedis.close();
+            } catch (JedisException exe) {
+                log.debug("Cannot close cache invalidation connection: {}", exe.getMessage());
+            }
+        }
+    }
+}
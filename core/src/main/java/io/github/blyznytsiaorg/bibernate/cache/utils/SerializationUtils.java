@@ -3,18 +3,114 @@ package io.github.blyznytsiaorg.bibernate.cache.utils;
 import com.esotericsoftware.kryo.kryo5.Kryo;
 import com.esotericsoftware.kryo.kryo5.io.Input;
 import com.esotericsoftware.kryo.kryo5.io.Output;
+import com.esotericsoftware.kryo.kryo5.util.Pool;
+import io.github.blyznytsiaorg.bibernate.annotation.Entity;
+import io.github.blyznytsiaorg.bibernate.exception.BibernateGeneralException;
 import lombok.experimental.UtilityClass;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.ExceptionMessage.ENTITY_REGISTRATION_ID_COLLISION;
 
 /**
  * Utility class for serializing and deserializing objects using Kryo serialization.
+ * Kryo instances are not thread-safe and expensive to create, so they are kept in a pool shared by all threads,
+ * together with the buffers they write to. The pool does not depend on thread identity and works the same way
+ * with platform and virtual threads.
+ * <p>
+ * The entity classes registered with {@link #registerEntityClasses(Collection)} get registration ids derived from
+ * their own class names, so the id of an entity class does not change when other entity classes are added or
+ * removed, and entities referencing other entities can be read on any node.
+ * <p>
+ * What Kryo writes for an entity depends on its fields. {@link #schemaVersion(Class)} fingerprints them, so the cache
+ * keys of an entity change with its structure and a node never reads a value written for another version of it.
  *
  *  @author Blyzhnytsia Team
  *  @since 1.0
  */
 @UtilityClass
 public class SerializationUtils {
+    private static final int FIRST_ENTITY_REGISTRATION_ID = 1000;
+    private static final int ENTITY_REGISTRATION_ID_RANGE = Integer.MAX_VALUE - FIRST_ENTITY_REGISTRATION_ID;
+    /**
+     * Version of the serialized format, to be incremented when the Kryo configuration changes.
+     */
+    private static final int SERIALIZATION_FORMAT_VERSION = 1;
+    private static final ClassValue<String> SCHEMA_VERSIONS = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> entityClass) {
+            var crc = new CRC32();
+            crc.update(schema(entityClass, new HashSet<>()).getBytes(StandardCharsets.UTF_8));
+            return "v" + SERIALIZATION_FORMAT_VERSION + "." + Long.toHexString(crc.getValue());
+        }
+    };
+    private static final int BUFFER_SIZE = 4096;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final int POOL_CAPACITY = Runtime.getRuntime().availableProcessors() * 4;
+    private static final byte[] EMPTY_BUFFER = new byte[0];
+
+    private static volatile Map<Class<?>, Integer> entityRegistrationIds = Map.of();
+    private static volatile Pool<KryoContext> pool = newPool();
+
+    /**
+     * Registers the entity classes with stable registration ids in all Kryo instances created from now on.
+     * The classes registered before, e.g. by another persistence unit, stay registered.
+     *
+     * @param classes the entity classes found on the classpath
+     * @throws BibernateGeneralException if two entity classes have the same registration id
+     */
+    public static synchronized void registerEntityClasses(Collection<Class<?>> classes) {
+        var registrationIds = new LinkedHashMap<>(entityRegistrationIds);
+        var classesById = new HashMap<Integer, Class<?>>();
+        registrationIds.forEach((entityClass, registrationId) -> classesById.put(registrationId, entityClass));
+        for (var entityClass : classes) {
+            var registrationId = registrationId(entityClass);
+            var registeredClass = classesById.putIfAbsent(registrationId, entityClass);
+            if (registeredClass != null && registeredClass != entityClass) {
+                throw new BibernateGeneralException(ENTITY_REGISTRATION_ID_COLLISION.formatted(
+                        registeredClass.getName(), entityClass.getName(), registrationId));
+            }
+            registrationIds.put(entityClass, registrationId);
+        }
+        if (registrationIds.size() != entityRegistrationIds.size()) {
+            entityRegistrationIds = registrationIds;
+            pool = newPool();
+        }
+    }
+
+    /**
+     * Returns the Kryo registration id of an entity class, derived from the class name.
+     *
+     * @param entityClass the entity class
+     * @return the registration id
+     */
+    public static int registrationId(Class<?> entityClass) {
+        return FIRST_ENTITY_REGISTRATION_ID
+                + Math.floorMod(entityClass.getName().hashCode(), ENTITY_REGISTRATION_ID_RANGE);
+    }
+
+    /**
+     * Returns the version of the serialized form of an entity class: the serialization format version and a
+     * fingerprint of the names and types of its fields, including the fields of the entities it references.
+     *
+     * @param entityClass the entity class
+     * @return the schema version, e.g. {@code v1.3f2a9c1b}
+     */
+    public static String schemaVersion(Class<?> entityClass) {
+        return SCHEMA_VERSIONS.get(entityClass);
+    }
 
     /**
      * Serializes the provided entity object into a byte array using Kryo serialization.
@@ -25,12 +121,18 @@ public class SerializationUtils {
      * @return the byte array representing the serialized entity
      */
     public static <T> byte[] serialize(Class<T> entityClass, T entity) {
-        Kryo kryo = new Kryo();
-        kryo.register(entityClass);
-
-        try (Output output = new Output(4096, -1)) {
-            kryo.writeObject(output, entity);
+        var kryoPool = pool;
+        var context = kryoPool.obtain();
+        try {
+            var output = context.output();
+            output.reset();
+            context.kryo(entityClass).writeObject(output, entity);
             return output.toBytes();
+        } finally {
+            if (context.output().getBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+                context.output().setBuffer(new byte[BUFFER_SIZE], -1);
+            }
+            kryoPool.free(context);
         }
     }
 
@@ -43,11 +145,71 @@ public class SerializationUtils {
      * @return an Optional containing the deserialized entity object, or an empty Optional if deserialization fails
      */
     public static <T> Optional<T> deserialize(Class<T> entityClass, byte[] entity) {
-        Kryo kryo = new Kryo();
-        kryo.register(entityClass);
+        var kryoPool = pool;
+        var context = kryoPool.obtain();
+        try {
+            var input = context.input();
+            input.setBuffer(entity);
+            return Optional.ofNullable(context.kryo(entityClass).readObject(input, entityClass));
+        } finally {
+            context.input().setBuffer(EMPTY_BUFFER);
+            kryoPool.free(context);
+        }
+    }
+
+    private static Pool<KryoContext> newPool() {
+        var registrationIds = entityRegistrationIds;
+        return new Pool<>(true, false, POOL_CAPACITY) {
+            @Override
+            protected KryoContext create() {
+                var kryo = new Kryo();
+                registrationIds.forEach(kryo::register);
+                return new KryoContext(kryo, new Output(BUFFER_SIZE, -1), new Input());
+            }
+        };
+    }
+
+    private static String schema(Class<?> entityClass, Set<Class<?>> visited) {
+        if (!visited.add(entityClass)) {
+            return entityClass.getName();
+        }
+        var schema = new StringBuilder(entityClass.getName()).append('{');
+        for (var type = entityClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                var modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                    continue;
+                }
+                schema.append(field.getName()).append(':').append(field.getGenericType().getTypeName()).append(';');
+                appendReferencedSchemas(schema, field.getGenericType(), visited);
+            }
+        }
+        return schema.append('}').toString();
+    }
+
+    private static void appendReferencedSchemas(StringBuilder schema, Type type, Set<Class<?>> visited) {
+        if (type instanceof Class<?> referencedClass && referencedClass.isAnnotationPresent(Entity.class)) {
+            schema.append(schema(referencedClass, visited));
+        } else if (type instanceof ParameterizedType parameterizedType) {
+            for (var typeArgument : parameterizedType.getActualTypeArguments()) {
+                appendReferencedSchemas(schema, typeArgument, visited);
+            }
+        }
+    }
+
+    /**
+     * A Kryo instance with the buffers it reads from and writes to, used by one thread at a time.
+     */
+    private record KryoContext(Kryo kryo, Output output, Input input) {
 
-        try (Input input = new Input(entity)) {
-            return Optional.ofNullable(kryo.readObject(input, entityClass));
+        /**
+         * Returns the Kryo instance, registering the class first if it is not a registered entity class.
+         */
+        Kryo kryo(Class<?> entityClass) {
+            if (kryo.getClassResolver().getRegistration(entityClass) == null) {
+                kryo.register(entityClass);
+            }
+            return kryo;
         }
     }
 }
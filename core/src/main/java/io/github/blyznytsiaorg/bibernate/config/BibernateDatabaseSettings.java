@@ -1,12 +1,21 @@
 package io.github.blyznytsiaorg.bibernate.config;
 
 import io.github.blyznytsiaorg.bibernate.cache.RedisConfiguration;
+import io.github.blyznytsiaorg.bibernate.connectionpool.BibernateDataSource;
 import io.github.blyznytsiaorg.bibernate.connectionpool.BibernateDatasSourceConfig;
+import io.github.blyznytsiaorg.bibernate.connectionpool.LoadBalancingStrategy;
+import io.github.blyznytsiaorg.bibernate.connectionpool.ReadReplicaDataSource;
+import io.github.blyznytsiaorg.bibernate.entity.metadata.EntityMetadata;
+import io.github.blyznytsiaorg.bibernate.session.FlushMode;
 import io.github.blyznytsiaorg.bibernate.exception.BibernateGeneralException;
 import io.github.blyznytsiaorg.bibernate.transaction.TransactionalDatasource;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
 
 /**
  * Configuration class for Bibernate database settings.
@@ -23,6 +32,21 @@ public class BibernateDatabaseSettings {
     public static final String DB_USER = "db.user";
     public static final String DB_PASSWORD = "db.password";
     public static final String DB_MAXIMUM_POOL_SIZE = "db.maxPoolSize";
+    public static final String DB_CONNECTION_TIMEOUT_MS = "db.connectionTimeoutMs";
+    public static final String DB_MIN_IDLE = "db.minIdle";
+    public static final String DB_IDLE_TIMEOUT_MS = "db.idleTimeoutMs";
+    public static final String DB_MAX_LIFETIME_MS = "db.maxLifetimeMs";
+    public static final String DB_WARM_UP_PARALLELISM = "db.warmUpParallelism";
+    public static final String DB_STATEMENT_CACHE_SIZE = "db.statementCacheSize";
+    public static final String DB_POOL_NAME = "db.poolName";
+    public static final String DB_LEAK_DETECTION_THRESHOLD_MS = "db.leakDetectionThresholdMs";
+    public static final String DB_REPLICA_PREFIX = "db.replica.";
+    public static final String DB_REPLICA_LOAD_BALANCING = "db.replica.loadBalancing";
+    private static final Pattern DB_REPLICA_URL_PATTERN = Pattern.compile("db\\.replica\\.(\\d+)\\.url");
+    private static final String URL_SUFFIX = ".url";
+    private static final String USER_SUFFIX = ".user";
+    private static final String PASSWORD_SUFFIX = ".password";
+    private static final String REPLICA_POOL_NAME_SUFFIX = "-replica-";
     private static final String SHOW_SQL = "bibernate.show_sql";
     private static final String BATCH_SIZE = "bibernate.batch_size";
     private static final String COLLECT_QUERIES = "bibernate.collect.queries";
@@ -30,13 +54,46 @@ public class BibernateDatabaseSettings {
     private static final String SECOND_LEVEL_CACHE = "bibernate.secondLevelCache.enabled";
     private static final String SECOND_LEVEL_CACHE_HOST = "bibernate.secondLevelCache.host";
     private static final String SECOND_LEVEL_CACHE_POST = "bibernate.secondLevelCache.port";
+    private static final String SECOND_LEVEL_CACHE_NEAR_CACHE_MAX_ENTRIES =
+            "bibernate.secondLevelCache.nearCache.maxEntries";
+    private static final String SECOND_LEVEL_CACHE_NEAR_CACHE_MAX_BYTES = "bibernate.secondLevelCache.nearCache.maxBytes";
+    private static final String SECOND_LEVEL_CACHE_INVALIDATION_CHANNEL =
+            "bibernate.secondLevelCache.invalidationChannel";
+    private static final String SECOND_LEVEL_CACHE_POOL_SIZE = "bibernate.secondLevelCache.poolSize";
+    private static final String SECOND_LEVEL_CACHE_TIMEOUT_MS = "bibernate.secondLevelCache.timeoutMs";
     private static final String BB2DDL_AUTO = "bibernate.2ddl.auto";
+    private static final String FLUSH_MODE = "bibernate.flushMode";
+    private static final String SESSION_MAX_MANAGED_ENTITIES = "bibernate.session.maxManagedEntities";
+    private static final String SESSION_PARALLEL_DIRTY_CHECKING_THRESHOLD =
+            "bibernate.session.parallelDirtyCheckingThreshold";
+    private static final String SESSION_FIND_ALL_BY_ID_CHUNK_SIZE = "bibernate.session.findAllByIdChunkSize";
+    private static final String ACTION_QUEUE_MAX_PENDING_ENTITIES = "bibernate.actionqueue.maxPendingEntities";
+    private static final String ACTION_QUEUE_MAX_PENDING_BYTES = "bibernate.actionqueue.maxPendingBytes";
     public static final String BIBERNATE_APPLICATION_PROPERTIES = "application.properties";
     private static final String DEFAULT_BOOLEAN_FALSE_VALUE = "false";
     private static final String DEFAULT_REDIS_HOST = "localhost";
     private static final String DEFAULT_REDIS_PORT = "6379";
+    private static final String DEFAULT_NEAR_CACHE_MAX_ENTRIES = "0";
+    private static final String DEFAULT_NEAR_CACHE_MAX_BYTES = "0";
+    private static final String DEFAULT_INVALIDATION_CHANNEL = "bibernate:invalidation";
+    private static final String DEFAULT_SECOND_LEVEL_CACHE_POOL_SIZE = "8";
+    private static final String DEFAULT_SECOND_LEVEL_CACHE_TIMEOUT_MS = "500";
     private static final String DEFAULT_BATCH_SIZE = "1";
     private static final String DEFAULT_MAXIMUM_POOL_SIZE = "20";
+    private static final String DEFAULT_CONNECTION_TIMEOUT_MS = "30000";
+    private static final String DEFAULT_MIN_IDLE = "2";
+    private static final String DEFAULT_IDLE_TIMEOUT_MS = "600000";
+    private static final String DEFAULT_MAX_LIFETIME_MS = "1800000";
+    private static final String DEFAULT_WARM_UP_PARALLELISM = "8";
+    private static final String DEFAULT_STATEMENT_CACHE_SIZE = "0";
+    private static final String DEFAULT_LEAK_DETECTION_THRESHOLD_MS = "0";
+    private static final String DEFAULT_REPLICA_LOAD_BALANCING = "round_robin";
+    private static final String DEFAULT_FLUSH_MODE = "auto";
+    private static final String DEFAULT_SESSION_MAX_MANAGED_ENTITIES = "0";
+    private static final String DEFAULT_SESSION_PARALLEL_DIRTY_CHECKING_THRESHOLD = "0";
+    private static final String DEFAULT_SESSION_FIND_ALL_BY_ID_CHUNK_SIZE = "1000";
+    private static final String DEFAULT_ACTION_QUEUE_MAX_PENDING_ENTITIES = "0";
+    private static final String DEFAULT_ACTION_QUEUE_MAX_PENDING_BYTES = "0";
     public static final String NONE = "none";
     public static final String CREATE = "create";
     private static final String DEFAULT_DB_CONNECTION_URL = "jdbc:postgresql://localhost:5432/db";
@@ -44,7 +101,9 @@ public class BibernateDatabaseSettings {
     private static final String DEFAULT_DB_PASSWORD = "password";
     private final Map<String, String> bibernateSettingsProperties;
     private final TransactionalDatasource dataSource;
+    private final ReadReplicaDataSource replicaDataSource;
     private RedisConfiguration redisConfiguration;
+    private Map<Class<?>, EntityMetadata> bibernateEntityMetadata = Map.of();
 
     /**
      * Constructs a new BibernateDatabaseSettings instance with the specified Bibernate settings properties and file name.
@@ -54,6 +113,12 @@ public class BibernateDatabaseSettings {
     public BibernateDatabaseSettings(Map<String, String> bibernateSettingsProperties) {
         this.bibernateSettingsProperties = bibernateSettingsProperties;
         this.dataSource = createDataSource();
+        try {
+            this.replicaDataSource = createReplicaDataSource();
+        } catch (RuntimeException e) {
+            dataSource.close();
+            throw e;
+        }
         checkDatabaseSettings();
     }
 
@@ -66,6 +131,16 @@ public class BibernateDatabaseSettings {
         this.redisConfiguration = redisConfiguration;
     }
 
+    /**
+     * Sets the metadata of the entity classes managed with these settings.
+     *
+     * @param bibernateEntityMetadata the entity metadata, where the keys are entity classes and the values are
+     *                                corresponding metadata
+     */
+    public void setBibernateEntityMetadata(Map<Class<?>, EntityMetadata> bibernateEntityMetadata) {
+        this.bibernateEntityMetadata = bibernateEntityMetadata;
+    }
+
     /**
      * Creates a Hikari data source using the configured properties.
      *
@@ -76,16 +151,114 @@ public class BibernateDatabaseSettings {
         String url = bibernateSettingsProperties.getOrDefault(DB_URL, DEFAULT_DB_CONNECTION_URL);
         String user = bibernateSettingsProperties.getOrDefault(DB_USER, DEFAULT_DB_USERNAME);
         String password = bibernateSettingsProperties.getOrDefault(DB_PASSWORD, DEFAULT_DB_PASSWORD);
+        String poolName = bibernateSettingsProperties.get(DB_POOL_NAME);
+
+        return new TransactionalDatasource(createDataSourceConfig(url, user, password, poolName));
+    }
+
+    /**
+     * Creates a pool per replica configured with {@code db.replica.N.url}. A replica uses the primary
+     * credentials unless {@code db.replica.N.user} and {@code db.replica.N.password} are set.
+     *
+     * @return the replica data source, or {@code null} if no replica is configured
+     */
+    private ReadReplicaDataSource createReplicaDataSource() {
+        var replicaNumbers = bibernateSettingsProperties.keySet().stream()
+                .map(DB_REPLICA_URL_PATTERN::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> Integer.parseInt(matcher.group(1)))
+                .sorted()
+                .toList();
+        if (replicaNumbers.isEmpty()) {
+            return null;
+        }
+
+        log.trace("Creating {} replica dataSources...", replicaNumbers.size());
+        String user = bibernateSettingsProperties.getOrDefault(DB_USER, DEFAULT_DB_USERNAME);
+        String password = bibernateSettingsProperties.getOrDefault(DB_PASSWORD, DEFAULT_DB_PASSWORD);
+        String poolName = bibernateSettingsProperties.get(DB_POOL_NAME);
+
+        var replicas = new ArrayList<BibernateDataSource>();
+        try {
+            for (var replicaNumber : replicaNumbers) {
+                var prefix = DB_REPLICA_PREFIX + replicaNumber;
+                var config = createDataSourceConfig(
+                        bibernateSettingsProperties.get(prefix + URL_SUFFIX),
+                        bibernateSettingsProperties.getOrDefault(prefix + USER_SUFFIX, user),
+                        bibernateSettingsProperties.getOrDefault(prefix + PASSWORD_SUFFIX, password),
+                        poolName != null ? poolName + REPLICA_POOL_NAME_SUFFIX + replicaNumber : null);
+                replicas.add(new BibernateDataSource(config));
+            }
+        } catch (RuntimeException e) {
+            replicas.forEach(BibernateDataSource::close);
+            throw e;
+        }
+
+        var loadBalancing = bibernateSettingsProperties.getOrDefault(DB_REPLICA_LOAD_BALANCING,
+                DEFAULT_REPLICA_LOAD_BALANCING);
+        return new ReadReplicaDataSource(replicas, LoadBalancingStrategy.valueOf(loadBalancing.toUpperCase()));
+    }
+
+    /**
+     * Creates the pool configuration shared by the primary and replica data sources.
+     */
+    private BibernateDatasSourceConfig createDataSourceConfig(String url, String user, String password,
+                                                              String poolName) {
         String maxPoolSize = bibernateSettingsProperties.getOrDefault(DB_MAXIMUM_POOL_SIZE, DEFAULT_MAXIMUM_POOL_SIZE);
+        String connectionTimeoutMs = bibernateSettingsProperties.getOrDefault(DB_CONNECTION_TIMEOUT_MS,
+                DEFAULT_CONNECTION_TIMEOUT_MS);
+        String minIdle = bibernateSettingsProperties.getOrDefault(DB_MIN_IDLE, DEFAULT_MIN_IDLE);
+        String idleTimeoutMs = bibernateSettingsProperties.getOrDefault(DB_IDLE_TIMEOUT_MS, DEFAULT_IDLE_TIMEOUT_MS);
+        String maxLifetimeMs = bibernateSettingsProperties.getOrDefault(DB_MAX_LIFETIME_MS, DEFAULT_MAX_LIFETIME_MS);
+        String warmUpParallelism = bibernateSettingsProperties.getOrDefault(DB_WARM_UP_PARALLELISM,
+                DEFAULT_WARM_UP_PARALLELISM);
+        String statementCacheSize = bibernateSettingsProperties.getOrDefault(DB_STATEMENT_CACHE_SIZE,
+                DEFAULT_STATEMENT_CACHE_SIZE);
+        String leakDetectionThresholdMs = bibernateSettingsProperties.getOrDefault(DB_LEAK_DETECTION_THRESHOLD_MS,
+                DEFAULT_LEAK_DETECTION_THRESHOLD_MS);
 
-        var config = BibernateDatasSourceConfig.builder()
+        return BibernateDatasSourceConfig.builder()
+                .poolName(poolName)
                 .jdbcUrl(url)
                 .username(user)
                 .password(password)
                 .maximumPoolSize(Integer.parseInt(maxPoolSize))
+                .connectionTimeoutMs(Long.parseLong(connectionTimeoutMs))
+                .minIdle(Integer.parseInt(minIdle))
+                .idleTimeoutMs(Long.parseLong(idleTimeoutMs))
+                .maxLifetimeMs(Long.parseLong(maxLifetimeMs))
+                .warmUpParallelism(Integer.parseInt(warmUpParallelism))
+                .statementCacheSize(Integer.parseInt(statementCacheSize))
+                .leakDetectionThresholdMs(Long.parseLong(leakDetectionThresholdMs))
                 .build();
+    }
 
-        return new TransactionalDatasource(config);
+    /**
+     * Returns the data source for reads that may be served by a replica:
+     * the replica data source when replicas are configured, otherwise the primary data source.
+     *
+     * @return the data source for replica reads
+     */
+    public DataSource getReadDataSource() {
+        return replicaDataSource != null ? replicaDataSource : dataSource;
+    }
+
+    /**
+     * Closes the primary and replica data sources and the Redis connection pool.
+     */
+    public void closeDataSources() {
+        if (replicaDataSource != null) {
+            log.trace("Close replica dataSources...");
+            replicaDataSource.close();
+        }
+        if (dataSource != null) {
+            log.trace("Close dataSource...");
+            dataSource.close();
+        }
+        if (redisConfiguration != null) {
+            log.trace("Close Redis connection pool...");
+            redisConfiguration.close();
+        }
     }
 
     /**
@@ -152,6 +325,66 @@ public class BibernateDatabaseSettings {
         return Integer.parseInt(bibernateSettingsProperties.getOrDefault(SECOND_LEVEL_CACHE_POST, DEFAULT_REDIS_PORT));
     }
 
+    /**
+     * Gets the maximum number of entities kept in the in-process near cache in front of the second level cache.
+     *
+     * @return the configured limit, 0 (no entry limit) if not explicitly set
+     */
+    public int getNearCacheMaxEntries() {
+        return Integer.parseInt(bibernateSettingsProperties.getOrDefault(SECOND_LEVEL_CACHE_NEAR_CACHE_MAX_ENTRIES,
+                DEFAULT_NEAR_CACHE_MAX_ENTRIES));
+    }
+
+    /**
+     * Gets the maximum bytes of serialized entities kept in the in-process near cache.
+     *
+     * @return the configured limit, 0 (no byte limit) if not explicitly set
+     */
+    public long getNearCacheMaxBytes() {
+        return Long.parseLong(bibernateSettingsProperties.getOrDefault(SECOND_LEVEL_CACHE_NEAR_CACHE_MAX_BYTES,
+                DEFAULT_NEAR_CACHE_MAX_BYTES));
+    }
+
+    /**
+     * Checks if the near cache is enabled, i.e. it is bounded by entries or bytes.
+     *
+     * @return true if the near cache is enabled, otherwise false
+     */
+    public boolean isNearCacheEnabled() {
+        return getNearCacheMaxEntries() > 0 || getNearCacheMaxBytes() > 0;
+    }
+
+    /**
+     * Gets the name of the Redis channel propagating near cache invalidations between nodes.
+     *
+     * @return the name of the invalidation channel
+     */
+    public String getSecondLevelCacheInvalidationChannel() {
+        return bibernateSettingsProperties.getOrDefault(SECOND_LEVEL_CACHE_INVALIDATION_CHANNEL,
+                DEFAULT_INVALIDATION_CHANNEL);
+    }
+
+    /**
+     * Gets the maximum number of connections in the Redis connection pool shared by all sessions.
+     *
+     * @return the configured pool size, 8 if not explicitly set
+     */
+    public int getSecondLevelCachePoolSize() {
+        return Integer.parseInt(bibernateSettingsProperties.getOrDefault(SECOND_LEVEL_CACHE_POOL_SIZE,
+                DEFAULT_SECOND_LEVEL_CACHE_POOL_SIZE));
+    }
+
+    /**
+     * Gets the timeout in milliseconds for connecting to Redis, waiting for a Redis response
+     * and waiting for a free connection in the pool.
+     *
+     * @return the configured timeout, 500 ms if not explicitly set
+     */
+    public int getSecondLevelCacheTimeoutMs() {
+        return Integer.parseInt(bibernateSettingsProperties.getOrDefault(SECOND_LEVEL_CACHE_TIMEOUT_MS,
+                DEFAULT_SECOND_LEVEL_CACHE_TIMEOUT_MS));
+    }
+
     /**
      * Retrieves the batch size configuration for batch processing from the Bibernate settings properties.
      * If the batch size is not explicitly configured, the method returns the default batch size value.
@@ -162,6 +395,72 @@ public class BibernateDatabaseSettings {
         return Integer.parseInt(bibernateSettingsProperties.getOrDefault(BATCH_SIZE, DEFAULT_BATCH_SIZE));
     }
 
+    /**
+     * Retrieves the flush mode of new sessions from the Bibernate settings properties.
+     *
+     * @return the configured flush mode, {@link FlushMode#AUTO} if not explicitly set
+     */
+    public FlushMode getFlushMode() {
+        return FlushMode.valueOf(getPropertyString(FLUSH_MODE, DEFAULT_FLUSH_MODE).toUpperCase());
+    }
+
+    /**
+     * Retrieves the maximum number of entities a session keeps in its persistence context.
+     * Above it the session evicts its least recently used clean entities; it never flushes to make room.
+     * Dirty entities stay managed: in {@link FlushMode#AUTO} mode they are flushed before the next query and can
+     * be evicted afterwards, in {@link FlushMode#COMMIT} and {@link FlushMode#MANUAL} modes they stay until the
+     * session is flushed, so a session holding only dirty entities is not bounded by this limit.
+     *
+     * @return the configured limit, 0 (unlimited) if not explicitly set
+     */
+    public int getSessionMaxManagedEntities() {
+        return Integer.parseInt(bibernateSettingsProperties.getOrDefault(SESSION_MAX_MANAGED_ENTITIES,
+                DEFAULT_SESSION_MAX_MANAGED_ENTITIES));
+    }
+
+    /**
+     * Retrieves the number of managed entities from which a session compares entities with their snapshots
+     * in parallel on flush.
+     *
+     * @return the configured threshold, 0 (always sequential) if not explicitly set
+     */
+    public int getSessionParallelDirtyCheckingThreshold() {
+        return Integer.parseInt(bibernateSettingsProperties.getOrDefault(SESSION_PARALLEL_DIRTY_CHECKING_THRESHOLD,
+                DEFAULT_SESSION_PARALLEL_DIRTY_CHECKING_THRESHOLD));
+    }
+
+    /**
+     * Retrieves the maximum number of ids a session sends to the database in one {@code findAllById} query.
+     * Longer id lists are split into several queries.
+     *
+     * @return the configured chunk size, 1000 if not explicitly set
+     */
+    public int getSessionFindAllByIdChunkSize() {
+        return Integer.parseInt(bibernateSettingsProperties.getOrDefault(SESSION_FIND_ALL_BY_ID_CHUNK_SIZE,
+                DEFAULT_SESSION_FIND_ALL_BY_ID_CHUNK_SIZE));
+    }
+
+    /**
+     * Retrieves the maximum number of inserted entities a session queues before it executes the pending inserts.
+     *
+     * @return the configured limit, 0 (unlimited) if not explicitly set
+     */
+    public int getActionQueueMaxPendingEntities() {
+        return Integer.parseInt(bibernateSettingsProperties.getOrDefault(ACTION_QUEUE_MAX_PENDING_ENTITIES,
+                DEFAULT_ACTION_QUEUE_MAX_PENDING_ENTITIES));
+    }
+
+    /**
+     * Retrieves the maximum estimated size in bytes of the inserted entities a session queues before it executes
+     * the pending inserts.
+     *
+     * @return the configured limit, 0 (unlimited) if not explicitly set
+     */
+    public long getActionQueueMaxPendingBytes() {
+        return Long.parseLong(bibernateSettingsProperties.getOrDefault(ACTION_QUEUE_MAX_PENDING_BYTES,
+                DEFAULT_ACTION_QUEUE_MAX_PENDING_BYTES));
+    }
+
     /**
      * Retrieves a boolean property value from the Bibernate settings.
      *
@@ -34,7 +34,7 @@ public class DDLConfiguration {
     private void processBb2DdlProperty(BibernateDatabaseSettings bibernateDatabaseSettings) {
         if (bibernateDatabaseSettings.isDDLCreate()) {
             var dataSource = bibernateDatabaseSettings.getDataSource();
-            var ddlProcessor = new DDLProcessor(new DDLQueryCreator(), dataSource);
+            var ddlProcessor = new DDLProcessor(new DDLQueryCreator(bibernateDatabaseSettings.getBibernateEntityMetadata()), dataSource);
             ddlProcessor.processCreateProperty();
         }
     }
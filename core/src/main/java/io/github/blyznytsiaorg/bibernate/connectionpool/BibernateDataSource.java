@@ -2,20 +2,45 @@ package io.github.blyznytsiaorg.bibernate.connectionpool;
 
 import io.github.blyznytsiaorg.bibernate.exception.BibernateDataSourceException;
 import io.github.blyznytsiaorg.bibernate.exception.ConnectionPoolException;
+import io.github.blyznytsiaorg.bibernate.exception.ConnectionPoolTimeoutException;
+import io.github.blyznytsiaorg.bibernate.utils.ThreadUtils;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import javax.sql.DataSource;
 
 /**
  * BibernateDataSource is an implementation of the DataSource interface that provides connections to a database.
  * It manages a connection pool and allows clients to obtain connections and release them when done.
+ * <p>
+ * The pool is elastic: it opens {@code minIdle} connections on start, grows on demand up to
+ * {@code maximumPoolSize} and a background housekeeper retires connections that stay idle longer than
+ * {@code idleTimeoutMs} or live longer than {@code maxLifetimeMs}.
+ * The initial connections are opened concurrently on a bounded executor, backed by virtual threads when the
+ * runtime supports them.
+ * <p>
+ * Usage statistics are available through {@link #getPoolStats()} and are registered as a JMX MBean per data source.
+ * <p>
+ * Callers are admitted through a fair semaphore with one permit per pooled connection, so with thousands of
+ * concurrent callers (e.g. one virtual thread per request) only as many callers as there are connections
+ * compete for them, while the rest park in arrival order without holding a monitor or spinning.
  *
  * @author Blyzhnytsia Team
  * @see BibernateDataSource
@@ -24,11 +49,90 @@ import javax.sql.DataSource;
 @Slf4j
 public class BibernateDataSource implements DataSource {
     public static final String METHOD_IS_NOT_SUPPORTED = "Method is not supported";
+    private static final String CONNECTION_IS_NOT_AVAILABLE =
+            "Connection is not available, request timed out after %dms (pool size %d)";
+    private static final String INTERRUPTED_WHILE_WAITING_FOR_CONNECTION =
+            "Interrupted while waiting for a connection from Connection Pool";
+    private static final String CANNOT_CREATE_CONNECTION_TO_DB = "Can't create connection to DB";
+    private static final String POOL_IS_CLOSED = "Connection Pool %s is closed";
+    private static final String HOUSEKEEPER_THREAD_NAME = "bibernate-pool-housekeeper";
+    private static final String WARM_UP_THREAD_NAME = "bibernate-pool-warmup-";
+    private static final String DEFAULT_POOL_NAME = "BibernatePool-";
+    private static final String MBEAN_NAME = "io.github.blyznytsiaorg.bibernate:type=ConnectionPool,name=%s";
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
 
     /**
-     * The connection pool that manages connections to the database.
+     * The connection bag that holds all pooled connections. A returned connection is preferably reused by the
+     * thread that returned it, otherwise it is handed directly to the longest waiting caller.
      */
-    private final Queue<Connection> connectionPool = new ConcurrentLinkedQueue<>();
+    private final ConnectionBag connectionBag = new ConnectionBag();
+
+    /**
+     * Admission control: a caller holds a permit from the moment it is admitted until it returns its connection.
+     */
+    private final Semaphore admission;
+
+    /**
+     * The configuration this data source was created with.
+     */
+    private final BibernateDatasSourceConfig config;
+
+    /**
+     * Number of physical connections currently owned by the pool, both idle and in use.
+     */
+    private final AtomicInteger totalConnections = new AtomicInteger();
+
+    /**
+     * Usage statistics of this pool, also registered as a JMX MBean.
+     */
+    private final PoolStats poolStats;
+
+    /**
+     * The name of this pool, used in the JMX object name.
+     */
+    private final String poolName;
+
+    /**
+     * The JMX name the pool statistics are registered under, {@code null} if the registration failed.
+     */
+    private ObjectName mBeanName;
+
+    /**
+     * Background executor that evicts idle and expired connections, keeps {@code minIdle} connections open
+     * and runs the leak detection reports.
+     */
+    private final ScheduledExecutorService houseKeeper;
+
+    /**
+     * Time in milliseconds a connection may be held before it is reported as a possible leak, 0 disables it.
+     */
+    private final long leakDetectionThresholdMs;
+
+    /**
+     * Maximum time in milliseconds a caller waits for a free connection.
+     */
+    private final long connectionTimeoutMs;
+
+    /**
+     * Maximum number of connections held by the pool.
+     */
+    private final int maximumPoolSize;
+
+    /**
+     * Number of idle connections the pool tries to keep open.
+     */
+    private final int minIdle;
+
+    /**
+     * Time in milliseconds it took to open the initial connections.
+     */
+    private final long warmUpDurationMs;
+
+    /**
+     * Whether {@link #close()} was called. A closed pool hands out no connections and closes the borrowed ones
+     * when they are returned.
+     */
+    private volatile boolean closed;
 
     /**
      * Constructs a new BibernateDataSource with the given configuration.
@@ -38,30 +142,64 @@ public class BibernateDataSource implements DataSource {
      */
     public BibernateDataSource(BibernateDatasSourceConfig config) {
         log.debug("Starting Bibernate Datasource ...");
-        for (int i = 0; i < config.getMaximumPoolSize(); i++) {
-            Connection connection;
-            try {
-                var realConnection = DriverManager.getConnection(config.getJdbcUrl(),
-                        config.getUsername(), config.getPassword());
-                connection = new ProxyConnection(realConnection, connectionPool);
-            } catch (SQLException e) {
-                throw new BibernateDataSourceException("Can't create connection to DB", e);
-            }
-            connectionPool.add(connection);
+        this.config = config;
+        this.maximumPoolSize = config.getMaximumPoolSize();
+        this.minIdle = Math.min(config.getMinIdle(), maximumPoolSize);
+        this.connectionTimeoutMs = config.getConnectionTimeoutMs();
+        this.leakDetectionThresholdMs = config.getLeakDetectionThresholdMs();
+        this.admission = new Semaphore(maximumPoolSize, true);
+        this.poolStats = new PoolStats(connectionBag, totalConnections, admission);
+        this.poolName = config.getPoolName() != null
+                ? config.getPoolName()
+                : DEFAULT_POOL_NAME + POOL_COUNTER.incrementAndGet();
+
+        try {
+            this.warmUpDurationMs = warmUp();
+        } catch (SQLException e) {
+            close();
+            throw new BibernateDataSourceException(CANNOT_CREATE_CONNECTION_TO_DB, e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
         }
-        log.debug("Connection Pool size: {}", connectionPool.size());
+
+        var scheduledExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            var thread = new Thread(runnable, HOUSEKEEPER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+        this.houseKeeper = scheduledExecutor;
+        var housekeepingPeriodMs = config.getHousekeepingPeriodMs();
+        houseKeeper.scheduleWithFixedDelay(this::houseKeep, housekeepingPeriodMs, housekeepingPeriodMs,
+                TimeUnit.MILLISECONDS);
+
+        registerMBean();
+
+        log.debug("Connection Pool {} size: {}, minIdle: {}, maxPoolSize: {}, warmed up in {}ms",
+                poolName, totalConnections.get(), minIdle, maximumPoolSize, warmUpDurationMs);
         log.debug("Start completed Bibernate Datasource ...");
     }
 
     /**
-     * Closes all connections in the connection pool.
+     * Stops the housekeeper and closes all idle connections in the connection pool. Connections borrowed at this
+     * point are closed when they are returned, and no new connections are handed out.
      *
      * @throws ConnectionPoolException if an error occurs while closing connections
      */
     public void close() {
-        while (!connectionPool.isEmpty()) {
-            var connection = (ProxyConnection) connectionPool.poll();
+        closed = true;
+        if (houseKeeper != null) {
+            houseKeeper.shutdownNow();
+        }
+        unregisterMBean();
+        for (var connection : connectionBag.values(ConnectionBag.STATE_NOT_IN_USE)) {
+            if (!connectionBag.reserve(connection) || !connectionBag.remove(connection)) {
+                continue;
+            }
             try {
+                totalConnections.decrementAndGet();
+                poolStats.recordConnectionDestroyed();
                 connection.release();
                 log.trace("Closing database connection ...");
             } catch (SQLException e) {
@@ -71,14 +209,368 @@ public class BibernateDataSource implements DataSource {
     }
 
     /**
-     * Retrieves a Connection wrapped by ProxyConnection from the connection pool.
+     * Retrieves a Connection from the connection pool, as a handle of the pooled ProxyConnection that is only valid
+     * until it is closed.
+     * The caller first waits for an admission permit, then an idle connection is reused when available,
+     * preferring the ones recently returned by the calling thread, otherwise the pool grows up to its maximum size.
+     * When the pool is at its maximum, the caller waits up to the configured connection timeout for a connection
+     * handed off by a returning thread.
      *
      * @return a Connection object from the connection pool
      * @throws SQLException if a database access error occurs
+     * @throws ConnectionPoolTimeoutException if no connection becomes available within the connection timeout
+     * @throws ConnectionPoolException if the waiting thread is interrupted or the pool is closed
      */
     @Override
     public Connection getConnection() throws SQLException {
-        return connectionPool.poll();
+        if (closed) {
+            throw new ConnectionPoolException(POOL_IS_CLOSED.formatted(poolName));
+        }
+        var start = System.nanoTime();
+        var timeoutNanos = TimeUnit.MILLISECONDS.toNanos(connectionTimeoutMs);
+        var deadline = start + timeoutNanos;
+        var admitted = false;
+        try {
+            // A connection taken without waiting reuses the start time, as its acquire latency is below the
+            // microsecond resolution of the histogram: reading the clock is the most expensive step of the fast path
+            var waited = !admission.tryAcquire(0, TimeUnit.NANOSECONDS);
+            admitted = !waited || admission.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+            while (admitted) {
+                var connection = connectionBag.borrow(0, TimeUnit.NANOSECONDS);
+                if (connection == null) {
+                    waited = true;
+                    connection = tryCreateConnection();
+                    if (connection != null) {
+                        connection.setState(ConnectionBag.STATE_IN_USE);
+                        connectionBag.add(connection);
+                    }
+                }
+                if (connection == null) {
+                    var remaining = deadline - System.nanoTime();
+                    connection = remaining > 0 ? connectionBag.borrow(remaining, TimeUnit.NANOSECONDS) : null;
+                }
+                if (connection == null) {
+                    break;
+                }
+                if (closed) {
+                    closeConnection(connection);
+                    throw new ConnectionPoolException(POOL_IS_CLOSED.formatted(poolName));
+                }
+                var now = waited ? System.nanoTime() : start;
+                if (!isExpired(connection, now)) {
+                    connection.resetState();
+                    connection.markBorrowed(now, scheduleLeakDetection(connection));
+                    poolStats.getAcquireLatency().record(now - start, TimeUnit.NANOSECONDS);
+                    admitted = false;
+                    return connection.getHandle();
+                }
+
+                log.trace("Retiring connection that exceeded maxLifetime {}ms", config.getMaxLifetimeMs());
+                closeConnection(connection);
+                waited = true;
+                if (System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionPoolException(INTERRUPTED_WHILE_WAITING_FOR_CONNECTION, e);
+        } finally {
+            if (admitted) {
+                admission.release();
+            }
+        }
+
+        poolStats.recordConnectionTimeout();
+        throw new ConnectionPoolTimeoutException(
+                CONNECTION_IS_NOT_AVAILABLE.formatted(connectionTimeoutMs, maximumPoolSize));
+    }
+
+    /**
+     * Returns the usage statistics of this pool.
+     *
+     * @return the live pool statistics
+     */
+    public PoolStats getPoolStats() {
+        return poolStats;
+    }
+
+    /**
+     * Returns the name of this pool.
+     *
+     * @return the pool name
+     */
+    public String getPoolName() {
+        return poolName;
+    }
+
+    /**
+     * Returns a borrowed connection to the pool. Called by {@link ProxyConnection#close()}.
+     * Once the pool is closed, the physical connection is closed instead.
+     *
+     * @param connection the connection to return
+     */
+    void recycle(ProxyConnection connection) {
+        connection.cancelLeakDetection();
+        poolStats.getHoldTime().record(connection.getLastReturnedNanos() - connection.getLastBorrowedNanos(),
+                TimeUnit.NANOSECONDS);
+        if (closed) {
+            closeConnection(connection);
+        } else {
+            connectionBag.requite(connection);
+            if (closed && connectionBag.reserve(connection)) {
+                closeConnection(connection);
+            }
+        }
+        admission.release();
+    }
+
+    /**
+     * Closes a borrowed connection that can't be reused, e.g. because rolling back its transaction failed,
+     * and frees its place in the pool. Called by {@link ProxyConnection#close()}.
+     *
+     * @param connection the connection to retire
+     */
+    void retire(ProxyConnection connection) {
+        connection.cancelLeakDetection();
+        poolStats.getHoldTime().record(connection.getLastReturnedNanos() - connection.getLastBorrowedNanos(),
+                TimeUnit.NANOSECONDS);
+        log.warn("Retiring connection that could not be reset on return");
+        closeConnection(connection);
+        admission.release();
+    }
+
+    /**
+     * Returns the number of physical connections currently owned by the pool, both idle and in use.
+     *
+     * @return the total number of pooled connections
+     */
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    /**
+     * Returns the number of connections currently waiting in the pool to be borrowed.
+     *
+     * @return the number of idle connections
+     */
+    public int getIdleConnections() {
+        return connectionBag.count(ConnectionBag.STATE_NOT_IN_USE);
+    }
+
+    /**
+     * Returns how long it took to open the initial connections when the data source was created.
+     *
+     * @return the warm-up duration in milliseconds
+     */
+    public long getWarmUpDurationMs() {
+        return warmUpDurationMs;
+    }
+
+    /**
+     * Opens the initial {@code minIdle} connections. When {@code warmUpParallelism} is greater than one
+     * the connections are opened concurrently, so start-up costs roughly one handshake per batch instead of
+     * one per connection. The first failure aborts the warm-up and cancels the connections still pending.
+     *
+     * @return the warm-up duration in milliseconds
+     * @throws SQLException if a database access error occurs
+     */
+    private long warmUp() throws SQLException {
+        var start = System.nanoTime();
+        var parallelism = Math.min(config.getWarmUpParallelism(), minIdle);
+        if (parallelism <= 1) {
+            fillPool();
+        } else {
+            var executor = Executors.newFixedThreadPool(parallelism,
+                    ThreadUtils.newTaskThreadFactory(WARM_UP_THREAD_NAME));
+            var completionService = new ExecutorCompletionService<Void>(executor);
+            try {
+                for (int i = 0; i < minIdle; i++) {
+                    completionService.submit(() -> {
+                        var connection = tryCreateConnection();
+                        if (connection != null) {
+                            connectionBag.add(connection);
+                        }
+                        return null;
+                    });
+                }
+                for (int i = 0; i < minIdle; i++) {
+                    completionService.take().get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                awaitTermination(executor);
+                throw new ConnectionPoolException(INTERRUPTED_WHILE_WAITING_FOR_CONNECTION, e);
+            } catch (ExecutionException e) {
+                awaitTermination(executor);
+                if (e.getCause() instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw new BibernateDataSourceException(CANNOT_CREATE_CONNECTION_TO_DB, e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Cancels pending warm-up tasks and waits for the running ones, so every connection they opened
+     * is back in the pool before the pool is closed.
+     */
+    private void awaitTermination(ExecutorService executor) {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(connectionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Connection Pool warm-up tasks did not finish within {}ms", connectionTimeoutMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Opens new connections until the pool holds at least {@code minIdle} idle connections
+     * or reaches its maximum size.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    private void fillPool() throws SQLException {
+        while (!closed && connectionBag.count(ConnectionBag.STATE_NOT_IN_USE) < minIdle) {
+            var connection = tryCreateConnection();
+            if (connection == null) {
+                return;
+            }
+            connectionBag.add(connection);
+        }
+    }
+
+    /**
+     * Opens a new physical connection if the pool has not reached its maximum size yet.
+     * The caller is responsible for adding the connection to the connection bag.
+     *
+     * @return a new ProxyConnection, or {@code null} if the pool is already at its maximum size
+     * @throws SQLException if a database access error occurs
+     */
+    private ProxyConnection tryCreateConnection() throws SQLException {
+        int current;
+        do {
+            current = totalConnections.get();
+            if (current >= maximumPoolSize) {
+                return null;
+            }
+        } while (!totalConnections.compareAndSet(current, current + 1));
+
+        Connection realConnection = null;
+        try {
+            realConnection = DriverManager.getConnection(config.getJdbcUrl(),
+                    config.getUsername(), config.getPassword());
+            var connection = new ProxyConnection(realConnection, this, config.getStatementCacheSize());
+            log.trace("Opened database connection, pool size {}", current + 1);
+            poolStats.recordConnectionCreated();
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            if (realConnection != null) {
+                try {
+                    realConnection.close();
+                } catch (SQLException closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Periodic maintenance: retires idle connections above {@code minIdle} that exceeded the idle timeout,
+     * retires idle connections that exceeded their maximum lifetime and tops the pool up to {@code minIdle}.
+     */
+    private void houseKeep() {
+        try {
+            var now = System.nanoTime();
+            var idleTimeoutMs = config.getIdleTimeoutMs();
+            for (var connection : connectionBag.values(ConnectionBag.STATE_NOT_IN_USE)) {
+                var idleExpired = idleTimeoutMs > 0 && totalConnections.get() > minIdle
+                        && now - connection.getLastReturnedNanos() > TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+
+                if ((idleExpired || isExpired(connection, now)) && connectionBag.reserve(connection)) {
+                    log.trace("Housekeeper retiring idle connection, pool size {}", totalConnections.get() - 1);
+                    closeConnection(connection);
+                }
+            }
+            fillPool();
+        } catch (Exception e) {
+            log.warn("Connection Pool housekeeping failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Schedules the leak report of a connection about to be handed out, if leak detection is enabled. If the
+     * housekeeper was shut down by a concurrent {@link #close()}, the connection is closed instead.
+     *
+     * @return the scheduled report, or {@code null} if leak detection is disabled
+     */
+    private LeakDetectionTask scheduleLeakDetection(ProxyConnection connection) {
+        if (leakDetectionThresholdMs <= 0) {
+            return null;
+        }
+        try {
+            return LeakDetectionTask.schedule(houseKeeper, poolStats, poolName, leakDetectionThresholdMs);
+        } catch (RejectedExecutionException e) {
+            closeConnection(connection);
+            throw new ConnectionPoolException(POOL_IS_CLOSED.formatted(poolName), e);
+        }
+    }
+
+    private boolean isExpired(ProxyConnection connection, long nowNanos) {
+        var maxLifetimeMs = config.getMaxLifetimeMs();
+        return maxLifetimeMs > 0
+                && nowNanos - connection.getCreationNanos() > TimeUnit.MILLISECONDS.toNanos(maxLifetimeMs);
+    }
+
+    /**
+     * Removes a borrowed or reserved connection from the pool and closes the physical connection.
+     */
+    private void closeConnection(ProxyConnection connection) {
+        if (!connectionBag.remove(connection)) {
+            return;
+        }
+        totalConnections.decrementAndGet();
+        poolStats.recordConnectionDestroyed();
+        try {
+            connection.release();
+        } catch (SQLException e) {
+            log.warn("Can't close connection from Connection Pool: {}", e.getMessage());
+        }
+    }
+
+    private void registerMBean() {
+        try {
+            var objectName = new ObjectName(MBEAN_NAME.formatted(ObjectName.quote(poolName)));
+            var mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(objectName)) {
+                log.warn("Connection Pool MBean {} is already registered", objectName);
+                return;
+            }
+            mBeanServer.registerMBean(poolStats, objectName);
+            mBeanName = objectName;
+        } catch (JMException e) {
+            log.warn("Can't register Connection Pool MBean for {}: {}", poolName, e.getMessage());
+        }
+    }
+
+    private void unregisterMBean() {
+        if (mBeanName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(mBeanName);
+        } catch (JMException e) {
+            log.warn("Can't unregister Connection Pool MBean {}: {}", mBeanName, e.getMessage());
+        } finally {
+            mBeanName = null;
+        }
     }
 
     // DataSource interface methods with UnsupportedOperationException
@@ -6,7 +6,9 @@ import lombok.Setter;
 
 /**
  * BibernateDatasSourceConfig represents the configuration for BibernateDataSource.
- * It includes properties such as JDBC URL, username, password and maximum pool size.
+ * It includes properties such as JDBC URL, username, password, pool sizing, connection timeout,
+ * the idle/lifetime limits used by the pool housekeeper, the warm-up parallelism
+ * and the per-connection statement cache size.
  *
  * @see BibernateDataSource
  *
@@ -21,4 +23,57 @@ public class BibernateDatasSourceConfig {
     private String username;
     private String password;
     private int maximumPoolSize;
+
+    /**
+     * Name of the pool used in logs and in the JMX object name, generated when not set.
+     */
+    private String poolName;
+
+    /**
+     * Maximum time in milliseconds a caller waits for a connection from the pool.
+     */
+    @Builder.Default
+    private long connectionTimeoutMs = 30_000;
+
+    /**
+     * Number of idle connections the pool keeps open; the pool grows on demand above it.
+     */
+    @Builder.Default
+    private int minIdle = 2;
+
+    /**
+     * Time in milliseconds after which an idle connection above {@code minIdle} is closed, 0 disables it.
+     */
+    @Builder.Default
+    private long idleTimeoutMs = 600_000;
+
+    /**
+     * Maximum lifetime in milliseconds of a physical connection before it is replaced, 0 disables it.
+     */
+    @Builder.Default
+    private long maxLifetimeMs = 1_800_000;
+
+    /**
+     * Period in milliseconds between two housekeeper runs.
+     */
+    @Builder.Default
+    private long housekeepingPeriodMs = 30_000;
+
+    /**
+     * Number of initial connections opened concurrently on start, 1 opens them one by one.
+     */
+    @Builder.Default
+    private int warmUpParallelism = 8;
+
+    /**
+     * Maximum number of idle prepared statements cached per connection, 0 disables the statement cache.
+     */
+    @Builder.Default
+    private int statementCacheSize = 0;
+
+    /**
+     * Time in milliseconds a connection may be held before it is reported as a possible leak, 0 disables it.
+     */
+    @Builder.Default
+    private long leakDetectionThresholdMs = 0;
 }
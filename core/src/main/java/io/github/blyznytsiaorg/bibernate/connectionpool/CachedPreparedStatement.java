@@ -0,0 +1,790 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+import io.github.blyznytsiaorg.bibernate.connectionpool.StatementCache.StatementKey;
+import io.github.blyznytsiaorg.bibernate.connectionpool.StatementCache.StatementSettings;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * CachedPreparedStatement is the statement handed out by a {@link StatementCache}. It delegates every call to the
+ * physical statement, except {@code close()} which returns the physical statement to the cache instead of closing it.
+ * Statement settings changed by the borrower, such as the fetch size or the query timeout, are restored before the
+ * statement is reused. A borrower that unwraps the driver statement or asks it to close on completion can change it
+ * behind the cache's back, so such a statement is closed instead of being cached again.
+ *
+ * @see StatementCache
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+class CachedPreparedStatement implements PreparedStatement {
+    private static final String STATEMENT_IS_CLOSED = "Statement is closed";
+
+    private final StatementCache statementCache;
+    private final StatementKey key;
+    private final PreparedStatement statement;
+    private final Connection connection;
+
+    /**
+     * The settings the physical statement had before the borrower changed the first of them, {@code null} while
+     * none were changed.
+     */
+    private StatementSettings defaultSettings;
+
+    /**
+     * Whether the physical statement may have been changed in a way the cache can't restore.
+     */
+    private boolean escaped;
+    private boolean closed;
+
+    CachedPreparedStatement(StatementCache statementCache, StatementKey key, PreparedStatement statement,
+                            Connection connection) {
+        this.statementCache = statementCache;
+        this.key = key;
+        this.statement = statement;
+        this.connection = connection;
+    }
+
+    /**
+     * Returns the physical statement to the statement cache. Closing it again has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (escaped) {
+            StatementCache.closeQuietly(statement);
+        } else {
+            statementCache.offer(key, statement, defaultSettings);
+        }
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed || statement.isClosed();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        checkOpen();
+        return connection;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        checkOpen();
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        escaped = true;
+        return statement.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        checkOpen();
+        return iface.isInstance(this) || statement.isWrapperFor(iface);
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        checkOpen();
+        escaped = true;
+        statement.closeOnCompletion();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        checkOpen();
+        return statement.isCloseOnCompletion();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        checkOpen();
+        captureDefaultSettings();
+        statement.setMaxRows(max);
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        checkOpen();
+        captureDefaultSettings();
+        statement.setLargeMaxRows(max);
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        checkOpen();
+        captureDefaultSettings();
+        statement.setFetchSize(rows);
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        checkOpen();
+        captureDefaultSettings();
+        statement.setFetchDirection(direction);
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        checkOpen();
+        captureDefaultSettings();
+        statement.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        checkOpen();
+        statement.addBatch(sql);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        checkOpen();
+        statement.cancel();
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        checkOpen();
+        statement.clearBatch();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        checkOpen();
+        statement.clearWarnings();
+    }
+
+    @Override
+    public String enquoteIdentifier(String identifier, boolean alwaysQuote) throws SQLException {
+        checkOpen();
+        return statement.enquoteIdentifier(identifier, alwaysQuote);
+    }
+
+    @Override
+    public String enquoteLiteral(String value) throws SQLException {
+        checkOpen();
+        return statement.enquoteLiteral(value);
+    }
+
+    @Override
+    public String enquoteNCharLiteral(String value) throws SQLException {
+        checkOpen();
+        return statement.enquoteNCharLiteral(value);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        checkOpen();
+        return statement.execute(sql);
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        checkOpen();
+        return statement.execute(sql, columnIndexes);
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        checkOpen();
+        return statement.execute(sql, columnNames);
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        checkOpen();
+        return statement.execute(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        checkOpen();
+        return statement.executeBatch();
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        checkOpen();
+        return statement.executeLargeBatch();
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        checkOpen();
+        return statement.executeLargeUpdate(sql);
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        checkOpen();
+        return statement.executeLargeUpdate(sql, columnIndexes);
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        checkOpen();
+        return statement.executeLargeUpdate(sql, columnNames);
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        checkOpen();
+        return statement.executeLargeUpdate(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        checkOpen();
+        return statement.executeQuery(sql);
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        checkOpen();
+        return statement.executeUpdate(sql);
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        checkOpen();
+        return statement.executeUpdate(sql, columnIndexes);
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        checkOpen();
+        return statement.executeUpdate(sql, columnNames);
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        checkOpen();
+        return statement.executeUpdate(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        checkOpen();
+        return statement.getFetchDirection();
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        checkOpen();
+        return statement.getFetchSize();
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        checkOpen();
+        return statement.getGeneratedKeys();
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        checkOpen();
+        return statement.getLargeMaxRows();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        checkOpen();
+        return statement.getLargeUpdateCount();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        checkOpen();
+        return statement.getMaxFieldSize();
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        checkOpen();
+        return statement.getMaxRows();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        checkOpen();
+        return statement.getMoreResults();
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        checkOpen();
+        return statement.getMoreResults(current);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        checkOpen();
+        return statement.getQueryTimeout();
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        checkOpen();
+        return statement.getResultSet();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        checkOpen();
+        return statement.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        checkOpen();
+        return statement.getResultSetHoldability();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        checkOpen();
+        return statement.getResultSetType();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        checkOpen();
+        return statement.getUpdateCount();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        checkOpen();
+        return statement.getWarnings();
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        checkOpen();
+        return statement.isPoolable();
+    }
+
+    @Override
+    public boolean isSimpleIdentifier(String identifier) throws SQLException {
+        checkOpen();
+        return statement.isSimpleIdentifier(identifier);
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        checkOpen();
+        statement.setCursorName(name);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        checkOpen();
+        statement.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        checkOpen();
+        statement.setMaxFieldSize(max);
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        checkOpen();
+        statement.setPoolable(poolable);
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        checkOpen();
+        statement.addBatch();
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        checkOpen();
+        statement.clearParameters();
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        checkOpen();
+        return statement.execute();
+    }
+
+    @Override
+    public long executeLargeUpdate() throws SQLException {
+        checkOpen();
+        return statement.executeLargeUpdate();
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        checkOpen();
+        return statement.executeQuery();
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        checkOpen();
+        return statement.executeUpdate();
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        checkOpen();
+        return statement.getMetaData();
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        checkOpen();
+        return statement.getParameterMetaData();
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        checkOpen();
+        statement.setArray(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream inputStream) throws SQLException {
+        checkOpen();
+        statement.setAsciiStream(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream inputStream, int length) throws SQLException {
+        checkOpen();
+        statement.setAsciiStream(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        checkOpen();
+        statement.setAsciiStream(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        checkOpen();
+        statement.setBigDecimal(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream inputStream) throws SQLException {
+        checkOpen();
+        statement.setBinaryStream(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream inputStream, int length) throws SQLException {
+        checkOpen();
+        statement.setBinaryStream(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        checkOpen();
+        statement.setBinaryStream(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        checkOpen();
+        statement.setBlob(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        checkOpen();
+        statement.setBlob(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        checkOpen();
+        statement.setBlob(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        checkOpen();
+        statement.setBoolean(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        checkOpen();
+        statement.setByte(parameterIndex, x);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        checkOpen();
+        statement.setBytes(parameterIndex, x);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        checkOpen();
+        statement.setCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        checkOpen();
+        statement.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        checkOpen();
+        statement.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        checkOpen();
+        statement.setClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        checkOpen();
+        statement.setClob(parameterIndex, x);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        checkOpen();
+        statement.setClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        checkOpen();
+        statement.setDate(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar calendar) throws SQLException {
+        checkOpen();
+        statement.setDate(parameterIndex, x, calendar);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        checkOpen();
+        statement.setDouble(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        checkOpen();
+        statement.setFloat(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        checkOpen();
+        statement.setInt(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        checkOpen();
+        statement.setLong(parameterIndex, x);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        checkOpen();
+        statement.setNCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        checkOpen();
+        statement.setNCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        checkOpen();
+        statement.setNClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob x) throws SQLException {
+        checkOpen();
+        statement.setNClob(parameterIndex, x);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        checkOpen();
+        statement.setNClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String x) throws SQLException {
+        checkOpen();
+        statement.setNString(parameterIndex, x);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        checkOpen();
+        statement.setNull(parameterIndex, sqlType);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        checkOpen();
+        statement.setNull(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        checkOpen();
+        statement.setObject(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        checkOpen();
+        statement.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        checkOpen();
+        statement.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        checkOpen();
+        statement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        checkOpen();
+        statement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        checkOpen();
+        statement.setRef(parameterIndex, x);
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        checkOpen();
+        statement.setRowId(parameterIndex, x);
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
+        checkOpen();
+        statement.setSQLXML(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        checkOpen();
+        statement.setShort(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        checkOpen();
+        statement.setString(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        checkOpen();
+        statement.setTime(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar calendar) throws SQLException {
+        checkOpen();
+        statement.setTime(parameterIndex, x, calendar);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        checkOpen();
+        statement.setTimestamp(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar calendar) throws SQLException {
+        checkOpen();
+        statement.setTimestamp(parameterIndex, x, calendar);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        checkOpen();
+        statement.setURL(parameterIndex, x);
+    }
+
+    @Override
+    @Deprecated
+    public void setUnicodeStream(int parameterIndex, InputStream inputStream, int length) throws SQLException {
+        checkOpen();
+        statement.setUnicodeStream(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public String toString() {
+        return statement.toString();
+    }
+
+    private void captureDefaultSettings() throws SQLException {
+        if (defaultSettings == null) {
+            defaultSettings = StatementSettings.of(statement);
+        }
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException(STATEMENT_IS_CLOSED);
+        }
+    }
+}
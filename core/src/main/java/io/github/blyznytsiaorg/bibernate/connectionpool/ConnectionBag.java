@@ -0,0 +1,211 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+import io.github.blyznytsiaorg.bibernate.utils.ThreadUtils;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ConnectionBag holds the connections owned by {@link BibernateDataSource} and hands them out with as little
+ * contention as possible, in the style of HikariCP's ConcurrentBag:
+ * <ul>
+ *     <li>every thread first looks at the connections it returned itself most recently (thread-local list),</li>
+ *     <li>then scans the shared lock-free list of all connections,</li>
+ *     <li>and finally waits for a connection handed off directly by a returning thread.</li>
+ * </ul>
+ * Ownership of a connection is decided by a compare-and-set on its state, so a connection may be referenced
+ * from several lists at once but is only ever borrowed by one thread.
+ * <p>
+ * Virtual threads skip the thread-local list: they usually live for a single task, so the list would never be
+ * reused and would only cost an allocation per thread.
+ *
+ * @see BibernateDataSource
+ * @see ProxyConnection
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+class ConnectionBag {
+    static final int STATE_NOT_IN_USE = 0;
+    static final int STATE_IN_USE = 1;
+    static final int STATE_REMOVED = -1;
+    static final int STATE_RESERVED = -2;
+
+    private static final int MAX_THREAD_LOCAL_CONNECTIONS = 16;
+    private static final long HANDOFF_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    /**
+     * All connections owned by the pool, idle or in use.
+     */
+    private final CopyOnWriteArrayList<ProxyConnection> sharedList = new CopyOnWriteArrayList<>();
+
+    /**
+     * Connections recently returned by the current thread, most recent last.
+     * Weak references keep a forgotten thread from pinning closed connections.
+     */
+    private final ThreadLocal<List<WeakReference<ProxyConnection>>> threadList =
+            ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * Fair direct handoff from returning threads to waiting threads.
+     */
+    private final SynchronousQueue<ProxyConnection> handoffQueue = new SynchronousQueue<>(true);
+
+    /**
+     * Number of threads currently trying to borrow a connection.
+     */
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    /**
+     * Borrows an idle connection, waiting up to the given timeout for one to be returned.
+     *
+     * @param timeout how long to wait, 0 returns immediately when no connection is idle
+     * @param unit    the unit of the timeout
+     * @return a connection in the {@code IN_USE} state, or {@code null} if none became available in time
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    ProxyConnection borrow(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!ThreadUtils.isVirtual(Thread.currentThread())) {
+            var recentConnections = threadList.get();
+            for (int i = recentConnections.size() - 1; i >= 0; i--) {
+                var connection = recentConnections.remove(i).get();
+                if (connection != null && connection.compareAndSetState(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                    return connection;
+                }
+            }
+        }
+
+        waiters.incrementAndGet();
+        try {
+            for (var connection : sharedList) {
+                if (connection.compareAndSetState(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                    return connection;
+                }
+            }
+
+            var remaining = unit.toNanos(timeout);
+            while (remaining > 0) {
+                var start = System.nanoTime();
+                var connection = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (connection == null) {
+                    return null;
+                }
+                if (connection.compareAndSetState(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                    return connection;
+                }
+                remaining -= System.nanoTime() - start;
+            }
+            return null;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns a borrowed connection to the bag, handing it directly to a waiting thread if there is one.
+     *
+     * @param connection the connection to return
+     */
+    void requite(ProxyConnection connection) {
+        connection.setState(STATE_NOT_IN_USE);
+
+        for (int i = 0; waiters.get() > 0; i++) {
+            if (connection.getState() != STATE_NOT_IN_USE || handoffQueue.offer(connection)) {
+                return;
+            } else if ((i & 0xff) == 0xff) {
+                LockSupport.parkNanos(HANDOFF_PARK_NANOS);
+            } else {
+                Thread.yield();
+            }
+        }
+
+        if (ThreadUtils.isVirtual(Thread.currentThread())) {
+            return;
+        }
+        var recentConnections = threadList.get();
+        if (recentConnections.size() < MAX_THREAD_LOCAL_CONNECTIONS) {
+            recentConnections.add(new WeakReference<>(connection));
+        }
+    }
+
+    /**
+     * Adds a new connection to the bag. An idle connection is handed to a waiting thread if there is one.
+     *
+     * @param connection the connection to add
+     */
+    void add(ProxyConnection connection) {
+        sharedList.add(connection);
+
+        while (waiters.get() > 0 && connection.getState() == STATE_NOT_IN_USE
+                && !handoffQueue.offer(connection)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Removes a connection from the bag. Only a borrowed or reserved connection can be removed.
+     *
+     * @param connection the connection to remove
+     * @return {@code true} if the connection was removed
+     */
+    boolean remove(ProxyConnection connection) {
+        if (!connection.compareAndSetState(STATE_IN_USE, STATE_REMOVED)
+                && !connection.compareAndSetState(STATE_RESERVED, STATE_REMOVED)) {
+            return false;
+        }
+        return sharedList.remove(connection);
+    }
+
+    /**
+     * Reserves an idle connection so it can't be borrowed, e.g. before the housekeeper removes it.
+     *
+     * @param connection the connection to reserve
+     * @return {@code true} if the connection was idle and is now reserved
+     */
+    boolean reserve(ProxyConnection connection) {
+        return connection.compareAndSetState(STATE_NOT_IN_USE, STATE_RESERVED);
+    }
+
+    /**
+     * Returns a snapshot of the connections in the given state.
+     *
+     * @param state the connection state
+     * @return the connections currently in that state
+     */
+    List<ProxyConnection> values(int state) {
+        return sharedList.stream()
+                .filter(connection -> connection.getState() == state)
+                .toList();
+    }
+
+    /**
+     * Counts the connections in the given state.
+     *
+     * @param state the connection state
+     * @return the number of connections in that state
+     */
+    int count(int state) {
+        int count = 0;
+        for (var connection : sharedList) {
+            if (connection.getState() == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of threads currently waiting for a connection.
+     *
+     * @return the number of waiting threads
+     */
+    int getWaitingThreadCount() {
+        return waiters.get();
+    }
+}
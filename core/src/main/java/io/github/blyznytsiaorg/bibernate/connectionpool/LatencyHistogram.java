@@ -0,0 +1,129 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram is a lock-free histogram of durations with HdrHistogram-style log-linear buckets.
+ * Values are recorded in microseconds; every power of two range is split into 32 linear sub-buckets,
+ * so a reported percentile is within about 3% of the recorded value while the memory footprint stays fixed.
+ * Recording is a couple of atomic increments and never allocates, so it is safe on the connection hot path.
+ *
+ * @see PoolStats
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_HALF_COUNT_BITS = 5;
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << SUB_BUCKET_HALF_COUNT_BITS;
+    private static final int SUB_BUCKET_COUNT = SUB_BUCKET_HALF_COUNT << 1;
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT =
+            SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_HALF_COUNT_BITS - 1) * SUB_BUCKET_HALF_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param duration the duration
+     * @param unit     the unit of the duration
+     */
+    public void record(long duration, TimeUnit unit) {
+        var micros = Math.min(Math.max(unit.toMicros(duration), 0), MAX_VALUE);
+        counts.incrementAndGet(bucketIndex(micros));
+        totalCount.increment();
+        totalMicros.add(micros);
+        var max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded values in microseconds.
+     *
+     * @return the mean in microseconds, 0 when nothing was recorded
+     */
+    public double getMeanMicros() {
+        var count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalMicros.sum() / count;
+    }
+
+    /**
+     * Returns the largest recorded value in microseconds.
+     *
+     * @return the maximum in microseconds
+     */
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Returns the value at the given percentile in microseconds, e.g. {@code 99.9} for the 99.9th percentile.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return the highest value of the bucket holding the percentile, 0 when nothing was recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        var count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        var rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueInBucket(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalMicros.reset();
+        maxMicros.set(0);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        var shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_HALF_COUNT_BITS;
+        var subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (subBucket - SUB_BUCKET_HALF_COUNT);
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        var shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        var subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((long) (subBucket + 1) << shift) - 1;
+    }
+}
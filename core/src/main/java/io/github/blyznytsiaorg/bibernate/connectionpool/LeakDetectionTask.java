@@ -0,0 +1,82 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LeakDetectionTask watches a single borrowed connection. It captures the stack of the thread that borrowed the
+ * connection and, if the connection is still not returned after the leak detection threshold, logs that stack so
+ * the code path that forgot to close the connection can be found without a heap dump.
+ *
+ * @see BibernateDataSource
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@Slf4j
+class LeakDetectionTask implements Runnable {
+    private static final String LEAK_MESSAGE = "Apparent connection leak detected";
+
+    private final PoolStats poolStats;
+    private final String poolName;
+    private final long thresholdMs;
+    private final String threadName;
+    private final Exception acquisitionStack;
+    private ScheduledFuture<?> scheduledFuture;
+    private volatile boolean reported;
+
+    private LeakDetectionTask(PoolStats poolStats, String poolName, long thresholdMs) {
+        this.poolStats = poolStats;
+        this.poolName = poolName;
+        this.thresholdMs = thresholdMs;
+        this.threadName = Thread.currentThread().getName();
+        this.acquisitionStack = new Exception(LEAK_MESSAGE);
+        var stackTrace = acquisitionStack.getStackTrace();
+        var firstCallerFrame = 0;
+        while (firstCallerFrame < stackTrace.length
+                && stackTrace[firstCallerFrame].getClassName().equals(LeakDetectionTask.class.getName())) {
+            firstCallerFrame++;
+        }
+        acquisitionStack.setStackTrace(Arrays.copyOfRange(stackTrace, firstCallerFrame, stackTrace.length));
+    }
+
+    /**
+     * Captures the stack of the current thread and schedules the leak report after the threshold.
+     *
+     * @param executor    the executor running the report
+     * @param poolStats   the statistics the leak is counted in
+     * @param poolName    the name of the pool the connection was borrowed from
+     * @param thresholdMs how long the connection may be held before it is reported
+     * @return the scheduled task
+     */
+    static LeakDetectionTask schedule(ScheduledExecutorService executor, PoolStats poolStats,
+                                      String poolName, long thresholdMs) {
+        var task = new LeakDetectionTask(poolStats, poolName, thresholdMs);
+        task.scheduledFuture = executor.schedule(task, thresholdMs, TimeUnit.MILLISECONDS);
+        return task;
+    }
+
+    @Override
+    public void run() {
+        reported = true;
+        poolStats.recordLeakedConnection();
+        log.warn("Connection leak detection triggered for a connection from {} borrowed by thread {} "
+                + "and held longer than {}ms, stack trace follows", poolName, threadName, thresholdMs,
+                acquisitionStack);
+    }
+
+    /**
+     * Cancels the report when the connection is returned to the pool.
+     */
+    void cancel() {
+        scheduledFuture.cancel(false);
+        if (reported) {
+            log.info("Previously reported leaked connection from {} borrowed by thread {} was returned to the pool",
+                    poolName, threadName);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+/**
+ * Strategy used by {@link ReadReplicaDataSource} to pick the replica pool for the next read.
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public enum LoadBalancingStrategy {
+    /**
+     * Replicas are used in turn.
+     */
+    ROUND_ROBIN,
+    /**
+     * The replica with the fewest connections currently in use is chosen.
+     */
+    LEAST_IN_USE
+}
@@ -0,0 +1,161 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+import lombok.Getter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PoolStats exposes the live state and usage statistics of a {@link BibernateDataSource}:
+ * active, idle and pending counts, histograms of the connection acquire latency and of the time a connection is
+ * held by the caller, and counters for timeouts, detected leaks and created or destroyed physical connections.
+ * The same object is registered as a JMX MBean, see {@link PoolStatsMXBean}.
+ *
+ * @see BibernateDataSource#getPoolStats()
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public class PoolStats implements PoolStatsMXBean {
+    private static final double MEDIAN = 50.0;
+    private static final double P99 = 99.0;
+
+    private final ConnectionBag connectionBag;
+    private final AtomicInteger totalConnections;
+    private final Semaphore admission;
+
+    /**
+     * Time callers waited in {@code getConnection()}, including the time to open a new connection.
+     */
+    @Getter
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+
+    /**
+     * Time between borrowing a connection and returning it to the pool.
+     */
+    @Getter
+    private final LatencyHistogram holdTime = new LatencyHistogram();
+
+    private final LongAdder connectionTimeouts = new LongAdder();
+    private final LongAdder createdConnections = new LongAdder();
+    private final LongAdder destroyedConnections = new LongAdder();
+    private final LongAdder leakedConnections = new LongAdder();
+
+    PoolStats(ConnectionBag connectionBag, AtomicInteger totalConnections, Semaphore admission) {
+        this.connectionBag = connectionBag;
+        this.totalConnections = totalConnections;
+        this.admission = admission;
+    }
+
+    @Override
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return connectionBag.count(ConnectionBag.STATE_IN_USE);
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return connectionBag.count(ConnectionBag.STATE_NOT_IN_USE);
+    }
+
+    @Override
+    public int getPendingThreads() {
+        return admission.getQueueLength() + connectionBag.getWaitingThreadCount();
+    }
+
+    @Override
+    public long getConnectionTimeoutCount() {
+        return connectionTimeouts.sum();
+    }
+
+    @Override
+    public long getCreatedConnectionCount() {
+        return createdConnections.sum();
+    }
+
+    @Override
+    public long getDestroyedConnectionCount() {
+        return destroyedConnections.sum();
+    }
+
+    @Override
+    public long getLeakedConnectionCount() {
+        return leakedConnections.sum();
+    }
+
+    @Override
+    public long getAcquireCount() {
+        return acquireLatency.getCount();
+    }
+
+    @Override
+    public double getAcquireLatencyMeanMicros() {
+        return acquireLatency.getMeanMicros();
+    }
+
+    @Override
+    public long getAcquireLatencyP50Micros() {
+        return acquireLatency.getPercentileMicros(MEDIAN);
+    }
+
+    @Override
+    public long getAcquireLatencyP99Micros() {
+        return acquireLatency.getPercentileMicros(P99);
+    }
+
+    @Override
+    public long getAcquireLatencyMaxMicros() {
+        return acquireLatency.getMaxMicros();
+    }
+
+    @Override
+    public double getHoldTimeMeanMicros() {
+        return holdTime.getMeanMicros();
+    }
+
+    @Override
+    public long getHoldTimeP50Micros() {
+        return holdTime.getPercentileMicros(MEDIAN);
+    }
+
+    @Override
+    public long getHoldTimeP99Micros() {
+        return holdTime.getPercentileMicros(P99);
+    }
+
+    @Override
+    public long getHoldTimeMaxMicros() {
+        return holdTime.getMaxMicros();
+    }
+
+    @Override
+    public void reset() {
+        acquireLatency.reset();
+        holdTime.reset();
+        connectionTimeouts.reset();
+        createdConnections.reset();
+        destroyedConnections.reset();
+        leakedConnections.reset();
+    }
+
+    void recordConnectionTimeout() {
+        connectionTimeouts.increment();
+    }
+
+    void recordConnectionCreated() {
+        createdConnections.increment();
+    }
+
+    void recordConnectionDestroyed() {
+        destroyedConnections.increment();
+    }
+
+    void recordLeakedConnection() {
+        leakedConnections.increment();
+    }
+}
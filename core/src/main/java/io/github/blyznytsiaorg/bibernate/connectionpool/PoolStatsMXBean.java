@@ -0,0 +1,54 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+/**
+ * JMX view of the {@link PoolStats} of a {@link BibernateDataSource}.
+ * One MBean is registered per data source under
+ * {@code io.github.blyznytsiaorg.bibernate:type=ConnectionPool,name=<poolName>}.
+ * Latencies are reported in microseconds.
+ *
+ * @see PoolStats
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public interface PoolStatsMXBean {
+
+    int getTotalConnections();
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getPendingThreads();
+
+    long getConnectionTimeoutCount();
+
+    long getCreatedConnectionCount();
+
+    long getDestroyedConnectionCount();
+
+    long getLeakedConnectionCount();
+
+    long getAcquireCount();
+
+    double getAcquireLatencyMeanMicros();
+
+    long getAcquireLatencyP50Micros();
+
+    long getAcquireLatencyP99Micros();
+
+    long getAcquireLatencyMaxMicros();
+
+    double getHoldTimeMeanMicros();
+
+    long getHoldTimeP50Micros();
+
+    long getHoldTimeP99Micros();
+
+    long getHoldTimeMaxMicros();
+
+    /**
+     * Clears the histograms and counters, e.g. after a warm-up phase.
+     */
+    void reset();
+}
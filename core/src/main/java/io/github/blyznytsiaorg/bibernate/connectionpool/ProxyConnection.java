@@ -1,5 +1,10 @@
 package io.github.blyznytsiaorg.bibernate.connectionpool;
 
+import io.github.blyznytsiaorg.bibernate.connectionpool.StatementCache.StatementKey;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
 import java.sql.Array;
 import java.sql.Blob;
 import java.sql.CallableStatement;
@@ -19,13 +24,19 @@ import java.sql.Struct;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
-import java.util.Queue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ProxyConnection is a wrapper around a JDBC Connection that intercepts calls to create statements and provides
  * additional functionality such as managing statement lifecycles and releasing connections back to a connection pool.
+ * When a statement cache size is configured, prepared statements are kept in a per-connection LRU cache and
+ * closing them returns them to the cache instead of closing them on the database.
+ * <p>
+ * A ProxyConnection is the pooled object and is reused by every borrower, so it is never handed out itself:
+ * each borrower gets its own {@link PooledConnection} handle delegating to it.
  *
  * @see BibernateDataSource
  *
@@ -42,22 +53,112 @@ public class ProxyConnection implements Connection {
     /**
      * The connection pool to which this connection belongs.
      */
-    private final Queue<Connection> connectionPool;
+    private final BibernateDataSource dataSource;
+
+    /**
+     * The state of this connection in the connection bag, see the {@code STATE_*} constants of {@link ConnectionBag}.
+     */
+    private final AtomicInteger state = new AtomicInteger(ConnectionBag.STATE_NOT_IN_USE);
 
     /**
      * List of statements associated with this connection.
      */
     private final List<Statement> statementList = new ArrayList<>();
 
+    /**
+     * The {@link System#nanoTime()} when the physical connection was opened.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final long creationNanos = System.nanoTime();
+
+    /**
+     * The {@link System#nanoTime()} when this connection was last returned to the pool.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private volatile long lastReturnedNanos = creationNanos;
+
+    /**
+     * The {@link System#nanoTime()} when this connection was last borrowed from the pool.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private long lastBorrowedNanos;
+
+    /**
+     * Incremented on every borrow, so the {@link PooledConnection} handle of a previous borrow can tell that it
+     * no longer owns this connection.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private volatile long borrowGeneration;
+
+    /**
+     * The handle given to the current borrower, {@code null} before the first borrow.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private PooledConnection handle;
+
+    /**
+     * Reports this connection as leaked if it is held past the leak detection threshold, {@code null} when
+     * leak detection is disabled.
+     */
+    private LeakDetectionTask leakDetectionTask;
+
+    /**
+     * Cache of idle prepared statements, {@code null} when statement caching is disabled.
+     */
+    private final StatementCache statementCache;
+
+    /**
+     * The session state the physical connection had when it was opened and is reset to on every borrow.
+     */
+    private final SessionState defaultState;
+
+    /**
+     * The session state currently set on the physical connection.
+     */
+    private final SessionState appliedState;
+
+    /**
+     * The session state requested by the current borrower, applied to the physical connection lazily.
+     */
+    private SessionState requestedState;
+
+    /**
+     * Whether the borrower may have executed a statement in a transaction that is not committed or rolled back yet.
+     * Statements are handed out to the borrower directly, so creating a statement while auto-commit is off counts
+     * as executing it.
+     */
+    private boolean transactionDirty;
+
+    /**
+     * Whether the requested state may differ from the applied state.
+     */
+    private boolean stateChanged;
+
     /**
      * Constructs a ProxyConnection object with the given JDBC Connection and connection pool.
      *
      * @param connection    the JDBC Connection to wrap
-     * @param connectionPool the connection pool to which this connection belongs
+     * @param dataSource the connection pool to which this connection belongs
+     */
+    ProxyConnection(Connection connection, BibernateDataSource dataSource) throws SQLException {
+        this(connection, dataSource, 0);
+    }
+
+    /**
+     * Constructs a ProxyConnection object with the given JDBC Connection, connection pool and statement cache size.
+     *
+     * @param connection         the JDBC Connection to wrap
+     * @param dataSource         the connection pool to which this connection belongs
+     * @param statementCacheSize the maximum number of cached prepared statements, 0 disables the cache
      */
-    public ProxyConnection(Connection connection, Queue<Connection> connectionPool) {
+    ProxyConnection(Connection connection, BibernateDataSource dataSource, int statementCacheSize)
+            throws SQLException {
         this.connection = connection;
-        this.connectionPool = connectionPool;
+        this.dataSource = dataSource;
+        this.statementCache = statementCacheSize > 0 ? new StatementCache(statementCacheSize) : null;
+        this.defaultState = new SessionState(connection.getAutoCommit(), connection.isReadOnly());
+        this.appliedState = defaultState.copy();
+        this.requestedState = defaultState.copy();
     }
 
     /**
@@ -69,6 +170,7 @@ public class ProxyConnection implements Connection {
      */
     @Override
     public Statement createStatement() throws SQLException {
+        applyStateForStatement();
         Statement statement = connection.createStatement();
         statementList.add(statement);
         return statement;
@@ -76,7 +178,8 @@ public class ProxyConnection implements Connection {
 
     /**
      * Creates a PreparedStatement object for sending parameterized SQL statements to the database.
-     * Adds the created PreparedStatement to the list of statements associated with this connection.
+     * Reuses an idle statement from the statement cache when one is available for the same SQL.
+     * Adds the PreparedStatement to the list of statements associated with this connection.
      *
      * @param sql the SQL statement to be sent to the database
      * @return a new PreparedStatement object
@@ -84,9 +187,7 @@ public class ProxyConnection implements Connection {
      */
     @Override
     public PreparedStatement prepareStatement(String sql) throws SQLException {
-        PreparedStatement statement = connection.prepareStatement(sql);
-        statementList.add(statement);
-        return statement;
+        return prepareCachedStatement(StatementKey.of(sql), () -> connection.prepareStatement(sql));
     }
 
     /**
@@ -99,6 +200,7 @@ public class ProxyConnection implements Connection {
      */
     @Override
     public CallableStatement prepareCall(String sql) throws SQLException {
+        applyStateForStatement();
         CallableStatement callableStatement = connection.prepareCall(sql);
         statementList.add(callableStatement);
         return callableStatement;
@@ -111,37 +213,65 @@ public class ProxyConnection implements Connection {
 
     @Override
     public void setAutoCommit(boolean autoCommit) throws SQLException {
-        connection.setAutoCommit(autoCommit);
+        if (requestedState.autoCommit != autoCommit) {
+            requestedState.autoCommit = autoCommit;
+            stateChanged = true;
+        }
     }
 
     @Override
     public boolean getAutoCommit() throws SQLException {
-        return connection.getAutoCommit();
+        return requestedState.autoCommit;
     }
 
     @Override
     public void commit() throws SQLException {
+        applyState();
         connection.commit();
+        transactionDirty = false;
     }
 
     @Override
     public void rollback() throws SQLException {
+        applyState();
         connection.rollback();
+        transactionDirty = false;
     }
 
     /**
      * Releases this connection back to the connection pool.
-     * Also closes all associated statements and clears the statement list.
+     * Also closes all associated statements and rolls back a transaction the borrower left open.
+     * If the rollback fails, the connection is in an unknown state and is retired instead of being reused.
+     * Closing a connection that is not borrowed has no effect. Borrowers close their {@link PooledConnection}
+     * handle, which also ignores a close after the connection was borrowed again.
      *
-     * @throws SQLException if a database access error occurs
+     * @throws SQLException if a statement can't be closed or the open transaction can't be rolled back
      */
     @Override
     public void close() throws SQLException {
-        for (Statement statement : statementList) {
-            statement.close();
+        if (getState() != ConnectionBag.STATE_IN_USE) {
+            return;
+        }
+        SQLException statementFailure = null;
+        var reusable = false;
+        try {
+            statementFailure = closeStatements();
+            if (transactionDirty) {
+                connection.rollback();
+                transactionDirty = false;
+            }
+            reusable = true;
+        } finally {
+            lastReturnedNanos = System.nanoTime();
+            if (reusable) {
+                dataSource.recycle(this);
+            } else {
+                dataSource.retire(this);
+            }
+        }
+        if (statementFailure != null) {
+            throw statementFailure;
         }
-        statementList.clear();
-        connectionPool.add(this);
     }
 
     /**
@@ -152,11 +282,33 @@ public class ProxyConnection implements Connection {
      * @throws SQLException if a database access error occurs
      */
     public void release() throws SQLException {
+        closeStatements();
+        if (statementCache != null) {
+            statementCache.closeAll();
+        }
+        connection.close();
+    }
+
+    /**
+     * Closes every statement handed out since the connection was borrowed, even if some of them fail to close.
+     *
+     * @return the first failure, or {@code null} if all statements were closed
+     */
+    private SQLException closeStatements() {
+        SQLException failure = null;
         for (Statement statement : statementList) {
-            statement.close();
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
         }
         statementList.clear();
-        connection.close();
+        return failure;
     }
 
     @Override
@@ -171,12 +323,15 @@ public class ProxyConnection implements Connection {
 
     @Override
     public void setReadOnly(boolean readOnly) throws SQLException {
-        connection.setReadOnly(readOnly);
+        if (requestedState.readOnly != readOnly) {
+            requestedState.readOnly = readOnly;
+            stateChanged = true;
+        }
     }
 
     @Override
     public boolean isReadOnly() throws SQLException {
-        return connection.isReadOnly();
+        return requestedState.readOnly;
     }
 
     @Override
@@ -191,12 +346,21 @@ public class ProxyConnection implements Connection {
 
     @Override
     public void setTransactionIsolation(int level) throws SQLException {
-        connection.setTransactionIsolation(level);
+        if (getTransactionIsolation() != level) {
+            requestedState.transactionIsolation = level;
+            stateChanged = true;
+        }
     }
 
     @Override
     public int getTransactionIsolation() throws SQLException {
-        return connection.getTransactionIsolation();
+        if (requestedState.transactionIsolation == null) {
+            var level = connection.getTransactionIsolation();
+            defaultState.transactionIsolation = level;
+            appliedState.transactionIsolation = level;
+            requestedState.transactionIsolation = level;
+        }
+        return requestedState.transactionIsolation;
     }
 
     @Override
@@ -212,6 +376,7 @@ public class ProxyConnection implements Connection {
     @Override
     public Statement createStatement(int resultSetType, int resultSetConcurrency)
             throws SQLException {
+        applyStateForStatement();
         Statement statement = connection.createStatement(resultSetType, resultSetConcurrency);
         statementList.add(statement);
         return statement;
@@ -220,14 +385,14 @@ public class ProxyConnection implements Connection {
     @Override
     public PreparedStatement prepareStatement(String sql, int resultSetType,
                                               int resultSetConcurrency) throws SQLException {
-        PreparedStatement statement = connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
-        statementList.add(statement);
-        return statement;
+        return prepareCachedStatement(StatementKey.of(sql, resultSetType, resultSetConcurrency),
+                () -> connection.prepareStatement(sql, resultSetType, resultSetConcurrency));
     }
 
     @Override
     public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency)
             throws SQLException {
+        applyStateForStatement();
         CallableStatement callableStatement = connection.prepareCall(sql, resultSetType, resultSetConcurrency);
         statementList.add(callableStatement);
         return callableStatement;
@@ -255,11 +420,13 @@ public class ProxyConnection implements Connection {
 
     @Override
     public Savepoint setSavepoint() throws SQLException {
+        applyState();
         return connection.setSavepoint();
     }
 
     @Override
     public Savepoint setSavepoint(String name) throws SQLException {
+        applyState();
         return connection.setSavepoint(name);
     }
 
@@ -276,6 +443,7 @@ public class ProxyConnection implements Connection {
     @Override
     public Statement createStatement(int resultSetType, int resultSetConcurrency,
                                      int resultSetHoldability) throws SQLException {
+        applyStateForStatement();
         Statement statement = connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
         statementList.add(statement);
         return statement;
@@ -285,14 +453,14 @@ public class ProxyConnection implements Connection {
     public PreparedStatement prepareStatement(String sql, int resultSetType,
                                               int resultSetConcurrency, int resultSetHoldability)
             throws SQLException {
-        PreparedStatement statement = connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
-        statementList.add(statement);
-        return statement;
+        return prepareCachedStatement(StatementKey.of(sql, resultSetType, resultSetConcurrency, resultSetHoldability),
+                () -> connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
     }
 
     @Override
     public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency,
                                          int resultSetHoldability) throws SQLException {
+        applyStateForStatement();
         CallableStatement callableStatement = connection.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
         statementList.add(callableStatement);
         return callableStatement;
@@ -301,13 +469,13 @@ public class ProxyConnection implements Connection {
     @Override
     public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys)
             throws SQLException {
-        PreparedStatement statement = connection.prepareStatement(sql, autoGeneratedKeys);
-        statementList.add(statement);
-        return statement;
+        return prepareCachedStatement(StatementKey.withGeneratedKeys(sql, autoGeneratedKeys),
+                () -> connection.prepareStatement(sql, autoGeneratedKeys));
     }
 
     @Override
     public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        applyStateForStatement();
         PreparedStatement statement = connection.prepareStatement(sql, columnIndexes);
         statementList.add(statement);
         return statement;
@@ -316,6 +484,7 @@ public class ProxyConnection implements Connection {
     @Override
     public PreparedStatement prepareStatement(String sql, String[] columnNames)
             throws SQLException {
+        applyStateForStatement();
         PreparedStatement statement = connection.prepareStatement(sql, columnNames);
         statementList.add(statement);
         return statement;
@@ -378,12 +547,21 @@ public class ProxyConnection implements Connection {
 
     @Override
     public void setSchema(String schema) throws SQLException {
-        connection.setSchema(schema);
+        if (!Objects.equals(getSchema(), schema)) {
+            requestedState.schema = schema;
+            stateChanged = true;
+        }
     }
 
     @Override
     public String getSchema() throws SQLException {
-        return connection.getSchema();
+        if (requestedState.schema == null) {
+            var schema = connection.getSchema();
+            defaultState.schema = schema;
+            appliedState.schema = schema;
+            requestedState.schema = schema;
+        }
+        return requestedState.schema;
     }
 
     @Override
@@ -442,4 +620,137 @@ public class ProxyConnection implements Connection {
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
         return connection.isWrapperFor(iface);
     }
+
+    /**
+     * Resets the session state requested by the previous borrower. The physical connection is only updated
+     * once the new borrower uses it and only for the properties that actually differ, so a borrower that sets
+     * the same state again (e.g. {@code setAutoCommit(false)} for every transaction) costs no driver calls.
+     */
+    void resetState() {
+        if (!requestedState.equals(defaultState)) {
+            requestedState = defaultState.copy();
+            stateChanged = true;
+        }
+    }
+
+    /**
+     * Applies the requested session state to the physical connection, skipping properties that already match.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    private void applyState() throws SQLException {
+        if (!stateChanged) {
+            return;
+        }
+        if (requestedState.autoCommit != appliedState.autoCommit) {
+            connection.setAutoCommit(requestedState.autoCommit);
+            appliedState.autoCommit = requestedState.autoCommit;
+            if (appliedState.autoCommit) {
+                transactionDirty = false;
+            }
+        }
+        if (requestedState.readOnly != appliedState.readOnly) {
+            connection.setReadOnly(requestedState.readOnly);
+            appliedState.readOnly = requestedState.readOnly;
+        }
+        if (requestedState.transactionIsolation != null
+                && !requestedState.transactionIsolation.equals(appliedState.transactionIsolation)) {
+            connection.setTransactionIsolation(requestedState.transactionIsolation);
+            appliedState.transactionIsolation = requestedState.transactionIsolation;
+        }
+        if (requestedState.schema != null && !requestedState.schema.equals(appliedState.schema)) {
+            connection.setSchema(requestedState.schema);
+            appliedState.schema = requestedState.schema;
+        }
+        stateChanged = false;
+    }
+
+    /**
+     * Applies the requested session state before a statement is created and marks the transaction as dirty
+     * when auto-commit is off.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    private void applyStateForStatement() throws SQLException {
+        applyState();
+        if (!appliedState.autoCommit) {
+            transactionDirty = true;
+        }
+    }
+
+    void markBorrowed(long nowNanos, LeakDetectionTask leakDetectionTask) {
+        this.borrowGeneration++;
+        this.handle = new PooledConnection(this);
+        this.lastBorrowedNanos = nowNanos;
+        this.leakDetectionTask = leakDetectionTask;
+    }
+
+    void cancelLeakDetection() {
+        if (leakDetectionTask != null) {
+            leakDetectionTask.cancel();
+            leakDetectionTask = null;
+        }
+    }
+
+    int getState() {
+        return state.get();
+    }
+
+    void setState(int newState) {
+        state.set(newState);
+    }
+
+    boolean compareAndSetState(int expectedState, int newState) {
+        return state.compareAndSet(expectedState, newState);
+    }
+
+    /**
+     * Returns a prepared statement for the given key, reusing an idle cached statement when possible.
+     * Without a statement cache the statement is created by the driver as usual.
+     */
+    private PreparedStatement prepareCachedStatement(StatementKey key, StatementFactory factory) throws SQLException {
+        applyStateForStatement();
+        if (statementCache == null) {
+            PreparedStatement statement = factory.create();
+            statementList.add(statement);
+            return statement;
+        }
+
+        PreparedStatement statement = statementCache.take(key);
+        if (statement == null || statement.isClosed()) {
+            statement = factory.create();
+        }
+        PreparedStatement cachedStatement = statementCache.wrap(key, statement, handle != null ? handle : this);
+        statementList.add(cachedStatement);
+        return cachedStatement;
+    }
+
+    @FunctionalInterface
+    private interface StatementFactory {
+        PreparedStatement create() throws SQLException;
+    }
+
+    /**
+     * Session properties tracked by the proxy. An unknown transaction isolation or schema is {@code null}
+     * and is read from the driver on first access.
+     */
+    @EqualsAndHashCode
+    private static final class SessionState {
+        private boolean autoCommit;
+        private boolean readOnly;
+        private Integer transactionIsolation;
+        private String schema;
+
+        private SessionState(boolean autoCommit, boolean readOnly) {
+            this.autoCommit = autoCommit;
+            this.readOnly = readOnly;
+        }
+
+        private SessionState copy() {
+            var copy = new SessionState(autoCommit, readOnly);
+            copy.transactionIsolation = transactionIsolation;
+            copy.schema = schema;
+            return copy;
+        }
+    }
 }
@@ -0,0 +1,158 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+import io.github.blyznytsiaorg.bibernate.exception.BibernateDataSourceException;
+import io.github.blyznytsiaorg.bibernate.exception.ConnectionPoolException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+import static io.github.blyznytsiaorg.bibernate.connectionpool.BibernateDataSource.METHOD_IS_NOT_SUPPORTED;
+
+/**
+ * ReadReplicaDataSource routes read-only work to a set of replica databases, each with its own connection pool.
+ * The replica for a connection is chosen with the configured {@link LoadBalancingStrategy}; if it can't provide a
+ * connection the remaining replicas are tried in turn.
+ * <p>
+ * The data source does not decide whether a read may go to a replica: reads inside a write transaction or after
+ * a write in the same session must still use the primary data source.
+ *
+ * @see BibernateDataSource
+ * @see LoadBalancingStrategy
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@Slf4j
+public class ReadReplicaDataSource implements DataSource {
+    private static final String NO_REPLICAS = "At least one replica data source is required";
+
+    private final List<BibernateDataSource> replicas;
+    private final LoadBalancingStrategy loadBalancingStrategy;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * Constructs a ReadReplicaDataSource over the given replica pools.
+     *
+     * @param replicas              the replica pools
+     * @param loadBalancingStrategy how to pick the replica for a connection
+     */
+    public ReadReplicaDataSource(List<BibernateDataSource> replicas, LoadBalancingStrategy loadBalancingStrategy) {
+        if (replicas.isEmpty()) {
+            throw new BibernateDataSourceException(NO_REPLICAS);
+        }
+        this.replicas = List.copyOf(replicas);
+        this.loadBalancingStrategy = loadBalancingStrategy;
+    }
+
+    /**
+     * Retrieves a connection from one of the replicas.
+     *
+     * @return a pooled replica connection
+     * @throws SQLException if no replica can provide a connection
+     * @throws ConnectionPoolException if every replica pool is exhausted
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        var first = selectReplica();
+        Exception failure = null;
+        for (int i = 0; i < replicas.size(); i++) {
+            var replica = replicas.get((first + i) % replicas.size());
+            try {
+                return replica.getConnection();
+            } catch (SQLException | ConnectionPoolException e) {
+                log.warn("Can't get connection from replica pool {}: {}", replica.getPoolName(), e.getMessage());
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure instanceof SQLException sqlException) {
+            throw sqlException;
+        }
+        throw (ConnectionPoolException) failure;
+    }
+
+    /**
+     * Returns the replica pools.
+     *
+     * @return the replica pools
+     */
+    public List<BibernateDataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Closes every replica pool.
+     */
+    public void close() {
+        replicas.forEach(BibernateDataSource::close);
+    }
+
+    private int selectReplica() {
+        if (replicas.size() == 1) {
+            return 0;
+        }
+        if (loadBalancingStrategy == LoadBalancingStrategy.LEAST_IN_USE) {
+            var selected = 0;
+            var leastInUse = Integer.MAX_VALUE;
+            for (int i = 0; i < replicas.size(); i++) {
+                var inUse = replicas.get(i).getPoolStats().getActiveConnections();
+                if (inUse < leastInUse) {
+                    leastInUse = inUse;
+                    selected = i;
+                }
+            }
+            return selected;
+        }
+        return Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    // DataSource interface methods with UnsupportedOperationException
+    @Override
+    public Connection getConnection(String username, String password) {
+        throw new UnsupportedOperationException(METHOD_IS_NOT_SUPPORTED);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        throw new UnsupportedOperationException(METHOD_IS_NOT_SUPPORTED);
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        throw new UnsupportedOperationException(METHOD_IS_NOT_SUPPORTED);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        throw new UnsupportedOperationException(METHOD_IS_NOT_SUPPORTED);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        throw new UnsupportedOperationException(METHOD_IS_NOT_SUPPORTED);
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        throw new UnsupportedOperationException(METHOD_IS_NOT_SUPPORTED);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) {
+        throw new UnsupportedOperationException(METHOD_IS_NOT_SUPPORTED);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        throw new UnsupportedOperationException(METHOD_IS_NOT_SUPPORTED);
+    }
+}
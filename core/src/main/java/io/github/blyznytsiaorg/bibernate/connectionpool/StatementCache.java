@@ -0,0 +1,181 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * StatementCache is a per-connection LRU cache of idle prepared statements.
+ * Statements are handed out wrapped in a {@link CachedPreparedStatement} whose {@code close()} returns the physical
+ * statement to the cache instead of closing it, so the driver can reuse the parsed and planned statement.
+ * Only idle statements are kept in the cache: a statement that is currently in use is removed from it,
+ * so two callers never share the same physical statement.
+ *
+ * @see ProxyConnection
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@Slf4j
+class StatementCache {
+    /**
+     * Maximum number of idle statements kept in the cache.
+     */
+    private final int maxSize;
+
+    /**
+     * Idle statements ordered from the least to the most recently used.
+     */
+    private final LinkedHashMap<StatementKey, PreparedStatement> statements;
+
+    /**
+     * Constructs a StatementCache holding at most {@code maxSize} idle statements.
+     *
+     * @param maxSize the maximum number of idle statements
+     */
+    StatementCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Takes an idle statement for the given key out of the cache.
+     *
+     * @param key the statement key
+     * @return the cached statement, or {@code null} if none is cached
+     */
+    PreparedStatement take(StatementKey key) {
+        return statements.remove(key);
+    }
+
+    /**
+     * Wraps a physical statement so that closing it returns it to this cache.
+     *
+     * @param key        the statement key
+     * @param statement  the physical statement
+     * @param connection the connection the statement belongs to, returned by {@code getConnection()}
+     * @return the caching statement
+     */
+    PreparedStatement wrap(StatementKey key, PreparedStatement statement, Connection connection) {
+        return new CachedPreparedStatement(this, key, statement, connection);
+    }
+
+    /**
+     * Physically closes every idle statement and empties the cache.
+     */
+    void closeAll() {
+        var idleStatements = new ArrayList<>(statements.values());
+        statements.clear();
+        idleStatements.forEach(StatementCache::closeQuietly);
+    }
+
+    /**
+     * Returns the number of idle statements currently cached.
+     *
+     * @return the number of cached statements
+     */
+    int size() {
+        return statements.size();
+    }
+
+    /**
+     * Resets a statement returned by its borrower and caches it, closing the least recently used statement
+     * above the maximum size. A statement that can't be reset is closed.
+     *
+     * @param key             the statement key
+     * @param statement       the physical statement
+     * @param defaultSettings the settings to restore, {@code null} if the borrower didn't change them
+     */
+    void offer(StatementKey key, PreparedStatement statement, StatementSettings defaultSettings) {
+        try {
+            if (defaultSettings != null) {
+                defaultSettings.restore(statement);
+            }
+            statement.clearParameters();
+            statement.clearBatch();
+            var resultSet = statement.getResultSet();
+            if (resultSet != null) {
+                resultSet.close();
+            }
+        } catch (SQLException e) {
+            log.trace("Can't reset cached statement, closing it: {}", e.getMessage());
+            closeQuietly(statement);
+            return;
+        }
+
+        var previous = statements.put(key, statement);
+        if (previous != null && previous != statement) {
+            closeQuietly(previous);
+        }
+        if (statements.size() > maxSize) {
+            var eldest = statements.entrySet().iterator().next();
+            statements.remove(eldest.getKey());
+            closeQuietly(eldest.getValue());
+        }
+    }
+
+    static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.trace("Can't close cached statement: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Identifies a cached statement by its SQL text and the options it was prepared with.
+     *
+     * @param sql                  the SQL text
+     * @param resultSetType        the result set type, or -1 when not specified
+     * @param resultSetConcurrency the result set concurrency, or -1 when not specified
+     * @param resultSetHoldability the result set holdability, or -1 when not specified
+     * @param autoGeneratedKeys    the generated keys flag, or -1 when not specified
+     */
+    record StatementKey(String sql, int resultSetType, int resultSetConcurrency,
+                        int resultSetHoldability, int autoGeneratedKeys) {
+
+        static StatementKey of(String sql) {
+            return new StatementKey(sql, -1, -1, -1, -1);
+        }
+
+        static StatementKey of(String sql, int resultSetType, int resultSetConcurrency) {
+            return new StatementKey(sql, resultSetType, resultSetConcurrency, -1, -1);
+        }
+
+        static StatementKey of(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) {
+            return new StatementKey(sql, resultSetType, resultSetConcurrency, resultSetHoldability, -1);
+        }
+
+        static StatementKey withGeneratedKeys(String sql, int autoGeneratedKeys) {
+            return new StatementKey(sql, -1, -1, -1, autoGeneratedKeys);
+        }
+    }
+
+    /**
+     * Statement settings a borrower may change, restored before the statement is cached again.
+     *
+     * @param maxRows        the maximum number of rows
+     * @param fetchSize      the fetch size
+     * @param fetchDirection the fetch direction
+     * @param queryTimeout   the query timeout in seconds
+     */
+    record StatementSettings(int maxRows, int fetchSize, int fetchDirection, int queryTimeout) {
+
+        static StatementSettings of(PreparedStatement statement) throws SQLException {
+            return new StatementSettings(statement.getMaxRows(), statement.getFetchSize(),
+                    statement.getFetchDirection(), statement.getQueryTimeout());
+        }
+
+        void restore(PreparedStatement statement) throws SQLException {
+            statement.setMaxRows(maxRows);
+            statement.setFetchSize(fetchSize);
+            statement.setFetchDirection(fetchDirection);
+            statement.setQueryTimeout(queryTimeout);
+        }
+    }
+}
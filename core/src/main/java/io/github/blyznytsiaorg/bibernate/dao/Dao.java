@@ -217,4 +217,13 @@ public interface Dao {
      * @throws SQLException If an SQL exception occurs.
      */
     void rollbackTransaction() throws SQLException;
+
+    /**
+     * Marks the connections used for reads outside a transaction as read-only.
+     *
+     * @param readOnly true to read on read-only connections, false otherwise
+     */
+    default void setReadOnly(boolean readOnly) {
+
+    }
 }
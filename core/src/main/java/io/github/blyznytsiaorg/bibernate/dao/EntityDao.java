@@ -22,6 +22,7 @@ import io.github.blyznytsiaorg.bibernate.transaction.TransactionHolder;
 import io.github.blyznytsiaorg.bibernate.utils.CollectionUtils;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.flywaydb.core.internal.util.Pair;
 
@@ -32,6 +33,7 @@ import java.sql.SQLException;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.function.Predicate;
+import javax.sql.DataSource;
 
 import static io.github.blyznytsiaorg.bibernate.dao.utils.HqlQueryInfo.DOT;
 import static io.github.blyznytsiaorg.bibernate.transaction.TransactionJdbcUtils.close;
@@ -90,6 +92,19 @@ public class EntityDao implements Dao {
     @Getter
     private final List<String> executedQueries;
 
+    /**
+     * Set by the first write of the session. Later reads of the session go to the primary data source,
+     * so they see the session's own writes even when replicas lag behind.
+     */
+    private boolean readFromPrimary;
+
+    /**
+     * Set for read-only sessions and read-only queries. Reads outside a transaction then run on connections
+     * marked read-only, the pool restores the flag when the connection is borrowed again.
+     */
+    @Setter
+    private boolean readOnly;
+
     /**
      * Retrieves an entity by its primary key. If the result set contains more than one entity,
      * a {@link NonUniqueResultException} is thrown.
@@ -132,7 +147,7 @@ public class EntityDao implements Dao {
 
         var tableName = table(entityClass);
         var query = sqlBuilder.selectAll(tableName);
-        var dataSource = bibernateDatabaseSettings.getDataSource();
+        var dataSource = readDataSource();
         var items = new ArrayList<T>();
 
         addToExecutedQueries(query);
@@ -141,7 +156,7 @@ public class EntityDao implements Dao {
         Connection connection = null;
         PreparedStatement ps = null;
         try {
-            connection = dataSource.getConnection();
+            connection = readConnection(dataSource);
             ps = connection.prepareStatement(query);
 
             var resultSet = ps.executeQuery();
@@ -176,7 +191,7 @@ public class EntityDao implements Dao {
         var tableName = table(entityClass);
         var fieldIdName = columnIdName(entityClass);
         var query = sqlBuilder.selectAllByFieldName(tableName, fieldIdName, primaryKeys.size());
-        var dataSource = bibernateDatabaseSettings.getDataSource();
+        var dataSource = readDataSource();
         var ids = primaryKeys.toArray();
         var items = new ArrayList<T>();
 
@@ -186,7 +201,7 @@ public class EntityDao implements Dao {
         Connection connection = null;
         PreparedStatement ps = null;
         try {
-            connection = dataSource.getConnection();
+            connection = readConnection(dataSource);
             ps = connection.prepareStatement(query);
 
             populatePreparedStatement(ids, ps);
@@ -241,7 +256,7 @@ public class EntityDao implements Dao {
     @Override
     public <T> List<T> findByWhere(Class<T> entityClass, String whereCondition, Object... bindValues) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
-        EntityMetadata entityMetadata = BibernateContextHolder.getBibernateEntityMetadata().get(entityClass);
+        EntityMetadata entityMetadata = bibernateDatabaseSettings.getBibernateEntityMetadata().get(entityClass);
 
         if (hasAnyOneToOneEagerFetchType(entityMetadata)) {
             return findByWhereJoin(entityClass, bindValues);
@@ -275,7 +290,7 @@ public class EntityDao implements Dao {
         var fieldIdName = columnIdName(entityClass);
         var query = sqlBuilder.selectWithJoin(tableName, fieldIdName, field);
 
-        var entityMetadata = BibernateContextHolder.getBibernateEntityMetadata().get(entityClass);
+        var entityMetadata = bibernateDatabaseSettings.getBibernateEntityMetadata().get(entityClass);
         if (hasAnyOneToOneEagerFetchType(entityMetadata)) {
             return findAllByWhereJoin(entityClass, query, bindValues);
         }
@@ -303,7 +318,7 @@ public class EntityDao implements Dao {
                                        Object... bindValues) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
 
-        var dataSource = bibernateDatabaseSettings.getDataSource();
+        var dataSource = readDataSource();
 
         var query = createLeftJoinQuery(entityClass);
 
@@ -313,7 +328,7 @@ public class EntityDao implements Dao {
         Connection connection = null;
         PreparedStatement ps = null;
         try {
-            connection = dataSource.getConnection();
+            connection = readConnection(dataSource);
             ps = connection.prepareStatement(query);
 
             showSql(() -> log.debug(QUERY_BIND_VALUES, query, Arrays.toString(bindValues)));
@@ -348,7 +363,7 @@ public class EntityDao implements Dao {
     public <T> List<T> findAllByWhereJoin(Class<T> entityClass, String query, Object... bindValues) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
 
-        var dataSource = bibernateDatabaseSettings.getDataSource();
+        var dataSource = readDataSource();
 
         var leftJoinQuery = createLeftJoinQuery(entityClass);
         var mergedQuery = sqlBuilder.mergeQueries(leftJoinQuery, query);
@@ -359,7 +374,7 @@ public class EntityDao implements Dao {
         Connection connection = null;
         PreparedStatement ps = null;
         try {
-            connection = dataSource.getConnection();
+            connection = readConnection(dataSource);
             ps = connection.prepareStatement(mergedQuery);
 
             showSql(() -> log.debug(QUERY_BIND_VALUES, mergedQuery, Arrays.toString(bindValues)));
@@ -395,14 +410,14 @@ public class EntityDao implements Dao {
     public <T> List<T> findByQuery(Class<T> entityClass, String query, Object... bindValues) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
 
-        var dataSource = bibernateDatabaseSettings.getDataSource();
+        var dataSource = readDataSource();
         addToExecutedQueries(query);
 
         var items = new ArrayList<T>();
         Connection connection = null;
         PreparedStatement ps = null;
         try {
-            connection = dataSource.getConnection();
+            connection = readConnection(dataSource);
             ps = connection.prepareStatement(query);
 
             showSql(() -> log.debug(QUERY_BIND_VALUES, query, Arrays.toString(bindValues)));
@@ -472,6 +487,7 @@ public class EntityDao implements Dao {
     public <T> void update(Class<T> entityClass, Object entity, List<ColumnSnapshot> diff) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
         Objects.requireNonNull(entity, ENTITY_MUST_BE_NOT_NULL);
+        readFromPrimary = true;
 
         var dataSource = bibernateDatabaseSettings.getDataSource();
 
@@ -530,6 +546,7 @@ public class EntityDao implements Dao {
     public <T> T save(Class<T> entityClass, T entity) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
         Objects.requireNonNull(entity, ENTITY_MUST_BE_NOT_NULL);
+        readFromPrimary = true;
 
         setVersionValueIfNull(entityClass, entity);
 
@@ -552,6 +569,7 @@ public class EntityDao implements Dao {
     public <T> void saveAll(Class<T> entityClass, Collection<T> entities) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
         CollectionUtils.requireNonEmpty(entities, COLLECTION_MUST_BE_NOT_EMPTY);
+        readFromPrimary = true;
 
         setVersionValueIfNull(entityClass, entities);
 
@@ -598,6 +616,7 @@ public class EntityDao implements Dao {
     public <T> void deleteAllById(Class<T> entityClass, Collection<Object> primaryKeys) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
         CollectionUtils.requireNonEmpty(primaryKeys, COLLECTION_MUST_BE_NOT_EMPTY);
+        readFromPrimary = true;
 
         var dataSource = bibernateDatabaseSettings.getDataSource();
         var tableName = table(entityClass);
@@ -643,6 +662,7 @@ public class EntityDao implements Dao {
     public <T> void delete(Class<T> entityClass, Object entity) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
         Objects.requireNonNull(entity, ENTITY_MUST_BE_NOT_NULL);
+        readFromPrimary = true;
 
         var primaryKey = columnIdValue(entityClass, entity);
         var isVersionFound = isColumnVersionFound(entityClass);
@@ -707,6 +727,7 @@ public class EntityDao implements Dao {
     public <T> void deleteAll(Class<T> entityClass, Collection<T> entities) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
         CollectionUtils.requireNonEmpty(entities, COLLECTION_MUST_BE_NOT_EMPTY);
+        readFromPrimary = true;
 
         var isVersionFound = isColumnVersionFound(entityClass);
         var dataSource = bibernateDatabaseSettings.getDataSource();
@@ -753,6 +774,7 @@ public class EntityDao implements Dao {
      */
     @Override
     public void startTransaction() throws SQLException {
+        readFromPrimary = true;
         getTransaction().start();
     }
 
@@ -785,7 +807,7 @@ public class EntityDao implements Dao {
     }
 
     private <T> String createLeftJoinQuery(Class<T> entityClass) {
-        var bibernateEntityMetadata = BibernateContextHolder.getBibernateEntityMetadata();
+        var bibernateEntityMetadata = bibernateDatabaseSettings.getBibernateEntityMetadata();
         var searchedEntityMetadata = bibernateEntityMetadata.get(entityClass);
 
         var tableName = searchedEntityMetadata.getTableName();
@@ -808,10 +830,11 @@ public class EntityDao implements Dao {
                                             boolean returnDeletedEntities) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
         Objects.requireNonNull(columnName, FIELD_MUST_BE_NOT_NULL);
+        readFromPrimary = true;
 
         var dataSource = bibernateDatabaseSettings.getDataSource();
 
-        var bibernateEntityMetadata = BibernateContextHolder.getBibernateEntityMetadata();
+        var bibernateEntityMetadata = bibernateDatabaseSettings.getBibernateEntityMetadata();
         var entityMetadata = bibernateEntityMetadata.get(entityClass);
         var tableName = entityMetadata.getTableName();
 
@@ -850,6 +873,29 @@ public class EntityDao implements Dao {
         return deletedEntities;
     }
 
+    /**
+     * Returns the data source for a read: a replica when replicas are configured, unless the read runs in a
+     * transaction or the session has already written, in which case the primary data source is used.
+     */
+    private DataSource readDataSource() {
+        if (readFromPrimary || TransactionHolder.getTransaction() != null) {
+            return bibernateDatabaseSettings.getDataSource();
+        }
+        return bibernateDatabaseSettings.getReadDataSource();
+    }
+
+    /**
+     * Borrows a connection for a read, marked read-only when the session or query is read-only
+     * and the read does not run in a transaction.
+     */
+    private Connection readConnection(DataSource dataSource) throws SQLException {
+        var connection = dataSource.getConnection();
+        if (readOnly && TransactionHolder.getTransaction() == null) {
+            connection.setReadOnly(true);
+        }
+        return connection;
+    }
+
     private Transaction getTransaction() throws SQLException {
         var transaction = TransactionHolder.getTransaction();
         if (transaction == null) {
@@ -1,6 +1,8 @@
 package io.github.blyznytsiaorg.bibernate.dao;
 
 import io.github.blyznytsiaorg.bibernate.dao.method.handler.SimpleRepositoryFactory;
+import io.github.blyznytsiaorg.bibernate.session.BibernateContextHolder;
+import io.github.blyznytsiaorg.bibernate.session.BibernateSessionFactory;
 import lombok.RequiredArgsConstructor;
 
 import java.lang.reflect.InvocationHandler;
@@ -10,6 +12,8 @@ import java.lang.reflect.Proxy;
 /**
  * InvocationHandler implementation for dynamically handling method invocations on repository interfaces.
  * It delegates the invocation to a SimpleRepositoryFactory for handling repository-specific operations.
+ * The session factory of the persistence unit the handler belongs to is bound to the calling thread for the duration
+ * of each invocation, so repositories work on any thread and always use their own persistence unit.
  *
  *  @author Blyzhnytsia Team
  *  @since 1.0
@@ -20,6 +24,10 @@ public class SimpleRepositoryInvocationHandler implements InvocationHandler {
      * The SimpleRepositoryFactory used for handling repository-specific operations.
      */
     private final SimpleRepositoryFactory simpleRepositoryFactory;
+    /**
+     * The session factory repository methods open their sessions with, {@code null} until one is bound.
+     */
+    private volatile BibernateSessionFactory bibernateSessionFactory;
     /**
      * Constructs a SimpleRepositoryInvocationHandler with a new instance of SimpleRepositoryFactory.
      */
@@ -37,7 +45,21 @@ public class SimpleRepositoryInvocationHandler implements InvocationHandler {
      */
     @Override
     public Object invoke(Object proxy, Method method, Object[] parameters) {
-        return simpleRepositoryFactory.invoke(proxy, method, parameters);
+        var sessionFactory = bibernateSessionFactory;
+        if (sessionFactory == null) {
+            return simpleRepositoryFactory.invoke(proxy, method, parameters);
+        }
+        return BibernateContextHolder.callWithBibernateSessionFactory(sessionFactory,
+                () -> simpleRepositoryFactory.invoke(proxy, method, parameters));
+    }
+
+    /**
+     * Binds the session factory repository methods open their sessions with.
+     *
+     * @param bibernateSessionFactory the session factory of the persistence unit this handler belongs to
+     */
+    public void bindSessionFactory(BibernateSessionFactory bibernateSessionFactory) {
+        this.bibernateSessionFactory = bibernateSessionFactory;
     }
 
     /**
@@ -53,7 +75,7 @@ public class SimpleRepositoryInvocationHandler implements InvocationHandler {
         return (T) Proxy.newProxyInstance(
                 repositoryInterface.getClassLoader(),
                 new Class<?>[]{repositoryInterface},
-                new SimpleRepositoryInvocationHandler()
+                this
         );
     }
 }
\ No newline at end of file
@@ -71,7 +71,18 @@ public class DDLQueryCreator {
      * @see OperationOrder
      */
     public DDLQueryCreator() {
-        bibernateEntityMetadata = BibernateContextHolder.getBibernateEntityMetadata();
+        this(BibernateContextHolder.getBibernateEntityMetadata());
+    }
+
+    /**
+     * Constructs a new DDLQueryCreator instance generating the DDL queries for the given entity metadata.
+     *
+     * @param bibernateEntityMetadata the entity metadata, where the keys are entity classes and the values are
+     *                                corresponding metadata
+     * @see OperationOrder
+     */
+    public DDLQueryCreator(Map<Class<?>, EntityMetadata> bibernateEntityMetadata) {
+        this.bibernateEntityMetadata = bibernateEntityMetadata;
         ddlMetadata.put(OperationOrder.DROP_CONSTRAINT, dropConstraints);
         ddlMetadata.put(OperationOrder.DROP_TABLE, dropTables);
         ddlMetadata.put(OperationOrder.DROP_SEQUENCE, dropSequences);
@@ -0,0 +1,18 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity class whose field writes were instrumented by {@link DirtyTrackingEnhancer} to track its own
+ * changes. Added by the enhancer, not meant to be put on classes by hand.
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DirtyTrackingEnhanced {
+}
@@ -0,0 +1,180 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+import io.github.blyznytsiaorg.bibernate.annotation.Entity;
+import io.github.blyznytsiaorg.bibernate.exception.BibernateGeneralException;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.LoaderClassPath;
+import javassist.Modifier;
+import javassist.NotFoundException;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.annotation.Annotation;
+import javassist.expr.ExprEditor;
+import javassist.expr.FieldAccess;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Build-time bytecode enhancer for entities tracking their own changes. For every {@link Entity} class in a class
+ * output directory that implements {@link SelfDirtinessTracker}, each write to one of its persistent fields outside
+ * a constructor is followed by a call to {@link SelfDirtinessTracker#trackChange(String)} with the field name.
+ * Setters generated by Lombok are therefore tracked like hand-written ones, and no field name has to be spelled
+ * out by hand. Enhanced classes are marked with {@link DirtyTrackingEnhanced}, so enhancing them again has no effect.
+ * <p>
+ * The enhancer runs after compilation, e.g. with the exec-maven-plugin in the {@code process-classes} phase:
+ * <pre>{@code
+ * <plugin>
+ *     <groupId>org.codehaus.mojo</groupId>
+ *     <artifactId>exec-maven-plugin</artifactId>
+ *     <executions>
+ *         <execution>
+ *             <phase>process-classes</phase>
+ *             <goals>
+ *                 <goal>java</goal>
+ *             </goals>
+ *             <configuration>
+ *                 <mainClass>io.github.blyznytsiaorg.bibernate.entity.DirtyTrackingEnhancer</mainClass>
+ *                 <arguments>
+ *                     <argument>${project.build.outputDirectory}</argument>
+ *                 </arguments>
+ *             </configuration>
+ *         </execution>
+ *     </executions>
+ * </plugin>
+ * }</pre>
+ *
+ * @see DirtyTrackingEntity
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@Slf4j
+public class DirtyTrackingEnhancer {
+    private static final String CLASS_FILE_SUFFIX = ".class";
+    private static final String CANNOT_ENHANCE = "Cannot enhance entity classes in %s: %s";
+    private static final String TRACK_CHANGE = "{ $proceed($$); $0.trackChange(\"%s\"); }";
+
+    private final ClassPool classPool;
+    private final CtClass trackerType;
+
+    /**
+     * Creates an enhancer resolving classes from the given class output directory and the context class loader.
+     *
+     * @param classesDirectory the class output directory
+     * @throws NotFoundException if the directory or {@link SelfDirtinessTracker} can't be found
+     */
+    public DirtyTrackingEnhancer(Path classesDirectory) throws NotFoundException {
+        this.classPool = new ClassPool(true);
+        classPool.insertClassPath(classesDirectory.toString());
+        classPool.appendClassPath(new LoaderClassPath(Thread.currentThread().getContextClassLoader()));
+        this.trackerType = classPool.get(SelfDirtinessTracker.class.getName());
+    }
+
+    /**
+     * Enhances the self-tracking entity classes in every class output directory given as argument.
+     *
+     * @param args the class output directories
+     */
+    public static void main(String[] args) {
+        for (var directory : args) {
+            var enhanced = enhanceDirectory(Path.of(directory));
+            log.info("Enhanced {} self-tracking entity classes in {}", enhanced, directory);
+        }
+    }
+
+    /**
+     * Enhances the self-tracking entity classes in a class output directory, rewriting their class files.
+     *
+     * @param classesDirectory the class output directory
+     * @return the number of enhanced classes
+     */
+    public static int enhanceDirectory(Path classesDirectory) {
+        if (!Files.isDirectory(classesDirectory)) {
+            return 0;
+        }
+        try (Stream<Path> paths = Files.walk(classesDirectory)) {
+            var enhancer = new DirtyTrackingEnhancer(classesDirectory);
+            var enhanced = 0;
+            for (var classFile : paths.filter(path -> path.toString().endsWith(CLASS_FILE_SUFFIX)).toList()) {
+                if (enhancer.enhance(classFile, classesDirectory)) {
+                    enhanced++;
+                }
+            }
+            return enhanced;
+        } catch (IOException | NotFoundException | CannotCompileException e) {
+            throw new BibernateGeneralException(CANNOT_ENHANCE.formatted(classesDirectory, e.getMessage()), e);
+        }
+    }
+
+    private boolean enhance(Path classFile, Path classesDirectory)
+            throws IOException, NotFoundException, CannotCompileException {
+        CtClass ctClass;
+        try (InputStream inputStream = Files.newInputStream(classFile)) {
+            ctClass = classPool.makeClass(inputStream);
+        }
+        if (!isEnhanceable(ctClass)) {
+            ctClass.detach();
+            return false;
+        }
+
+        var persistentFields = persistentFields(ctClass);
+        var className = ctClass.getName();
+        var editor = new ExprEditor() {
+            @Override
+            public void edit(FieldAccess fieldAccess) throws CannotCompileException {
+                if (fieldAccess.isWriter() && fieldAccess.getClassName().equals(className)
+                        && persistentFields.contains(fieldAccess.getFieldName())) {
+                    fieldAccess.replace(TRACK_CHANGE.formatted(fieldAccess.getFieldName()));
+                }
+            }
+        };
+        for (var method : ctClass.getDeclaredMethods()) {
+            if (!Modifier.isStatic(method.getModifiers()) && !Modifier.isAbstract(method.getModifiers())) {
+                method.instrument(editor);
+            }
+        }
+        markEnhanced(ctClass);
+
+        ctClass.writeFile(classesDirectory.toString());
+        ctClass.detach();
+        log.trace("Enhanced self-tracking entity {}", className);
+        return true;
+    }
+
+    private boolean isEnhanceable(CtClass ctClass) throws NotFoundException {
+        return !ctClass.isInterface()
+                && ctClass.hasAnnotation(Entity.class.getName())
+                && !ctClass.hasAnnotation(DirtyTrackingEnhanced.class.getName())
+                && ctClass.subtypeOf(trackerType);
+    }
+
+    private static Set<String> persistentFields(CtClass ctClass) {
+        var fields = new HashSet<String>();
+        for (CtField field : ctClass.getDeclaredFields()) {
+            var modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                fields.add(field.getName());
+            }
+        }
+        return fields;
+    }
+
+    private static void markEnhanced(CtClass ctClass) {
+        var constPool = ctClass.getClassFile().getConstPool();
+        var attribute = (AnnotationsAttribute) ctClass.getClassFile().getAttribute(AnnotationsAttribute.visibleTag);
+        if (attribute == null) {
+            attribute = new AnnotationsAttribute(constPool, AnnotationsAttribute.visibleTag);
+            ctClass.getClassFile().addAttribute(attribute);
+        }
+        attribute.addAnnotation(new Annotation(DirtyTrackingEnhanced.class.getName(), constPool));
+    }
+}
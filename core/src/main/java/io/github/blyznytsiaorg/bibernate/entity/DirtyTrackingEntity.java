@@ -0,0 +1,93 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+import io.github.blyznytsiaorg.bibernate.exception.BibernateGeneralException;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base class for entities that track their own changes with one bit per declared field.
+ * Setters of the subclass call {@link #trackChange(String)} with the field name:
+ * <pre>{@code
+ * public void setName(String name) {
+ *     this.name = name;
+ *     trackChange("name");
+ * }
+ * }</pre>
+ * The dirty bits live in this superclass and are transient, so they are neither mapped to a column
+ * nor stored in the second level cache.
+ *
+ * @see SelfDirtinessTracker
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public abstract class DirtyTrackingEntity implements SelfDirtinessTracker {
+    private static final String UNKNOWN_FIELD = "Class %s has no field %s to track";
+
+    private static final ClassValue<Map<String, Integer>> FIELD_INDEXES = new ClassValue<>() {
+        @Override
+        protected Map<String, Integer> computeValue(Class<?> type) {
+            var declaredFields = type.getDeclaredFields();
+            var indexes = new HashMap<String, Integer>(declaredFields.length * 2);
+            for (int i = 0; i < declaredFields.length; i++) {
+                indexes.put(declaredFields[i].getName(), i);
+            }
+            return indexes;
+        }
+    };
+
+    private static final ClassValue<String[]> FIELD_NAMES = new ClassValue<>() {
+        @Override
+        protected String[] computeValue(Class<?> type) {
+            var declaredFields = type.getDeclaredFields();
+            var names = new String[declaredFields.length];
+            for (int i = 0; i < declaredFields.length; i++) {
+                names[i] = declaredFields[i].getName();
+            }
+            return names;
+        }
+    };
+
+    private transient BitSet dirtyFields;
+
+    @Override
+    public void trackChange(String fieldName) {
+        var index = FIELD_INDEXES.get(getClass()).get(fieldName);
+        if (index == null) {
+            throw new BibernateGeneralException(UNKNOWN_FIELD.formatted(getClass().getSimpleName(), fieldName));
+        }
+        if (dirtyFields == null) {
+            dirtyFields = new BitSet();
+        }
+        dirtyFields.set(index);
+    }
+
+    @Override
+    public boolean hasDirtyFields() {
+        return dirtyFields != null && !dirtyFields.isEmpty();
+    }
+
+    @Override
+    public Set<String> getDirtyFields() {
+        if (!hasDirtyFields()) {
+            return Set.of();
+        }
+        var names = FIELD_NAMES.get(getClass());
+        var result = new LinkedHashSet<String>();
+        for (int i = dirtyFields.nextSetBit(0); i >= 0; i = dirtyFields.nextSetBit(i + 1)) {
+            result.add(names[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public void clearDirtyFields() {
+        if (dirtyFields != null) {
+            dirtyFields.clear();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+/**
+ * Compact snapshot of the persistent state of a managed entity, used for dirty checking.
+ * Values are stored by column position of the entity's {@link SnapshotLayout}: primitive columns are packed
+ * into a {@code long[]}, all other columns into an {@code Object[]}. Column names and types are not repeated
+ * per instance, they are kept once in the layout.
+ *
+ * @param references values of the non-primitive columns, {@code null} at the positions of primitive columns
+ * @param primitives raw bits of the primitive columns, indexed by the primitive slots of the layout
+ *
+ * @see SnapshotLayout
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public record EntitySnapshot(Object[] references, long[] primitives) {
+}
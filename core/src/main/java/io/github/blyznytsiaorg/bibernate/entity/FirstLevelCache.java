@@ -0,0 +1,368 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.castIdToEntityId;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.columnIdType;
+
+/**
+ * Identity map of the entities managed by a session, together with their snapshots.
+ * Entities are kept in one map per entity class. Classes with an integral id ({@code Long}, {@code Integer},
+ * {@code Short} and their primitives) use a {@link LongKeyMap}, so a cache hit for such an id neither allocates
+ * an {@link EntityKey} nor goes through reflection. Other ids use a regular hash map.
+ * <p>
+ * Entries are also linked in access order, least recently used first, so the session can evict the entities
+ * it has not touched for the longest time. Entries known to be clean, because they were just loaded or flushed,
+ * are linked in a second list in the same order. The session evicts from that list only, so entities it found dirty
+ * are not compared with their snapshots again on every eviction.
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public class FirstLevelCache implements Iterable<FirstLevelCache.Entry> {
+
+    private static final ClassValue<Class<?>> ID_TYPES = new ClassValue<>() {
+        @Override
+        protected Class<?> computeValue(Class<?> entityClass) {
+            return columnIdType(entityClass);
+        }
+    };
+
+    private final Map<Class<?>, ClassEntries> entriesByClass = new HashMap<>();
+    private final Entry head = new Entry(null, null, null);
+    private final Entry cleanHead = new Entry(null, null, null);
+    private int size;
+
+    /**
+     * Constructs an empty first-level cache.
+     */
+    public FirstLevelCache() {
+        head.previous = head;
+        head.next = head;
+        cleanHead.cleanPrevious = cleanHead;
+        cleanHead.cleanNext = cleanHead;
+    }
+
+    /**
+     * Returns the managed entity with the given id and marks it as most recently used.
+     *
+     * @param entityClass the entity class
+     * @param id          the id, converted to the id type of the entity if needed
+     * @return the entity, or {@code null} if it is not managed
+     */
+    public Object get(Class<?> entityClass, Object id) {
+        var entry = find(entityClass, id);
+        if (entry == null) {
+            return null;
+        }
+        moveToTail(entry);
+        if (entry.isClean()) {
+            unlinkClean(entry);
+            linkLastClean(entry);
+        }
+        return entry.entity;
+    }
+
+    /**
+     * Returns the entry of the managed entity with the given key, without changing the access order.
+     *
+     * @param entityKey the entity key
+     * @return the entry, or {@code null} if the entity is not managed
+     */
+    public Entry getEntry(EntityKey<?> entityKey) {
+        return find(entityKey.clazz(), entityKey.id());
+    }
+
+    /**
+     * Registers a managed entity as most recently used and clean, replacing the entity with the same key.
+     *
+     * @param entityKey the entity key
+     * @param entity    the entity
+     * @param snapshot  the snapshot of the entity, {@code null} if it is not dirty checked against a snapshot
+     */
+    public void put(EntityKey<?> entityKey, Object entity, EntitySnapshot snapshot) {
+        var entry = new Entry(entityKey, entity, snapshot);
+        var previous = classEntries(entityKey.clazz()).put(entityKey.id(), entry);
+        if (previous != null) {
+            unlink(previous);
+            unlinkClean(previous);
+        } else {
+            size++;
+        }
+        linkLast(entry);
+        linkLastClean(entry);
+    }
+
+    /**
+     * Marks a managed entity as clean, e.g. after its changes were flushed, so it can be evicted again.
+     * An entity that is already marked clean keeps its position.
+     *
+     * @param entry the entry
+     */
+    public void markClean(Entry entry) {
+        if (!entry.isClean()) {
+            linkLastClean(entry);
+        }
+    }
+
+    /**
+     * Marks a managed entity as dirty, so it is not offered for eviction until it is marked clean again.
+     *
+     * @param entry the entry
+     */
+    public void markDirty(Entry entry) {
+        unlinkClean(entry);
+    }
+
+    /**
+     * Returns the entries marked clean, from the least to the most recently used. Entries may be removed or
+     * marked dirty while iterating.
+     *
+     * @return the clean entries
+     */
+    public Iterable<Entry> cleanEntries() {
+        return () -> new Iterator<>() {
+            private Entry next = cleanHead.cleanNext;
+
+            @Override
+            public boolean hasNext() {
+                return next != cleanHead;
+            }
+
+            @Override
+            public Entry next() {
+                if (next == cleanHead) {
+                    throw new NoSuchElementException();
+                }
+                var entry = next;
+                next = next.cleanNext;
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * Removes the managed entity with the given key.
+     *
+     * @param entityKey the entity key
+     * @return true if the entity was managed, false otherwise
+     */
+    public boolean remove(EntityKey<?> entityKey) {
+        var entry = getEntry(entityKey);
+        if (entry == null) {
+            return false;
+        }
+        remove(entry);
+        return true;
+    }
+
+    /**
+     * Removes a managed entity by its entry.
+     *
+     * @param entry the entry
+     */
+    public void remove(Entry entry) {
+        var entityKey = entry.entityKey;
+        entriesByClass.get(entityKey.clazz()).remove(entityKey.id());
+        unlink(entry);
+        unlinkClean(entry);
+        size--;
+    }
+
+    /**
+     * Returns the number of managed entities.
+     *
+     * @return the number of managed entities
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all managed entities.
+     */
+    public void clear() {
+        entriesByClass.clear();
+        head.previous = head;
+        head.next = head;
+        cleanHead.cleanPrevious = cleanHead;
+        cleanHead.cleanNext = cleanHead;
+        size = 0;
+    }
+
+    /**
+     * Iterates the entries from the least to the most recently used. The iterator supports removal.
+     *
+     * @return the iterator
+     */
+    @Override
+    public Iterator<Entry> iterator() {
+        return new Iterator<>() {
+            private Entry next = head.next;
+            private Entry lastReturned;
+
+            @Override
+            public boolean hasNext() {
+                return next != head;
+            }
+
+            @Override
+            public Entry next() {
+                if (next == head) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = next;
+                next = next.next;
+                return lastReturned;
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                FirstLevelCache.this.remove(lastReturned);
+                lastReturned = null;
+            }
+        };
+    }
+
+    private Entry find(Class<?> entityClass, Object id) {
+        var classEntries = entriesByClass.get(entityClass);
+        return classEntries == null ? null : classEntries.get(id);
+    }
+
+    private ClassEntries classEntries(Class<?> entityClass) {
+        return entriesByClass.computeIfAbsent(entityClass, ClassEntries::new);
+    }
+
+    private void linkLast(Entry entry) {
+        entry.previous = head.previous;
+        entry.next = head;
+        head.previous.next = entry;
+        head.previous = entry;
+    }
+
+    private void unlink(Entry entry) {
+        entry.previous.next = entry.next;
+        entry.next.previous = entry.previous;
+    }
+
+    private void linkLastClean(Entry entry) {
+        entry.cleanPrevious = cleanHead.cleanPrevious;
+        entry.cleanNext = cleanHead;
+        cleanHead.cleanPrevious.cleanNext = entry;
+        cleanHead.cleanPrevious = entry;
+    }
+
+    private void unlinkClean(Entry entry) {
+        if (entry.isClean()) {
+            entry.cleanPrevious.cleanNext = entry.cleanNext;
+            entry.cleanNext.cleanPrevious = entry.cleanPrevious;
+            entry.cleanPrevious = null;
+            entry.cleanNext = null;
+        }
+    }
+
+    private void moveToTail(Entry entry) {
+        if (head.previous != entry) {
+            unlink(entry);
+            linkLast(entry);
+        }
+    }
+
+    /**
+     * A managed entity with its key and snapshot.
+     */
+    public static final class Entry {
+        @Getter
+        private final EntityKey<?> entityKey;
+        @Getter
+        private final Object entity;
+        @Getter
+        @Setter
+        private EntitySnapshot snapshot;
+        private Entry previous;
+        private Entry next;
+        private Entry cleanPrevious;
+        private Entry cleanNext;
+
+        private Entry(EntityKey<?> entityKey, Object entity, EntitySnapshot snapshot) {
+            this.entityKey = entityKey;
+            this.entity = entity;
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Tells whether the entry is marked clean.
+         *
+         * @return true if the entry is in the list of clean entries
+         */
+        public boolean isClean() {
+            return cleanNext != null;
+        }
+    }
+
+    /**
+     * The entries of one entity class, keyed by a primitive {@code long} for integral ids.
+     */
+    private static final class ClassEntries {
+        private final Class<?> entityClass;
+        private final Class<?> idType;
+        private final LongKeyMap<Entry> integralIdEntries;
+        private final Map<Object, Entry> entries;
+
+        private ClassEntries(Class<?> entityClass) {
+            this.entityClass = entityClass;
+            this.idType = ID_TYPES.get(entityClass);
+            if (isIntegral(idType)) {
+                this.integralIdEntries = new LongKeyMap<>();
+                this.entries = null;
+            } else {
+                this.integralIdEntries = null;
+                this.entries = new HashMap<>();
+            }
+        }
+
+        private Entry get(Object id) {
+            return integralIdEntries != null ? integralIdEntries.get(toLong(id)) : entries.get(toIdType(id));
+        }
+
+        private Entry put(Object id, Entry entry) {
+            return integralIdEntries != null
+                    ? integralIdEntries.put(toLong(id), entry)
+                    : entries.put(toIdType(id), entry);
+        }
+
+        private void remove(Object id) {
+            if (integralIdEntries != null) {
+                integralIdEntries.remove(toLong(id));
+            } else {
+                entries.remove(toIdType(id));
+            }
+        }
+
+        private long toLong(Object id) {
+            if (id instanceof Long || id instanceof Integer || id instanceof Short || id instanceof Byte) {
+                return ((Number) id).longValue();
+            }
+            return ((Number) castIdToEntityId(entityClass, id)).longValue();
+        }
+
+        private static boolean isIntegral(Class<?> idType) {
+            return idType == Long.class || idType == long.class
+                    || idType == Integer.class || idType == int.class
+                    || idType == Short.class || idType == short.class;
+        }
+
+        private Object toIdType(Object id) {
+            return idType.isInstance(id) ? id : castIdToEntityId(entityClass, id);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Open-addressing hash map with primitive {@code long} keys, so neither lookups nor updates box the key.
+ * Collisions are resolved by linear probing and removals shift the following entries back,
+ * so no tombstones are left behind. Values must not be {@code null}.
+ *
+ * @param <V> the type of the values
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public class LongKeyMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    /**
+     * Constructs an empty map with the default capacity.
+     */
+    public LongKeyMap() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns the value mapped to the key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if the key is not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            var value = values[i];
+            if (value == null || keys[i] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    /**
+     * Maps the key to the value, replacing the previous value of the key.
+     *
+     * @param key   the key
+     * @param value the value, not {@code null}
+     * @return the previous value, or {@code null} if the key was not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        Objects.requireNonNull(value);
+        int i = index(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                var previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the key.
+     *
+     * @param key the key
+     * @return the removed value, or {@code null} if the key was not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = index(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                var removed = (V) values[i];
+                shiftBack(i);
+                size--;
+                return removed;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of mappings.
+     *
+     * @return the number of mappings
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all mappings, keeping the allocated capacity.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private void shiftBack(int freeSlot) {
+        values[freeSlot] = null;
+        for (int i = (freeSlot + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+            int home = index(keys[i]);
+            var reachable = freeSlot <= i
+                    ? freeSlot < home && home <= i
+                    : freeSlot < home || home <= i;
+            if (!reachable) {
+                keys[freeSlot] = keys[i];
+                values[freeSlot] = values[i];
+                values[i] = null;
+                freeSlot = i;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity / 2 + capacity / 4;
+    }
+
+    private int index(long key) {
+        var hash = key * GOLDEN_RATIO;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
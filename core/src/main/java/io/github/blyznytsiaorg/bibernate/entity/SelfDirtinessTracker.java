@@ -0,0 +1,46 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+import java.util.Set;
+
+/**
+ * Implemented by entities that record their own changes, so the session does not have to keep a snapshot
+ * of them and compare it field by field on every flush.
+ * A tracked entity must call {@link #trackChange(String)} whenever one of its persistent fields changes,
+ * typically from its setters. On flush only entities reporting {@link #hasDirtyFields()} are updated,
+ * and their dirty fields are cleared afterwards.
+ * <p>
+ * The easiest way to implement it is to extend {@link DirtyTrackingEntity}.
+ *
+ * @see DirtyTrackingEntity
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public interface SelfDirtinessTracker {
+
+    /**
+     * Marks a field as changed.
+     *
+     * @param fieldName the name of the changed field
+     */
+    void trackChange(String fieldName);
+
+    /**
+     * Checks whether any field changed since the dirty fields were last cleared.
+     *
+     * @return true if at least one field is dirty, false otherwise
+     */
+    boolean hasDirtyFields();
+
+    /**
+     * Returns the names of the fields changed since the dirty fields were last cleared.
+     *
+     * @return the names of the dirty fields
+     */
+    Set<String> getDirtyFields();
+
+    /**
+     * Forgets all recorded changes, e.g. once the entity was loaded or its changes were flushed.
+     */
+    void clearDirtyFields();
+}
@@ -0,0 +1,173 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+import io.github.blyznytsiaorg.bibernate.annotation.ManyToOne;
+import io.github.blyznytsiaorg.bibernate.annotation.OneToOne;
+import io.github.blyznytsiaorg.bibernate.exception.BibernateGeneralException;
+import io.github.blyznytsiaorg.bibernate.utils.ProxyUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.columnName;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.getValueFromObject;
+
+/**
+ * Describes how the columns of one entity class are laid out in an {@link EntitySnapshot}:
+ * the fields, column names and types in metadata column order, and the {@code long[]} slot of every
+ * primitive column. A layout is created once per entity class and shared by all snapshots of that class.
+ * <p>
+ * To-one associations are captured by the id of the referenced entity. For a lazy proxy that is the join column
+ * value it was created with, so taking a snapshot or diffing never initializes the proxy, and a proxy that is
+ * still uninitialized is not compared at all.
+ *
+ * @see EntitySnapshot
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public class SnapshotLayout {
+    private static final String CANNOT_READ_FIELD = "Unable to read [%s] field value for entity [%s]";
+    private static final int REFERENCE = -1;
+
+    private final Field[] fields;
+    private final String[] columnNames;
+    private final Class<?>[] types;
+    private final int[] primitiveSlots;
+    private final boolean[] toOneReferences;
+    private final int primitiveCount;
+
+    /**
+     * Constructs a layout for the given fields, in the order of the entity's metadata columns.
+     *
+     * @param fields the persistent fields of the entity
+     */
+    public SnapshotLayout(List<Field> fields) {
+        var size = fields.size();
+        this.fields = new Field[size];
+        this.columnNames = new String[size];
+        this.types = new Class<?>[size];
+        this.primitiveSlots = new int[size];
+        this.toOneReferences = new boolean[size];
+
+        var primitives = 0;
+        for (int i = 0; i < size; i++) {
+            var field = fields.get(i);
+            field.setAccessible(true);
+            this.fields[i] = field;
+            this.columnNames[i] = columnName(field);
+            this.types[i] = field.getType();
+            this.primitiveSlots[i] = field.getType().isPrimitive() ? primitives++ : REFERENCE;
+            this.toOneReferences[i] = field.isAnnotationPresent(ManyToOne.class)
+                    || field.isAnnotationPresent(OneToOne.class);
+        }
+        this.primitiveCount = primitives;
+    }
+
+    /**
+     * Takes a snapshot of the current state of the entity.
+     *
+     * @param entity the entity
+     * @return the snapshot
+     */
+    public EntitySnapshot snapshot(Object entity) {
+        var references = new Object[fields.length];
+        var primitives = new long[primitiveCount];
+        for (int i = 0; i < fields.length; i++) {
+            var slot = primitiveSlots[i];
+            if (slot == REFERENCE) {
+                references[i] = readReference(entity, i);
+            } else {
+                primitives[slot] = readPrimitive(entity, fields[i]);
+            }
+        }
+        return new EntitySnapshot(references, primitives);
+    }
+
+    /**
+     * Compares the current state of the entity with a snapshot, without building a second snapshot.
+     *
+     * @param entity   the entity
+     * @param snapshot the snapshot taken when the entity was loaded
+     * @return the changed columns with their current values, empty if nothing changed
+     */
+    public List<ColumnSnapshot> diff(Object entity, EntitySnapshot snapshot) {
+        List<ColumnSnapshot> diff = null;
+        var references = snapshot.references();
+        var primitives = snapshot.primitives();
+        for (int i = 0; i < fields.length; i++) {
+            var slot = primitiveSlots[i];
+            boolean changed;
+            if (slot == REFERENCE) {
+                changed = !isUninitializedProxy(entity, i) && !Objects.equals(readReference(entity, i), references[i]);
+            } else {
+                changed = readPrimitive(entity, fields[i]) != primitives[slot];
+            }
+            if (changed) {
+                if (diff == null) {
+                    diff = new ArrayList<>();
+                }
+                diff.add(new ColumnSnapshot(columnNames[i], readValue(entity, i), types[i]));
+            }
+        }
+        return diff == null ? List.of() : diff;
+    }
+
+    /**
+     * Returns the number of columns in this layout.
+     *
+     * @return the number of columns
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    private Object readValue(Object entity, int index) {
+        return primitiveSlots[index] == REFERENCE ? readReference(entity, index) : read(entity, fields[index]);
+    }
+
+    private Object readReference(Object entity, int index) {
+        return toOneReferences[index] ? getValueFromObject(entity, fields[index]) : read(entity, fields[index]);
+    }
+
+    private boolean isUninitializedProxy(Object entity, int index) {
+        if (!toOneReferences[index]) {
+            return false;
+        }
+        var proxyHandler = ProxyUtils.getHandler(read(entity, fields[index]));
+        return proxyHandler != null && !proxyHandler.isInitialized();
+    }
+
+    private static Object read(Object entity, Field field) {
+        try {
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new BibernateGeneralException(CANNOT_READ_FIELD.formatted(field.getName(), entity.getClass()), e);
+        }
+    }
+
+    private static long readPrimitive(Object entity, Field field) {
+        try {
+            var type = field.getType();
+            if (type == long.class) {
+                return field.getLong(entity);
+            } else if (type == int.class) {
+                return field.getInt(entity);
+            } else if (type == double.class) {
+                return Double.doubleToLongBits(field.getDouble(entity));
+            } else if (type == boolean.class) {
+                return field.getBoolean(entity) ? 1 : 0;
+            } else if (type == float.class) {
+                return Float.floatToIntBits(field.getFloat(entity));
+            } else if (type == short.class) {
+                return field.getShort(entity);
+            } else if (type == byte.class) {
+                return field.getByte(entity);
+            }
+            return field.getChar(entity);
+        } catch (IllegalAccessException e) {
+            throw new BibernateGeneralException(CANNOT_READ_FIELD.formatted(field.getName(), entity.getClass()), e);
+        }
+    }
+}
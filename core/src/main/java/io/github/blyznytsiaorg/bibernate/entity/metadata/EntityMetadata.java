@@ -3,11 +3,15 @@ package io.github.blyznytsiaorg.bibernate.entity.metadata;
 import io.github.blyznytsiaorg.bibernate.annotation.enumeration.CascadeType;
 import io.github.blyznytsiaorg.bibernate.annotation.enumeration.FetchType;
 import io.github.blyznytsiaorg.bibernate.dao.JoinInfo;
+import io.github.blyznytsiaorg.bibernate.entity.SnapshotLayout;
 import io.github.blyznytsiaorg.bibernate.entity.metadata.model.IndexMetadata;
 import lombok.Getter;
 
 import java.util.*;
 
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.getCollectionGenericType;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.table;
+
 /**
  * Represents metadata for an entity, including table name, immutability, dynamic update,
  * entity type, index metadata and entity columns.
@@ -29,6 +33,16 @@ public class EntityMetadata {
     private final List<IndexMetadata> indexMetadatas;
     private final List<EntityColumnDetails> entityColumns;
 
+    /**
+     * Column layout of the dirty checking snapshots of this entity, created on first use.
+     */
+    private volatile SnapshotLayout snapshotLayout;
+
+    /**
+     * Tables a query for this entity may read, created on first use.
+     */
+    private volatile Set<String> referencedTableNames;
+
     /**
      * Constructs an EntityMetadata object with the specified table name, immutability,
      * dynamic update and entity type.
@@ -66,6 +80,52 @@ public class EntityMetadata {
         entityColumns.add(entityColumn);
     }
 
+    /**
+     * Returns the layout of the dirty checking snapshots of this entity, with one column per entity column
+     * in the same order. The column names and types are kept here once instead of in every snapshot.
+     *
+     * @return the snapshot layout
+     */
+    public SnapshotLayout getSnapshotLayout() {
+        var layout = snapshotLayout;
+        if (layout == null) {
+            layout = new SnapshotLayout(entityColumns.stream()
+                    .map(EntityColumnDetails::getField)
+                    .toList());
+            snapshotLayout = layout;
+        }
+        return layout;
+    }
+
+    /**
+     * Returns the tables a query loading this entity may read: its own table, the tables of the related
+     * entities and the join tables of its relations.
+     *
+     * @return the names of the referenced tables
+     */
+    public Set<String> getReferencedTableNames() {
+        var tableNames = referencedTableNames;
+        if (tableNames == null) {
+            var names = new HashSet<String>();
+            names.add(tableName);
+            for (var entityColumn : entityColumns) {
+                if (entityColumn.getOneToOne() != null || entityColumn.getOneToMany() != null
+                    || entityColumn.getManyToOne() != null || entityColumn.getManyToMany() != null) {
+                    var relatedClass = entityColumn.isCollection()
+                            ? getCollectionGenericType(entityColumn.getField())
+                            : entityColumn.getFieldType();
+                    names.add(table(relatedClass));
+                }
+                if (entityColumn.getJoinTable() != null) {
+                    names.add(entityColumn.getJoinTable().getName());
+                }
+            }
+            tableNames = Set.copyOf(names);
+            referencedTableNames = tableNames;
+        }
+        return tableNames;
+    }
+
     /**
      * Retrieves the entity columns with cascade remove relations.
      *
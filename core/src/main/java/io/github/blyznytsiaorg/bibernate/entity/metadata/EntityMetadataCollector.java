@@ -18,6 +18,9 @@ import io.github.blyznytsiaorg.bibernate.annotation.OneToMany;
 import io.github.blyznytsiaorg.bibernate.annotation.OneToOne;
 import io.github.blyznytsiaorg.bibernate.annotation.SequenceGenerator;
 import io.github.blyznytsiaorg.bibernate.annotation.UpdateTimestamp;
+import io.github.blyznytsiaorg.bibernate.entity.DirtyTrackingEnhanced;
+import io.github.blyznytsiaorg.bibernate.entity.DirtyTrackingEnhancer;
+import io.github.blyznytsiaorg.bibernate.entity.SelfDirtinessTracker;
 import io.github.blyznytsiaorg.bibernate.entity.metadata.model.ColumnMetadata;
 import io.github.blyznytsiaorg.bibernate.entity.metadata.model.CreationTimestampMetadata;
 import io.github.blyznytsiaorg.bibernate.entity.metadata.model.GeneratedValueMetadata;
@@ -116,6 +119,7 @@ public class EntityMetadataCollector {
                 }
                 var indexMetadata = getIndexMetadata(entityClass);
                 entityMetadata.addIndexMetadata(indexMetadata);
+                checkDirtyTrackingEnhancement(entityClass);
 
                 inMemoryEntityMetadata.put(entityClass, entityMetadata);
             }
@@ -123,6 +127,21 @@ public class EntityMetadataCollector {
         return inMemoryEntityMetadata;
     }
 
+    /**
+     * Warns about an entity tracking its own changes that was not enhanced by {@link DirtyTrackingEnhancer}.
+     * Its setters have to call {@link SelfDirtinessTracker#trackChange(String)} themselves, and a missed call
+     * loses the change.
+     *
+     * @param entityClass The entity class to check.
+     */
+    private void checkDirtyTrackingEnhancement(Class<?> entityClass) {
+        if (SelfDirtinessTracker.class.isAssignableFrom(entityClass)
+            && !entityClass.isAnnotationPresent(DirtyTrackingEnhanced.class)) {
+            log.warn(("Entity %s tracks its own changes but was not enhanced by DirtyTrackingEnhancer, "
+                      + "its setters must call trackChange for every changed field").formatted(entityClass.getName()));
+        }
+    }
+
     /**
      * Checks if the table name is already associated with another entity class.
      * If a duplicate table name is found, it throws a MappingException.
@@ -63,6 +63,6 @@ public class LazyEntityFieldResolver implements TypeFieldResolver {
         var type = field.getType();
         Supplier<?> entitySupplier = () -> session.findById(type, joinColumnValue).orElse(null);
 
-        return ProxyUtils.createProxy(type, entitySupplier);
+        return ProxyUtils.createProxy(type, joinColumnValue, entitySupplier);
     }
 }
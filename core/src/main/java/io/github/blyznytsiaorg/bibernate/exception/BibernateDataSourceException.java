@@ -10,6 +10,15 @@ package io.github.blyznytsiaorg.bibernate.exception;
  */
 public class BibernateDataSourceException extends RuntimeException {
 
+    /**
+     * Constructs a new BibernateDataSourceException with the specified detail message.
+     *
+     * @param message the detail message (which is saved for later retrieval by the getMessage() method)
+     */
+    public BibernateDataSourceException(String message) {
+        super(message);
+    }
+
     /**
      * Constructs a new BibernateDataSourceException with the specified detail message and cause.
      *
@@ -11,6 +11,15 @@ package io.github.blyznytsiaorg.bibernate.exception;
  */
 public class ConnectionPoolException extends RuntimeException {
 
+    /**
+     * Constructs a new ConnectionPoolException with the specified detail message.
+     *
+     * @param message the detail message (which is saved for later retrieval by the getMessage() method)
+     */
+    public ConnectionPoolException(String message) {
+        super(message);
+    }
+
     /**
      * Constructs a new ConnectionPoolException with the specified detail message and cause.
      *
@@ -0,0 +1,21 @@
+package io.github.blyznytsiaorg.bibernate.exception;
+
+/**
+ * Exception thrown when a connection could not be acquired from the connection pool
+ * within the configured connection timeout. It signals back-pressure to the caller
+ * instead of handing out a missing connection.
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public class ConnectionPoolTimeoutException extends ConnectionPoolException {
+
+    /**
+     * Constructs a new ConnectionPoolTimeoutException with the specified detail message.
+     *
+     * @param message the detail message (which is saved for later retrieval by the getMessage() method)
+     */
+    public ConnectionPoolTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -1,16 +1,23 @@
 package io.github.blyznytsiaorg.bibernate.session;
 
+import io.github.blyznytsiaorg.bibernate.Persistent;
 import io.github.blyznytsiaorg.bibernate.entity.metadata.EntityMetadata;
 import lombok.experimental.UtilityClass;
 import org.reflections.Reflections;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 
 /**
  * Internal usage for repositories etc.
  * Utility class for managing thread-local instances of the Reflections library,
  * which is used for classpath scanning and metadata retrieval.
+ * <p>
+ * Nothing is kept globally, so several persistence units can live in one JVM. The entity metadata falls back to
+ * the one of the session factory bound to the current thread, and repository proxies bind their session factory
+ * for the duration of each call, so threads that never set the context themselves, e.g. a virtual thread started
+ * per request, still see the persistence unit they work with.
  *
  *  @author Blyzhnytsia Team
  *  @since 1.0
@@ -29,12 +36,14 @@ public class BibernateContextHolder {
     private static final ThreadLocal<BibernateSessionFactory> sessionFactoryContextHolder = new ThreadLocal<>();
 
     /**
-     * Gets the thread-local instance of Reflections.
+     * Gets the thread-local instance of Reflections, or the one scanning the internal Bibernate package when the
+     * current thread did not set one. The internal package is the same for every persistence unit.
      *
      * @return The Reflections instance for the current thread.
      */
     public static Reflections getReflections() {
-        return reflectionsThreadLocal.get();
+        var reflections = reflectionsThreadLocal.get();
+        return reflections != null ? reflections : InternalReflections.INSTANCE;
     }
 
     /**
@@ -47,12 +56,19 @@ public class BibernateContextHolder {
     }
 
     /**
-     * Retrieves the entity metadata stored in the current thread's context.
+     * Retrieves the entity metadata stored in the current thread's context, or the one of the persistence unit of
+     * the session factory bound to the current thread.
      *
-     * @return the map containing entity metadata, where the keys are entity classes and the values are corresponding metadata
+     * @return the map containing entity metadata, where the keys are entity classes and the values are corresponding
+     * metadata, or {@code null} if the current thread has no context
      */
     public static Map<Class<?>, EntityMetadata> getBibernateEntityMetadata() {
-        return entityMetadataContextHolder.get();
+        var entityMetadata = entityMetadataContextHolder.get();
+        if (entityMetadata != null) {
+            return entityMetadata;
+        }
+        var sessionFactory = sessionFactoryContextHolder.get();
+        return sessionFactory != null ? sessionFactory.getBibernateSettings().getBibernateEntityMetadata() : null;
     }
 
     /**
@@ -88,4 +104,33 @@ public class BibernateContextHolder {
         sessionFactoryContextHolder.remove();
     }
 
+    /**
+     * Binds the session factory to the current thread while the action runs, then restores the previous one.
+     *
+     * @param bibernateSessionFactory the session factory to bind
+     * @param action                  the action to run
+     * @param <T>                     the type of the result
+     * @return the result of the action
+     */
+    public static <T> T callWithBibernateSessionFactory(BibernateSessionFactory bibernateSessionFactory,
+                                                        Supplier<T> action) {
+        var previous = sessionFactoryContextHolder.get();
+        sessionFactoryContextHolder.set(bibernateSessionFactory);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                sessionFactoryContextHolder.set(previous);
+            } else {
+                sessionFactoryContextHolder.remove();
+            }
+        }
+    }
+
+    /**
+     * Scans the internal Bibernate package on first use.
+     */
+    private static final class InternalReflections {
+        private static final Reflections INSTANCE = new Reflections(Persistent.class.getPackageName());
+    }
 }
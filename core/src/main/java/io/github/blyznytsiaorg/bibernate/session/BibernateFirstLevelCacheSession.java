@@ -3,11 +3,14 @@ package io.github.blyznytsiaorg.bibernate.session;
 import io.github.blyznytsiaorg.bibernate.actionqueue.ActionQueue;
 import io.github.blyznytsiaorg.bibernate.actionqueue.EntityAction;
 import io.github.blyznytsiaorg.bibernate.actionqueue.impl.*;
-import io.github.blyznytsiaorg.bibernate.annotation.OneToOne;
-import io.github.blyznytsiaorg.bibernate.annotation.enumeration.FetchType;
 import io.github.blyznytsiaorg.bibernate.dao.Dao;
 import io.github.blyznytsiaorg.bibernate.entity.ColumnSnapshot;
 import io.github.blyznytsiaorg.bibernate.entity.EntityKey;
+import io.github.blyznytsiaorg.bibernate.entity.FirstLevelCache;
+import io.github.blyznytsiaorg.bibernate.entity.SelfDirtinessTracker;
+import io.github.blyznytsiaorg.bibernate.entity.SnapshotLayout;
+import io.github.blyznytsiaorg.bibernate.entity.metadata.EntityMetadata;
+import io.github.blyznytsiaorg.bibernate.exception.BibernateGeneralException;
 import io.github.blyznytsiaorg.bibernate.utils.CollectionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,7 +18,9 @@ import lombok.extern.slf4j.Slf4j;
 import java.lang.reflect.Field;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static io.github.blyznytsiaorg.bibernate.session.BibernateContextHolder.resetBibernateSession;
 import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.*;
@@ -31,7 +36,35 @@ import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.LogMessage.*;
  * <p>
  * The first-level cache stores entities in-memory, allowing for quick retrieval without repeated
  * database queries. Snapshots are used for dirty checking, identifying changes in entities and
- * triggering necessary updates to the database.
+ * triggering necessary updates to the database. Entities implementing {@link SelfDirtinessTracker}
+ * record their own changes instead: no snapshot is taken for them and a flush only updates the ones
+ * reporting dirty fields. Entities with lazy to-one associations are managed as well: their snapshots hold
+ * the join column value of each lazy proxy, so dirty checking does not initialize the proxies.
+ * <p>
+ * Pending changes are flushed according to the session's {@link FlushMode}. In {@code AUTO} mode a query
+ * flushes first only when a queued action or a dirty managed entity maps to a table the query reads,
+ * and a {@code findById} served from the first-level cache never flushes.
+ * <p>
+ * In read-only mode, for a read-only session or a {@link #readOnly(java.util.function.Supplier) read-only query},
+ * loaded entities are neither snapshotted nor registered in the first-level cache. Entities that are already managed
+ * are still returned by identity.
+ * <p>
+ * Entities can be removed from the persistence context with {@link #evict(Object)}, {@link #clear()} and
+ * {@link #detach()}. When {@code maxManagedEntities} is positive the first-level cache is kept in access order:
+ * once it grows beyond the limit the session evicts its least recently used clean entities, down to three quarters
+ * of the limit. Dirty entities are never evicted. If too many of them are left to get below the limit, the session
+ * waits until the cache grows by another quarter of the limit before trying again, and in {@code AUTO} mode
+ * flushes before its next query so they become evictable. In {@code COMMIT} and {@code MANUAL} modes dirty entities
+ * stay until the session is flushed, so the limit does not bound a session that only holds dirty entities.
+ * <p>
+ * When {@code parallelDirtyCheckingThreshold} is positive and the session manages at least that many entities,
+ * a flush compares the entities with their snapshots in parallel.
+ * <p>
+ * {@link #findAllById(Class, Collection)} returns managed entities from the first-level cache and loads only
+ * the missing ones, in queries of at most {@code findAllByIdChunkSize} ids each.
+ * <p>
+ * When the action queue is bounded, saving entities executes the pending inserts as soon as the queue reaches
+ * its limit, so a session saving a large number of entities does not keep all of them queued until the flush.
  * <p>
  * This class is part of the Bibernate framework and supports common CRUD operations, query
  * executions, and transaction management.
@@ -45,25 +78,67 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
 
     private final BibernateSession bibernateSession;
     private final ActionQueue actionQueue;
-    private final Map<EntityKey<?>, Object> firstLevelCache = new HashMap<>();
-    private final Map<EntityKey<?>, List<ColumnSnapshot>> snapshots = new HashMap<>();
+
+    /**
+     * Maximum number of managed entities, 0 or less for no limit.
+     */
+    private final int maxManagedEntities;
+
+    /**
+     * Number of managed entities from which snapshots are compared in parallel, 0 or less to always compare
+     * sequentially.
+     */
+    private final int parallelDirtyCheckingThreshold;
+
+    /**
+     * Maximum number of ids sent to the database in one {@code findAllById} query.
+     */
+    private final int findAllByIdChunkSize;
+
+    /**
+     * Metadata of the entity classes of the persistence unit this session belongs to.
+     */
+    private final Map<Class<?>, EntityMetadata> entityMetadata;
+    private final FirstLevelCache firstLevelCache = new FirstLevelCache();
+
+    /**
+     * Size above which the next managed entity triggers an eviction.
+     */
+    private int evictionThreshold;
+
+    /**
+     * Set when an eviction was held back by dirty entities, so the next query flushes first in {@code AUTO} mode.
+     */
+    private boolean evictionFlushPending;
+
+    /**
+     * Keys of entities with a queued delete, so a cached entity that is about to be deleted is never returned.
+     */
+    private final Set<EntityKey<?>> pendingDeletes = new HashSet<>();
+    private FlushMode flushMode = FlushMode.AUTO;
+    private boolean readOnly;
 
     @Override
     public <T> Optional<T> findById(Class<T> entityClass, Object primaryKey) {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
         Objects.requireNonNull(primaryKey, PRIMARY_KEY_MUST_BE_NOT_NULL);
 
-        flush();
-        var fieldIdType = columnIdType(entityClass);
-        primaryKey = castIdToEntityId(entityClass, primaryKey);
-        var entityKey = new EntityKey<>(entityClass, primaryKey, fieldIdType);
-        var cachedEntity = firstLevelCache.get(entityKey);
+        if (!pendingDeletes.isEmpty()
+                && pendingDeletes.contains(prepareEntityKey(entityClass, castIdToEntityId(entityClass, primaryKey)))) {
+            if (flushMode != FlushMode.AUTO) {
+                return Optional.empty();
+            }
+            flush();
+        }
+        var cachedEntity = firstLevelCache.get(entityClass, primaryKey);
 
         if (Objects.isNull(cachedEntity)) {
-            var finalPrimaryKey = primaryKey;
+            var finalPrimaryKey = castIdToEntityId(entityClass, primaryKey);
+            var entityKey = prepareEntityKey(entityClass, finalPrimaryKey);
             log.trace(ENTITY_NOT_FOUND_IN_FIRST_LEVEL_CACHE_BY_ID, entityClass.getSimpleName(), finalPrimaryKey);
+            autoFlush(entityClass);
 
-            return bibernateSession.findById(entityClass, primaryKey)
+            return bibernateSession.findById(entityClass, finalPrimaryKey)
                     .map(entityFromDb -> persistentContext(entityClass, entityFromDb, entityKey, finalPrimaryKey));
         }
 
@@ -74,7 +149,7 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
 
     @Override
     public <T> List<T> findAll(Class<T> entityClass) {
-        flush();
+        autoFlush(entityClass);
         var entities = bibernateSession.findAll(entityClass);
         persistentContext(entityClass, entities);
 
@@ -83,16 +158,53 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
 
     @Override
     public <T> List<T> findAllById(Class<T> entityClass, Collection<Object> primaryKeys) {
-        flush();
-        var entities = bibernateSession.findAllById(entityClass, primaryKeys);
-        persistentContext(entityClass, entities);
+        if (primaryKeys.isEmpty()) {
+            return bibernateSession.findAllById(entityClass, primaryKeys);
+        }
+
+        var ids = new LinkedHashSet<>(primaryKeys.size());
+        for (var primaryKey : primaryKeys) {
+            ids.add(castIdToEntityId(entityClass, primaryKey));
+        }
+        if (flushMode == FlushMode.AUTO && isAnyPendingDelete(entityClass, ids)) {
+            flush();
+        }
+
+        var foundEntities = new HashMap<Object, T>();
+        var missingIds = new LinkedHashSet<>();
+        for (var id : ids) {
+            if (isPendingDelete(entityClass, id)) {
+                continue;
+            }
+            var cachedEntity = firstLevelCache.get(entityClass, id);
+            if (Objects.nonNull(cachedEntity)) {
+                foundEntities.put(id, entityClass.cast(cachedEntity));
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        if (!missingIds.isEmpty()) {
+            log.trace(ENTITIES_FOUND_IN_FIRST_LEVEL_CACHE_BY_IDS, ids.size() - missingIds.size(), ids.size(),
+                    entityClass.getSimpleName());
+            autoFlush(entityClass);
+            loadMissingEntities(entityClass, new ArrayList<>(missingIds), foundEntities);
+        }
+
+        var entities = new ArrayList<T>(ids.size());
+        for (var id : ids) {
+            var entity = foundEntities.get(id);
+            if (Objects.nonNull(entity)) {
+                entities.add(entity);
+            }
+        }
 
         return entities;
     }
 
     @Override
     public <T> List<T> findAllByColumnValue(Class<T> entityClass, String columnName, Object columnValue) {
-        flush();
+        autoFlush(entityClass);
         var entities = bibernateSession.findAllByColumnValue(entityClass, columnName, columnValue);
         persistentContext(entityClass, entities);
 
@@ -101,7 +213,7 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
 
     @Override
     public <T> List<T> findByWhere(Class<T> entityClass, String whereQuery, Object[] bindValues) {
-        flush();
+        autoFlush(entityClass);
         var entities = bibernateSession.findByWhere(entityClass, whereQuery, bindValues);
         persistentContext(entityClass, entities);
 
@@ -110,7 +222,7 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
 
     @Override
     public <T> List<T> findByJoinTableField(Class<T> entityClass, Field field, Object... bindValues) {
-        flush();
+        autoFlush(entityClass);
         return bibernateSession.findByJoinTableField(entityClass, field, bindValues);
     }
 
@@ -121,7 +233,7 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
 
     @Override
     public <T> List<T> findByQuery(Class<T> entityClass, String query, Object[] bindValues) {
-        flush();
+        autoFlush(query);
         var entities = bibernateSession.findByQuery(entityClass, query, bindValues);
         persistentContext(entityClass, entities);
 
@@ -133,12 +245,12 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
         Objects.requireNonNull(entityClass, ENTITY_CLASS_MUST_BE_NOT_NULL);
         Objects.requireNonNull(entity, ENTITY_MUST_BE_NOT_NULL);
 
-        this.update(entityClass, entity, List.of());
+        queueUpdate(entityClass, entity, List.of());
     }
 
     @Override
     public int find(String query, Object[] bindValues) {
-        flush();
+        autoFlush(query);
         return bibernateSession.find(query, bindValues);
     }
 
@@ -151,6 +263,7 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
                         .entities(new HashSet<>(Set.of(entity)))
                         .build()),
                 () -> bibernateSession.save(entityClass, entity));
+        executeInsertsIfLimitReached();
 
         return entityClass.cast(entity);
     }
@@ -167,6 +280,7 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
                         .entities(new LinkedHashSet<>(entities))
                         .build()),
                 () -> bibernateSession.saveAll(entityClass, entities));
+        executeInsertsIfLimitReached();
     }
 
     @Override
@@ -178,8 +292,10 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
         var entityKey = prepareEntityKey(entityClass, finalPrimaryKey);
 
         addToQueueOrExecute(
-                () -> actionQueue.addEntityAction(
-                        prepareDeleteByIdEntityAction(entityClass, finalPrimaryKey, entityKey)),
+                () -> {
+                    actionQueue.addEntityAction(prepareDeleteByIdEntityAction(entityClass, finalPrimaryKey, entityKey));
+                    pendingDeletes.add(entityKey);
+                },
                 () -> {
                     bibernateSession.deleteById(entityClass, finalPrimaryKey);
                     removeCacheAndSnapshotBy(entityKey);
@@ -199,13 +315,16 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
                 .toList();
 
         addToQueueOrExecute(
-                () -> actionQueue.addEntityAction(DeleteAllByIdEntityAction.<T>builder()
-                        .bibernateSession(bibernateSession)
-                        .entityClass(entityClass)
-                        .primaryKeys(finalPrimaryKeys)
-                        .entities(bibernateSession.findAllById(entityClass, finalPrimaryKeys))
-                        .removeCacheAndSnapshot(() -> removeCacheAndSnapshotBy(entityKeys, entityClass, finalPrimaryKeys))
-                        .build()),
+                () -> {
+                    actionQueue.addEntityAction(DeleteAllByIdEntityAction.<T>builder()
+                            .bibernateSession(bibernateSession)
+                            .entityClass(entityClass)
+                            .primaryKeys(finalPrimaryKeys)
+                            .entities(bibernateSession.findAllById(entityClass, finalPrimaryKeys))
+                            .removeCacheAndSnapshot(() -> removeCacheAndSnapshotBy(entityKeys, entityClass, finalPrimaryKeys))
+                            .build());
+                    pendingDeletes.addAll(entityKeys);
+                },
                 () -> {
                     bibernateSession.deleteAllById(entityClass, finalPrimaryKeys);
                     removeCacheAndSnapshotBy(entityKeys, entityClass, finalPrimaryKeys);
@@ -240,13 +359,16 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
         var entityKey = prepareEntityKey(entityClass, primaryKey);
 
         addToQueueOrExecute(
-                () -> actionQueue.addEntityAction(
-                        DeleteEntityAction.<T>builder()
-                                .bibernateSession(bibernateSession)
-                                .entityClass(entityClass)
-                                .entities(new HashSet<>(Set.of(entity)))
-                                .removeCacheAndSnapshot(() -> removeCacheAndSnapshotBy(entityKey))
-                                .build()),
+                () -> {
+                    actionQueue.addEntityAction(
+                            DeleteEntityAction.<T>builder()
+                                    .bibernateSession(bibernateSession)
+                                    .entityClass(entityClass)
+                                    .entities(new HashSet<>(Set.of(entity)))
+                                    .removeCacheAndSnapshot(() -> removeCacheAndSnapshotBy(entityKey))
+                                    .build());
+                    pendingDeletes.add(entityKey);
+                },
                 () -> {
                     bibernateSession.delete(entityClass, entity);
                     removeCacheAndSnapshotBy(entityKey);
@@ -266,12 +388,15 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
                 .toList();
 
         addToQueueOrExecute(
-                () -> actionQueue.addEntityAction(DeleteAllEntityAction.<T>builder()
-                        .bibernateSession(bibernateSession)
-                        .entityClass(entityClass)
-                        .entities(entities)
-                        .removeCacheAndSnapshot(() -> removeCacheAndSnapshotBy(entityKeys, entityClass, primaryKeys))
-                        .build()),
+                () -> {
+                    actionQueue.addEntityAction(DeleteAllEntityAction.<T>builder()
+                            .bibernateSession(bibernateSession)
+                            .entityClass(entityClass)
+                            .entities(entities)
+                            .removeCacheAndSnapshot(() -> removeCacheAndSnapshotBy(entityKeys, entityClass, primaryKeys))
+                            .build());
+                    pendingDeletes.addAll(entityKeys);
+                },
                 () -> {
                     bibernateSession.deleteAll(entityClass, entities);
                     removeCacheAndSnapshotBy(entityKeys, entityClass, primaryKeys);
@@ -280,17 +405,42 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
 
     @Override
     public void flush() {
-        performDirtyChecking();
-        actionQueue.executeEntityAction();
-        bibernateSession.flush();
+        flush(Map.of());
+    }
+
+    @Override
+    public void evict(Object entity) {
+        Class<?> entityClass = entity.getClass();
+        var entityKey = prepareEntityKey(entityClass, columnIdValue(entityClass, entity));
+        var entry = firstLevelCache.getEntry(entityKey);
+        if (Objects.nonNull(entry) && entry.getEntity() == entity) {
+            removeCacheAndSnapshotBy(entityKey);
+        }
+    }
+
+    @Override
+    public void clear() {
+        actionQueue.clear();
+        pendingDeletes.clear();
+        clearCacheAndSnapshots();
+    }
+
+    @Override
+    public void detach() {
+        flush();
+        clearCacheAndSnapshots();
     }
 
     @Override
     public void close() {
-        log.trace(SESSION_IS_CLOSING_PERFORMING_DIRTY_CHECKING);
-        performDirtyChecking();
-        actionQueue.executeEntityAction();
+        if (flushMode != FlushMode.MANUAL) {
+            log.trace(SESSION_IS_CLOSING_PERFORMING_DIRTY_CHECKING);
+            var dirtyEntityKeys = performDirtyChecking(Map.of());
+            executeEntityActions();
+            refreshSnapshots(dirtyEntityKeys);
+        }
         resetBibernateSession();
+        pendingDeletes.clear();
 
         clearCacheAndSnapshots();
 
@@ -309,6 +459,9 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
 
     @Override
     public void commitTransaction() throws SQLException {
+        if (flushMode != FlushMode.MANUAL) {
+            flush();
+        }
         bibernateSession.commitTransaction();
     }
 
@@ -317,23 +470,229 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
         bibernateSession.rollbackTransaction();
     }
 
-    private List<ColumnSnapshot> buildEntitySnapshot(Object entity) {
-        Objects.requireNonNull(entity, ENTITY_MUST_BE_NOT_NULL);
+    @Override
+    public FlushMode getFlushMode() {
+        return flushMode;
+    }
 
-        var entityClass = entity.getClass();
-        var declaredFields = entityClass.getDeclaredFields();
-        var snapshot = new ArrayList<ColumnSnapshot>(declaredFields.length);
+    @Override
+    public void setFlushMode(FlushMode flushMode) {
+        this.flushMode = flushMode;
+    }
 
-        for (var field : declaredFields) {
-            var value = getValueFromObject(entity, field);
-            var columnName = columnName(field);
-            snapshot.add(new ColumnSnapshot(columnName, value, field.getType()));
+    @Override
+    public boolean isDefaultReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    public void setDefaultReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        bibernateSession.setDefaultReadOnly(readOnly);
+    }
+
+    /**
+     * Flushes the session, reusing the diffs already computed for some of the managed entities.
+     *
+     * @param knownDiffs diffs of managed entities against their snapshots, by cache entry
+     */
+    private void flush(Map<FirstLevelCache.Entry, List<ColumnSnapshot>> knownDiffs) {
+        var dirtyEntityKeys = performDirtyChecking(knownDiffs);
+        executeEntityActions();
+        refreshSnapshots(dirtyEntityKeys);
+        bibernateSession.flush();
+        evictionFlushPending = false;
+        evictionThreshold = 0;
+        evictLeastRecentlyUsedEntities(null);
+    }
+
+    private void executeEntityActions() {
+        actionQueue.executeEntityAction();
+        pendingDeletes.clear();
+    }
+
+    /**
+     * Executes the pending inserts early once the action queue reached its limit, unless the session is in
+     * {@link FlushMode#MANUAL} mode.
+     */
+    private void executeInsertsIfLimitReached() {
+        if (flushMode != FlushMode.MANUAL && actionQueue.isInsertLimitReached()) {
+            log.trace(PENDING_INSERTS_LIMIT_REACHED);
+            actionQueue.executeInsertEntityActions();
         }
+    }
 
-        return snapshot;
+    private void autoFlush(Class<?> entityClass) {
+        var queriedTables = referencedTableNames(entityClass);
+        autoFlush(queriedTables::contains);
+    }
+
+    /**
+     * Auto-flushes before a native query. The table names are matched against the query text as whole
+     * identifiers, ignoring case. This is best-effort: a table referenced only through a view, a function or a
+     * quoted identifier with different case is not detected, while a table name appearing in a string literal or
+     * a comment causes a flush that wasn't needed. Flush the session explicitly before such queries.
+     *
+     * @param query the native SQL query
+     */
+    private void autoFlush(String query) {
+        var normalizedQuery = query.toLowerCase(Locale.ROOT);
+        autoFlush(tableName -> containsTableName(normalizedQuery, tableName.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Flushes the session in {@link FlushMode#AUTO} mode when a queued action or a dirty managed entity
+     * maps to one of the queried tables, so the query sees the pending changes of this session. Whether a class
+     * is queried is resolved once per class, and the diffs computed to find a dirty entity are reused by the
+     * flush, so no entity is compared with its snapshot twice.
+     *
+     * @param isTableQueried tells whether a table name is read by the query
+     */
+    private void autoFlush(Predicate<String> isTableQueried) {
+        if (flushMode != FlushMode.AUTO) {
+            return;
+        }
+        if (evictionFlushPending) {
+            log.trace(AUTO_FLUSH_BEFORE_QUERY);
+            flush();
+            return;
+        }
+        var queriedClasses = new HashMap<Class<?>, Boolean>();
+        Predicate<Class<?>> isClassQueried = entityClass -> queriedClasses.computeIfAbsent(entityClass,
+                clazz -> referencedTableNames(clazz).stream().anyMatch(isTableQueried));
+
+        if (actionQueue.containsAny(isClassQueried)) {
+            log.trace(AUTO_FLUSH_BEFORE_QUERY);
+            flush();
+            return;
+        }
+        var knownDiffs = new IdentityHashMap<FirstLevelCache.Entry, List<ColumnSnapshot>>();
+        if (hasDirtyEntity(isClassQueried, knownDiffs)) {
+            log.trace(AUTO_FLUSH_BEFORE_QUERY);
+            flush(knownDiffs);
+        }
+    }
+
+    /**
+     * Looks for a dirty managed entity of a queried class, stopping at the first one found.
+     *
+     * @param isClassQueried tells whether an entity class maps to a queried table
+     * @param knownDiffs     receives the diff of every entity compared with its snapshot on the way
+     * @return true if a dirty entity of a queried class was found
+     */
+    private boolean hasDirtyEntity(Predicate<Class<?>> isClassQueried,
+                                   Map<FirstLevelCache.Entry, List<ColumnSnapshot>> knownDiffs) {
+        for (var entry : firstLevelCache) {
+            if (!isClassQueried.test(entry.getEntityKey().clazz())) {
+                continue;
+            }
+            if (entry.getEntity() instanceof SelfDirtinessTracker tracker) {
+                if (tracker.hasDirtyFields()) {
+                    return true;
+                }
+                continue;
+            }
+            var diff = snapshotLayout(entry.getEntityKey().clazz()).diff(entry.getEntity(), entry.getSnapshot());
+            knownDiffs.put(entry, diff);
+            if (!diff.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isDirty(FirstLevelCache.Entry entry) {
+        if (entry.getEntity() instanceof SelfDirtinessTracker tracker) {
+            return tracker.hasDirtyFields();
+        }
+        return !snapshotLayout(entry.getEntityKey().clazz()).diff(entry.getEntity(), entry.getSnapshot()).isEmpty();
+    }
+
+    /**
+     * Keeps the persistence context within {@code maxManagedEntities} by evicting the least recently used entities
+     * marked clean, down to three quarters of the limit. Each candidate is compared with its snapshot once: a clean
+     * one is evicted, a dirty one is marked dirty and skipped until a flush marks it clean again. The eviction
+     * runs only when the cache grows beyond the threshold, which is the limit, or a quarter of the limit above the
+     * size left by the last eviction if dirty entities held it back. Never flushes, since it runs while query
+     * results are being registered; in {@code AUTO} mode the next query flushes first instead.
+     *
+     * @param registeredEntity the entity just registered, which is about to be returned and is never evicted,
+     *                         {@code null} if there is none
+     */
+    private void evictLeastRecentlyUsedEntities(Object registeredEntity) {
+        if (maxManagedEntities <= 0 || firstLevelCache.size() <= Math.max(maxManagedEntities, evictionThreshold)) {
+            return;
+        }
+
+        var targetSize = maxManagedEntities - maxManagedEntities / 4;
+        var evicted = 0;
+        var iterator = firstLevelCache.cleanEntries().iterator();
+        while (firstLevelCache.size() > targetSize && iterator.hasNext()) {
+            var entry = iterator.next();
+            if (entry.getEntity() == registeredEntity) {
+                continue;
+            }
+            if (isDirty(entry)) {
+                firstLevelCache.markDirty(entry);
+            } else {
+                firstLevelCache.remove(entry);
+                evicted++;
+            }
+        }
+        evictionThreshold = firstLevelCache.size() + maxManagedEntities / 4;
+        evictionFlushPending = firstLevelCache.size() > targetSize && flushMode == FlushMode.AUTO;
+        log.trace(EVICTED_LEAST_RECENTLY_USED_ENTITIES, evicted, maxManagedEntities);
+    }
+
+    /**
+     * Takes new snapshots of the entities updated by a flush and clears the dirty fields of the updated entities
+     * tracking their own changes, so they are clean until they change again, and can be evicted. Called only after
+     * the updates were executed.
+     */
+    private void refreshSnapshots(List<EntityKey<?>> entityKeys) {
+        for (var entityKey : entityKeys) {
+            var entry = firstLevelCache.getEntry(entityKey);
+            if (Objects.isNull(entry)) {
+                continue;
+            }
+            firstLevelCache.markClean(entry);
+            if (entry.getEntity() instanceof SelfDirtinessTracker tracker) {
+                tracker.clearDirtyFields();
+            } else if (Objects.nonNull(entry.getSnapshot())) {
+                entry.setSnapshot(snapshotLayout(entityKey.clazz()).snapshot(entry.getEntity()));
+            }
+        }
     }
 
-    private <T> void update(Class<T> entityClass, Object entity, List<ColumnSnapshot> diff) {
+    private Set<String> referencedTableNames(Class<?> entityClass) {
+        var metadata = entityMetadata.get(entityClass);
+        return Objects.isNull(metadata) ? Set.of(table(entityClass)) : metadata.getReferencedTableNames();
+    }
+
+    private static boolean containsTableName(String query, String tableName) {
+        for (int from = query.indexOf(tableName); from >= 0; from = query.indexOf(tableName, from + 1)) {
+            var end = from + tableName.length();
+            if (!isIdentifierPart(query, from - 1) && !isIdentifierPart(query, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIdentifierPart(String query, int index) {
+        return index >= 0 && index < query.length()
+                && (Character.isLetterOrDigit(query.charAt(index)) || query.charAt(index) == '_');
+    }
+
+    private SnapshotLayout snapshotLayout(Class<?> entityClass) {
+        var metadata = entityMetadata.get(entityClass);
+        if (Objects.isNull(metadata)) {
+            throw new BibernateGeneralException(ENTITY_METADATA_NOT_FOUND.formatted(entityClass.getName()));
+        }
+        return metadata.getSnapshotLayout();
+    }
+
+    private <T> void queueUpdate(Class<T> entityClass, Object entity, List<ColumnSnapshot> diff) {
         addToQueueOrExecute(
                 () -> actionQueue.addEntityAction(UpdateEntityAction.builder()
                         .bibernateSession(bibernateSession)
@@ -341,24 +700,114 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
                         .entities(new HashSet<>(Set.of(entity)))
                         .diff(diff)
                         .build()),
-                () -> bibernateSession.getDao().update(entityClass, entity, diff));
+                () -> bibernateSession.update(entityClass, entity, diff));
+    }
+
+    private List<ColumnSnapshot> buildDirtyFieldsSnapshot(Object entity, Set<String> dirtyFields) {
+        var declaredFields = entity.getClass().getDeclaredFields();
+        var snapshot = new ArrayList<ColumnSnapshot>(dirtyFields.size());
+
+        for (var field : declaredFields) {
+            if (dirtyFields.contains(field.getName())) {
+                var value = getValueFromObject(entity, field);
+                snapshot.add(new ColumnSnapshot(columnName(field), value, field.getType()));
+            }
+        }
+
+        return snapshot;
     }
 
-    private void performDirtyChecking() {
-        firstLevelCache.keySet().forEach(entityKey -> {
-            var entityInFirstLevelCache = firstLevelCache.get(entityKey);
-            var entityInFirstLevelCacheCurrentSnapshot = buildEntitySnapshot(entityInFirstLevelCache);
-            var entityOldSnapshot = snapshots.get(entityKey);
-            var diff = getDifference(entityInFirstLevelCacheCurrentSnapshot, entityOldSnapshot);
+    /**
+     * Generates updates for the dirty managed entities.
+     *
+     * @param knownDiffs diffs already computed for some of the entries, reused instead of diffing them again
+     * @return the keys of the updated entities
+     */
+    private List<EntityKey<?>> performDirtyChecking(Map<FirstLevelCache.Entry, List<ColumnSnapshot>> knownDiffs) {
+        var entries = new ArrayList<FirstLevelCache.Entry>(firstLevelCache.size());
+        firstLevelCache.forEach(entries::add);
+        var diffs = diffSnapshots(entries, knownDiffs);
+
+        var dirtyEntityKeys = new ArrayList<EntityKey<?>>();
+        for (int i = 0; i < entries.size(); i++) {
+            var entityKey = entries.get(i).getEntityKey();
+            var entityInFirstLevelCache = entries.get(i).getEntity();
+            if (entityInFirstLevelCache instanceof SelfDirtinessTracker tracker) {
+                if (performDirtyChecking(entityKey, tracker)) {
+                    dirtyEntityKeys.add(entityKey);
+                } else {
+                    firstLevelCache.markClean(entries.get(i));
+                }
+                continue;
+            }
+            var diff = diffs.get(i);
 
             if (CollectionUtils.isNotEmpty(diff)) {
                 log.trace(DIRTY_ENTITY_FOUND_NEED_TO_GENERATE_UPDATE_FOR_ENTITY_KEY_AND_ENTITY,
                         entityKey, entityInFirstLevelCache);
-                update(entityInFirstLevelCache.getClass(), entityInFirstLevelCache, diff);
+                queueUpdate(entityInFirstLevelCache.getClass(), entityInFirstLevelCache, diff);
+                dirtyEntityKeys.add(entityKey);
             } else {
                 log.trace(DIRTY_ENTITY_NOT_FOUND_FOR_ENTITY_KEY_NO_CHANGES, entityKey);
+                firstLevelCache.markClean(entries.get(i));
+            }
+        }
+        return dirtyEntityKeys;
+    }
+
+    /**
+     * Compares the entities checked against a snapshot with their snapshots. From
+     * {@code parallelDirtyCheckingThreshold} entities on, the entries are partitioned and compared on the common
+     * ForkJoin pool. The diffs are returned in entry order either way, so updates are queued in the same order
+     * as with a sequential check.
+     *
+     * @param entries    the managed entities
+     * @param knownDiffs diffs already computed for some of the entries
+     * @return the diff of every entry, empty for entities tracking their own changes
+     */
+    private List<List<ColumnSnapshot>> diffSnapshots(List<FirstLevelCache.Entry> entries,
+                                                     Map<FirstLevelCache.Entry, List<ColumnSnapshot>> knownDiffs) {
+        var layouts = new SnapshotLayout[entries.size()];
+        for (int i = 0; i < layouts.length; i++) {
+            var entry = entries.get(i);
+            if (!(entry.getEntity() instanceof SelfDirtinessTracker) && !knownDiffs.containsKey(entry)) {
+                layouts[i] = snapshotLayout(entry.getEntityKey().clazz());
             }
-        });
+        }
+
+        var indexes = IntStream.range(0, layouts.length);
+        if (parallelDirtyCheckingThreshold > 0 && layouts.length >= parallelDirtyCheckingThreshold) {
+            log.trace(PARALLEL_DIRTY_CHECKING, layouts.length);
+            indexes = indexes.parallel();
+        }
+
+        return indexes
+                .mapToObj(i -> Objects.isNull(layouts[i])
+                        ? knownDiffs.getOrDefault(entries.get(i), List.of())
+                        : layouts[i].diff(entries.get(i).getEntity(), entries.get(i).getSnapshot()))
+                .toList();
+    }
+
+    /**
+     * Generates the update of an entity tracking its own changes. Its dirty fields are cleared only once the update
+     * was executed, see {@link #refreshSnapshots(List)}, so a failed flush keeps them.
+     *
+     * @return true if an update was generated
+     */
+    private boolean performDirtyChecking(EntityKey<?> entityKey, SelfDirtinessTracker tracker) {
+        if (!tracker.hasDirtyFields()) {
+            log.trace(DIRTY_ENTITY_NOT_FOUND_FOR_ENTITY_KEY_NO_CHANGES, entityKey);
+            return false;
+        }
+
+        var diff = buildDirtyFieldsSnapshot(tracker, tracker.getDirtyFields());
+        if (CollectionUtils.isEmpty(diff)) {
+            tracker.clearDirtyFields();
+            return false;
+        }
+        log.trace(DIRTY_ENTITY_FOUND_NEED_TO_GENERATE_UPDATE_FOR_ENTITY_KEY_AND_ENTITY, entityKey, tracker);
+        queueUpdate(tracker.getClass(), tracker, diff);
+        return true;
     }
 
     private <T> EntityAction prepareDeleteByIdEntityAction(Class<T> entityClass,
@@ -377,35 +826,64 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
                 .build();
     }
 
+    private <T> void loadMissingEntities(Class<T> entityClass, List<Object> missingIds, Map<Object, T> foundEntities) {
+        var chunkSize = findAllByIdChunkSize > 0 ? findAllByIdChunkSize : missingIds.size();
+        for (int from = 0; from < missingIds.size(); from += chunkSize) {
+            var chunk = missingIds.subList(from, Math.min(from + chunkSize, missingIds.size()));
+            var entities = bibernateSession.findAllById(entityClass, new ArrayList<>(chunk));
+            persistentContext(entityClass, entities);
+            for (var entity : entities) {
+                foundEntities.put(castIdToEntityId(entityClass, columnIdValue(entityClass, entity)), entity);
+            }
+        }
+    }
+
+    private boolean isAnyPendingDelete(Class<?> entityClass, Collection<Object> ids) {
+        if (pendingDeletes.isEmpty()) {
+            return false;
+        }
+        for (var id : ids) {
+            if (isPendingDelete(entityClass, id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isPendingDelete(Class<?> entityClass, Object id) {
+        return !pendingDeletes.isEmpty() && pendingDeletes.contains(prepareEntityKey(entityClass, id));
+    }
+
     private <T> void persistentContext(Class<T> entityClass, List<T> entities) {
         for (int i = 0; i < entities.size(); i++) {
             var entityFromDb = entities.get(i);
-            var fieldIdType = columnIdType(entityClass);
             var fieldIdValue = columnIdValue(entityClass, entityFromDb);
-            var entityKey = new EntityKey<>(entityClass, fieldIdValue, fieldIdType);
-            var entityCached = firstLevelCache.get(entityKey);
+            var entityCached = firstLevelCache.get(entityClass, fieldIdValue);
 
             if (Objects.nonNull(entityCached)) {
                 entities.set(i, entityClass.cast(entityCached));
             } else {
-                persistentContext(entityClass, entityFromDb, entityKey, fieldIdValue);
+                persistentContext(entityClass, entityFromDb, prepareEntityKey(entityClass, fieldIdValue), fieldIdValue);
             }
         }
     }
 
     private <T> T persistentContext(Class<?> entityClass, T entityFromDb, EntityKey<?> entityKey,
                                     Object finalPrimaryKey) {
+        if (readOnly) {
+            log.trace(READ_ONLY_ENTITY_ID_NOT_MANAGED, entityClass.getSimpleName(), finalPrimaryKey);
+            return entityFromDb;
+        }
         if (!isImmutable(entityClass)) {
-            var isEntityHasLazyField = Arrays.stream(entityFromDb.getClass().getDeclaredFields())
-                    .anyMatch(field -> field.isAnnotationPresent(OneToOne.class) &&
-                                       field.getAnnotation(OneToOne.class).fetch() == FetchType.LAZY);
-
-            if (!isEntityHasLazyField) {
-                firstLevelCache.put(entityKey, entityFromDb);
-                List<ColumnSnapshot> entityCurrentSnapshot = buildEntitySnapshot(entityFromDb);
-                snapshots.put(entityKey, entityCurrentSnapshot);
+            if (entityFromDb instanceof SelfDirtinessTracker tracker) {
+                tracker.clearDirtyFields();
+                firstLevelCache.put(entityKey, entityFromDb, null);
+                log.trace(SELF_TRACKED_ENTITY_ID_WITHOUT_SNAPSHOT, entityClass.getSimpleName(), finalPrimaryKey);
+            } else {
+                firstLevelCache.put(entityKey, entityFromDb, snapshotLayout(entityClass).snapshot(entityFromDb));
                 log.trace(CREATED_SNAPSHOT_FOR_ENTITY_ID, entityClass.getSimpleName(), finalPrimaryKey);
             }
+            evictLeastRecentlyUsedEntities(entityFromDb);
         }
 
         return entityFromDb;
@@ -413,28 +891,32 @@ public class BibernateFirstLevelCacheSession implements BibernateSession {
 
     private void clearCacheAndSnapshots() {
         log.trace(FIRST_LEVEL_CACHE_IS_CLEARING);
-        firstLevelCache.clear();
-
         log.trace(SNAPSHOTS_ARE_CLEARING);
-        snapshots.clear();
+        firstLevelCache.clear();
+        evictionThreshold = 0;
+        evictionFlushPending = false;
     }
 
     private void removeCacheAndSnapshotBy(EntityKey<?> entityKey) {
-        if (Objects.nonNull(firstLevelCache.remove(entityKey))) {
+        var entry = firstLevelCache.getEntry(entityKey);
+        if (Objects.nonNull(entry)) {
+            firstLevelCache.remove(entry);
             log.trace(DELETED_ENTITY_CLASS_WITH_PRIMARY_KEY_FROM_FIRST_LEVEL_CACHE, entityKey.getClass(), entityKey.id());
-        }
-        if (Objects.nonNull(snapshots.remove(entityKey))) {
-            log.trace(DELETED_ENTITY_CLASS_WITH_PRIMARY_KEY_FROM_SNAPSHOT, entityKey.getClass(), entityKey.id());
+            if (Objects.nonNull(entry.getSnapshot())) {
+                log.trace(DELETED_ENTITY_CLASS_WITH_PRIMARY_KEY_FROM_SNAPSHOT, entityKey.getClass(), entityKey.id());
+            }
         }
     }
 
     private <T> void removeCacheAndSnapshotBy(Collection<EntityKey<T>> entityKeys,
                                               Class<T> entityClass,
                                               Collection<Object> primaryKeys) {
-        if (firstLevelCache.keySet().removeAll(entityKeys)) {
-            log.trace(DELETED_ENTITY_CLASS_WITH_PRIMARY_KEYS_FROM_FIRST_LEVEL_CACHE, entityClass, primaryKeys);
+        var removed = false;
+        for (var entityKey : entityKeys) {
+            removed |= firstLevelCache.remove(entityKey);
         }
-        if (snapshots.keySet().removeAll(entityKeys)) {
+        if (removed) {
+            log.trace(DELETED_ENTITY_CLASS_WITH_PRIMARY_KEYS_FROM_FIRST_LEVEL_CACHE, entityClass, primaryKeys);
             log.trace(DELETED_ENTITY_CLASS_WITH_PRIMARY_KEYS_FROM_SNAPSHOT, entityClass, primaryKeys);
         }
     }
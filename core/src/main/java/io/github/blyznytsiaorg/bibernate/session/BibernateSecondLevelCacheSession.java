@@ -1,7 +1,10 @@
 package io.github.blyznytsiaorg.bibernate.session;
 
 import io.github.blyznytsiaorg.bibernate.cache.DistributedSet;
+import io.github.blyznytsiaorg.bibernate.cache.utils.SerializationUtils;
 import io.github.blyznytsiaorg.bibernate.dao.Dao;
+import io.github.blyznytsiaorg.bibernate.entity.ColumnSnapshot;
+import io.github.blyznytsiaorg.bibernate.transaction.TransactionHolder;
 
 import java.sql.SQLException;
 
@@ -9,17 +12,38 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
+import static io.github.blyznytsiaorg.bibernate.annotation.enumeration.CacheConcurrencyStrategy.READ_WRITE;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.cacheConcurrencyStrategy;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.columnIdValue;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.columnVersionName;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.columnVersionValue;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.incrementVersionValue;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.isCacheable;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.isColumnVersionFound;
+import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.isDynamicUpdate;
 import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.isImmutable;
+import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.LogMessage.CANNOT_UPDATE_SECOND_LEVEL_CACHE;
 
 /**
  * Implementation of the {@link BibernateSession} interface that provides second-level caching functionality
- * for immutable entities fetched from the database.
+ * for immutable and cacheable entities fetched from the database.
  * It utilizes a distributed set for caching entities and extends the capabilities of the underlying
  * {@link BibernateSession}.
+ * Updating or deleting an immutable entity through this session removes it from the distributed set.
+ * Changes of cacheable entities are applied to the distributed set only after the transaction commits,
+ * according to the cache concurrency strategy of the entity, and are discarded on rollback.
+ * A versioned entity is never replaced in the distributed set by an older version of it.
+ * An unversioned {@code READ_WRITE} entity changed in a transaction is soft-locked in the distributed set until
+ * the transaction completes, so a stale copy loaded from the database by another session is not cached meanwhile.
+ * An unversioned cacheable entity loaded from the database never replaces a cached copy.
  *
  * @author Blyzhnytsia Team
  * @since 1.0
@@ -38,6 +62,11 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
      */
     private static final String SEPARATOR = "_";
 
+    /**
+     * Separator between the schema version of the entity and the rest of the cache key.
+     */
+    private static final String SCHEMA_VERSION_SEPARATOR = ":";
+
     /**
      * The underlying BibernateSession implementation.
      */
@@ -46,9 +75,17 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
      * The distributed set used for caching entities.
      */
     private final DistributedSet distributedSet;
+    /**
+     * Changes of cacheable entities waiting for the current transaction to commit.
+     */
+    private final List<Runnable> afterCommitActions = new ArrayList<>();
+    /**
+     * Soft-lock releases waiting for the current transaction to commit or roll back.
+     */
+    private final List<Runnable> afterCompletionActions = new ArrayList<>();
 
     /**
-     * Retrieves an entity by its primary key, optionally caching it if it's immutable.
+     * Retrieves an entity by its primary key, optionally caching it if it's immutable or cacheable.
      *
      * @param entityClass The class of the entity
      * @param primaryKey  The primary key of the entity
@@ -56,8 +93,8 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
      */
     @Override
     public <T> Optional<T> findById(Class<T> entityClass, Object primaryKey) {
-        if (isImmutable(entityClass)) {
-            var cacheKey = entityClass.getPackageName() + DOT + entityClass.getSimpleName() + SEPARATOR + primaryKey;
+        if (isImmutable(entityClass) || isCacheable(entityClass)) {
+            var cacheKey = cacheKey(entityClass, primaryKey);
 
             Optional<T> cachedEntity = distributedSet.get(entityClass, cacheKey);
 
@@ -66,7 +103,7 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
             }
 
             Optional<T> entityFromDb = bibernateSession.findById(entityClass, primaryKey);
-            entityFromDb.ifPresent(t -> distributedSet.add(entityClass, cacheKey, t));
+            entityFromDb.ifPresent(t -> addLoaded(entityClass, Map.of(cacheKey, t)));
             return entityFromDb;
         }
 
@@ -86,7 +123,9 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
     }
 
     /**
-     * Retrieves entities based on a collection of primary keys.
+     * Retrieves entities based on a collection of primary keys. Immutable and cacheable entities are looked up
+     * in the distributed set with one call, only the missing ones are loaded from the database
+     * and added to the distributed set with one call.
      *
      * @param entityClass The class of the entity.
      * @param primaryKeys A collection of primary keys for identifying and retrieving specific records.
@@ -95,7 +134,31 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
      */
     @Override
     public <T> List<T> findAllById(Class<T> entityClass, Collection<Object> primaryKeys) {
-        return bibernateSession.findAllById(entityClass, primaryKeys);
+        if (!isImmutable(entityClass) && !isCacheable(entityClass)) {
+            return bibernateSession.findAllById(entityClass, primaryKeys);
+        }
+
+        var primaryKeysByCacheKey = new LinkedHashMap<String, Object>();
+        primaryKeys.forEach(primaryKey -> primaryKeysByCacheKey.put(cacheKey(entityClass, primaryKey), primaryKey));
+        var entities = distributedSet.getAll(entityClass, primaryKeysByCacheKey.keySet());
+
+        var missedPrimaryKeys = primaryKeysByCacheKey.entrySet().stream()
+                .filter(entry -> !entities.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        if (missedPrimaryKeys.isEmpty()) {
+            return new ArrayList<>(entities.values());
+        }
+
+        var entitiesFromDb = new LinkedHashMap<String, T>();
+        bibernateSession.findAllById(entityClass, missedPrimaryKeys)
+                .forEach(entity -> entitiesFromDb.put(cacheKey(entityClass, columnIdValue(entityClass, entity)), entity));
+        addLoaded(entityClass, entitiesFromDb);
+
+        return primaryKeysByCacheKey.keySet().stream()
+                .map(cacheKey -> entities.getOrDefault(cacheKey, entitiesFromDb.get(cacheKey)))
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
@@ -173,6 +236,21 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
     @Override
     public <T> void update(Class<T> entityClass, Object entity) {
         bibernateSession.update(entityClass, entity);
+        afterUpdate(entityClass, entity, List.of());
+    }
+
+    /**
+     * Executes the update of the changed columns of the given entity immediately.
+     *
+     * @param entityClass The class of the entity
+     * @param entity      The entity to update
+     * @param diff        The changed columns, empty to update all columns
+     * @param <T>         The type of the entity
+     */
+    @Override
+    public <T> void update(Class<T> entityClass, Object entity, List<ColumnSnapshot> diff) {
+        bibernateSession.update(entityClass, entity, diff);
+        afterUpdate(entityClass, entity, diff);
     }
 
     /**
@@ -233,6 +311,7 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
     @Override
     public <T> void deleteById(Class<T> entityClass, Object primaryKey) {
         bibernateSession.deleteById(entityClass, primaryKey);
+        evict(entityClass, primaryKey);
     }
 
     /**
@@ -245,6 +324,7 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
     @Override
     public <T> void deleteAllById(Class<T> entityClass, Collection<Object> primaryKeys) {
         bibernateSession.deleteAllById(entityClass, primaryKeys);
+        evictAll(entityClass, primaryKeys);
     }
 
     /**
@@ -258,7 +338,9 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
      */
     @Override
     public <T> List<T> deleteByColumnValue(Class<T> entityClass, String columnName, Object columnValue) {
-        return bibernateSession.deleteByColumnValue(entityClass, columnName, columnValue);
+        var deletedEntities = bibernateSession.deleteByColumnValue(entityClass, columnName, columnValue);
+        evictAll(entityClass, deletedEntities.stream().map(entity -> columnIdValue(entityClass, entity)).toList());
+        return deletedEntities;
     }
 
     /**
@@ -271,6 +353,7 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
     @Override
     public <T> void delete(Class<T> entityClass, T entity) {
         bibernateSession.delete(entityClass, entity);
+        evict(entityClass, columnIdValue(entityClass, entity));
     }
 
     /**
@@ -283,6 +366,7 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
     @Override
     public <T> void deleteAll(Class<T> entityClass, Collection<T> entities) {
         bibernateSession.deleteAll(entityClass, entities);
+        evictAll(entityClass, entities.stream().map(entity -> columnIdValue(entityClass, entity)).toList());
     }
 
     /**
@@ -292,6 +376,8 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
     @Override
     public void close() {
         bibernateSession.close();
+        afterCommitActions.clear();
+        runAfterCompletionActions();
     }
 
     /**
@@ -322,6 +408,10 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
     @Override
     public void commitTransaction() throws SQLException {
         bibernateSession.commitTransaction();
+        var actions = new ArrayList<>(afterCommitActions);
+        afterCommitActions.clear();
+        actions.forEach(Runnable::run);
+        runAfterCompletionActions();
     }
 
     /**
@@ -331,6 +421,215 @@ public class BibernateSecondLevelCacheSession implements BibernateSession {
      */
     @Override
     public void rollbackTransaction() throws SQLException {
-        bibernateSession.rollbackTransaction();
+        afterCommitActions.clear();
+        try {
+            bibernateSession.rollbackTransaction();
+        } finally {
+            runAfterCompletionActions();
+        }
+    }
+
+    /**
+     * Checks whether the underlying Bibernate session loads read-only entities.
+     *
+     * @return true if the session loads read-only entities, false otherwise
+     */
+    @Override
+    public boolean isDefaultReadOnly() {
+        return bibernateSession.isDefaultReadOnly();
+    }
+
+    /**
+     * Changes whether the underlying Bibernate session loads read-only entities.
+     *
+     * @param readOnly true to load read-only entities, false to load managed entities
+     */
+    @Override
+    public void setDefaultReadOnly(boolean readOnly) {
+        bibernateSession.setDefaultReadOnly(readOnly);
+    }
+
+    /**
+     * Removes a cached entity from the distributed set after it was changed or deleted.
+     *
+     * @param entityClass The class of the entity
+     * @param primaryKey  The primary key of the entity
+     */
+    private void evict(Class<?> entityClass, Object primaryKey) {
+        evictAll(entityClass, List.of(primaryKey));
+    }
+
+    /**
+     * Removes cached entities of the same class from the distributed set with one call after they were changed
+     * or deleted. Immutable entities are removed immediately. Cacheable entities are removed after commit,
+     * with the {@code READ_WRITE} strategy also immediately, unversioned ones are soft-locked instead.
+     *
+     * @param entityClass The class of the entities
+     * @param primaryKeys The primary keys of the entities
+     */
+    private void evictAll(Class<?> entityClass, Collection<?> primaryKeys) {
+        if (!isImmutable(entityClass) && !isCacheable(entityClass)) {
+            return;
+        }
+        var cacheKeys = primaryKeys.stream().map(primaryKey -> cacheKey(entityClass, primaryKey)).toList();
+        if (isSoftLocked(entityClass)) {
+            cacheKeys.forEach(cacheKey -> softLock(entityClass, cacheKey));
+        } else if (isImmutable(entityClass) || cacheConcurrencyStrategy(entityClass) == READ_WRITE) {
+            distributedSet.removeAll(entityClass, cacheKeys);
+        }
+        if (isCacheable(entityClass)) {
+            afterCommit(cacheKeys.toString(), () -> distributedSet.removeAll(entityClass, cacheKeys));
+        }
+    }
+
+    /**
+     * Applies an executed update to the distributed set. With the {@code READ_WRITE} strategy a copy of the
+     * updated cacheable entity, holding the version the database has after the update, replaces the cached one
+     * after commit, an unversioned one is soft-locked until then. Otherwise the cached entity is only removed.
+     *
+     * @param entityClass The class of the entity
+     * @param entity      The updated entity
+     * @param diff        The changed columns, empty if all columns were updated
+     */
+    private <T> void afterUpdate(Class<T> entityClass, Object entity, List<ColumnSnapshot> diff) {
+        var primaryKey = columnIdValue(entityClass, entity);
+        if (!isCacheable(entityClass) || cacheConcurrencyStrategy(entityClass) != READ_WRITE) {
+            evict(entityClass, primaryKey);
+            return;
+        }
+
+        var cacheKey = cacheKey(entityClass, primaryKey);
+        if (isSoftLocked(entityClass)) {
+            softLock(entityClass, cacheKey);
+        } else {
+            distributedSet.remove(entityClass, cacheKey);
+        }
+        try {
+            var committedEntity = copy(entityClass, entityClass.cast(entity));
+            if (isColumnVersionFound(entityClass) && isVersionIncremented(entityClass, diff)) {
+                incrementVersionValue(entityClass, committedEntity);
+            }
+            afterCommit(cacheKey, () -> addIfNewer(entityClass, cacheKey, committedEntity));
+        } catch (RuntimeException exe) {
+            log.warn(CANNOT_UPDATE_SECOND_LEVEL_CACHE, cacheKey, exe.getMessage());
+            afterCommit(cacheKey, () -> distributedSet.remove(entityClass, cacheKey));
+        }
+    }
+
+    /**
+     * Adds an entity to the distributed set unless it already holds the same or a newer version of it.
+     * An unversioned entity is always added.
+     *
+     * @param entityClass The class of the entity
+     * @param cacheKey    The cache key of the entity
+     * @param entity      The entity to add
+     */
+    private <T> void addIfNewer(Class<T> entityClass, String cacheKey, T entity) {
+        if (isColumnVersionFound(entityClass)) {
+            distributedSet.addIfNewer(entityClass, cacheKey, entity,
+                    cached -> ((Number) columnVersionValue(entityClass, cached)).longValue());
+        } else {
+            distributedSet.add(entityClass, cacheKey, entity);
+        }
+    }
+
+    /**
+     * Adds entities loaded from the database to the distributed set. Immutable entities are added as they are,
+     * versioned cacheable ones unless a newer version is cached, and unversioned cacheable ones unless they are
+     * cached or soft-locked.
+     *
+     * @param entityClass The class of the entities
+     * @param entities    The loaded entities by their cache keys
+     */
+    private <T> void addLoaded(Class<T> entityClass, Map<String, T> entities) {
+        if (!isCacheable(entityClass)) {
+            distributedSet.addAll(entityClass, entities);
+        } else if (isColumnVersionFound(entityClass)) {
+            entities.forEach((cacheKey, entity) -> addIfNewer(entityClass, cacheKey, entity));
+        } else {
+            distributedSet.addAllIfAbsent(entityClass, entities);
+        }
+    }
+
+    /**
+     * Checks whether changes of the entity soft-lock it in the distributed set: an unversioned cacheable entity
+     * with the {@code READ_WRITE} strategy, changed in a transaction.
+     */
+    private boolean isSoftLocked(Class<?> entityClass) {
+        return isCacheable(entityClass) && cacheConcurrencyStrategy(entityClass) == READ_WRITE
+                && !isColumnVersionFound(entityClass) && TransactionHolder.getTransaction() != null;
+    }
+
+    /**
+     * Soft-locks an entity in the distributed set until the current transaction commits or rolls back.
+     *
+     * @param entityClass The class of the entity
+     * @param cacheKey    The cache key of the entity
+     */
+    private void softLock(Class<?> entityClass, String cacheKey) {
+        distributedSet.lock(entityClass, cacheKey);
+        afterCompletionActions.add(safely(cacheKey, () -> distributedSet.unlock(entityClass, cacheKey)));
+    }
+
+    private void runAfterCompletionActions() {
+        var actions = new ArrayList<>(afterCompletionActions);
+        afterCompletionActions.clear();
+        actions.forEach(Runnable::run);
+    }
+
+    /**
+     * Runs the action once the current transaction commits, or immediately if no transaction is active.
+     *
+     * A failed change is logged, the entity is then loaded from the database on a later cache miss.
+     *
+     * @param cacheKey The cache key of the entity
+     * @param action   The change of the distributed set
+     */
+    private void afterCommit(String cacheKey, Runnable action) {
+        var safeAction = safely(cacheKey, action);
+        if (TransactionHolder.getTransaction() != null) {
+            afterCommitActions.add(safeAction);
+        } else {
+            safeAction.run();
+        }
+    }
+
+    /**
+     * Wraps a change of the distributed set so a failure is logged instead of thrown.
+     */
+    private static Runnable safely(String cacheKey, Runnable action) {
+        return () -> {
+            try {
+                action.run();
+            } catch (RuntimeException exe) {
+                log.warn(CANNOT_UPDATE_SECOND_LEVEL_CACHE, cacheKey, exe.getMessage());
+            }
+        };
+    }
+
+    private boolean isVersionIncremented(Class<?> entityClass, List<ColumnSnapshot> diff) {
+        if (!isDynamicUpdate(entityClass)) {
+            return true;
+        }
+        var versionName = columnVersionName(entityClass);
+        return diff.stream().map(ColumnSnapshot::name).anyMatch(versionName::equals);
+    }
+
+    private <T> T copy(Class<T> entityClass, T entity) {
+        return SerializationUtils.deserialize(entityClass, SerializationUtils.serialize(entityClass, entity))
+                .orElseThrow();
+    }
+
+    /**
+     * Builds the cache key of an entity, prefixed with the schema version of its class, so entities cached by nodes
+     * running another version of the class are not read.
+     *
+     * @param entityClass The class of the entity
+     * @param primaryKey  The primary key of the entity
+     * @return the cache key, e.g. {@code v1.3f2a9c1b:com.example.Person_1}
+     */
+    private String cacheKey(Class<?> entityClass, Object primaryKey) {
+        return SerializationUtils.schemaVersion(entityClass) + SCHEMA_VERSION_SEPARATOR
+                + entityClass.getPackageName() + DOT + entityClass.getSimpleName() + SEPARATOR + primaryKey;
     }
 }
@@ -1,6 +1,7 @@
 package io.github.blyznytsiaorg.bibernate.session;
 
 import io.github.blyznytsiaorg.bibernate.dao.Dao;
+import io.github.blyznytsiaorg.bibernate.entity.ColumnSnapshot;
 
 import java.io.Closeable;
 import java.lang.reflect.Field;
@@ -8,6 +9,7 @@ import java.sql.SQLException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Interface representing a session with a Bibernate-based data store.
@@ -103,6 +105,19 @@ public interface BibernateSession extends Closeable {
      */
     <T> void update(Class<T> entityClass, Object entity);
 
+    /**
+     * Executes the update of the changed columns of an entity immediately, bypassing any pending actions.
+     * Sessions caching entities override it to keep their caches in sync with the executed update.
+     *
+     * @param <T>         the type of the entity
+     * @param entityClass the class of the entity
+     * @param entity      the entity to update
+     * @param diff        the changed columns, empty to update all columns
+     */
+    default <T> void update(Class<T> entityClass, Object entity, List<ColumnSnapshot> diff) {
+        getDao().update(entityClass, entity, diff);
+    }
+
     /**
      * Finds the number of records returned by a custom query.
      *
@@ -140,6 +155,88 @@ public interface BibernateSession extends Closeable {
 
     }
 
+    /**
+     * Returns when this session writes its pending changes to the database.
+     *
+     * @return the flush mode of the session
+     */
+    default FlushMode getFlushMode() {
+        return FlushMode.AUTO;
+    }
+
+    /**
+     * Changes when this session writes its pending changes to the database.
+     *
+     * @param flushMode the new flush mode
+     */
+    default void setFlushMode(FlushMode flushMode) {
+
+    }
+
+    /**
+     * Removes the entity from the persistence context of this session. Its changes are no longer dirty checked,
+     * actions already queued for it are still executed.
+     *
+     * @param entity the entity to evict
+     */
+    default void evict(Object entity) {
+
+    }
+
+    /**
+     * Removes all entities from the persistence context of this session and discards pending actions
+     * without executing them.
+     */
+    default void clear() {
+
+    }
+
+    /**
+     * Flushes pending changes and then removes all entities from the persistence context of this session,
+     * so a long-running batch job can keep working in the same session in constant memory.
+     */
+    default void detach() {
+
+    }
+
+    /**
+     * Checks whether entities loaded by this session are read-only. Read-only entities are neither snapshotted
+     * nor registered in the persistence context, so their changes are never flushed, and reads outside
+     * a transaction run on read-only connections.
+     *
+     * @return true if the session loads read-only entities, false otherwise
+     */
+    default boolean isDefaultReadOnly() {
+        return false;
+    }
+
+    /**
+     * Changes whether entities loaded by this session are read-only.
+     *
+     * @param readOnly true to load read-only entities, false to load managed entities
+     */
+    default void setDefaultReadOnly(boolean readOnly) {
+
+    }
+
+    /**
+     * Runs the given query in read-only mode, whatever the default of the session is, e.g.
+     * {@code session.readOnly(() -> session.findAll(Person.class))}.
+     *
+     * @param query the query to run
+     * @param <R>   the type of the query result
+     * @return the query result
+     */
+    default <R> R readOnly(Supplier<R> query) {
+        var defaultReadOnly = isDefaultReadOnly();
+        setDefaultReadOnly(true);
+        try {
+            return query.get();
+        } finally {
+            setDefaultReadOnly(defaultReadOnly);
+        }
+    }
+
     /**
      * Deletes an entity from the data store by its primary key.
      *
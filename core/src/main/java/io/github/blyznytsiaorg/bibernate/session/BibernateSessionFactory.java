@@ -47,6 +47,12 @@ public class BibernateSessionFactory extends BibernateEntityManagerFactory {
         this.entityDao = entityDao();
         var jdbcBibernateSession = new DefaultBibernateSession(entityDao);
 
+        var maxManagedEntities = getBibernateSettings().getSessionMaxManagedEntities();
+        var parallelDirtyCheckingThreshold = getBibernateSettings().getSessionParallelDirtyCheckingThreshold();
+        var findAllByIdChunkSize = getBibernateSettings().getSessionFindAllByIdChunkSize();
+        var entityMetadata = getBibernateSettings().getBibernateEntityMetadata();
+        var actionQueue = new DefaultActionQueue(getBibernateSettings().getActionQueueMaxPendingEntities(),
+                getBibernateSettings().getActionQueueMaxPendingBytes());
         BibernateSession bibernateSession;
 
         if (getBibernateSettings().isSecondLevelCacheEnabled()) {
@@ -56,18 +62,34 @@ public class BibernateSessionFactory extends BibernateEntityManagerFactory {
             );
 
             bibernateSession = new ValidatorBibernateSession(new CloseBibernateSession(new BibernateFirstLevelCacheSession(
-                    bibernateSecondLevelCacheSession, new DefaultActionQueue())
+                    bibernateSecondLevelCacheSession, actionQueue, maxManagedEntities,
+                    parallelDirtyCheckingThreshold, findAllByIdChunkSize, entityMetadata)
             ));
         } else {
             bibernateSession = new ValidatorBibernateSession(new CloseBibernateSession(new BibernateFirstLevelCacheSession(
-                    jdbcBibernateSession, new DefaultActionQueue())
+                    jdbcBibernateSession, actionQueue, maxManagedEntities,
+                    parallelDirtyCheckingThreshold, findAllByIdChunkSize, entityMetadata)
             ));
         }
 
+        bibernateSession.setFlushMode(getBibernateSettings().getFlushMode());
         setBibernateSession(bibernateSession);
         return bibernateSession;
     }
 
+    /**
+     * Opens a new read-only session. Loaded entities are not snapshotted or kept in the persistence context,
+     * so their changes are never flushed, and reads outside a transaction run on read-only connections.
+     * Meant for reports and other read-heavy paths loading large lists.
+     *
+     * @return a new read-only BibernateSession instance
+     */
+    public BibernateSession openReadOnlySession() {
+        var bibernateSession = openSession();
+        bibernateSession.setDefaultReadOnly(true);
+        return bibernateSession;
+    }
+
     /**
      * Creates a new EntityDao instance based on the configured database settings.
      *
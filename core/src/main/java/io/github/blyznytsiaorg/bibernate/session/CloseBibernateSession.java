@@ -171,6 +171,46 @@ public class CloseBibernateSession implements BibernateSession {
         bibernateSession.flush();
     }
 
+    @Override
+    public FlushMode getFlushMode() {
+        return bibernateSession.getFlushMode();
+    }
+
+    @Override
+    public void setFlushMode(FlushMode flushMode) {
+        verifySessionNotClosed();
+        bibernateSession.setFlushMode(flushMode);
+    }
+
+    @Override
+    public void evict(Object entity) {
+        verifySessionNotClosed();
+        bibernateSession.evict(entity);
+    }
+
+    @Override
+    public void clear() {
+        verifySessionNotClosed();
+        bibernateSession.clear();
+    }
+
+    @Override
+    public void detach() {
+        verifySessionNotClosed();
+        bibernateSession.detach();
+    }
+
+    @Override
+    public boolean isDefaultReadOnly() {
+        return bibernateSession.isDefaultReadOnly();
+    }
+
+    @Override
+    public void setDefaultReadOnly(boolean readOnly) {
+        verifySessionNotClosed();
+        bibernateSession.setDefaultReadOnly(readOnly);
+    }
+
     @Override
     public void close() {
         closed = true;
@@ -23,6 +23,7 @@ import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.LogMessage.CL
 public class DefaultBibernateSession implements BibernateSession {
 
     private final Dao dao;
+    private boolean readOnly;
 
     @Override
     public <T> Optional<T> findById(Class<T> entityClass, Object primaryKey) {
@@ -133,4 +134,15 @@ public class DefaultBibernateSession implements BibernateSession {
     public void rollbackTransaction() throws SQLException {
         dao.rollbackTransaction();
     }
+
+    @Override
+    public boolean isDefaultReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    public void setDefaultReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+        dao.setReadOnly(readOnly);
+    }
 }
@@ -0,0 +1,28 @@
+package io.github.blyznytsiaorg.bibernate.session;
+
+/**
+ * Defines when a session writes its pending changes, i.e. queued actions and dirty managed entities,
+ * to the database. Configured with the {@code bibernate.flushMode} property or per session with
+ * {@link BibernateSession#setFlushMode(FlushMode)}.
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+public enum FlushMode {
+
+    /**
+     * Flushes before a query only if pending changes touch a table the query reads, and on commit and close.
+     */
+    AUTO,
+
+    /**
+     * Flushes only on commit and close, queries may not see the pending changes of the session.
+     */
+    COMMIT,
+
+    /**
+     * Flushes only when {@link BibernateSession#flush()} is called explicitly,
+     * changes that were not flushed are discarded on close.
+     */
+    MANUAL
+}
@@ -13,6 +13,7 @@ import java.util.*;
 import static io.github.blyznytsiaorg.bibernate.utils.EntityReflectionUtils.*;
 import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.ExceptionMessage.ENTITY_CLASS_MUST_BE_NOT_NULL;
 import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.ExceptionMessage.ENTITY_MUST_BE_NOT_NULL;
+import static io.github.blyznytsiaorg.bibernate.utils.MessageUtils.ExceptionMessage.FLUSH_MODE_MUST_BE_NOT_NULL;
 
 /**
  * Wrapper class that provides validation functionality for a Bibernate session.
@@ -166,6 +167,43 @@ public class ValidatorBibernateSession implements BibernateSession {
         bibernateSession.flush();
     }
 
+    @Override
+    public FlushMode getFlushMode() {
+        return bibernateSession.getFlushMode();
+    }
+
+    @Override
+    public void setFlushMode(FlushMode flushMode) {
+        Objects.requireNonNull(flushMode, FLUSH_MODE_MUST_BE_NOT_NULL);
+        bibernateSession.setFlushMode(flushMode);
+    }
+
+    @Override
+    public void evict(Object entity) {
+        Objects.requireNonNull(entity, ENTITY_MUST_BE_NOT_NULL);
+        bibernateSession.evict(entity);
+    }
+
+    @Override
+    public void clear() {
+        bibernateSession.clear();
+    }
+
+    @Override
+    public void detach() {
+        bibernateSession.detach();
+    }
+
+    @Override
+    public boolean isDefaultReadOnly() {
+        return bibernateSession.isDefaultReadOnly();
+    }
+
+    @Override
+    public void setDefaultReadOnly(boolean readOnly) {
+        bibernateSession.setDefaultReadOnly(readOnly);
+    }
+
     @Override
     public void close() {
         bibernateSession.close();
@@ -11,7 +11,8 @@ package io.github.blyznytsiaorg.bibernate.transaction;
  * </p>
  * <p>
  *     The class uses a {@code ThreadLocal} variable to ensure that each thread has its own isolated transaction reference,
- *     preventing interference between threads.
+ *     preventing interference between threads. A task running on its own (e.g. virtual) thread therefore
+ *     always starts without a transaction and never sees the transaction of another task.
  * </p>
  *
  * @see Transaction
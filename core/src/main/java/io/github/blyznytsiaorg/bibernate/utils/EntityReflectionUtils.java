@@ -1,6 +1,7 @@
 package io.github.blyznytsiaorg.bibernate.utils;
 
 import io.github.blyznytsiaorg.bibernate.annotation.*;
+import io.github.blyznytsiaorg.bibernate.annotation.enumeration.CacheConcurrencyStrategy;
 import io.github.blyznytsiaorg.bibernate.dao.jdbc.identity.SequenceConf;
 import io.github.blyznytsiaorg.bibernate.entity.ColumnSnapshot;
 import io.github.blyznytsiaorg.bibernate.entity.EntityColumn;
@@ -21,7 +22,6 @@ import java.sql.SQLException;
 import java.time.*;
 import java.util.*;
 import java.util.function.Predicate;
-import java.util.stream.IntStream;
 
 import static io.github.blyznytsiaorg.bibernate.annotation.GenerationType.IDENTITY;
 import static io.github.blyznytsiaorg.bibernate.annotation.GenerationType.SEQUENCE;
@@ -79,6 +79,26 @@ public class EntityReflectionUtils {
         return entityClass.isAnnotationPresent(Immutable.class);
     }
 
+    /**
+     * Checks whether the given entity class is marked as cacheable in the second-level cache.
+     *
+     * @param entityClass The class of the entity to check.
+     * @return {@code true} if the entity class is annotated with Cacheable, {@code false} otherwise.
+     */
+    public static boolean isCacheable(Class<?> entityClass) {
+        return entityClass.isAnnotationPresent(Cacheable.class);
+    }
+
+    /**
+     * Retrieves the cache concurrency strategy of the given cacheable entity class.
+     *
+     * @param entityClass The class of the entity annotated with Cacheable.
+     * @return The cache concurrency strategy declared by the Cacheable annotation.
+     */
+    public static CacheConcurrencyStrategy cacheConcurrencyStrategy(Class<?> entityClass) {
+        return entityClass.getAnnotation(Cacheable.class).strategy();
+    }
+
     /**
      * Checks whether the given entity class is annotated with DynamicUpdate.
      *
@@ -549,6 +569,27 @@ public class EntityReflectionUtils {
         }
     }
 
+    /**
+     * Increments the version value of the specified entity by one, the same way an update statement does.
+     *
+     * @param entityClass The class representing the entity.
+     * @param entity      The entity whose version value to increment.
+     */
+    public static void incrementVersionValue(Class<?> entityClass, Object entity) {
+        Arrays.stream(entityClass.getDeclaredFields())
+                .filter(field -> field.isAnnotationPresent(Version.class))
+                .forEach(field -> {
+                    var value = (Number) getValueFromObject(entity, field);
+                    if (value instanceof Long) {
+                        setValueForObject(entity, field, value.longValue() + 1);
+                    } else if (value instanceof Short) {
+                        setValueForObject(entity, field, (short) (value.shortValue() + 1));
+                    } else if (value != null) {
+                        setValueForObject(entity, field, value.intValue() + 1);
+                    }
+                });
+    }
+
     /**
      * Retrieves the version value from the specified entity.
      *
@@ -655,6 +696,10 @@ public class EntityReflectionUtils {
         field.setAccessible(true);
         if (isToOneReference(field)) {
             var reference = field.get(entity);
+            var proxyHandler = ProxyUtils.getHandler(reference);
+            if (proxyHandler != null && proxyHandler.getIdentifier() != null) {
+                return proxyHandler.getIdentifier();
+            }
             if(reference != null && !reference.getClass().getName().contains("$$")) {
                 return getIdValueFromField(reference);
             }
@@ -791,10 +836,14 @@ public class EntityReflectionUtils {
      */
     public static List<ColumnSnapshot> getDifference(List<ColumnSnapshot> currentEntitySnapshot,
                                                      List<ColumnSnapshot> oldEntitySnapshot) {
-        return IntStream.range(0, currentEntitySnapshot.size())
-                .filter(i -> !Objects.equals(currentEntitySnapshot.get(i), oldEntitySnapshot.get(i)))
-                .mapToObj(currentEntitySnapshot::get)
-                .toList();
+        List<ColumnSnapshot> difference = new ArrayList<>();
+        for (int i = 0; i < currentEntitySnapshot.size(); i++) {
+            var current = currentEntitySnapshot.get(i);
+            if (!Objects.equals(current, oldEntitySnapshot.get(i))) {
+                difference.add(current);
+            }
+        }
+        return difference;
     }
 
     /**
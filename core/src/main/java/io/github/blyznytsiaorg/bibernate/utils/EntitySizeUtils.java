@@ -0,0 +1,71 @@
+package io.github.blyznytsiaorg.bibernate.utils;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.temporal.Temporal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Utility class estimating how much heap an entity occupies. The estimate covers the entity object and the values
+ * it holds directly, such as strings, boxed numbers and dates. Associated entities and collection elements are only
+ * counted as references. It is meant for coarse memory limits, not for exact accounting.
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@UtilityClass
+public class EntitySizeUtils {
+    private static final long OBJECT_HEADER_BYTES = 16;
+    private static final long REFERENCE_BYTES = 8;
+    private static final long STRING_BYTES = 40;
+    private static final long BOXED_VALUE_BYTES = 16;
+    private static final long TEMPORAL_BYTES = 24;
+
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> entityClass) {
+            return Arrays.stream(entityClass.getDeclaredFields())
+                    .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                    .filter(Field::trySetAccessible)
+                    .toArray(Field[]::new);
+        }
+    };
+
+    /**
+     * Estimates the number of bytes occupied by the entity and the values of its fields.
+     *
+     * @param entity the entity
+     * @return the estimated size in bytes
+     */
+    @SneakyThrows
+    public long estimateSize(Object entity) {
+        var size = OBJECT_HEADER_BYTES;
+        for (var field : FIELDS.get(entity.getClass())) {
+            size += REFERENCE_BYTES;
+            if (!field.getType().isPrimitive()) {
+                size += estimateValueSize(field.get(entity));
+            }
+        }
+        return size;
+    }
+
+    private long estimateValueSize(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String string) {
+            return STRING_BYTES + string.length();
+        } else if (value instanceof byte[] bytes) {
+            return OBJECT_HEADER_BYTES + bytes.length;
+        } else if (value instanceof Collection<?> collection) {
+            return OBJECT_HEADER_BYTES + REFERENCE_BYTES * collection.size();
+        } else if (value instanceof Temporal || value instanceof Date) {
+            return TEMPORAL_BYTES;
+        }
+        return BOXED_VALUE_BYTES;
+    }
+}
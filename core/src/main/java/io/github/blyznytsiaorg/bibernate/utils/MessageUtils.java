@@ -38,6 +38,7 @@ public class MessageUtils {
         public static final String FIELD_MUST_BE_NOT_NULL = "Field must be not null";
         public static final String ENTITY_MUST_BE_NOT_NULL = "Entity must be not null";
         public static final String PRIMARY_KEY_MUST_BE_NOT_NULL = "PrimaryKey must be not null";
+        public static final String FLUSH_MODE_MUST_BE_NOT_NULL = "FlushMode must be not null";
         public static final String COLLECTION_MUST_BE_NOT_EMPTY = "Collection must be not empty";
         public static final String NON_UNIQUE_RESULT_FOR_FIND_BY_ID = "Non-unique result for findById on [%s]";
         public static final String ENTITY_WAS_CHANGE_NEED_TO_GET_NEW_DATA = "Entity %s was change need to get new data findBy%s[%s]";
@@ -46,6 +47,10 @@ public class MessageUtils {
         public static final String CANNOT_GET_ID_FROM_SEQUENCE = "Cannot get Id for sequence: [%s]";
         public static final String UNSUPPORTED_ACTION_TYPE = "Unsupported action type: [%s]";
         public static final String NOT_SPECIFIED_ENTITY_ID = "Not specified entity Id";
+        public static final String ENTITY_METADATA_NOT_FOUND =
+                "No entity metadata found for class [%s], is it annotated with @Entity in a scanned package?";
+        public static final String ENTITY_REGISTRATION_ID_COLLISION =
+                "Entity classes [%s] and [%s] have the same serialization id %d, rename one of them";
     }
 
     /**
@@ -84,6 +89,27 @@ public class MessageUtils {
         public static final String DIRTY_ENTITY_NOT_FOUND_FOR_ENTITY_KEY_NO_CHANGES =
                 "Dirty entity not found for entityKey {} no changes";
         public static final String CREATED_SNAPSHOT_FOR_ENTITY_ID = "Created snapshot for entity {} id {}";
+        public static final String SELF_TRACKED_ENTITY_ID_WITHOUT_SNAPSHOT =
+                "Entity {} id {} tracks its own changes, no snapshot created";
+        public static final String READ_ONLY_ENTITY_ID_NOT_MANAGED =
+                "Entity {} id {} loaded read-only, not added to the persistence context";
+        public static final String EVICTED_LEAST_RECENTLY_USED_ENTITIES =
+                "Evicted {} least recently used entities, persistence context limit is {}";
+        public static final String PARALLEL_DIRTY_CHECKING = "Performing parallel dirty checking of {} entities";
+        public static final String REDIS_UNAVAILABLE =
+                "Redis {} of cacheKey {} failed: {}";
+        public static final String CANNOT_DESERIALIZE_CACHED_ENTITY =
+                "Cannot deserialize cached entity of class {} by cacheKey {}, removing it: {}";
+        public static final String CANNOT_SERIALIZE_ENTITY =
+                "Cannot serialize entity of class {} by cacheKey {}, not caching it: {}";
+        public static final String CANNOT_UPDATE_SECOND_LEVEL_CACHE =
+                "Cannot update second-level cache entry {}: {}";
+        public static final String PENDING_INSERTS_LIMIT_REACHED =
+                "Pending inserts reached the action queue limit, executing them...";
+        public static final String ENTITIES_FOUND_IN_FIRST_LEVEL_CACHE_BY_IDS =
+                "{} of {} entities {} found in firstLevel cache, loading the rest";
+        public static final String AUTO_FLUSH_BEFORE_QUERY =
+                "Pending changes touch the queried tables, flushing before query...";
         public static final String CLOSE_SESSION = "Close session...";
     }
 
@@ -1,7 +1,9 @@
 package io.github.blyznytsiaorg.bibernate.utils;
 
 import javassist.util.proxy.MethodHandler;
+import javassist.util.proxy.Proxy;
 import javassist.util.proxy.ProxyFactory;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
@@ -27,24 +29,63 @@ public class ProxyUtils {
      * @param supplier the supplier to delegate method invocations to object
      * @return a dynamic proxy instance for the specified class
      */
-    @SneakyThrows
     public Object createProxy(Class<?> clazz, Supplier<?> supplier) {
+        return createProxy(clazz, null, supplier);
+    }
+
+    /**
+     * Creates a dynamic proxy for the specified class that remembers the identifier of the object it stands for,
+     * so the identifier can be read without initializing the proxy.
+     *
+     * @param clazz      the class for which a proxy should be created
+     * @param identifier the identifier of the proxied object, e.g. the value of the join column
+     * @param supplier   the supplier to delegate method invocations to object
+     * @return a dynamic proxy instance for the specified class
+     */
+    @SneakyThrows
+    public Object createProxy(Class<?> clazz, Object identifier, Supplier<?> supplier) {
         var proxyFactory = new ProxyFactory();
         proxyFactory.setSuperclass(clazz);
 
-        var methodHandler = new Handler(supplier);
+        var methodHandler = new Handler(identifier, supplier);
 
         return proxyFactory.create(new Class<?>[0], new Object[0], methodHandler);
     }
 
+    /**
+     * Returns the handler of a proxy created by this class.
+     *
+     * @param object the object to check
+     * @return the handler, or {@code null} if the object is not such a proxy
+     */
+    public Handler getHandler(Object object) {
+        if (object instanceof Proxy proxy && ProxyFactory.getHandler(proxy) instanceof Handler handler) {
+            return handler;
+        }
+        return null;
+    }
+
     /**
      * Handler class implementing MethodHandler for proxy invocation.
      */
     @RequiredArgsConstructor
     public class Handler implements MethodHandler {
+        /**
+         * The identifier of the proxied object, {@code null} if unknown.
+         */
+        @Getter
+        private final Object identifier;
         private final Supplier<?> supplier;
         private Object internalObject;
 
+        /**
+         * Checks whether the proxied object has already been loaded.
+         *
+         * @return true if the proxied object has been loaded, false otherwise
+         */
+        public boolean isInitialized() {
+            return internalObject != null;
+        }
 
         /**
          * Invokes the method on the proxy object and delegates to the actual object.
@@ -0,0 +1,87 @@
+package io.github.blyznytsiaorg.bibernate.utils;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class for working with virtual threads while the code base is still compiled for Java 17.
+ * Virtual threads are looked up reflectively once; on a runtime without them every method falls back
+ * to platform threads.
+ *
+ * @author Blyzhnytsia Team
+ * @since 1.0
+ */
+@Slf4j
+@UtilityClass
+public class ThreadUtils {
+
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+
+    /**
+     * Checks whether virtual threads are available on the current runtime.
+     *
+     * @return true if virtual threads are supported, false otherwise
+     */
+    public boolean isVirtualThreadSupported() {
+        return IS_VIRTUAL != null;
+    }
+
+    /**
+     * Checks whether the given thread is a virtual thread.
+     *
+     * @param thread the thread to check
+     * @return true if the thread is virtual, false otherwise
+     */
+    public boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates a thread factory for short-lived tasks: virtual threads when the runtime provides them,
+     * daemon platform threads otherwise. Thread names are the given prefix followed by a counter.
+     *
+     * @param namePrefix the prefix of the thread names
+     * @return the thread factory
+     */
+    public ThreadFactory newTaskThreadFactory(String namePrefix) {
+        if (IS_VIRTUAL != null) {
+            try {
+                var builderClass = Class.forName("java.lang.Thread$Builder");
+                var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+                return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.trace("Can't create virtual thread factory: {}", e.getMessage());
+            }
+        }
+        var threadCounter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, namePrefix + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            log.trace("Virtual threads are not available on this runtime");
+            return null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.github.blyznytsiaorg.bibernate.actionqueue;
 
 
 import io.github.blyznytsiaorg.bibernate.AbstractPostgresInfrastructurePrep;
+import io.github.blyznytsiaorg.bibernate.session.FlushMode;
 import io.github.blyznytsiaorg.bibernate.utils.QueryUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -146,6 +147,79 @@ class ActionQueueTest extends AbstractPostgresInfrastructurePrep {
         }
     }
 
+    @Test
+    @DisplayName("Should not flush when findById hits first level cache")
+    void shouldNotFlushWhenFindByIdHitsFirstLevelCache() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_INSERT_STATEMENT);
+        var persistent = createPersistent("testdata.simplerespository");
+
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                var person = bibernateSession.findById(Person.class, 1L).orElseThrow();
+                person.setFirstName("New Rake");
+
+                //when
+                var cachedPerson = bibernateSession.findById(Person.class, 1L).orElseThrow();
+
+                //then
+                assertThat(cachedPerson).isSameAs(person);
+                assertQueries(bibernateSessionFactory, List.of("SELECT * FROM persons WHERE id = ?;"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should auto flush dirty entity before query on its table")
+    void shouldAutoFlushDirtyEntityBeforeQueryOnItsTable() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_INSERT_STATEMENT);
+        var persistent = createPersistent("testdata.simplerespository");
+
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                var person = bibernateSession.findById(Person.class, 1L).orElseThrow();
+                person.setFirstName("New Rake");
+
+                //when
+                bibernateSession.findAll(Person.class);
+
+                //then
+                assertQueries(bibernateSessionFactory, List.of(
+                        "SELECT * FROM persons WHERE id = ?;",
+                        "UPDATE persons SET first_name = ?, last_name = ? WHERE id = ?;",
+                        "SELECT * FROM persons;"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should not flush before query in COMMIT flush mode")
+    void shouldNotFlushBeforeQueryInCommitFlushMode() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_INSERT_STATEMENT);
+        var persistent = createPersistent("testdata.simplerespository");
+
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                bibernateSession.setFlushMode(FlushMode.COMMIT);
+                var person = bibernateSession.findById(Person.class, 1L).orElseThrow();
+                person.setFirstName("New Rake");
+
+                //when
+                bibernateSession.findAll(Person.class);
+
+                //then
+                assertQueries(bibernateSessionFactory, List.of(
+                        "SELECT * FROM persons WHERE id = ?;",
+                        "SELECT * FROM persons;"));
+            }
+        }
+    }
+
     private testdata.generatedvalue.identity.Person preparePerson(String firstName, String lastName) {
         var person = new testdata.generatedvalue.identity.Person();
         person.setFirstName(firstName);
@@ -153,4 +227,38 @@ class ActionQueueTest extends AbstractPostgresInfrastructurePrep {
 
         return person;
     }
+
+    @Test
+    @DisplayName("Should execute pending inserts once action queue limit is reached")
+    void shouldExecutePendingInsertsOnceActionQueueLimitIsReached() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_INSERT_STATEMENT);
+        bibernateSettings.put("bibernate.actionqueue.maxPendingEntities", "2");
+        var persistent = createPersistent("testdata.simplerespository");
+
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                //when
+                for (long id = 2; id <= 4; id++) {
+                    var person = new Person();
+                    person.setId(id);
+                    person.setFirstName("Rake" + id);
+                    person.setLastName("Tell" + id);
+                    bibernateSession.save(Person.class, person);
+                }
+
+                //then
+                assertQueries(bibernateSessionFactory, List.of(
+                        "INSERT INTO persons ( id, first_name, last_name ) VALUES ( ?, ?, ? );",
+                        "INSERT INTO persons ( id, first_name, last_name ) VALUES ( ?, ?, ? );"));
+
+                bibernateSession.flush();
+                assertQueries(bibernateSessionFactory, List.of(
+                        "INSERT INTO persons ( id, first_name, last_name ) VALUES ( ?, ?, ? );",
+                        "INSERT INTO persons ( id, first_name, last_name ) VALUES ( ?, ?, ? );",
+                        "INSERT INTO persons ( id, first_name, last_name ) VALUES ( ?, ?, ? );"));
+            }
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package io.github.blyznytsiaorg.bibernate.actionqueue.impl;
+
+import io.github.blyznytsiaorg.bibernate.actionqueue.ActionType;
+import io.github.blyznytsiaorg.bibernate.actionqueue.EntityAction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import testdata.manytoone.lazy.unidirectional.Note;
+import testdata.manytoone.lazy.unidirectional.Person;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DefaultActionQueueTest {
+
+    private final List<String> executedActions = new ArrayList<>();
+
+    @Test
+    @DisplayName("Should insert referenced entities first")
+    void shouldInsertReferencedEntitiesFirst() {
+        //given
+        var actionQueue = new DefaultActionQueue();
+        actionQueue.addEntityAction(action(ActionType.INSERT, Note.class, "note"));
+        actionQueue.addEntityAction(action(ActionType.INSERT, Person.class, "person"));
+
+        //when
+        actionQueue.executeEntityAction();
+
+        //then
+        assertThat(executedActions).containsExactly("INSERT Person", "INSERT Note");
+    }
+
+    @Test
+    @DisplayName("Should execute only inserts once pending entities limit is reached")
+    void shouldExecuteOnlyInsertsOncePendingEntitiesLimitIsReached() {
+        //given
+        var actionQueue = new DefaultActionQueue(2, 0);
+        actionQueue.addEntityAction(action(ActionType.INSERT, Person.class, "first"));
+        actionQueue.addEntityAction(action(ActionType.DELETE, Person.class, "deleted"));
+        assertThat(actionQueue.isInsertLimitReached()).isFalse();
+
+        //when
+        actionQueue.addEntityAction(action(ActionType.INSERT, Person.class, "second"));
+        assertThat(actionQueue.isInsertLimitReached()).isTrue();
+        actionQueue.executeInsertEntityActions();
+
+        //then
+        assertThat(executedActions).containsExactly("INSERT Person", "INSERT Person");
+        assertThat(actionQueue.isInsertLimitReached()).isFalse();
+        assertThat(actionQueue.isEmpty()).isFalse();
+
+        actionQueue.executeEntityAction();
+        assertThat(executedActions).containsExactly("INSERT Person", "INSERT Person", "DELETE Person");
+    }
+
+    @Test
+    @DisplayName("Should not count inserted entities removed by delete")
+    void shouldNotCountInsertedEntitiesRemovedByDelete() {
+        //given
+        var actionQueue = new DefaultActionQueue(2, 0);
+        actionQueue.addEntityAction(action(ActionType.INSERT, Person.class, "first"));
+
+        //when
+        actionQueue.addEntityAction(action(ActionType.DELETE, Person.class, "first"));
+        actionQueue.addEntityAction(action(ActionType.INSERT, Person.class, "second"));
+
+        //then
+        assertThat(actionQueue.isInsertLimitReached()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reach pending bytes limit by estimated entity size")
+    void shouldReachPendingBytesLimitByEstimatedEntitySize() {
+        //given
+        var actionQueue = new DefaultActionQueue(0, 1024);
+
+        var personClass = testdata.simplerespository.Person.class;
+
+        //when
+        actionQueue.addEntityAction(action(ActionType.INSERT, personClass, person("small")));
+        var limitReachedBySmallEntity = actionQueue.isInsertLimitReached();
+        actionQueue.addEntityAction(action(ActionType.INSERT, personClass, person("large".repeat(200))));
+
+        //then
+        assertThat(limitReachedBySmallEntity).isFalse();
+        assertThat(actionQueue.isInsertLimitReached()).isTrue();
+    }
+
+    private testdata.simplerespository.Person person(String firstName) {
+        var person = new testdata.simplerespository.Person();
+        person.setFirstName(firstName);
+        person.setLastName("Doe");
+        return person;
+    }
+
+    private EntityAction action(ActionType actionType, Class<?> entityClass, Object entity) {
+        var entities = new LinkedHashSet<>(List.of(entity));
+        return new EntityAction() {
+            @Override
+            public void execute() {
+                executedActions.add(actionType + " " + entityClass.getSimpleName());
+            }
+
+            @Override
+            public Class<?> getEntityClass() {
+                return entityClass;
+            }
+
+            @Override
+            public Collection<?> getEntities() {
+                return entities;
+            }
+
+            @Override
+            public ActionType getActionType() {
+                return actionType;
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.blyznytsiaorg.bibernate.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearCacheTest {
+
+    @Test
+    @DisplayName("Should evict least recently used entries above max entries")
+    void shouldEvictLeastRecentlyUsedEntriesAboveMaxEntries() {
+        //given
+        var nearCache = new NearCache(2, 0);
+
+        //when
+        nearCache.put("first", bytes("1"));
+        nearCache.put("second", bytes("2"));
+        nearCache.put("third", bytes("3"));
+
+        //then
+        assertThat(nearCache.size()).isEqualTo(2);
+        assertThat(nearCache.get("first")).isNull();
+        assertThat(nearCache.get("third")).isEqualTo(bytes("3"));
+    }
+
+    @Test
+    @DisplayName("Should keep frequently read entries during scan of new entries")
+    void shouldKeepFrequentlyReadEntriesDuringScan() {
+        //given
+        var nearCache = new NearCache(10, 0);
+        nearCache.put("hot", bytes("value"));
+        nearCache.get("hot");
+
+        //when
+        for (int i = 0; i < 100; i++) {
+            nearCache.put("scan" + i, bytes("scan" + i));
+        }
+
+        //then
+        assertThat(nearCache.get("hot")).isEqualTo(bytes("value"));
+        assertThat(nearCache.size()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should bound near cache by bytes of serialized entities")
+    void shouldBoundNearCacheByBytesOfSerializedEntities() {
+        //given
+        var nearCache = new NearCache(0, 256);
+
+        //when
+        for (int i = 0; i < 100; i++) {
+            nearCache.put("key" + i, bytes("value" + i));
+        }
+        nearCache.put("huge", bytes("x".repeat(2048)));
+
+        //then
+        assertThat(nearCache.size()).isBetween(1, 99);
+        assertThat(nearCache.get("key99")).isNotNull();
+        assertThat(nearCache.get("huge")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should invalidate entry in any segment")
+    void shouldInvalidateEntryInAnySegment() {
+        //given
+        var nearCache = new NearCache(10, 0);
+        nearCache.put("probation", bytes("1"));
+        nearCache.put("protected", bytes("2"));
+        nearCache.get("protected");
+
+        //when
+        nearCache.invalidate("probation");
+        nearCache.invalidate("protected");
+
+        //then
+        assertThat(nearCache.size()).isZero();
+        assertThat(nearCache.get("protected")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not cache fetched entity after an invalidation since the fetch started")
+    void shouldNotCacheFetchedEntityAfterInvalidationSinceFetchStarted() {
+        //given
+        var nearCache = new NearCache(10, 0);
+        var generation = nearCache.generation();
+
+        //when
+        nearCache.invalidate("key");
+        var cached = nearCache.putIfNotInvalidated("key", bytes("1"), generation);
+
+        //then
+        assertThat(cached).isFalse();
+        assertThat(nearCache.get("key")).isNull();
+        assertThat(nearCache.putIfNotInvalidated("key", bytes("1"), nearCache.generation())).isTrue();
+        assertThat(nearCache.get("key")).isEqualTo(bytes("1"));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.blyznytsiaorg.bibernate.cache;
+
+import io.github.blyznytsiaorg.bibernate.cache.impl.InMemoryDistributedSet;
+import io.github.blyznytsiaorg.bibernate.session.BibernateSecondLevelCacheSession;
+import io.github.blyznytsiaorg.bibernate.session.BibernateSession;
+import io.github.blyznytsiaorg.bibernate.transaction.Transaction;
+import io.github.blyznytsiaorg.bibernate.transaction.TransactionHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import testdata.cache.secondlevel.Category;
+import testdata.cache.secondlevel.Country;
+import testdata.cache.secondlevel.Product;
+import testdata.cache.secondlevel.Tag;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.blyznytsiaorg.bibernate.cache.utils.SerializationUtils.schemaVersion;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SecondLevelCacheSessionTest {
+
+    private static final String PRODUCT_CACHE_KEY =
+            schemaVersion(Product.class) + ":testdata.cache.secondlevel.Product_1";
+    private static final String CATEGORY_CACHE_KEY =
+            schemaVersion(Category.class) + ":testdata.cache.secondlevel.Category_1";
+    private static final String TAG_CACHE_KEY =
+            schemaVersion(Tag.class) + ":testdata.cache.secondlevel.Tag_1";
+    private static final String COUNTRY_CACHE_KEY_PREFIX =
+            schemaVersion(Country.class) + ":testdata.cache.secondlevel.Country_";
+
+    private final InMemoryDistributedSet distributedSet = new InMemoryDistributedSet();
+    private final BibernateSession delegate = mock(BibernateSession.class);
+    private final BibernateSecondLevelCacheSession session =
+            new BibernateSecondLevelCacheSession(delegate, distributedSet);
+
+    @BeforeEach
+    void startTransaction() throws SQLException {
+        TransactionHolder.setTransaction(new Transaction(mock(Connection.class)));
+        doAnswer(invocation -> {
+            TransactionHolder.removeTransaction();
+            return null;
+        }).when(delegate).commitTransaction();
+    }
+
+    @AfterEach
+    void removeTransaction() {
+        TransactionHolder.removeTransaction();
+    }
+
+    @Test
+    @DisplayName("Should write committed state with database version after commit")
+    void shouldWriteCommittedStateWithDatabaseVersionAfterCommit() throws SQLException {
+        //given
+        distributedSet.add(Product.class, PRODUCT_CACHE_KEY, product("Coffee", 1));
+        var product = product("Tea", 1);
+
+        //when
+        session.update(Product.class, product, List.of());
+        var cachedBeforeCommit = distributedSet.get(Product.class, PRODUCT_CACHE_KEY);
+        session.commitTransaction();
+
+        //then
+        assertThat(cachedBeforeCommit).isEmpty();
+        assertThat(distributedSet.get(Product.class, PRODUCT_CACHE_KEY)).hasValueSatisfying(cached -> {
+            assertThat(cached).isNotSameAs(product);
+            assertThat(cached.getName()).isEqualTo("Tea");
+            assertThat(cached.getVersion()).isEqualTo(2);
+        });
+        assertThat(product.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should discard cache changes on rollback")
+    void shouldDiscardCacheChangesOnRollback() throws SQLException {
+        //given
+        distributedSet.add(Product.class, PRODUCT_CACHE_KEY, product("Coffee", 1));
+
+        //when
+        session.update(Product.class, product("Tea", 1), List.of());
+        session.rollbackTransaction();
+
+        //then
+        assertThat(distributedSet.get(Product.class, PRODUCT_CACHE_KEY)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not replace newer cached version")
+    void shouldNotReplaceNewerCachedVersion() throws SQLException {
+        //given
+        distributedSet.add(Product.class, PRODUCT_CACHE_KEY, product("Coffee", 1));
+
+        //when
+        session.update(Product.class, product("Tea", 1), List.of());
+        distributedSet.add(Product.class, PRODUCT_CACHE_KEY, product("Juice", 5));
+        session.commitTransaction();
+
+        //then
+        assertThat(distributedSet.get(Product.class, PRODUCT_CACHE_KEY))
+                .hasValueSatisfying(cached -> assertThat(cached.getName()).isEqualTo("Juice"));
+    }
+
+    @Test
+    @DisplayName("Should remove nonstrict entity only after commit")
+    void shouldRemoveNonstrictEntityOnlyAfterCommit() throws SQLException {
+        //given
+        var category = new Category();
+        category.setId(1L);
+        category.setName("Drinks");
+        distributedSet.add(Category.class, CATEGORY_CACHE_KEY, category);
+
+        //when
+        session.delete(Category.class, category);
+        var cachedBeforeCommit = distributedSet.get(Category.class, CATEGORY_CACHE_KEY);
+        session.commitTransaction();
+
+        //then
+        assertThat(cachedBeforeCommit).isPresent();
+        assertThat(distributedSet.get(Category.class, CATEGORY_CACHE_KEY)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should load only entities missing in cache by ids and cache them")
+    void shouldLoadOnlyEntitiesMissingInCacheByIdsAndCacheThem() {
+        //given
+        distributedSet.add(Country.class, COUNTRY_CACHE_KEY_PREFIX + 1, country(1L, "Ukraine"));
+        when(delegate.findAllById(Country.class, List.<Object>of(2L))).thenReturn(List.of(country(2L, "Poland")));
+
+        //when
+        var countries = session.findAllById(Country.class, List.of(2L, 1L));
+
+        //then
+        assertThat(countries).extracting(Country::getName).containsExactly("Poland", "Ukraine");
+        assertThat(distributedSet.get(Country.class, COUNTRY_CACHE_KEY_PREFIX + 2)).isPresent();
+        verify(delegate).findAllById(Country.class, List.<Object>of(2L));
+    }
+
+    @Test
+    @DisplayName("Should not cache stale unversioned entity loaded while it is changed in a transaction")
+    void shouldNotCacheStaleUnversionedEntityLoadedWhileItIsChangedInTransaction() throws SQLException {
+        //given
+        distributedSet.add(Tag.class, TAG_CACHE_KEY, tag("coffee"));
+
+        //when
+        session.update(Tag.class, tag("tea"), List.of());
+        distributedSet.addAllIfAbsent(Tag.class, Map.of(TAG_CACHE_KEY, tag("coffee")));
+        var cachedBeforeCommit = distributedSet.get(Tag.class, TAG_CACHE_KEY);
+        session.commitTransaction();
+
+        //then
+        assertThat(cachedBeforeCommit).isEmpty();
+        assertThat(distributedSet.isLocked(TAG_CACHE_KEY)).isFalse();
+        assertThat(distributedSet.get(Tag.class, TAG_CACHE_KEY))
+                .hasValueSatisfying(cached -> assertThat(cached.getName()).isEqualTo("tea"));
+    }
+
+    @Test
+    @DisplayName("Should release soft-lock of unversioned entity on rollback")
+    void shouldReleaseSoftLockOfUnversionedEntityOnRollback() throws SQLException {
+        //given
+        distributedSet.add(Tag.class, TAG_CACHE_KEY, tag("coffee"));
+        when(delegate.findById(Tag.class, 1L)).thenReturn(Optional.of(tag("coffee")));
+
+        //when
+        session.update(Tag.class, tag("tea"), List.of());
+        var isLockedBeforeRollback = distributedSet.isLocked(TAG_CACHE_KEY);
+        session.rollbackTransaction();
+        session.findById(Tag.class, 1L);
+
+        //then
+        assertThat(isLockedBeforeRollback).isTrue();
+        assertThat(distributedSet.isLocked(TAG_CACHE_KEY)).isFalse();
+        assertThat(distributedSet.get(Tag.class, TAG_CACHE_KEY))
+                .hasValueSatisfying(cached -> assertThat(cached.getName()).isEqualTo("coffee"));
+    }
+
+    private Tag tag(String name) {
+        var tag = new Tag();
+        tag.setId(1L);
+        tag.setName(name);
+        return tag;
+    }
+
+    private Country country(Long id, String name) {
+        var country = new Country();
+        country.setId(id);
+        country.setName(name);
+        return country;
+    }
+
+    private Product product(String name, int version) {
+        var product = new Product();
+        product.setId(1L);
+        product.setName(name);
+        product.setVersion(version);
+        return product;
+    }
+}
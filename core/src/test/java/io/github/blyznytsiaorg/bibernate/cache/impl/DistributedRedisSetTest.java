@@ -0,0 +1,194 @@
+package io.github.blyznytsiaorg.bibernate.cache.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Transaction;
+import testdata.cache.secondlevel.City;
+import testdata.cache.secondlevel.Country;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static io.github.blyznytsiaorg.bibernate.cache.utils.SerializationUtils.serialize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DistributedRedisSetTest {
+
+    private static final String CACHE_KEY = "testdata.cache.secondlevel.Country_1";
+    private static final int UNUSED_PORT = 1;
+
+    private final JedisPool jedisPool = new JedisPool("localhost", UNUSED_PORT);
+    private final DistributedRedisSet distributedSet = new DistributedRedisSet(jedisPool);
+
+    @AfterEach
+    void closePool() {
+        jedisPool.close();
+    }
+
+    @Test
+    @DisplayName("Should treat unavailable Redis as cache miss")
+    void shouldTreatUnavailableRedisAsCacheMiss() {
+        //when
+        var cachedCountry = distributedSet.get(Country.class, CACHE_KEY);
+
+        //then
+        assertThat(cachedCountry).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not fail cache changes when Redis is unavailable")
+    void shouldNotFailCacheChangesWhenRedisIsUnavailable() {
+        //given
+        var country = new Country();
+        country.setId(1L);
+        country.setName("Ukraine");
+
+        //when, then
+        assertThatCode(() -> {
+            distributedSet.add(Country.class, CACHE_KEY, country);
+            distributedSet.remove(Country.class, CACHE_KEY);
+            distributedSet.removeAll(Country.class, List.of(CACHE_KEY));
+        }).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should remove cached entity that can't be deserialized and treat it as cache miss")
+    void shouldRemoveUndeserializableEntityAndTreatItAsCacheMiss() {
+        //given
+        var jedis = mock(Jedis.class);
+        var pool = mock(JedisPool.class);
+        when(pool.getResource()).thenReturn(jedis);
+        var corruptedData = corruptedData();
+        when(jedis.get(any(byte[].class))).thenReturn(corruptedData);
+        when(jedis.mget(any(byte[][].class))).thenReturn(Arrays.asList(corruptedData, corruptedData));
+        var set = new DistributedRedisSet(pool);
+
+        //when
+        var cachedCountry = set.get(Country.class, CACHE_KEY);
+        var cachedCountries = set.getAll(Country.class, List.of(CACHE_KEY, CACHE_KEY + "2"));
+
+        //then
+        assertThat(cachedCountry).isEmpty();
+        assertThat(cachedCountries).isEmpty();
+        verify(jedis, times(2)).del(CACHE_KEY.getBytes(StandardCharsets.UTF_8));
+        verify(jedis).del((CACHE_KEY + "2").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should not replace newer cached version and not start a transaction")
+    void shouldNotReplaceNewerCachedVersion() {
+        //given
+        var jedis = mock(Jedis.class);
+        var pool = mock(JedisPool.class);
+        when(pool.getResource()).thenReturn(jedis);
+        when(jedis.get(any(byte[].class))).thenReturn(serialize(Country.class, country(5L)));
+        var set = new DistributedRedisSet(pool);
+
+        //when
+        set.addIfNewer(Country.class, CACHE_KEY, country(2L), Country::getId);
+
+        //then
+        verify(jedis).watch(CACHE_KEY.getBytes(StandardCharsets.UTF_8));
+        verify(jedis).unwatch();
+        verify(jedis, never()).multi();
+    }
+
+    @Test
+    @DisplayName("Should compare versions again when cached entity changed concurrently")
+    void shouldCompareVersionsAgainWhenCachedEntityChangedConcurrently() {
+        //given
+        var jedis = mock(Jedis.class);
+        var pool = mock(JedisPool.class);
+        var transaction = mock(Transaction.class);
+        when(pool.getResource()).thenReturn(jedis);
+        when(jedis.get(any(byte[].class))).thenReturn(serialize(Country.class, country(1L)));
+        when(jedis.multi()).thenReturn(transaction);
+        when(transaction.exec()).thenReturn(null, List.of("OK"));
+        var set = new DistributedRedisSet(pool);
+
+        //when
+        set.addIfNewer(Country.class, CACHE_KEY, country(2L), Country::getId);
+
+        //then
+        verify(jedis, times(2)).watch(CACHE_KEY.getBytes(StandardCharsets.UTF_8));
+        verify(transaction, times(2)).set(eq(CACHE_KEY.getBytes(StandardCharsets.UTF_8)), any(byte[].class));
+    }
+
+    @Test
+    @DisplayName("Should add loaded entities checking cache keys and soft-locks in one script")
+    void shouldAddLoadedEntitiesCheckingCacheKeysAndSoftLocksInOneScript() {
+        //given
+        var jedis = mock(Jedis.class);
+        var pool = mock(JedisPool.class);
+        when(pool.getResource()).thenReturn(jedis);
+        var set = new DistributedRedisSet(pool);
+
+        //when
+        set.addAllIfAbsent(Country.class, Map.of(CACHE_KEY, country(1L)));
+
+        //then
+        verify(jedis).eval(any(byte[].class), argThat((List<byte[]> keys) -> keys.size() == 2
+                && Arrays.equals(keys.get(0), CACHE_KEY.getBytes(StandardCharsets.UTF_8))
+                && Arrays.equals(keys.get(1), (CACHE_KEY + ":lock").getBytes(StandardCharsets.UTF_8))),
+                argThat((List<byte[]> values) -> values.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Should skip caching entities that can't be serialized")
+    void shouldSkipCachingEntitiesThatCantBeSerialized() {
+        //given
+        var jedis = mock(Jedis.class);
+        var pool = mock(JedisPool.class);
+        when(pool.getResource()).thenReturn(jedis);
+        var set = new DistributedRedisSet(pool);
+        var unserializableCity = new City();
+        unserializableCity.setId(2L);
+        unserializableCity.setCountry(new Country() { });
+        var city = new City();
+        city.setId(1L);
+        city.setCountry(country(1L));
+
+        //when
+        assertThatCode(() -> {
+            set.add(City.class, CACHE_KEY, unserializableCity);
+            set.addIfNewer(City.class, CACHE_KEY, unserializableCity, City::getId);
+            set.addAll(City.class, Map.of(CACHE_KEY, unserializableCity));
+            set.addAllIfAbsent(City.class, Map.of(CACHE_KEY, city, CACHE_KEY + "2", unserializableCity));
+        }).doesNotThrowAnyException();
+
+        //then
+        verify(jedis, never()).set(any(byte[].class), any(byte[].class));
+        verify(jedis, never()).watch(any(byte[].class));
+        verify(jedis, never()).pipelined();
+        verify(jedis).eval(any(byte[].class), argThat((List<byte[]> keys) -> keys.size() == 2
+                && Arrays.equals(keys.get(0), CACHE_KEY.getBytes(StandardCharsets.UTF_8))),
+                argThat((List<byte[]> values) -> values.size() == 1));
+    }
+
+    private static Country country(Long id) {
+        var country = new Country();
+        country.setId(id);
+        country.setName("Ukraine");
+        return country;
+    }
+
+    private static byte[] corruptedData() {
+        var data = new byte[16];
+        Arrays.fill(data, (byte) 0xFF);
+        return data;
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.blyznytsiaorg.bibernate.cache.impl;
+
+import io.github.blyznytsiaorg.bibernate.cache.DistributedSet;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stand-in for the Redis distributed set with soft-locks, counting the lookups that reach it.
+ */
+public class InMemoryDistributedSet implements DistributedSet {
+    private final Map<String, Object> entities = new ConcurrentHashMap<>();
+    private final Map<String, Integer> locks = new ConcurrentHashMap<>();
+    private final AtomicInteger gets = new AtomicInteger();
+    private volatile Runnable duringGet = () -> { };
+
+    @Override
+    public <T> void add(Class<T> entityClass, String cacheKey, T entity) {
+        entities.put(cacheKey, entity);
+    }
+
+    @Override
+    public <T> Optional<T> get(Class<T> entityClass, String cacheKey) {
+        gets.incrementAndGet();
+        var entity = Optional.ofNullable(entities.get(cacheKey)).map(entityClass::cast);
+        duringGet.run();
+        return entity;
+    }
+
+    @Override
+    public <T> void remove(Class<T> entityClass, String cacheKey) {
+        entities.remove(cacheKey);
+    }
+
+    @Override
+    public <T> void addAllIfAbsent(Class<T> entityClass, Map<String, T> entities) {
+        entities.forEach((cacheKey, entity) -> {
+            if (!locks.containsKey(cacheKey)) {
+                this.entities.putIfAbsent(cacheKey, entity);
+            }
+        });
+    }
+
+    @Override
+    public <T> void lock(Class<T> entityClass, String cacheKey) {
+        entities.remove(cacheKey);
+        locks.merge(cacheKey, 1, Integer::sum);
+    }
+
+    @Override
+    public <T> void unlock(Class<T> entityClass, String cacheKey) {
+        locks.computeIfPresent(cacheKey, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public boolean isLocked(String cacheKey) {
+        return locks.containsKey(cacheKey);
+    }
+
+    /**
+     * Runs an action in every lookup after the entity was read, e.g. to invalidate it while it is in flight.
+     */
+    void setDuringGet(Runnable duringGet) {
+        this.duringGet = duringGet;
+    }
+
+    int getGets() {
+        return gets.get();
+    }
+}
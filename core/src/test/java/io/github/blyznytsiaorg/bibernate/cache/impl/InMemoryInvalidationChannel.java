@@ -0,0 +1,37 @@
+package io.github.blyznytsiaorg.bibernate.cache.impl;
+
+import io.github.blyznytsiaorg.bibernate.cache.InvalidationChannel;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-memory stand-in for Redis pub/sub: every node sharing an instance receives every published invalidation.
+ */
+class InMemoryInvalidationChannel implements InvalidationChannel {
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> reconnectListeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String cacheKey) {
+        listeners.forEach(listener -> listener.accept(cacheKey));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void subscribeToReconnects(Runnable listener) {
+        reconnectListeners.add(listener);
+    }
+
+    /**
+     * Simulates a re-established subscription after a lost connection.
+     */
+    void reconnect() {
+        reconnectListeners.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.blyznytsiaorg.bibernate.cache.impl;
+
+import io.github.blyznytsiaorg.bibernate.cache.NearCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import testdata.cache.secondlevel.Country;
+import testdata.cache.secondlevel.Product;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearCacheDistributedSetTest {
+
+    private static final String CACHE_KEY = "testdata.cache.secondlevel.Country_1";
+    private static final String PRODUCT_CACHE_KEY = "testdata.cache.secondlevel.Product_1";
+
+    private final InMemoryDistributedSet distributedSet = new InMemoryDistributedSet();
+    private final InMemoryInvalidationChannel invalidationChannel = new InMemoryInvalidationChannel();
+
+    @Test
+    @DisplayName("Should serve repeated lookups from near cache")
+    void shouldServeRepeatedLookupsFromNearCache() {
+        //given
+        distributedSet.add(Country.class, CACHE_KEY, country("Ukraine"));
+        var node = node();
+
+        //when
+        var first = node.get(Country.class, CACHE_KEY);
+        var second = node.get(Country.class, CACHE_KEY);
+
+        //then
+        assertThat(first).isPresent();
+        assertThat(second).hasValueSatisfying(country -> assertThat(country.getName()).isEqualTo("Ukraine"));
+        assertThat(distributedSet.getGets()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should give every near cache hit its own copy of the entity")
+    void shouldGiveEveryNearCacheHitItsOwnCopy() {
+        //given
+        var node = node();
+        var added = country("Ukraine");
+        node.add(Country.class, CACHE_KEY, added);
+        added.setName("Changed after add");
+
+        //when
+        var first = node.get(Country.class, CACHE_KEY).orElseThrow();
+        first.setName("Changed by first session");
+        var second = node.get(Country.class, CACHE_KEY).orElseThrow();
+        var all = node.getAll(Country.class, List.of(CACHE_KEY));
+
+        //then
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("Ukraine");
+        assertThat(all.get(CACHE_KEY)).isNotSameAs(second);
+        assertThat(all.get(CACHE_KEY).getName()).isEqualTo("Ukraine");
+        assertThat(distributedSet.getGets()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should invalidate near caches of all nodes on remove")
+    void shouldInvalidateNearCachesOfAllNodesOnRemove() {
+        //given
+        var firstNode = node();
+        var secondNode = node();
+        firstNode.add(Country.class, CACHE_KEY, country("Ukraine"));
+        assertThat(secondNode.get(Country.class, CACHE_KEY)).isPresent();
+
+        //when
+        firstNode.remove(Country.class, CACHE_KEY);
+
+        //then
+        assertThat(secondNode.get(Country.class, CACHE_KEY)).isEmpty();
+        assertThat(firstNode.get(Country.class, CACHE_KEY)).isEmpty();
+    }
+
+    private NearCacheDistributedSet node() {
+        return new NearCacheDistributedSet(distributedSet, new NearCache(100, 0), invalidationChannel);
+    }
+
+    @Test
+    @DisplayName("Should read mutable entities from distributed set only")
+    void shouldReadMutableEntitiesFromDistributedSetOnly() {
+        //given
+        var product = new Product();
+        product.setId(1L);
+        product.setName("Coffee");
+        var node = node();
+        node.add(Product.class, PRODUCT_CACHE_KEY, product);
+
+        //when
+        node.get(Product.class, PRODUCT_CACHE_KEY);
+        node.get(Product.class, PRODUCT_CACHE_KEY);
+
+        //then
+        assertThat(distributedSet.getGets()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not keep entity invalidated while it was fetched from distributed set")
+    void shouldNotKeepEntityInvalidatedWhileItWasFetched() {
+        //given
+        distributedSet.add(Country.class, CACHE_KEY, country("Ukraine"));
+        var node = node();
+        distributedSet.setDuringGet(() -> invalidationChannel.publish(CACHE_KEY));
+
+        //when
+        node.get(Country.class, CACHE_KEY);
+        node.getAll(Country.class, List.of(CACHE_KEY));
+        distributedSet.setDuringGet(() -> { });
+        node.get(Country.class, CACHE_KEY);
+
+        //then
+        assertThat(distributedSet.getGets()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should clear near cache when invalidation channel reconnects")
+    void shouldClearNearCacheWhenInvalidationChannelReconnects() {
+        //given
+        distributedSet.add(Country.class, CACHE_KEY, country("Ukraine"));
+        var node = node();
+        node.get(Country.class, CACHE_KEY);
+
+        //when
+        invalidationChannel.reconnect();
+        node.get(Country.class, CACHE_KEY);
+
+        //then
+        assertThat(distributedSet.getGets()).isEqualTo(2);
+    }
+
+    private Country country(String name) {
+        var country = new Country();
+        country.setId(1L);
+        country.setName(name);
+        return country;
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.blyznytsiaorg.bibernate.cache.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class RedisInvalidationChannelTest {
+
+    private static final String CHANNEL = "bibernate-invalidation";
+
+    @Test
+    @DisplayName("Should resubscribe after a lost connection and notify reconnect listeners until closed")
+    void shouldResubscribeAfterLostConnectionAndNotifyReconnectListenersUntilClosed() throws InterruptedException {
+        //given
+        var connectionClosed = new CountDownLatch(1);
+        var jedis = mock(Jedis.class);
+        doAnswer(invocation -> {
+            JedisPubSub pubSub = invocation.getArgument(0);
+            pubSub.onSubscribe(CHANNEL, 1);
+            connectionClosed.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(jedis).subscribe(any(JedisPubSub.class), anyString());
+        doAnswer(invocation -> {
+            connectionClosed.countDown();
+            return null;
+        }).when(jedis).close();
+
+        var connections = new AtomicInteger();
+        var channel = new RedisInvalidationChannel(mock(JedisPool.class), () -> {
+            if (connections.incrementAndGet() == 1) {
+                throw new JedisConnectionException("Connection refused");
+            }
+            return jedis;
+        }, CHANNEL);
+        var subscribed = new CountDownLatch(1);
+        channel.subscribeToReconnects(subscribed::countDown);
+
+        //when
+        channel.subscribe(cacheKey -> { });
+        var resubscribed = subscribed.await(5, TimeUnit.SECONDS);
+        channel.close();
+        TimeUnit.MILLISECONDS.sleep(300);
+
+        //then
+        assertThat(resubscribed).isTrue();
+        verify(jedis, atLeastOnce()).close();
+        assertThat(connections).hasValue(2);
+    }
+}
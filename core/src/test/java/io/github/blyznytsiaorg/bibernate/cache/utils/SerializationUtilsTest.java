@@ -0,0 +1,104 @@
+package io.github.blyznytsiaorg.bibernate.cache.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import testdata.cache.secondlevel.Category;
+import testdata.cache.secondlevel.City;
+import testdata.cache.secondlevel.Country;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SerializationUtilsTest {
+
+    @BeforeEach
+    void registerEntityClasses() {
+        SerializationUtils.registerEntityClasses(List.of(Country.class, City.class));
+    }
+
+    @Test
+    @DisplayName("Should serialize entity referencing registered entity")
+    void shouldSerializeEntityReferencingRegisteredEntity() {
+        //given
+        var city = city(1L, "Kyiv");
+
+        //when
+        var data = SerializationUtils.serialize(City.class, city);
+        var deserializedCity = SerializationUtils.deserialize(City.class, data);
+
+        //then
+        assertThat(deserializedCity).hasValueSatisfying(value -> {
+            assertThat(value.getName()).isEqualTo("Kyiv");
+            assertThat(value.getCountry().getName()).isEqualTo("Ukraine");
+        });
+    }
+
+    @Test
+    @DisplayName("Should serialize entities concurrently")
+    void shouldSerializeEntitiesConcurrently() {
+        //when
+        var names = IntStream.range(0, 1000).parallel()
+                .mapToObj(id -> city(id, "City " + id))
+                .map(city -> SerializationUtils.serialize(City.class, city))
+                .map(data -> SerializationUtils.deserialize(City.class, data).orElseThrow().getName())
+                .toList();
+
+        //then
+        assertThat(names).containsExactlyElementsOf(IntStream.range(0, 1000).mapToObj(id -> "City " + id).toList());
+    }
+
+    @Test
+    @DisplayName("Should read entities written before other entity classes were registered")
+    void shouldReadEntitiesWrittenBeforeOtherEntityClassesWereRegistered() {
+        //given
+        var data = SerializationUtils.serialize(City.class, city(1L, "Kyiv"));
+
+        //when
+        SerializationUtils.registerEntityClasses(List.of(Category.class, Country.class, City.class));
+        var deserializedCity = SerializationUtils.deserialize(City.class, data);
+
+        //then
+        assertThat(deserializedCity).hasValueSatisfying(value ->
+                assertThat(value.getCountry().getName()).isEqualTo("Ukraine"));
+    }
+
+    @Test
+    @DisplayName("Should keep entity classes registered by another persistence unit")
+    void shouldKeepEntityClassesRegisteredByAnotherPersistenceUnit() {
+        //when
+        SerializationUtils.registerEntityClasses(List.of(Category.class));
+        var data = SerializationUtils.serialize(City.class, city(1L, "Kyiv"));
+        var deserializedCity = SerializationUtils.deserialize(City.class, data);
+
+        //then
+        assertThat(deserializedCity).hasValueSatisfying(value ->
+                assertThat(value.getCountry().getName()).isEqualTo("Ukraine"));
+    }
+
+    @Test
+    @DisplayName("Should derive schema version from entity fields")
+    void shouldDeriveSchemaVersionFromEntityFields() {
+        //when
+        var citySchemaVersion = SerializationUtils.schemaVersion(City.class);
+
+        //then
+        assertThat(citySchemaVersion)
+                .startsWith("v1.")
+                .isEqualTo(SerializationUtils.schemaVersion(City.class))
+                .isNotEqualTo(SerializationUtils.schemaVersion(Country.class));
+    }
+
+    private City city(long id, String name) {
+        var country = new Country();
+        country.setId(1L);
+        country.setName("Ukraine");
+        var city = new City();
+        city.setId(id);
+        city.setName(name);
+        city.setCountry(country);
+        return city;
+    }
+}
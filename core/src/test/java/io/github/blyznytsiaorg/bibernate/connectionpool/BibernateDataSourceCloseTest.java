@@ -0,0 +1,87 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+import io.github.blyznytsiaorg.bibernate.exception.ConnectionPoolException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class BibernateDataSourceCloseTest {
+
+    private final List<Connection> physicalConnections = new ArrayList<>();
+    private MockedStatic<DriverManager> driverManager;
+
+    @BeforeEach
+    void mockDriver() {
+        driverManager = mockStatic(DriverManager.class);
+        driverManager.when(() -> DriverManager.getConnection(anyString(), any(), any())).thenAnswer(invocation -> {
+            var connection = mock(Connection.class);
+            physicalConnections.add(connection);
+            return connection;
+        });
+    }
+
+    @AfterEach
+    void closeDriverMock() {
+        driverManager.close();
+    }
+
+    @Test
+    @DisplayName("Should fail fast without opening connections after the pool is closed")
+    void shouldFailFastWithoutOpeningConnectionsAfterPoolIsClosed() {
+        //given
+        var dataSource = dataSource(1_000);
+        dataSource.close();
+
+        //when, then
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(ConnectionPoolException.class)
+                .hasMessageContaining("is closed");
+        assertThat(physicalConnections).isEmpty();
+        assertThat(dataSource.getTotalConnections()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should close connection returned after the pool is closed")
+    void shouldCloseConnectionReturnedAfterPoolIsClosed() throws SQLException {
+        //given
+        var dataSource = dataSource(1_000);
+        var connection = dataSource.getConnection();
+        dataSource.close();
+        verify(physicalConnections.get(0), never()).close();
+
+        //when
+        connection.close();
+
+        //then
+        verify(physicalConnections.get(0)).close();
+        assertThat(dataSource.getTotalConnections()).isZero();
+        assertThat(dataSource.getIdleConnections()).isZero();
+    }
+
+    private static BibernateDataSource dataSource(long leakDetectionThresholdMs) {
+        return new BibernateDataSource(BibernateDatasSourceConfig.builder()
+                .jdbcUrl("jdbc:test")
+                .maximumPoolSize(2)
+                .minIdle(0)
+                .connectionTimeoutMs(100)
+                .leakDetectionThresholdMs(leakDetectionThresholdMs)
+                .build());
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PooledConnectionTest {
+
+    private final List<Connection> physicalConnections = new ArrayList<>();
+    private MockedStatic<DriverManager> driverManager;
+    private BibernateDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        driverManager = mockStatic(DriverManager.class);
+        driverManager.when(() -> DriverManager.getConnection(anyString(), any(), any())).thenAnswer(invocation -> {
+            var connection = mock(Connection.class);
+            physicalConnections.add(connection);
+            return connection;
+        });
+        dataSource = new BibernateDataSource(BibernateDatasSourceConfig.builder()
+                .jdbcUrl("jdbc:test")
+                .maximumPoolSize(1)
+                .minIdle(0)
+                .connectionTimeoutMs(100)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+        driverManager.close();
+    }
+
+    @Test
+    @DisplayName("Should give each borrow its own handle of the pooled connection")
+    void shouldGiveEachBorrowItsOwnHandle() throws SQLException {
+        //given
+        var first = dataSource.getConnection();
+        first.close();
+
+        //when
+        var second = dataSource.getConnection();
+
+        //then
+        assertThat(second).isNotSameAs(first);
+        assertThat(physicalConnections).hasSize(1);
+        assertThat(first.isClosed()).isTrue();
+        assertThat(second.isClosed()).isFalse();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Should ignore a stale close after the connection was borrowed again")
+    void shouldIgnoreStaleCloseAfterConnectionWasBorrowedAgain() throws SQLException {
+        //given
+        var first = dataSource.getConnection();
+        first.close();
+        var second = dataSource.getConnection();
+
+        //when
+        first.close();
+
+        //then
+        assertThat(second.isClosed()).isFalse();
+        assertThat(dataSource.getIdleConnections()).isZero();
+        verify(physicalConnections.get(0), never()).close();
+        second.close();
+        assertThat(dataSource.getIdleConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject calls on a stale handle without touching the next borrower's connection")
+    void shouldRejectCallsOnStaleHandle() throws SQLException {
+        //given
+        var first = dataSource.getConnection();
+        first.close();
+        var second = dataSource.getConnection();
+        second.setAutoCommit(true);
+
+        //when, then
+        assertThatThrownBy(() -> first.setAutoCommit(false))
+                .isInstanceOf(SQLException.class)
+                .hasMessage("Connection is closed");
+        assertThatThrownBy(() -> first.prepareStatement("SELECT 1"))
+                .isInstanceOf(SQLException.class);
+        assertThat(second.getAutoCommit()).isTrue();
+        second.close();
+    }
+}
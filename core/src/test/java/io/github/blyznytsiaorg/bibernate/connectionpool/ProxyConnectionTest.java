@@ -0,0 +1,95 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProxyConnectionTest {
+
+    private final Connection physicalConnection = mock(Connection.class);
+    private final Statement physicalStatement = mock(Statement.class);
+    private final BibernateDataSource dataSource = mock(BibernateDataSource.class);
+    private ProxyConnection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(physicalConnection.getAutoCommit()).thenReturn(true);
+        when(physicalConnection.createStatement()).thenReturn(physicalStatement);
+        connection = new ProxyConnection(physicalConnection, dataSource);
+        connection.setState(ConnectionBag.STATE_IN_USE);
+    }
+
+    @Test
+    @DisplayName("Should roll back unfinished transaction on close")
+    void shouldRollBackUnfinishedTransactionOnClose() throws SQLException {
+        //given
+        connection.setAutoCommit(false);
+        connection.createStatement();
+
+        //when
+        connection.close();
+
+        //then
+        verify(physicalConnection).rollback();
+        verify(dataSource).recycle(connection);
+    }
+
+    @Test
+    @DisplayName("Should not roll back committed transaction on close")
+    void shouldNotRollBackCommittedTransactionOnClose() throws SQLException {
+        //given
+        connection.setAutoCommit(false);
+        connection.createStatement();
+        connection.commit();
+
+        //when
+        connection.close();
+
+        //then
+        verify(physicalConnection, never()).rollback();
+        verify(dataSource).recycle(connection);
+    }
+
+    @Test
+    @DisplayName("Should recycle connection when a statement fails to close")
+    void shouldRecycleConnectionWhenStatementFailsToClose() throws SQLException {
+        //given
+        connection.setAutoCommit(false);
+        connection.createStatement();
+        doThrow(new SQLException("statement")).when(physicalStatement).close();
+
+        //when
+        assertThatThrownBy(connection::close).isInstanceOf(SQLException.class).hasMessage("statement");
+
+        //then
+        verify(physicalConnection).rollback();
+        verify(dataSource).recycle(connection);
+    }
+
+    @Test
+    @DisplayName("Should retire connection when rollback fails")
+    void shouldRetireConnectionWhenRollbackFails() throws SQLException {
+        //given
+        connection.setAutoCommit(false);
+        connection.createStatement();
+        doThrow(new SQLException("rollback")).when(physicalConnection).rollback();
+
+        //when
+        assertThatThrownBy(connection::close).isInstanceOf(SQLException.class).hasMessage("rollback");
+
+        //then
+        verify(dataSource).retire(connection);
+        verify(dataSource, never()).recycle(connection);
+    }
+}
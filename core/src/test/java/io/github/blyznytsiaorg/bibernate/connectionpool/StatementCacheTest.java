@@ -0,0 +1,120 @@
+package io.github.blyznytsiaorg.bibernate.connectionpool;
+
+import io.github.blyznytsiaorg.bibernate.connectionpool.StatementCache.StatementKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StatementCacheTest {
+
+    private static final StatementKey KEY = StatementKey.of("SELECT 1");
+
+    private final StatementCache statementCache = new StatementCache(2);
+    private final PreparedStatement physicalStatement = mock(PreparedStatement.class);
+    private final Connection connection = mock(Connection.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(physicalStatement.getMaxRows()).thenReturn(0);
+        when(physicalStatement.getFetchSize()).thenReturn(0);
+        when(physicalStatement.getFetchDirection()).thenReturn(1000);
+        when(physicalStatement.getQueryTimeout()).thenReturn(0);
+    }
+
+    @Test
+    @DisplayName("Should return statement to cache on close")
+    void shouldReturnStatementToCacheOnClose() throws SQLException {
+        //given
+        var statement = statementCache.wrap(KEY, physicalStatement, connection);
+
+        //when
+        statement.close();
+        statement.close();
+
+        //then
+        assertThat(statement.isClosed()).isTrue();
+        assertThat(statementCache.take(KEY)).isSameAs(physicalStatement);
+        verify(physicalStatement).clearParameters();
+        verify(physicalStatement, never()).close();
+        assertThatThrownBy(statement::executeQuery).isInstanceOf(SQLException.class);
+    }
+
+    @Test
+    @DisplayName("Should restore statement settings before caching")
+    void shouldRestoreStatementSettingsBeforeCaching() throws SQLException {
+        //given
+        var statement = statementCache.wrap(KEY, physicalStatement, connection);
+
+        //when
+        statement.setMaxRows(5);
+        statement.setFetchSize(50);
+        statement.setQueryTimeout(3);
+        statement.close();
+
+        //then
+        verify(physicalStatement).setMaxRows(0);
+        verify(physicalStatement).setFetchSize(0);
+        verify(physicalStatement).setFetchDirection(1000);
+        verify(physicalStatement).setQueryTimeout(0);
+        assertThat(statementCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should unwrap to the caching statement")
+    void shouldUnwrapToCachingStatement() throws SQLException {
+        //given
+        var statement = statementCache.wrap(KEY, physicalStatement, connection);
+
+        //when
+        var unwrapped = statement.unwrap(PreparedStatement.class);
+        statement.close();
+
+        //then
+        assertThat(unwrapped).isSameAs(statement);
+        assertThat(statement.getClass()).isEqualTo(CachedPreparedStatement.class);
+        assertThat(statementCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should close escaped statement instead of caching it")
+    void shouldCloseEscapedStatementInsteadOfCachingIt() throws SQLException {
+        //given
+        var statement = statementCache.wrap(KEY, physicalStatement, connection);
+        when(physicalStatement.unwrap(String.class)).thenReturn("driver statement");
+
+        //when
+        statement.unwrap(String.class);
+        statement.close();
+
+        //then
+        verify(physicalStatement).close();
+        assertThat(statementCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should close least recently used statement above max size")
+    void shouldCloseLeastRecentlyUsedStatementAboveMaxSize() throws SQLException {
+        //given
+        var eldest = mock(PreparedStatement.class);
+        statementCache.wrap(StatementKey.of("SELECT 2"), eldest, connection).close();
+        statementCache.wrap(StatementKey.of("SELECT 3"), mock(PreparedStatement.class), connection).close();
+
+        //when
+        statementCache.wrap(KEY, physicalStatement, connection).close();
+
+        //then
+        verify(eldest).close();
+        assertThat(statementCache.size()).isEqualTo(2);
+    }
+}
@@ -1,9 +1,15 @@
 package io.github.blyznytsiaorg.bibernate.datasource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.github.blyznytsiaorg.bibernate.connectionpool.BibernateDataSource;
 import io.github.blyznytsiaorg.bibernate.connectionpool.BibernateDatasSourceConfig;
+import io.github.blyznytsiaorg.bibernate.connectionpool.LoadBalancingStrategy;
+import io.github.blyznytsiaorg.bibernate.connectionpool.ReadReplicaDataSource;
+import io.github.blyznytsiaorg.bibernate.exception.BibernateDataSourceException;
+import io.github.blyznytsiaorg.bibernate.exception.ConnectionPoolTimeoutException;
+import io.github.blyznytsiaorg.bibernate.utils.ThreadUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,11 +17,24 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
+import java.lang.management.ManagementFactory;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.ObjectName;
 import javax.sql.DataSource;
 
 @Slf4j
@@ -58,7 +77,7 @@ class BibernateDataSourceTest {
         for (int i = 0; i < ROWS_SIZE; i++) {
             try (var connection = dataSource.getConnection()) {
                 try (var statement = connection.prepareStatement(insertQuery)) {
-                    connections.add(connection);
+                    connections.add(connection.unwrap(Connection.class));
                     statement.setString(1, "name" + i);
                     statement.setInt(2, i);
                     statement.executeUpdate();
@@ -84,6 +103,360 @@ class BibernateDataSourceTest {
         assertThat(actualRows).isEqualTo(ROWS_SIZE);
     }
 
+    @Test
+    @DisplayName("should throw ConnectionPoolTimeoutException when pool is exhausted longer than timeout")
+    void shouldThrowTimeoutExceptionWhenPoolIsExhausted() throws SQLException {
+        var singleConnectionDataSource = createDataSource(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword(), 1, 100);
+
+        try (var ignored = singleConnectionDataSource.getConnection()) {
+            assertThatThrownBy(singleConnectionDataSource::getConnection)
+                    .isInstanceOf(ConnectionPoolTimeoutException.class)
+                    .hasMessageContaining("timed out after 100ms");
+        } finally {
+            singleConnectionDataSource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should hand returned connection to the waiting caller")
+    void shouldHandReturnedConnectionToWaitingCaller() throws Exception {
+        var singleConnectionDataSource = createDataSource(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword(), 1, 5_000);
+
+        try {
+            var connection = singleConnectionDataSource.getConnection();
+            var physicalConnection = connection.unwrap(Connection.class);
+            var waiter = CompletableFuture.supplyAsync(() -> {
+                try (var waitedConnection = singleConnectionDataSource.getConnection()) {
+                    return waitedConnection.unwrap(Connection.class);
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            TimeUnit.MILLISECONDS.sleep(200);
+            assertThat(waiter).isNotDone();
+            connection.close();
+
+            assertThat(waiter.get(1, TimeUnit.SECONDS)).isSameAs(physicalConnection);
+        } finally {
+            singleConnectionDataSource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should open minIdle connections on start, grow on demand and retire idle connections")
+    void shouldGrowOnDemandAndRetireIdleConnections() throws Exception {
+        var config = BibernateDatasSourceConfig.builder()
+                .jdbcUrl(postgresContainer.getJdbcUrl())
+                .username(postgresContainer.getUsername())
+                .password(postgresContainer.getPassword())
+                .maximumPoolSize(5)
+                .minIdle(1)
+                .idleTimeoutMs(100)
+                .housekeepingPeriodMs(50)
+                .build();
+        var elasticDataSource = new BibernateDataSource(config);
+
+        try {
+            assertThat(elasticDataSource.getTotalConnections()).isEqualTo(1);
+
+            var first = elasticDataSource.getConnection();
+            var second = elasticDataSource.getConnection();
+            var third = elasticDataSource.getConnection();
+            assertThat(elasticDataSource.getTotalConnections()).isEqualTo(3);
+
+            first.close();
+            second.close();
+            third.close();
+            TimeUnit.MILLISECONDS.sleep(500);
+
+            assertThat(elasticDataSource.getTotalConnections()).isEqualTo(1);
+            assertThat(elasticDataSource.getIdleConnections()).isEqualTo(1);
+        } finally {
+            elasticDataSource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should open the initial connections in parallel and record the warm-up duration")
+    void shouldWarmUpInitialConnectionsInParallel() {
+        var config = BibernateDatasSourceConfig.builder()
+                .jdbcUrl(postgresContainer.getJdbcUrl())
+                .username(postgresContainer.getUsername())
+                .password(postgresContainer.getPassword())
+                .maximumPoolSize(MAXIMUM_POOL_SIZE)
+                .minIdle(MAXIMUM_POOL_SIZE)
+                .warmUpParallelism(4)
+                .build();
+        var warmedUpDataSource = new BibernateDataSource(config);
+
+        try {
+            assertThat(warmedUpDataSource.getTotalConnections()).isEqualTo(MAXIMUM_POOL_SIZE);
+            assertThat(warmedUpDataSource.getIdleConnections()).isEqualTo(MAXIMUM_POOL_SIZE);
+            assertThat(warmedUpDataSource.getWarmUpDurationMs()).isNotNegative();
+        } finally {
+            warmedUpDataSource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should fail fast when a warm-up connection can't be opened")
+    void shouldFailFastWhenWarmUpFails() {
+        var config = BibernateDatasSourceConfig.builder()
+                .jdbcUrl(postgresContainer.getJdbcUrl())
+                .username(postgresContainer.getUsername())
+                .password("wrong-password")
+                .maximumPoolSize(MAXIMUM_POOL_SIZE)
+                .minIdle(MAXIMUM_POOL_SIZE)
+                .warmUpParallelism(4)
+                .build();
+
+        assertThatThrownBy(() -> new BibernateDataSource(config))
+                .isInstanceOf(BibernateDataSourceException.class)
+                .hasCauseInstanceOf(SQLException.class);
+    }
+
+    @Test
+    @DisplayName("should reuse a closed prepared statement from the statement cache")
+    void shouldReusePreparedStatementFromCache() throws SQLException {
+        var config = BibernateDatasSourceConfig.builder()
+                .jdbcUrl(postgresContainer.getJdbcUrl())
+                .username(postgresContainer.getUsername())
+                .password(postgresContainer.getPassword())
+                .maximumPoolSize(1)
+                .statementCacheSize(10)
+                .build();
+        var cachingDataSource = new BibernateDataSource(config);
+        var query = "SELECT count(u.id) FROM users u WHERE u.id > ?";
+
+        try (var connection = cachingDataSource.getConnection()) {
+            var first = connection.prepareStatement(query);
+            var defaultFetchSize = first.getFetchSize();
+            first.setMaxRows(1);
+            first.setFetchSize(defaultFetchSize + 10);
+            first.close();
+            assertThat(first.isClosed()).isTrue();
+
+            var second = connection.prepareStatement(query);
+
+            assertThat(second.unwrap(PreparedStatement.class)).isSameAs(second);
+            assertThat(second.getMaxRows()).isZero();
+            assertThat(second.getFetchSize()).isEqualTo(defaultFetchSize);
+            assertThat(second.getConnection()).isSameAs(connection);
+            second.setLong(1, 1L);
+            assertThat(second.executeQuery().next()).isTrue();
+        } finally {
+            cachingDataSource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should never hand the same connection to two threads at once")
+    void shouldNotShareConnectionBetweenConcurrentThreads() throws Exception {
+        var pooledDataSource = createDataSource(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword(), MAXIMUM_POOL_SIZE, 10_000);
+        Set<Connection> connectionsInUse = ConcurrentHashMap.newKeySet();
+        var sharedConnections = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(32);
+
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        try (var connection = pooledDataSource.getConnection()) {
+                            var physicalConnection = connection.unwrap(Connection.class);
+                            if (!connectionsInUse.add(physicalConnection)) {
+                                sharedConnections.incrementAndGet();
+                            }
+                            connectionsInUse.remove(physicalConnection);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (var future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+
+            assertThat(sharedConnections).hasValue(0);
+            assertThat(pooledDataSource.getTotalConnections()).isLessThanOrEqualTo(MAXIMUM_POOL_SIZE);
+            assertThat(pooledDataSource.getIdleConnections()).isEqualTo(pooledDataSource.getTotalConnections());
+        } finally {
+            executor.shutdownNow();
+            pooledDataSource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should collect pool statistics and expose them as an MBean")
+    void shouldCollectPoolStatistics() throws Exception {
+        var config = BibernateDatasSourceConfig.builder()
+                .jdbcUrl(postgresContainer.getJdbcUrl())
+                .username(postgresContainer.getUsername())
+                .password(postgresContainer.getPassword())
+                .maximumPoolSize(1)
+                .minIdle(1)
+                .connectionTimeoutMs(100)
+                .poolName("stats-test-pool")
+                .build();
+        var statsDataSource = new BibernateDataSource(config);
+        var poolStats = statsDataSource.getPoolStats();
+        var objectName = new ObjectName("io.github.blyznytsiaorg.bibernate:type=ConnectionPool,name=\"stats-test-pool\"");
+
+        try {
+            try (var ignored = statsDataSource.getConnection()) {
+                assertThat(poolStats.getActiveConnections()).isEqualTo(1);
+                assertThat(poolStats.getIdleConnections()).isZero();
+                assertThatThrownBy(statsDataSource::getConnection).isInstanceOf(ConnectionPoolTimeoutException.class);
+                TimeUnit.MILLISECONDS.sleep(20);
+            }
+
+            assertThat(poolStats.getAcquireCount()).isEqualTo(1);
+            assertThat(poolStats.getConnectionTimeoutCount()).isEqualTo(1);
+            assertThat(poolStats.getCreatedConnectionCount()).isEqualTo(1);
+            assertThat(poolStats.getHoldTime().getCount()).isEqualTo(1);
+            assertThat(poolStats.getHoldTimeMaxMicros()).isGreaterThanOrEqualTo(20_000);
+            assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "ConnectionTimeoutCount"))
+                    .isEqualTo(1L);
+        } finally {
+            statsDataSource.close();
+        }
+
+        assertThat(poolStats.getDestroyedConnectionCount()).isEqualTo(1);
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should report a connection held longer than the leak detection threshold")
+    void shouldReportLeakedConnection() throws Exception {
+        var config = BibernateDatasSourceConfig.builder()
+                .jdbcUrl(postgresContainer.getJdbcUrl())
+                .username(postgresContainer.getUsername())
+                .password(postgresContainer.getPassword())
+                .maximumPoolSize(2)
+                .leakDetectionThresholdMs(100)
+                .build();
+        var leakDetectingDataSource = new BibernateDataSource(config);
+        var poolStats = leakDetectingDataSource.getPoolStats();
+
+        try {
+            try (var ignored = leakDetectingDataSource.getConnection()) {
+                assertThat(poolStats.getLeakedConnectionCount()).isZero();
+            }
+
+            var leaked = leakDetectingDataSource.getConnection();
+            TimeUnit.MILLISECONDS.sleep(300);
+            assertThat(poolStats.getLeakedConnectionCount()).isEqualTo(1);
+            leaked.close();
+        } finally {
+            leakDetectingDataSource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should roll back an unfinished transaction and reset the connection state on return")
+    void shouldResetConnectionStateOnReturn() throws SQLException {
+        var singleConnectionDataSource = createDataSource(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword(), 1, 1_000);
+
+        try {
+            try (var connection = singleConnectionDataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+                try (var statement = connection.prepareStatement("INSERT INTO users (name, age) values ('tx', 1)")) {
+                    statement.executeUpdate();
+                }
+            }
+
+            try (var connection = singleConnectionDataSource.getConnection();
+                 var statement = connection.createStatement()) {
+                assertThat(connection.getAutoCommit()).isTrue();
+                assertThat(connection.getTransactionIsolation()).isEqualTo(Connection.TRANSACTION_READ_COMMITTED);
+                var resultSet = statement.executeQuery("SELECT count(u.id) from users u;");
+                resultSet.next();
+                assertThat(resultSet.getLong(1)).isZero();
+            }
+        } finally {
+            singleConnectionDataSource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should serve 10k concurrent per-task threads from a 20 connection pool")
+    void shouldServeManyConcurrentTasksFromSmallPool() throws Exception {
+        var taskCount = 10_000;
+        var poolSize = 20;
+        var pooledDataSource = createDataSource(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword(), poolSize, 60_000);
+        var threadFactory = ThreadUtils.newTaskThreadFactory("load-test-");
+        var start = new CountDownLatch(1);
+        var done = new CountDownLatch(taskCount);
+        var completed = new AtomicInteger();
+        var failures = new ConcurrentLinkedQueue<Throwable>();
+
+        try {
+            for (int i = 0; i < taskCount; i++) {
+                threadFactory.newThread(() -> {
+                    try {
+                        start.await();
+                        try (var connection = pooledDataSource.getConnection();
+                             var statement = connection.prepareStatement("SELECT 1")) {
+                            var resultSet = statement.executeQuery();
+                            resultSet.next();
+                            completed.addAndGet(resultSet.getInt(1));
+                        }
+                    } catch (Exception e) {
+                        failures.add(e);
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            start.countDown();
+
+            assertThat(done.await(2, TimeUnit.MINUTES)).isTrue();
+            assertThat(failures).isEmpty();
+            assertThat(completed.get()).isEqualTo(taskCount);
+            assertThat(pooledDataSource.getTotalConnections()).isLessThanOrEqualTo(poolSize);
+            assertThat(pooledDataSource.getPoolStats().getConnectionTimeoutCount()).isZero();
+            assertThat(pooledDataSource.getPoolStats().getPendingThreads()).isZero();
+        } finally {
+            pooledDataSource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should spread reads over replica pools and fail over to a working replica")
+    void shouldRouteConnectionsToReplicas() throws SQLException {
+        var firstReplica = createDataSource(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword(), 1, 200);
+        var secondReplica = createDataSource(postgresContainer.getJdbcUrl(),
+                postgresContainer.getUsername(), postgresContainer.getPassword(), 1, 200);
+        var replicaDataSource = new ReadReplicaDataSource(List.of(firstReplica, secondReplica),
+                LoadBalancingStrategy.ROUND_ROBIN);
+
+        try {
+            try (var first = replicaDataSource.getConnection();
+                 var second = replicaDataSource.getConnection()) {
+                assertThat(firstReplica.getPoolStats().getActiveConnections()).isEqualTo(1);
+                assertThat(secondReplica.getPoolStats().getActiveConnections()).isEqualTo(1);
+            }
+
+            try (var held = firstReplica.getConnection()) {
+                for (int i = 0; i < 2; i++) {
+                    try (var connection = replicaDataSource.getConnection()) {
+                        assertThat(secondReplica.getPoolStats().getActiveConnections()).isEqualTo(1);
+                    }
+                }
+            }
+        } finally {
+            replicaDataSource.close();
+        }
+    }
+
     @AfterEach
     public void tearDown() {
         dropTable();
@@ -101,6 +474,18 @@ class BibernateDataSourceTest {
         return new BibernateDataSource(config);
     }
 
+    private static BibernateDataSource createDataSource(String url, String user, String password,
+                                                        int maximumPoolSize, long connectionTimeoutMs) {
+        BibernateDatasSourceConfig config = BibernateDatasSourceConfig.builder()
+                .jdbcUrl(url)
+                .username(user)
+                .password(password)
+                .maximumPoolSize(maximumPoolSize)
+                .connectionTimeoutMs(connectionTimeoutMs)
+                .build();
+        return new BibernateDataSource(config);
+    }
+
     private void createTable() {
         String createQuery = """
                 CREATE TABLE IF NOT EXISTS users (
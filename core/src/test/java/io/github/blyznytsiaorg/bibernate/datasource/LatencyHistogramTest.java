@@ -0,0 +1,44 @@
+package io.github.blyznytsiaorg.bibernate.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import io.github.blyznytsiaorg.bibernate.connectionpool.LatencyHistogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.TimeUnit;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("should report percentiles within the bucket precision")
+    void shouldReportPercentiles() {
+        var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i, TimeUnit.MICROSECONDS);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(10_000);
+        assertThat(histogram.getMaxMicros()).isEqualTo(10_000);
+        assertThat(histogram.getMeanMicros()).isCloseTo(5_000.5, within(0.01));
+        assertThat(histogram.getPercentileMicros(50)).isCloseTo(5_000L, within(5_000L * 3 / 100));
+        assertThat(histogram.getPercentileMicros(99)).isCloseTo(9_900L, within(9_900L * 3 / 100));
+        assertThat(histogram.getPercentileMicros(100)).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("should clamp huge values and clear everything on reset")
+    void shouldClampAndReset() {
+        var histogram = new LatencyHistogram();
+        histogram.record(365, TimeUnit.DAYS);
+        histogram.record(3, TimeUnit.MILLISECONDS);
+
+        assertThat(histogram.getPercentileMicros(50)).isEqualTo(3_007);
+        assertThat(histogram.getPercentileMicros(100)).isEqualTo(histogram.getMaxMicros());
+
+        histogram.reset();
+
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getPercentileMicros(99)).isZero();
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.blyznytsiaorg.bibernate.exception.BibernateGeneralException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import testdata.update.enhancedtracking.EnhancedSelfTrackingPerson;
+import testdata.update.selftracking.SelfTrackingPerson;
+
+class DirtyTrackingEntityTest {
+
+    @Test
+    @DisplayName("should record changed fields until they are cleared")
+    void shouldTrackChangedFields() {
+        var person = new SelfTrackingPerson();
+        assertThat(person.hasDirtyFields()).isFalse();
+        assertThat(person.getDirtyFields()).isEmpty();
+
+        person.setLastName("Doe");
+        person.setFirstName("John");
+        person.setLastName("Smith");
+
+        assertThat(person.hasDirtyFields()).isTrue();
+        assertThat(person.getDirtyFields()).containsExactlyInAnyOrder("firstName", "lastName");
+
+        person.clearDirtyFields();
+
+        assertThat(person.hasDirtyFields()).isFalse();
+        assertThat(person.getDirtyFields()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should reject a field the entity does not declare")
+    void shouldRejectUnknownField() {
+        var person = new SelfTrackingPerson();
+
+        assertThatThrownBy(() -> person.trackChange("middleName"))
+                .isInstanceOf(BibernateGeneralException.class)
+                .hasMessage("Class SelfTrackingPerson has no field middleName to track");
+    }
+
+    @Test
+    @DisplayName("should track changes made through enhanced Lombok setters")
+    void shouldTrackChangesThroughEnhancedSetters() {
+        var person = new EnhancedSelfTrackingPerson();
+        assertThat(EnhancedSelfTrackingPerson.class.isAnnotationPresent(DirtyTrackingEnhanced.class)).isTrue();
+        assertThat(person.hasDirtyFields()).isFalse();
+
+        person.setFirstName("John");
+
+        assertThat(person.getDirtyFields()).containsExactly("firstName");
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.blyznytsiaorg.bibernate.annotation.Id;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+
+class FirstLevelCacheTest {
+
+    private final FirstLevelCache firstLevelCache = new FirstLevelCache();
+
+    @Test
+    @DisplayName("should find entity with integral id by any integral id type")
+    void shouldFindEntityByIntegralId() {
+        var account = new Account(1L);
+        firstLevelCache.put(new EntityKey<>(Account.class, 1L, Long.class), account, null);
+
+        assertThat(firstLevelCache.get(Account.class, 1L)).isSameAs(account);
+        assertThat(firstLevelCache.get(Account.class, 1)).isSameAs(account);
+        assertThat(firstLevelCache.get(Account.class, "1")).isSameAs(account);
+        assertThat(firstLevelCache.get(Account.class, 2L)).isNull();
+        assertThat(firstLevelCache.get(Code.class, 1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("should find entity with non integral id")
+    void shouldFindEntityByNonIntegralId() {
+        var code = new Code("A");
+        firstLevelCache.put(new EntityKey<>(Code.class, "A", String.class), code, null);
+
+        assertThat(firstLevelCache.get(Code.class, "A")).isSameAs(code);
+        assertThat(firstLevelCache.remove(new EntityKey<>(Code.class, "A", String.class))).isTrue();
+        assertThat(firstLevelCache.get(Code.class, "A")).isNull();
+        assertThat(firstLevelCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("should iterate entries from least to most recently used")
+    void shouldIterateInAccessOrder() {
+        for (long id = 1; id <= 3; id++) {
+            firstLevelCache.put(new EntityKey<>(Account.class, id, Long.class), new Account(id), null);
+        }
+        firstLevelCache.get(Account.class, 1L);
+
+        var ids = new ArrayList<Object>();
+        var iterator = firstLevelCache.iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            ids.add(entry.getEntityKey().id());
+            if (entry.getEntityKey().id().equals(2L)) {
+                iterator.remove();
+            }
+        }
+
+        assertThat(ids).containsExactly(2L, 3L, 1L);
+        assertThat(firstLevelCache.size()).isEqualTo(2);
+        assertThat(firstLevelCache.get(Account.class, 2L)).isNull();
+    }
+
+    @Test
+    @DisplayName("should offer only clean entries for eviction in access order")
+    void shouldIterateCleanEntriesInAccessOrder() {
+        for (long id = 1; id <= 3; id++) {
+            firstLevelCache.put(new EntityKey<>(Account.class, id, Long.class), new Account(id), null);
+        }
+        var first = firstLevelCache.getEntry(new EntityKey<>(Account.class, 1L, Long.class));
+        var second = firstLevelCache.getEntry(new EntityKey<>(Account.class, 2L, Long.class));
+        firstLevelCache.markDirty(second);
+        firstLevelCache.get(Account.class, 1L);
+
+        var ids = new ArrayList<Object>();
+        firstLevelCache.cleanEntries().forEach(entry -> ids.add(entry.getEntityKey().id()));
+
+        assertThat(ids).containsExactly(3L, 1L);
+        assertThat(first.isClean()).isTrue();
+        assertThat(second.isClean()).isFalse();
+
+        firstLevelCache.markClean(second);
+        firstLevelCache.remove(first);
+        ids.clear();
+        firstLevelCache.cleanEntries().forEach(entry -> ids.add(entry.getEntityKey().id()));
+
+        assertThat(ids).containsExactly(3L, 2L);
+    }
+
+    static class Account {
+        @Id
+        private final Long id;
+
+        Account(Long id) {
+            this.id = id;
+        }
+    }
+
+    static class Code {
+        @Id
+        private final String code;
+
+        Code(String code) {
+            this.code = code;
+        }
+    }
+}
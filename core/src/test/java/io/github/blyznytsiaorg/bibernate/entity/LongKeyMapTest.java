@@ -0,0 +1,57 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Random;
+
+class LongKeyMapTest {
+
+    @Test
+    @DisplayName("should put, replace and remove values by long key")
+    void shouldPutReplaceAndRemove() {
+        var map = new LongKeyMap<String>();
+
+        assertThat(map.put(1L, "one")).isNull();
+        assertThat(map.put(-1L, "minus one")).isNull();
+        assertThat(map.put(1L, "uno")).isEqualTo("one");
+
+        assertThat(map.get(1L)).isEqualTo("uno");
+        assertThat(map.get(-1L)).isEqualTo("minus one");
+        assertThat(map.get(2L)).isNull();
+        assertThat(map.size()).isEqualTo(2);
+
+        assertThat(map.remove(1L)).isEqualTo("uno");
+        assertThat(map.remove(1L)).isNull();
+        assertThat(map.get(1L)).isNull();
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should behave like a hash map under random puts and removals")
+    void shouldBehaveLikeHashMap() {
+        var map = new LongKeyMap<Long>();
+        var expected = new HashMap<Long, Long>();
+        var random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(map.put(key, (long) i)).isEqualTo(expected.put(key, (long) i));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 0; key < 2_000; key++) {
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+
+        map.clear();
+        assertThat(map.size()).isZero();
+        assertThat(map.get(expected.keySet().iterator().next())).isNull();
+    }
+}
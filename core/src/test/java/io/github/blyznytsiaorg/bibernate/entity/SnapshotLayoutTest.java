@@ -0,0 +1,56 @@
+package io.github.blyznytsiaorg.bibernate.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.blyznytsiaorg.bibernate.annotation.Column;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+
+class SnapshotLayoutTest {
+
+    private final SnapshotLayout layout = new SnapshotLayout(Arrays.asList(Account.class.getDeclaredFields()));
+
+    @Test
+    @DisplayName("should pack primitive columns into the long array")
+    void shouldPackPrimitiveColumns() {
+        var snapshot = layout.snapshot(new Account(1L, "owner", 42, 1.5, true));
+
+        assertThat(layout.size()).isEqualTo(5);
+        assertThat(snapshot.references()).containsExactly(1L, "owner", null, null, null);
+        assertThat(snapshot.primitives()).containsExactly(42L, Double.doubleToLongBits(1.5), 1L);
+    }
+
+    @Test
+    @DisplayName("should report only the changed columns with their current values")
+    void shouldReportChangedColumns() {
+        var account = new Account(1L, "owner", 42, 1.5, true);
+        var snapshot = layout.snapshot(account);
+
+        assertThat(layout.diff(account, snapshot)).isEmpty();
+
+        account.owner = "new owner";
+        account.balance = 2.5;
+
+        assertThat(layout.diff(account, snapshot)).containsExactly(
+                new ColumnSnapshot("owner_name", "new owner", String.class),
+                new ColumnSnapshot("balance", 2.5, double.class));
+    }
+
+    static class Account {
+        private Long id;
+        @Column(name = "owner_name")
+        private String owner;
+        private int version;
+        private double balance;
+        private boolean active;
+
+        Account(Long id, String owner, int version, double balance, boolean active) {
+            this.id = id;
+            this.owner = owner;
+            this.version = version;
+            this.balance = balance;
+            this.active = active;
+        }
+    }
+}
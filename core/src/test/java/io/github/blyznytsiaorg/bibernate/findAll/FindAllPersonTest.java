@@ -60,6 +60,78 @@ class FindAllPersonTest extends AbstractPostgresInfrastructurePrep {
         }
     }
 
+    @Test
+    @DisplayName("Should find All By Id only persons missing in first level cache in requested order")
+    void shouldFindAllByIdOnlyPersonsMissingInFirstLevelCacheInRequestedOrder() {
+        //given
+        createTableWithData(3);
+        var persistent = createPersistent("testdata.simplerespository");
+
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                var managedPerson = bibernateSession.findById(Person.class, 2L).orElseThrow();
+
+                //when
+                var persons = bibernateSession.findAllById(Person.class, List.of(3L, 2L, 1L));
+
+                //then
+                assertThat(persons).extracting(Person::getId).containsExactly(3L, 2L, 1L);
+                assertThat(persons.get(1)).isSameAs(managedPerson);
+                assertQueries(bibernateSessionFactory, List.of(
+                        "SELECT * FROM persons WHERE id = ?;",
+                        "SELECT * FROM persons WHERE id IN ( ?, ? );"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should find All By Id every person once in the order of first occurrence")
+    void shouldFindAllByIdEveryPersonOnceInOrderOfFirstOccurrence() {
+        //given
+        createTableWithData(3);
+        var persistent = createPersistent("testdata.simplerespository");
+
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                bibernateSession.findById(Person.class, 2L).orElseThrow();
+
+                //when
+                var persons = bibernateSession.findAllById(Person.class, List.of(3L, 2L, 3L, 1L, 2L));
+
+                //then
+                assertThat(persons).extracting(Person::getId).containsExactly(3L, 2L, 1L);
+                assertQueries(bibernateSessionFactory, List.of(
+                        "SELECT * FROM persons WHERE id = ?;",
+                        "SELECT * FROM persons WHERE id IN ( ?, ? );"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should find All By Id persons in chunks")
+    void shouldFindAllByIdPersonsInChunks() {
+        //given
+        createTableWithData(3);
+        bibernateSettings.put("bibernate.session.findAllByIdChunkSize", "2");
+        var persistent = createPersistent("testdata.simplerespository");
+
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                //when
+                var persons = bibernateSession.findAllById(Person.class, List.of(1L, 2L, 3L));
+
+                //then
+                assertThat(persons).extracting(Person::getId).containsExactly(1L, 2L, 3L);
+                assertQueries(bibernateSessionFactory, List.of(
+                        "SELECT * FROM persons WHERE id IN ( ?, ? );",
+                        "SELECT * FROM persons WHERE id IN ( ? );"));
+            }
+        }
+    }
+
     private void createTableWithData(int i) {
         setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_GENERAL_INSERT_STATEMENT.formatted("John" + i, "Doe" + i));
         setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_GENERAL_INSERT_STATEMENT.formatted("Jane" + i, "Smith" + i));
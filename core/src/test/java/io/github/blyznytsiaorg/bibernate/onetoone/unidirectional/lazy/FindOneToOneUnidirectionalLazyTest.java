@@ -45,4 +45,38 @@ class FindOneToOneUnidirectionalLazyTest extends AbstractPostgresInfrastructureP
             }
         }
     }
+
+    @DisplayName("Should manage user with one to one lazy relation in persistence context")
+    @Test
+    void shouldManageUserWithOneToOneLazyRelationInPersistenceContext() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_USERS_ADDRESSES_HOUSES_TABLES, CREATE_INSERT_USERS_ADRESSES_STATEMENT);
+        var persistent = createPersistent("testdata.onetoone.unidirectional.lazy");
+
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                //when
+                var user = bibernateSession.findById(User.class, 1L).orElseThrow();
+                var sameUser = bibernateSession.findById(User.class, 1L).orElseThrow();
+                user.setFirstName("Changed");
+
+                //then
+                assertThat(sameUser).isSameAs(user);
+            }
+
+            //then
+            assertQueries(bibernateSessionFactory, List.of(
+                    "SELECT * FROM users WHERE users_id = ?;",
+                    "UPDATE users SET users_first_name = ?, users_last_name = ?, users_address_id = ? WHERE users_id = ?;"));
+
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                var user = bibernateSession.findById(User.class, 1L).orElseThrow();
+
+                //then
+                assertThat(user.getFirstName()).isEqualTo("Changed");
+                assertThat(user.getAddress().getId()).isEqualTo(1L);
+            }
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package io.github.blyznytsiaorg.bibernate.persistencecontext;
+
+import io.github.blyznytsiaorg.bibernate.AbstractPostgresInfrastructurePrep;
+import io.github.blyznytsiaorg.bibernate.utils.QueryUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import testdata.findbyid.Person;
+
+import java.util.List;
+
+import static io.github.blyznytsiaorg.bibernate.utils.QueryUtils.assertQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistenceContextTest extends AbstractPostgresInfrastructurePrep {
+
+    private static final String MAX_MANAGED_ENTITIES = "bibernate.session.maxManagedEntities";
+
+    @DisplayName("Should not flush changes of evicted entity")
+    @Test
+    void shouldNotFlushChangesOfEvictedEntity() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_INSERT_STATEMENT);
+
+        var persistent = createPersistent("testdata.findbyid");
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                var person = bibernateSession.findById(Person.class, 1L).orElseThrow();
+
+                //when
+                bibernateSession.evict(person);
+                person.setFirstName("Changed");
+                var reloadedPerson = bibernateSession.findById(Person.class, 1L).orElseThrow();
+
+                //then
+                assertThat(reloadedPerson).isNotSameAs(person);
+                assertThat(reloadedPerson.getFirstName()).isNotEqualTo("Changed");
+            }
+
+            //then
+            assertQueries(bibernateSessionFactory, List.of(
+                    "SELECT * FROM persons WHERE id = ?;",
+                    "SELECT * FROM persons WHERE id = ?;"));
+        }
+    }
+
+    @DisplayName("Should discard managed entities and pending actions on clear")
+    @Test
+    void shouldDiscardManagedEntitiesAndPendingActionsOnClear() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_INSERT_STATEMENT);
+
+        var persistent = createPersistent("testdata.findbyid");
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                var person = bibernateSession.findById(Person.class, 1L).orElseThrow();
+                person.setFirstName("Changed");
+                bibernateSession.deleteById(Person.class, 1L);
+
+                //when
+                bibernateSession.clear();
+            }
+
+            //then
+            assertQueries(bibernateSessionFactory, List.of("SELECT * FROM persons WHERE id = ?;"));
+        }
+    }
+
+    @DisplayName("Should flush and evict least recently used entities above the limit")
+    @Test
+    void shouldFlushAndEvictLeastRecentlyUsedEntitiesAboveLimit() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_INSERT_STATEMENT.repeat(3));
+        bibernateSettings.put(MAX_MANAGED_ENTITIES, "2");
+
+        var persistent = createPersistent("testdata.findbyid");
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                var firstPerson = bibernateSession.findById(Person.class, 1L).orElseThrow();
+                firstPerson.setFirstName("Changed");
+                bibernateSession.findById(Person.class, 2L).orElseThrow();
+
+                //when
+                bibernateSession.findById(Person.class, 3L).orElseThrow();
+                var reloadedFirstPerson = bibernateSession.findById(Person.class, 1L).orElseThrow();
+
+                //then
+                assertThat(reloadedFirstPerson).isNotSameAs(firstPerson);
+                assertThat(reloadedFirstPerson.getFirstName()).isEqualTo("Changed");
+            }
+
+            //then
+            assertQueries(bibernateSessionFactory, List.of(
+                    "SELECT * FROM persons WHERE id = ?;",
+                    "SELECT * FROM persons WHERE id = ?;",
+                    "SELECT * FROM persons WHERE id = ?;",
+                    "UPDATE persons SET first_name = ? WHERE id = ?;",
+                    "SELECT * FROM persons WHERE id = ?;"));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.blyznytsiaorg.bibernate.readonly;
+
+import io.github.blyznytsiaorg.bibernate.AbstractPostgresInfrastructurePrep;
+import io.github.blyznytsiaorg.bibernate.utils.QueryUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import testdata.findbyid.Person;
+
+import java.util.List;
+
+import static io.github.blyznytsiaorg.bibernate.utils.QueryUtils.assertQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadOnlySessionTest extends AbstractPostgresInfrastructurePrep {
+
+    @DisplayName("Should not flush changes of entities loaded by read-only session")
+    @Test
+    void shouldNotFlushChangesOfEntitiesLoadedByReadOnlySession() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_INSERT_STATEMENT);
+
+        var persistent = createPersistent("testdata.findbyid");
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+
+            try (var bibernateSession = bibernateSessionFactory.openReadOnlySession()) {
+                //when
+                var persons = bibernateSession.findAll(Person.class);
+                persons.forEach(person -> person.setFirstName("Changed"));
+
+                //then
+                assertThat(bibernateSession.isDefaultReadOnly()).isTrue();
+                assertThat(persons).isNotEmpty();
+            }
+
+            //then
+            assertQueries(bibernateSessionFactory, List.of("SELECT * FROM persons;"));
+        }
+    }
+
+    @DisplayName("Should load entities read-only only for read-only query")
+    @Test
+    void shouldLoadEntitiesReadOnlyOnlyForReadOnlyQuery() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_INSERT_STATEMENT);
+
+        var persistent = createPersistent("testdata.findbyid");
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                //when
+                var readOnlyPerson = bibernateSession.readOnly(
+                        () -> bibernateSession.findById(Person.class, 1L).orElseThrow());
+                readOnlyPerson.setFirstName("Changed");
+                var managedPerson = bibernateSession.findById(Person.class, 1L).orElseThrow();
+
+                //then
+                assertThat(bibernateSession.isDefaultReadOnly()).isFalse();
+                assertThat(managedPerson).isNotSameAs(readOnlyPerson);
+                assertThat(managedPerson.getFirstName()).isNotEqualTo("Changed");
+            }
+
+            //then
+            assertQueries(bibernateSessionFactory, List.of(
+                    "SELECT * FROM persons WHERE id = ?;",
+                    "SELECT * FROM persons WHERE id = ?;"));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.blyznytsiaorg.bibernate.session;
+
+import io.github.blyznytsiaorg.bibernate.config.BibernateDatabaseSettings;
+import io.github.blyznytsiaorg.bibernate.entity.metadata.EntityMetadata;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BibernateContextHolderTest {
+
+    @AfterEach
+    void tearDown() {
+        BibernateContextHolder.setBibernateEntityMetadata(null);
+        BibernateContextHolder.resetBibernateSessionFactory();
+    }
+
+    @Test
+    @DisplayName("Should not share context with other threads")
+    void shouldNotShareContextWithOtherThreads() {
+        //given
+        BibernateContextHolder.setBibernateEntityMetadata(Map.of());
+        BibernateContextHolder.setBibernateSessionFactory(sessionFactory(Map.of()));
+
+        //when
+        var otherThreadContext = CompletableFuture.supplyAsync(() -> new Object[]{
+                BibernateContextHolder.getBibernateEntityMetadata(),
+                BibernateContextHolder.getBibernateSessionFactory()
+        }).join();
+
+        //then
+        assertThat(otherThreadContext).containsOnlyNulls();
+    }
+
+    @Test
+    @DisplayName("Should resolve entity metadata of the bound session factory")
+    void shouldResolveEntityMetadataOfBoundSessionFactory() {
+        //given
+        Map<Class<?>, EntityMetadata> firstUnitMetadata = Map.of(String.class, mock(EntityMetadata.class));
+        Map<Class<?>, EntityMetadata> secondUnitMetadata = Map.of(Integer.class, mock(EntityMetadata.class));
+        var firstSessionFactory = sessionFactory(firstUnitMetadata);
+        var secondSessionFactory = sessionFactory(secondUnitMetadata);
+        BibernateContextHolder.setBibernateSessionFactory(firstSessionFactory);
+
+        //when
+        var boundMetadata = BibernateContextHolder.callWithBibernateSessionFactory(secondSessionFactory,
+                BibernateContextHolder::getBibernateEntityMetadata);
+
+        //then
+        assertThat(boundMetadata).isSameAs(secondUnitMetadata);
+        assertThat(BibernateContextHolder.getBibernateSessionFactory()).isSameAs(firstSessionFactory);
+        assertThat(BibernateContextHolder.getBibernateEntityMetadata()).isSameAs(firstUnitMetadata);
+    }
+
+    private static BibernateSessionFactory sessionFactory(Map<Class<?>, EntityMetadata> entityMetadata) {
+        var settings = mock(BibernateDatabaseSettings.class);
+        when(settings.getBibernateEntityMetadata()).thenReturn(entityMetadata);
+        var sessionFactory = mock(BibernateSessionFactory.class);
+        when(sessionFactory.getBibernateSettings()).thenReturn(settings);
+        return sessionFactory;
+    }
+}
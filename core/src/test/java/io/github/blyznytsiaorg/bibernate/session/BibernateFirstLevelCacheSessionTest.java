@@ -0,0 +1,173 @@
+package io.github.blyznytsiaorg.bibernate.session;
+
+import io.github.blyznytsiaorg.bibernate.actionqueue.ActionQueue;
+import io.github.blyznytsiaorg.bibernate.actionqueue.impl.UpdateEntityAction;
+import io.github.blyznytsiaorg.bibernate.entity.metadata.EntityMetadata;
+import io.github.blyznytsiaorg.bibernate.entity.metadata.EntityMetadataCollector;
+import io.github.blyznytsiaorg.bibernate.exception.BibernateGeneralException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import testdata.update.withoutdynamic.PersonWithoutDynamicUpdate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BibernateFirstLevelCacheSessionTest {
+
+    private final BibernateSession delegate = mock(BibernateSession.class);
+    private final ActionQueue actionQueue = mock(ActionQueue.class);
+    private static Map<Class<?>, EntityMetadata> entityMetadata;
+
+    @BeforeAll
+    static void beforeAll() {
+        entityMetadata = new EntityMetadataCollector("testdata.update.withoutdynamic").collectMetadata();
+    }
+
+    @Test
+    @DisplayName("Should queue the update of a dirty entity found on flush")
+    void shouldQueueUpdateOfDirtyEntityFoundOnFlush() {
+        //given
+        var session = new BibernateFirstLevelCacheSession(delegate, actionQueue, 0, 0, 0, entityMetadata);
+        when(actionQueue.isNotExecuted()).thenReturn(true);
+        var person = person(1L);
+        when(delegate.findById(eq(PersonWithoutDynamicUpdate.class), any())).thenReturn(Optional.of(person));
+        session.findById(PersonWithoutDynamicUpdate.class, 1L);
+        person.setFirstName("Changed");
+
+        //when
+        session.flush();
+
+        //then
+        verify(actionQueue).addEntityAction(isA(UpdateEntityAction.class));
+        verify(delegate, never()).update(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should name the entity class when its metadata is missing")
+    void shouldNameEntityClassWhenMetadataIsMissing() {
+        //given
+        var session = new BibernateFirstLevelCacheSession(delegate, actionQueue, 0, 0, 0, Map.of());
+        var person = person(1L);
+        when(delegate.findById(eq(PersonWithoutDynamicUpdate.class), any())).thenReturn(Optional.of(person));
+
+        //when
+        //then
+        assertThatThrownBy(() -> session.findById(PersonWithoutDynamicUpdate.class, 1L))
+                .isInstanceOf(BibernateGeneralException.class)
+                .hasMessageContaining(PersonWithoutDynamicUpdate.class.getName());
+    }
+
+    @Test
+    @DisplayName("Should auto-flush a dirty entity of the queried table once before a query")
+    void shouldAutoFlushDirtyEntityOfQueriedTableOnceBeforeQuery() {
+        //given
+        var session = new BibernateFirstLevelCacheSession(delegate, actionQueue, 0, 0, 0, entityMetadata);
+        when(actionQueue.isNotExecuted()).thenReturn(true);
+        var persons = new ArrayList<>(List.of(person(1L), person(2L)));
+        when(delegate.findAll(PersonWithoutDynamicUpdate.class)).thenReturn(persons);
+        session.findAll(PersonWithoutDynamicUpdate.class);
+        persons.get(1).setLastName("Changed");
+
+        //when
+        session.findAll(PersonWithoutDynamicUpdate.class);
+
+        //then
+        verify(actionQueue).addEntityAction(isA(UpdateEntityAction.class));
+        verify(delegate).flush();
+    }
+
+    @Test
+    @DisplayName("Should not auto-flush a clean session before a query")
+    void shouldNotAutoFlushCleanSessionBeforeQuery() {
+        //given
+        var session = new BibernateFirstLevelCacheSession(delegate, actionQueue, 0, 0, 0, entityMetadata);
+        when(delegate.findAll(PersonWithoutDynamicUpdate.class))
+                .thenReturn(new ArrayList<>(List.of(person(1L), person(2L))));
+        session.findAll(PersonWithoutDynamicUpdate.class);
+
+        //when
+        session.findAll(PersonWithoutDynamicUpdate.class);
+
+        //then
+        verify(actionQueue, never()).addEntityAction(any());
+        verify(delegate, never()).flush();
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used clean entities without flushing")
+    void shouldEvictLeastRecentlyUsedCleanEntitiesWithoutFlushing() {
+        //given
+        var session = new BibernateFirstLevelCacheSession(delegate, actionQueue, 4, 0, 0, entityMetadata);
+        session.setFlushMode(FlushMode.COMMIT);
+        var persons = persons(1, 5);
+        when(delegate.findAll(PersonWithoutDynamicUpdate.class)).thenReturn(new ArrayList<>(persons.subList(0, 4)));
+        session.findAll(PersonWithoutDynamicUpdate.class);
+        persons.get(0).setFirstName("Changed");
+        when(delegate.findById(eq(PersonWithoutDynamicUpdate.class), any())).thenReturn(Optional.of(persons.get(4)));
+
+        //when
+        session.findById(PersonWithoutDynamicUpdate.class, 5L);
+
+        //then
+        verify(delegate, never()).flush();
+        verify(actionQueue, never()).addEntityAction(any());
+        assertThat(session.findById(PersonWithoutDynamicUpdate.class, 1L)).containsSame(persons.get(0));
+        assertThat(session.findById(PersonWithoutDynamicUpdate.class, 5L)).containsSame(persons.get(4));
+        verify(delegate, times(1)).findById(eq(PersonWithoutDynamicUpdate.class), any());
+    }
+
+    @Test
+    @DisplayName("Should wait for the cache to grow before evicting again when dirty entities hold it back")
+    void shouldWaitForCacheToGrowBeforeEvictingAgainWhenDirtyEntitiesHoldItBack() {
+        //given
+        var session = new BibernateFirstLevelCacheSession(delegate, actionQueue, 4, 0, 0, entityMetadata);
+        session.setFlushMode(FlushMode.COMMIT);
+        var persons = persons(1, 7);
+        when(delegate.findAll(PersonWithoutDynamicUpdate.class)).thenReturn(new ArrayList<>(persons.subList(0, 4)));
+        session.findAll(PersonWithoutDynamicUpdate.class);
+        persons.subList(0, 4).forEach(person -> person.setFirstName("Changed"));
+        for (var person : persons.subList(4, 7)) {
+            when(delegate.findById(PersonWithoutDynamicUpdate.class, person.getId())).thenReturn(Optional.of(person));
+        }
+        session.findById(PersonWithoutDynamicUpdate.class, 5L);
+        session.findById(PersonWithoutDynamicUpdate.class, 6L);
+
+        //when
+        var sixthBeforeEviction = session.findById(PersonWithoutDynamicUpdate.class, 6L);
+        session.findById(PersonWithoutDynamicUpdate.class, 7L);
+        session.findById(PersonWithoutDynamicUpdate.class, 5L);
+
+        //then
+        assertThat(sixthBeforeEviction).containsSame(persons.get(5));
+        verify(delegate, times(1)).findById(PersonWithoutDynamicUpdate.class, 6L);
+        verify(delegate, times(2)).findById(PersonWithoutDynamicUpdate.class, 5L);
+        verify(delegate, never()).flush();
+    }
+
+    private static List<PersonWithoutDynamicUpdate> persons(long fromId, long toId) {
+        return new ArrayList<>(LongStream.rangeClosed(fromId, toId).mapToObj(id -> person(id)).toList());
+    }
+
+    private static PersonWithoutDynamicUpdate person(Long id) {
+        var person = new PersonWithoutDynamicUpdate();
+        person.setId(id);
+        person.setFirstName("First" + id);
+        person.setLastName("Last" + id);
+        return person;
+    }
+}
@@ -5,6 +5,7 @@ import io.github.blyznytsiaorg.bibernate.utils.QueryUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import testdata.findbyid.Person;
+import testdata.update.selftracking.SelfTrackingPerson;
 import testdata.update.withoutdynamic.PersonWithoutDynamicUpdate;
 
 import java.util.List;
@@ -139,4 +140,91 @@ class DirtyCheckingPersonTest extends AbstractPostgresInfrastructurePrep {
             assertQueries(bibernateSessionFactory, List.of("SELECT * FROM persons WHERE id = ?;"));
         }
     }
+
+    @DisplayName("Should update only the fields a self-tracking entity marked as dirty")
+    @Test
+    void shouldUpdateOnlyTrackedFieldsOfSelfTrackingEntity() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_INSERT_STATEMENT);
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE,
+                CREATE_PERSONS_GENERAL_INSERT_STATEMENT.formatted("John", "Doe"));
+
+        var persistent = createPersistent("testdata.update.selftracking");
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+            String uuid = UUID.randomUUID().toString();
+            String lastName;
+
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                //when
+                var person = bibernateSession.findById(SelfTrackingPerson.class, 1L).orElseThrow();
+                var untouched = bibernateSession.findById(SelfTrackingPerson.class, 2L).orElseThrow();
+                lastName = person.getLastName();
+                person.setLastName(lastName + uuid);
+
+                //then
+                assertThat(person.getDirtyFields()).containsExactly("lastName");
+                assertThat(untouched.hasDirtyFields()).isFalse();
+            }
+
+            //then
+            assertQueries(bibernateSessionFactory, List.of(
+                    "SELECT * FROM persons WHERE id = ?;",
+                    "SELECT * FROM persons WHERE id = ?;",
+                    "UPDATE persons SET last_name = ? WHERE id = ?;")
+            );
+
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                //when
+                var person = bibernateSession.findById(SelfTrackingPerson.class, 1L).orElseThrow();
+
+                //then
+                assertThat(person.getLastName()).isEqualTo(lastName + uuid);
+                assertThat(person.hasDirtyFields()).isFalse();
+            }
+
+            //then
+            assertQueries(bibernateSessionFactory, List.of("SELECT * FROM persons WHERE id = ?;"));
+        }
+    }
+
+    @DisplayName("Should update dirty persons found by parallel dirty checking")
+    @Test
+    void shouldUpdateDirtyPersonsFoundByParallelDirtyChecking() {
+        //given
+        QueryUtils.setupTables(dataSource, CREATE_PERSONS_TABLE, CREATE_PERSONS_INSERT_STATEMENT.repeat(3));
+        bibernateSettings.put("bibernate.session.parallelDirtyCheckingThreshold", "2");
+
+        var persistent = createPersistent("testdata.findbyid");
+        try (var bibernateEntityManager = persistent.createBibernateEntityManager()) {
+            var bibernateSessionFactory = bibernateEntityManager.getBibernateSessionFactory();
+            String uuid = UUID.randomUUID().toString();
+
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                //when
+                var persons = List.of(
+                        bibernateSession.findById(Person.class, 1L).orElseThrow(),
+                        bibernateSession.findById(Person.class, 2L).orElseThrow(),
+                        bibernateSession.findById(Person.class, 3L).orElseThrow());
+                persons.get(2).setFirstName(uuid);
+                persons.get(0).setFirstName(uuid);
+            }
+
+            //then
+            assertQueries(bibernateSessionFactory, List.of(
+                    "SELECT * FROM persons WHERE id = ?;",
+                    "SELECT * FROM persons WHERE id = ?;",
+                    "SELECT * FROM persons WHERE id = ?;",
+                    "UPDATE persons SET first_name = ? WHERE id = ?;",
+                    "UPDATE persons SET first_name = ? WHERE id = ?;")
+            );
+
+            try (var bibernateSession = bibernateSessionFactory.openSession()) {
+                //then
+                assertThat(bibernateSession.findById(Person.class, 1L).orElseThrow().getFirstName()).isEqualTo(uuid);
+                assertThat(bibernateSession.findById(Person.class, 2L).orElseThrow().getFirstName()).isNotEqualTo(uuid);
+                assertThat(bibernateSession.findById(Person.class, 3L).orElseThrow().getFirstName()).isEqualTo(uuid);
+            }
+        }
+    }
 }
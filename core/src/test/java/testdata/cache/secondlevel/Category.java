@@ -0,0 +1,22 @@
+package testdata.cache.secondlevel;
+
+import io.github.blyznytsiaorg.bibernate.annotation.*;
+import io.github.blyznytsiaorg.bibernate.annotation.enumeration.CacheConcurrencyStrategy;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Entity
+@Table(name = "categories")
+@ToString
+@Setter
+@Getter
+@Cacheable(strategy = CacheConcurrencyStrategy.NONSTRICT)
+public class Category {
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "name")
+    private String name;
+}
@@ -0,0 +1,25 @@
+package testdata.cache.secondlevel;
+
+import io.github.blyznytsiaorg.bibernate.annotation.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Entity
+@Table(name = "cities")
+@ToString
+@Setter
+@Getter
+@Immutable
+public class City {
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "name")
+    private String name;
+
+    @ManyToOne
+    @JoinColumn(name = "country_id")
+    private Country country;
+}
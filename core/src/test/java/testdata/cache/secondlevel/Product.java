@@ -0,0 +1,25 @@
+package testdata.cache.secondlevel;
+
+import io.github.blyznytsiaorg.bibernate.annotation.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Entity
+@Table(name = "products")
+@ToString
+@Setter
+@Getter
+@Cacheable
+public class Product {
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "name")
+    private String name;
+
+    @Version
+    @Column(name = "version")
+    private Integer version;
+}
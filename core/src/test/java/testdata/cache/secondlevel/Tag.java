@@ -0,0 +1,21 @@
+package testdata.cache.secondlevel;
+
+import io.github.blyznytsiaorg.bibernate.annotation.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Entity
+@Table(name = "tags")
+@ToString
+@Setter
+@Getter
+@Cacheable
+public class Tag {
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "name")
+    private String name;
+}
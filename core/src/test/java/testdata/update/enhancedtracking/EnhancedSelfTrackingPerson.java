@@ -0,0 +1,25 @@
+package testdata.update.enhancedtracking;
+
+import io.github.blyznytsiaorg.bibernate.annotation.*;
+import io.github.blyznytsiaorg.bibernate.entity.DirtyTrackingEntity;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Entity
+@Table(name = "persons")
+@ToString
+@Getter
+@Setter
+@DynamicUpdate
+public class EnhancedSelfTrackingPerson extends DirtyTrackingEntity {
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "last_name")
+    private String lastName;
+}
@@ -0,0 +1,33 @@
+package testdata.update.selftracking;
+
+import io.github.blyznytsiaorg.bibernate.annotation.*;
+import io.github.blyznytsiaorg.bibernate.entity.DirtyTrackingEntity;
+import lombok.Getter;
+import lombok.ToString;
+
+@Entity
+@Table(name = "persons")
+@ToString
+@Getter
+@DynamicUpdate
+public class SelfTrackingPerson extends DirtyTrackingEntity {
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "last_name")
+    private String lastName;
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+        trackChange("firstName");
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+        trackChange("lastName");
+    }
+}